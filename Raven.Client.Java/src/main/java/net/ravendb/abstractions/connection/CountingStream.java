@@ -30,4 +30,28 @@ public class CountingStream extends InputStream {
     return value;
   }
 
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (inner == null) {
+      return -1;
+    }
+    int read = inner.read(b, off, len);
+    if (read > 0) {
+      numberOfReadBytes += read;
+    }
+    return read;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return inner == null ? 0 : inner.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (inner != null) {
+      inner.close();
+    }
+  }
+
 }
@@ -2,7 +2,8 @@ package net.ravendb.abstractions.connection;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPOutputStream;
+
+import net.ravendb.java.http.client.PooledGzipOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Consts;
@@ -32,7 +33,7 @@ public class HttpRequestHelper {
         requestMethod.setEntity(entity);
       } else {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        GZIPOutputStream gzipOS = new GZIPOutputStream(baos);
+        PooledGzipOutputStream gzipOS = new PooledGzipOutputStream(baos);
         IOUtils.write(postedData, gzipOS, Consts.UTF_8.name());
         IOUtils.closeQuietly(gzipOS);
         ByteArrayEntity entity = new ByteArrayEntity(baos.toByteArray(), ContentType.APPLICATION_JSON);
@@ -175,7 +175,7 @@ public class JsonDocument implements IJsonDocumentMetadata {
     RavenJObject metadata = this.metadata.createSnapshot();
 
     if (lastModified != null) {
-      NetDateFormat ravenDateFormat = new NetDateFormat();
+      NetDateFormat ravenDateFormat = NetDateFormat.getSharedInstance();
 
       SimpleDateFormat dateFormat = new SimpleDateFormat(
               "EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
@@ -2,6 +2,7 @@ package net.ravendb.abstractions.data;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import net.ravendb.abstractions.closure.Function1;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.util.Base62Util;
 import net.ravendb.client.utils.TimeSpan;
@@ -19,6 +20,7 @@ public class SubscriptionConnectionOptions {
     timeToWaitBeforeConnectionRetry = 15 * 1000;
     strategy = SubscriptionOpeningStrategy.OPEN_IF_FREE;
     pullingRequestTimeout = 5 * 60 * 1000L;
+    processingWorkers = 1;
   }
 
   public SubscriptionConnectionOptions(SubscriptionBatchOptions batchOptions) {
@@ -40,6 +42,12 @@ public class SubscriptionConnectionOptions {
 
   private SubscriptionOpeningStrategy strategy;
 
+  private int prefetchDepth;
+
+  private int processingWorkers;
+
+  private Function1<Object, Object> partitionKeyResolver;
+
   public Integer getTimeToWaitBeforeConnectionRetry() {
     return timeToWaitBeforeConnectionRetry;
   }
@@ -96,6 +104,64 @@ public class SubscriptionConnectionOptions {
     this.pullingRequestTimeout = pullingRequestTimeout;
   }
 
+  /**
+   * Number of not yet processed documents below which the next batch is pulled from the server
+   * while the current one is still being processed by subscribers. Zero (default) disables pipelining
+   * and the next batch is pulled only after the previous one was processed and acknowledged.
+   */
+  public int getPrefetchDepth() {
+    return prefetchDepth;
+  }
+
+  /**
+   * Number of not yet processed documents below which the next batch is pulled from the server
+   * while the current one is still being processed by subscribers. Zero (default) disables pipelining
+   * and the next batch is pulled only after the previous one was processed and acknowledged.
+   */
+  public void setPrefetchDepth(int prefetchDepth) {
+    if (prefetchDepth < 0) {
+      throw new IllegalArgumentException("Prefetch depth must be greater or equal to zero");
+    }
+    this.prefetchDepth = prefetchDepth;
+  }
+
+  /**
+   * Number of workers which deliver documents to subscribers. Documents are partitioned between workers
+   * using {@link #getPartitionKeyResolver()}, so documents with the same key are always processed in order
+   * by the same worker. Batch is acknowledged once every worker has processed its part of the batch.
+   * Subscribers are invoked concurrently when more than one worker is used.
+   */
+  public int getProcessingWorkers() {
+    return processingWorkers;
+  }
+
+  /**
+   * Number of workers which deliver documents to subscribers. Documents are partitioned between workers
+   * using {@link #getPartitionKeyResolver()}, so documents with the same key are always processed in order
+   * by the same worker. Batch is acknowledged once every worker has processed its part of the batch.
+   * Subscribers are invoked concurrently when more than one worker is used.
+   */
+  public void setProcessingWorkers(int processingWorkers) {
+    if (processingWorkers < 1) {
+      throw new IllegalArgumentException("Number of processing workers must be greater than zero");
+    }
+    this.processingWorkers = processingWorkers;
+  }
+
+  /**
+   * Function which returns partition key for delivered document. If not set document id is used.
+   */
+  public Function1<Object, Object> getPartitionKeyResolver() {
+    return partitionKeyResolver;
+  }
+
+  /**
+   * Function which returns partition key for delivered document. If not set document id is used.
+   */
+  public void setPartitionKeyResolver(Function1<Object, Object> partitionKeyResolver) {
+    this.partitionKeyResolver = partitionKeyResolver;
+  }
+
   @SuppressWarnings("boxing")
   public RavenJObject toRavenObject() {
     RavenJObject result = new RavenJObject();
@@ -31,6 +31,7 @@ import net.ravendb.client.document.FailoverBehavior;
 import net.ravendb.client.document.FailoverBehaviorSet;
 
 import org.apache.commons.lang.StringUtils;
+import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonGenerationException;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
@@ -57,6 +58,17 @@ import org.codehaus.jackson.type.JavaType;
 
 public class JsonExtensions {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Returns factory shared by parsers and generators working on raw JSON. Sharing it lets parsers reuse
+   * canonicalized property names, while Jackson recycles their buffers per thread.
+   * Factory must not be reconfigured.
+   */
+  public static JsonFactory getDefaultJsonFactory() {
+    return JSON_FACTORY;
+  }
+
   public static ObjectMapper createDefaultJsonSerializer() {
     ObjectMapper objectMapper = new ObjectMapper();
     objectMapper.setPropertyNamingStrategy(new DotNetNamingStrategy());
@@ -227,7 +227,7 @@ public class MetadataExtensions {
       return RavenJArray.parse(val);
     }
 
-    NetDateFormat netDateFormat = new NetDateFormat();
+    NetDateFormat netDateFormat = NetDateFormat.getSharedInstance();
     try {
       Date date = netDateFormat.parse(val);
       return new RavenJValue(date);
@@ -10,6 +10,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 
+import net.ravendb.abstractions.extensions.JsonExtensions;
 import net.ravendb.abstractions.json.linq.JTokenType;
 import net.ravendb.abstractions.json.linq.RavenJArray;
 import net.ravendb.abstractions.json.linq.RavenJObject;
@@ -238,7 +239,7 @@ public class ConflictsResolver {
 
   private MergeResult generateOutput(Map<String, Object> result, int indent) throws JsonGenerationException, IOException {
 
-    JsonFactory factory = new JsonFactory();
+    JsonFactory factory = JsonExtensions.getDefaultJsonFactory();
     StringWriter documentStringWriter = new StringWriter();
     JsonGenerator documentWriter = factory.createJsonGenerator(documentStringWriter);
 
@@ -0,0 +1,75 @@
+package net.ravendb.abstractions.json;
+
+import java.io.IOException;
+
+import net.ravendb.abstractions.data.Constants;
+
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonStreamContext;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.util.JsonParserDelegate;
+
+/**
+ * Parser which hides document metadata from the data binder, so an entity can be bound directly from
+ * the streamed document. Only document key and etag are read from the metadata.
+ * Parser has to be created when underlying parser is positioned at the start of the document.
+ */
+public class MetadataExtractingJsonParser extends JsonParserDelegate {
+
+  private final JsonStreamContext documentContext;
+  private String documentId;
+  private String documentEtag;
+
+  public MetadataExtractingJsonParser(JsonParser parser) {
+    super(parser);
+    if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("Expected start of the document, but got: " + parser.getCurrentToken());
+    }
+    documentContext = parser.getParsingContext();
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException, JsonParseException {
+    JsonToken token = delegate.nextToken();
+    while (token == JsonToken.FIELD_NAME && delegate.getParsingContext() == documentContext
+      && Constants.METADATA.equals(delegate.getCurrentName())) {
+      readMetadata();
+      token = delegate.nextToken();
+    }
+    return token;
+  }
+
+  private void readMetadata() throws IOException {
+    if (delegate.nextToken() != JsonToken.START_OBJECT) {
+      delegate.skipChildren();
+      return;
+    }
+    while (delegate.nextToken() == JsonToken.FIELD_NAME) {
+      String name = delegate.getCurrentName();
+      JsonToken valueToken = delegate.nextToken();
+      if (valueToken == JsonToken.VALUE_STRING && "@id".equals(name)) {
+        documentId = delegate.getText();
+      } else if (valueToken == JsonToken.VALUE_STRING && "@etag".equals(name)) {
+        documentEtag = delegate.getText();
+      } else {
+        delegate.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * @return value of @metadata.@id or null if document doesn't contain it
+   */
+  public String getDocumentId() {
+    return documentId;
+  }
+
+  /**
+   * @return value of @metadata.@etag or null if document doesn't contain it
+   */
+  public String getDocumentEtag() {
+    return documentEtag;
+  }
+
+}
@@ -0,0 +1,268 @@
+package net.ravendb.abstractions.json.linq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Property storage used by {@link DictionaryWithParentSnapshot}.
+ *
+ * Entries are kept in insertion order in dense arrays. Objects with more than {@link #LINEAR_SCAN_LIMIT}
+ * properties get an open addressing index on top of them. Instance can be shared by many dictionaries -
+ * owner copies it before first modification (see {@link #copy()}), so snapshot is O(1) and never
+ * creates chain of parents.
+ */
+final class CompactPropertyMap {
+
+  private static final int LINEAR_SCAN_LIMIT = 8;
+  private static final int INITIAL_CAPACITY = 4;
+
+  private final Comparator<String> comparer;
+  private final boolean caseInsensitive;
+
+  private String[] keys;
+  private RavenJToken[] values;
+  private int[] hashes;
+
+  /**
+   * Number of used entry slots (including removed ones).
+   */
+  private int used;
+
+  /**
+   * Number of live entries.
+   */
+  private int count;
+
+  /**
+   * Open addressing index: entry position + 1, 0 means empty slot. Null for small maps.
+   */
+  private int[] index;
+
+  CompactPropertyMap(Comparator<String> comparer) {
+    this.comparer = comparer;
+    this.caseInsensitive = comparer == String.CASE_INSENSITIVE_ORDER;
+    this.keys = new String[INITIAL_CAPACITY];
+    this.values = new RavenJToken[INITIAL_CAPACITY];
+    this.hashes = new int[INITIAL_CAPACITY];
+  }
+
+  private CompactPropertyMap(CompactPropertyMap other) {
+    this.comparer = other.comparer;
+    this.caseInsensitive = other.caseInsensitive;
+    if (other.used == other.count) {
+      this.keys = Arrays.copyOf(other.keys, Math.max(INITIAL_CAPACITY, other.keys.length));
+      this.values = Arrays.copyOf(other.values, this.keys.length);
+      this.hashes = Arrays.copyOf(other.hashes, this.keys.length);
+      this.used = other.used;
+      this.count = other.count;
+      this.index = (other.index != null) ? other.index.clone() : null;
+    } else {
+      // compact removed entries while copying
+      int capacity = Math.max(INITIAL_CAPACITY, other.count + 1);
+      this.keys = new String[capacity];
+      this.values = new RavenJToken[capacity];
+      this.hashes = new int[capacity];
+      for (int i = 0; i < other.used; i++) {
+        if (other.keys[i] != null) {
+          keys[used] = other.keys[i];
+          values[used] = other.values[i];
+          hashes[used] = other.hashes[i];
+          used++;
+        }
+      }
+      this.count = used;
+      rebuildIndex();
+    }
+  }
+
+  Comparator<String> getComparer() {
+    return comparer;
+  }
+
+  CompactPropertyMap copy() {
+    return new CompactPropertyMap(this);
+  }
+
+  int size() {
+    return count;
+  }
+
+  int findEntry(String key) {
+    int hash = hash(key);
+    if (index == null) {
+      for (int i = 0; i < used; i++) {
+        if (hashes[i] == hash && keys[i] != null && keyEquals(keys[i], key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    int mask = index.length - 1;
+    int slot = hash & mask;
+    while (true) {
+      int entry = index[slot] - 1;
+      if (entry < 0) {
+        return -1;
+      }
+      if (hashes[entry] == hash && keys[entry] != null && keyEquals(keys[entry], key)) {
+        return entry;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  boolean containsKey(String key) {
+    return findEntry(key) >= 0;
+  }
+
+  RavenJToken get(String key) {
+    int entry = findEntry(key);
+    return (entry >= 0) ? values[entry] : null;
+  }
+
+  /**
+   * @return previous value
+   */
+  RavenJToken put(String key, RavenJToken value) {
+    int entry = findEntry(key);
+    if (entry >= 0) {
+      RavenJToken previous = values[entry];
+      values[entry] = value;
+      return previous;
+    }
+    if (used == keys.length) {
+      grow();
+    }
+    int hash = hash(key);
+    keys[used] = key;
+    values[used] = value;
+    hashes[used] = hash;
+    used++;
+    count++;
+    if (index != null) {
+      if (used * 2 > index.length) {
+        rebuildIndex();
+      } else {
+        insertIntoIndex(hash, used - 1);
+      }
+    } else if (used > LINEAR_SCAN_LIMIT) {
+      rebuildIndex();
+    }
+    return null;
+  }
+
+  /**
+   * Removes entry, leaving empty slot in entries array, so positions used by index and pending iterators stay valid.
+   * @return true if entry was removed
+   */
+  boolean remove(String key) {
+    int entry = findEntry(key);
+    if (entry < 0) {
+      return false;
+    }
+    keys[entry] = null;
+    values[entry] = null;
+    count--;
+    return true;
+  }
+
+  int getUsed() {
+    return used;
+  }
+
+  String[] getKeys() {
+    return keys;
+  }
+
+  RavenJToken[] getValues() {
+    return values;
+  }
+
+  private void grow() {
+    if (count < used) {
+      // reclaim removed entries first
+      compact();
+      if (used < keys.length) {
+        return;
+      }
+    }
+    int capacity = keys.length * 2;
+    keys = Arrays.copyOf(keys, capacity);
+    values = Arrays.copyOf(values, capacity);
+    hashes = Arrays.copyOf(hashes, capacity);
+  }
+
+  private void compact() {
+    String[] newKeys = new String[keys.length];
+    RavenJToken[] newValues = new RavenJToken[keys.length];
+    int[] newHashes = new int[keys.length];
+    int position = 0;
+    for (int i = 0; i < used; i++) {
+      if (keys[i] != null) {
+        newKeys[position] = keys[i];
+        newValues[position] = values[i];
+        newHashes[position] = hashes[i];
+        position++;
+      }
+    }
+    keys = newKeys;
+    values = newValues;
+    hashes = newHashes;
+    used = position;
+    rebuildIndex();
+  }
+
+  private void rebuildIndex() {
+    if (used <= LINEAR_SCAN_LIMIT) {
+      index = null;
+      return;
+    }
+    int capacity = Integer.highestOneBit(used * 4 - 1) << 1;
+    index = new int[capacity];
+    for (int i = 0; i < used; i++) {
+      insertIntoIndex(hashes[i], i);
+    }
+  }
+
+  private void insertIntoIndex(int hash, int entry) {
+    int mask = index.length - 1;
+    int slot = hash & mask;
+    while (index[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = entry + 1;
+  }
+
+  private boolean keyEquals(String stored, String key) {
+    if (stored == key) {
+      return true;
+    }
+    if (comparer == null) {
+      return stored.equals(key);
+    }
+    if (caseInsensitive) {
+      return stored.equalsIgnoreCase(key);
+    }
+    return comparer.compare(stored, key) == 0;
+  }
+
+  /**
+   * Hash consistent with key equality. Custom comparers (other than case insensitive one) can't be
+   * hashed, so all their keys share the same bucket.
+   */
+  private int hash(String key) {
+    int h;
+    if (comparer == null) {
+      h = key.hashCode();
+    } else if (caseInsensitive) {
+      h = 0;
+      for (int i = 0; i < key.length(); i++) {
+        h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+      }
+    } else {
+      return 0;
+    }
+    return h ^ (h >>> 16);
+  }
+
+}
@@ -1,46 +1,94 @@
 package net.ravendb.abstractions.json.linq;
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import net.ravendb.abstractions.basic.Reference;
 
-
+/**
+ * Properties of {@link RavenJObject}.
+ *
+ * Snapshot shares property storage with dictionary it was created from and copies it on first modification,
+ * so lookups never walk through chain of parents, no matter how many snapshots were taken.
+ */
 public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, Iterable<Map.Entry<String, RavenJToken>> {
 
   private final Comparator<String> comparer;
 
   private static final RavenJToken DELETED_MARKER = new RavenJValue("*DeletedMarker*", JTokenType.NULL);
 
-  private final DictionaryWithParentSnapshot parentSnapshot;
-  private int count;
-  private Map<String, RavenJToken> localChanges;
+  /**
+   * Storage of snapshot this dictionary was created from. Never modified.
+   */
+  private final CompactPropertyMap parentProperties;
+  private CompactPropertyMap properties;
+
+  /**
+   * Set when properties storage is shared with other dictionary and has to be copied before modification.
+   */
+  private boolean shared;
+  private Set<String> removedKeys;
   private String snapshotMsg;
   private boolean snapshot;
 
+  /**
+   * Returns properties added, modified or removed (marked with deleted marker) in this dictionary,
+   * comparing to snapshot it was created from.
+   */
   public Map<String, RavenJToken> getLocalChanges() {
-    if (localChanges == null) {
-      localChanges = new TreeMap<> (comparer);
+    Map<String, RavenJToken> localChanges = new TreeMap<>(comparer);
+    if (removedKeys != null) {
+      for (String key : removedKeys) {
+        localChanges.put(key, DELETED_MARKER);
+      }
+    }
+    String[] keys = properties.getKeys();
+    RavenJToken[] values = properties.getValues();
+    for (int i = 0; i < properties.getUsed(); i++) {
+      if (keys[i] == null) {
+        continue;
+      }
+      if (parentProperties == null || !parentProperties.containsKey(keys[i]) || parentProperties.get(keys[i]) != values[i]) {
+        localChanges.put(keys[i], values[i]);
+      }
     }
     return localChanges;
   }
 
   public DictionaryWithParentSnapshot(Comparator<String> comparer) {
     this.comparer = comparer;
-    this.parentSnapshot = null;
+    this.parentProperties = null;
+    this.properties = new CompactPropertyMap(comparer);
   }
 
 
   public DictionaryWithParentSnapshot(DictionaryWithParentSnapshot previous) {
-    this.parentSnapshot = previous;
     this.comparer = previous.comparer;
+    this.parentProperties = previous.properties;
+    this.properties = previous.properties;
+    this.shared = true;
+    previous.shared = true;
+  }
+
+  private void ensureCanModify() {
+    if (isSnapshot()) {
+      throw new IllegalStateException(snapshotMsg != null ? snapshotMsg
+        : "Cannot modify a snapshot, this is probably a bug");
+    }
+    if (shared) {
+      properties = properties.copy();
+      shared = false;
+    }
   }
 
   /* (non-Javadoc)
@@ -48,14 +96,11 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public RavenJToken put(String key, RavenJToken value) {
-    if (isSnapshot()) {
-      throw new IllegalStateException(snapshotMsg != null ? snapshotMsg
-        : "Cannot modify a snapshot, this is probably a bug");
-    }
-    if (!containsKey(key)) {
-      count++;
+    ensureCanModify();
+    properties.put(key, value);
+    if (removedKeys != null) {
+      removedKeys.remove(key);
     }
-    getLocalChanges().put(key, value);
     return value;
   }
 
@@ -64,45 +109,32 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public boolean containsKey(Object keyObject) {
-    String key = (String) keyObject;
-    RavenJToken token;
-    if (getLocalChanges().containsKey(key)) {
-      token = getLocalChanges().get(key);
-      if (token == DELETED_MARKER) {
-        return false;
-      }
-      return true;
-    }
-    return (parentSnapshot != null && parentSnapshot.containsKey(key) && parentSnapshot.get(key) != DELETED_MARKER);
+    return properties.containsKey((String) keyObject);
   }
 
-  /* (non-Javadoc)
+  /**
+   * Returns live view of keys.
    * @see java.util.Map#keySet()
    */
   @Override
   public Set<String> keySet() {
-    if (getLocalChanges().isEmpty()) {
-      if (parentSnapshot != null) {
-        return parentSnapshot.keySet();
+    return new AbstractSet<String>() {
+      @SuppressWarnings("synthetic-access")
+      @Override
+      public Iterator<String> iterator() {
+        return new KeyIterator();
       }
-      return new HashSet<>();
-    }
 
-    Set<String> ret = new HashSet<>();
-    if (parentSnapshot != null) {
-      for (String key : parentSnapshot.keySet()) {
-        if (!getLocalChanges().containsKey(key)) {
-          ret.add(key);
-        }
-      }
-    }
-    for (String key : getLocalChanges().keySet()) {
-      if (getLocalChanges().containsKey(key) && getLocalChanges().get(key) != DELETED_MARKER) {
-        ret.add(key);
+      @Override
+      public int size() {
+        return DictionaryWithParentSnapshot.this.size();
       }
-    }
 
-    return ret;
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+    };
   }
 
   /* (non-Javadoc)
@@ -114,30 +146,16 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
     if (isSnapshot()) {
       throw new IllegalStateException("Cannot modify a snapshot, this is probably a bug");
     }
-    boolean parentHasIt = false;
-    RavenJToken parentToken = null;
-
-    if (parentSnapshot != null) {
-      parentToken = parentSnapshot.get(key);
-      if (parentToken != null) {
-        parentHasIt = true;
-      }
-    }
-
-    if (!getLocalChanges().containsKey(key)) {
-      if (parentHasIt && parentToken != DELETED_MARKER) {
-        getLocalChanges().put(key, DELETED_MARKER);
-        count--;
-        return parentToken;
-      }
+    if (!properties.containsKey(key)) {
       return null;
     }
-    RavenJToken token = getLocalChanges().get(key);
-    if (token == DELETED_MARKER) {
-      return null;
+    RavenJToken token = get(key);
+    ensureCanModify();
+    properties.remove(key);
+    if (removedKeys == null) {
+      removedKeys = (comparer != null) ? new TreeSet<>(comparer) : new LinkedHashSet<String>();
     }
-    count--;
-    getLocalChanges().put(key, DELETED_MARKER);
+    removedKeys.add(key);
     return token;
   }
 
@@ -147,23 +165,19 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
   @Override
   public RavenJToken get(Object keyObject) {
     String key = (String) keyObject;
-    if (getLocalChanges().containsKey(key)) {
-      RavenJToken unsafeVal = getLocalChanges().get(key);
-      if (unsafeVal == DELETED_MARKER) {
-        return null;
-      }
-      return unsafeVal;
-    }
-    if (parentSnapshot == null || !parentSnapshot.containsKey(key) || parentSnapshot.get(key) == DELETED_MARKER) {
-      return null;
+    RavenJToken value = properties.get(key);
+    if (value != null && !isSnapshot() && !value.isSnapshot() && value.getType() != JTokenType.OBJECT && isInherited(key, value)) {
+      // value is shared with parent snapshot, so it can't be changed in place
+      value.ensureCannotBeChangeAndEnableShapshotting();
     }
-    RavenJToken unsafeVal = parentSnapshot.get(key);
-    if (!isSnapshot() && unsafeVal != null) {
-      if (!unsafeVal.isSnapshot() && unsafeVal.getType() != JTokenType.OBJECT) {
-        unsafeVal.ensureCannotBeChangeAndEnableShapshotting();
-      }
+    return value;
+  }
+
+  private boolean isInherited(String key, RavenJToken value) {
+    if (parentProperties == null) {
+      return false;
     }
-    return unsafeVal;
+    return properties == parentProperties || parentProperties.get(key) == value;
   }
 
   /* (non-Javadoc)
@@ -171,9 +185,9 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public Collection<RavenJToken> values() {
-    Collection<RavenJToken> tokens = new ArrayList<>();
-    for (String key : keySet()) {
-      tokens.add(get(key));
+    Collection<RavenJToken> tokens = new ArrayList<>(size());
+    for (Map.Entry<String, RavenJToken> entry : this) {
+      tokens.add(get(entry.getKey()));
     }
     return tokens;
   }
@@ -194,7 +208,7 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public void clear() {
-    for (String key : keySet()) {
+    for (String key : new ArrayList<>(keySet())) {
       remove(key);
     }
   }
@@ -230,7 +244,7 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public Set<Entry<String, RavenJToken>> entrySet() {
-    Set<Entry<String, RavenJToken>> entries = new HashSet<>();
+    Set<Entry<String, RavenJToken>> entries = new LinkedHashSet<>();
     Iterator<java.util.Map.Entry<String, RavenJToken>> iterator = iterator();
     while (iterator.hasNext()) {
       entries.add(iterator.next());
@@ -243,10 +257,7 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
    */
   @Override
   public int size() {
-    if (parentSnapshot != null) {
-      return count + parentSnapshot.size();
-    }
-    return count;
+    return properties.size();
   }
 
   public void ensureSnapshot() {
@@ -260,85 +271,75 @@ public class DictionaryWithParentSnapshot implements Map<String, RavenJToken>, I
 
   @Override
   public Iterator<java.util.Map.Entry<String, RavenJToken>> iterator() {
-    return new DictionaryInterator();
+    return new EntryIterator();
   }
 
   public boolean tryGetValue(String key, Reference<RavenJToken> value) {
     value.value = null;
-    Reference<RavenJToken> unsafeVal = new Reference<>();
-    if (getLocalChanges() != null && getLocalChanges().containsKey(key)) {
-      unsafeVal.value = getLocalChanges().get(key);
-      if (DELETED_MARKER.equals(unsafeVal.value)) return false;
-
-      value.value = unsafeVal.value;
-      return true;
-    }
-
-    if (parentSnapshot == null ||
-      !parentSnapshot.tryGetValue(key, unsafeVal) ||
-      DELETED_MARKER.equals(unsafeVal.value)) return false;
-
-    if (!isSnapshot() && unsafeVal.value != null) {
-      if (unsafeVal.value.isSnapshot() && JTokenType.OBJECT.equals(unsafeVal.value.getType()))
-        unsafeVal.value.ensureCannotBeChangeAndEnableShapshotting();
+    if (!properties.containsKey(key)) {
+      return false;
     }
-
-    value.value = unsafeVal.value;
-
+    value.value = get(key);
     return true;
   }
 
-  class DictionaryInterator implements Iterator<java.util.Map.Entry<String, RavenJToken>> {
-
-    private boolean parentProcessed = false;
-    private Iterator<java.util.Map.Entry<String, RavenJToken>> parentIterator;
-    private Iterator<java.util.Map.Entry<String, RavenJToken>> localIterator;
+  /**
+   * Iterates over storage captured at creation time, so modifications made during iteration
+   * never invalidate it.
+   */
+  private abstract class StorageIterator<T> implements Iterator<T> {
+    private final String[] keys;
+    private final int used;
+    protected int position = -1;
+    private int nextPosition = -1;
 
     @SuppressWarnings("synthetic-access")
-    private Iterator<java.util.Map.Entry<String, RavenJToken>> getCurrentIterator() {
-      if (!parentProcessed) {
-        if (parentSnapshot != null) {
-          if (parentIterator == null) {
-            parentIterator = parentSnapshot.iterator();
-          }
-          if (parentIterator.hasNext()) {
-            return parentIterator;
-          } else {
-            //no more elements in parent iterator
-            parentProcessed = true;
-          }
-        } else {
-          parentProcessed = true;
-        }
-      }
-      if (localIterator == null) {
-        Map<String, RavenJToken> entrySetMap = new HashMap<>();
-        for (Map.Entry<String, RavenJToken> entry: getLocalChanges().entrySet()) {
-          if (entry.getValue() != DELETED_MARKER) {
-            entrySetMap.put(entry.getKey(), entry.getValue());
-          }
-        }
-        localIterator = entrySetMap.entrySet().iterator();
+    protected StorageIterator() {
+      this.keys = properties.getKeys();
+      this.used = properties.getUsed();
+      advance();
+    }
 
+    private void advance() {
+      nextPosition++;
+      while (nextPosition < used && keys[nextPosition] == null) {
+        nextPosition++;
       }
-      return localIterator;
     }
 
     @Override
     public boolean hasNext() {
-      return getCurrentIterator().hasNext();
+      return nextPosition < used;
     }
 
-    @Override
-    public java.util.Map.Entry<String, RavenJToken> next() {
-      return getCurrentIterator().next();
+    protected String nextKey() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      position = nextPosition;
+      advance();
+      return keys[position];
     }
 
     @Override
     public void remove() {
       throw new IllegalStateException("Deleting elements in iterator is not implemneted!");
     }
+  }
 
+  private class KeyIterator extends StorageIterator<String> {
+    @Override
+    public String next() {
+      return nextKey();
+    }
+  }
+
+  private class EntryIterator extends StorageIterator<Map.Entry<String, RavenJToken>> {
+    @Override
+    public Map.Entry<String, RavenJToken> next() {
+      String key = nextKey();
+      return new SimpleEntry<>(key, get(key));
+    }
   }
 
 }
@@ -139,7 +139,7 @@ public class Extensions {
       return (U) value.getValue().toString();
     }
     if (clazz.equals(Date.class) && value.getValue().getClass().equals(String.class)) {
-      NetDateFormat sdf = new NetDateFormat();
+      NetDateFormat sdf = NetDateFormat.getSharedInstance();
       try {
         return (U) sdf.parse((String) value.getValue());
       } catch (ParseException e) {
@@ -0,0 +1,289 @@
+package net.ravendb.abstractions.json.linq;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.ravendb.abstractions.exceptions.JsonReaderException;
+import net.ravendb.abstractions.extensions.JsonExtensions;
+
+import org.apache.http.Consts;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+/**
+ * Raw JSON of {@link RavenJObject} which was not parsed yet.
+ *
+ * Top level properties are indexed on first access and parsed one by one, when requested. Parsed values and
+ * removed properties are remembered, so object materialized later reflects all changes made to them.
+ * Buffer and index are never modified, so they are shared by copies.
+ */
+final class LazyObjectSource {
+
+  private static final int LINEAR_SCAN_LIMIT = 8;
+
+  private final byte[] buffer;
+  private final int start;
+  private final int end;
+
+  private String[] keys;
+  private int[] valueStarts;
+  private int[] valueEnds;
+  private Map<String, Integer> positions;
+
+  private Map<String, RavenJToken> parsedValues;
+  private Set<String> removedKeys;
+
+  private boolean snapshot;
+  private String snapshotMsg;
+
+  LazyObjectSource(byte[] buffer, int start, int end) {
+    this.buffer = buffer;
+    this.start = start;
+    this.end = end;
+  }
+
+  private LazyObjectSource(LazyObjectSource other) {
+    this.buffer = other.buffer;
+    this.start = other.start;
+    this.end = other.end;
+    this.keys = other.keys;
+    this.valueStarts = other.valueStarts;
+    this.valueEnds = other.valueEnds;
+    this.positions = other.positions;
+    if (other.parsedValues != null) {
+      parsedValues = new HashMap<>();
+      for (Map.Entry<String, RavenJToken> entry : other.parsedValues.entrySet()) {
+        parsedValues.put(entry.getKey(), entry.getValue() != null ? entry.getValue().cloneToken() : null);
+      }
+    }
+    if (other.removedKeys != null) {
+      removedKeys = new HashSet<>(other.removedKeys);
+    }
+  }
+
+  /**
+   * Creates copy, which is not snapshot. Values parsed so far are cloned, rest is still shared raw JSON.
+   */
+  LazyObjectSource copy() {
+    return new LazyObjectSource(this);
+  }
+
+  private void ensureIndexed() {
+    if (keys != null) {
+      return;
+    }
+    int capacity = 8;
+    String[] newKeys = new String[capacity];
+    int[] newStarts = new int[capacity];
+    int[] newEnds = new int[capacity];
+    int count = 0;
+    RawJsonScanner.ContainerCursor cursor = new RawJsonScanner.ContainerCursor(buffer, start, end);
+    while (cursor.next()) {
+      if (count == capacity) {
+        capacity *= 2;
+        String[] grownKeys = new String[capacity];
+        int[] grownStarts = new int[capacity];
+        int[] grownEnds = new int[capacity];
+        System.arraycopy(newKeys, 0, grownKeys, 0, count);
+        System.arraycopy(newStarts, 0, grownStarts, 0, count);
+        System.arraycopy(newEnds, 0, grownEnds, 0, count);
+        newKeys = grownKeys;
+        newStarts = grownStarts;
+        newEnds = grownEnds;
+      }
+      newKeys[count] = cursor.getName();
+      newStarts[count] = cursor.getValueStart();
+      newEnds[count] = cursor.getValueEnd();
+      count++;
+    }
+    if (count > LINEAR_SCAN_LIMIT) {
+      Map<String, Integer> newPositions = new HashMap<>(count * 2);
+      for (int i = count - 1; i >= 0; i--) {
+        newPositions.put(newKeys[i], Integer.valueOf(i));
+      }
+      positions = newPositions;
+    }
+    String[] trimmedKeys = new String[count];
+    System.arraycopy(newKeys, 0, trimmedKeys, 0, count);
+    valueStarts = newStarts;
+    valueEnds = newEnds;
+    keys = trimmedKeys;
+  }
+
+  private int find(String key) {
+    ensureIndexed();
+    if (positions != null) {
+      Integer position = positions.get(key);
+      return (position != null) ? position.intValue() : -1;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean isRemoved(String key) {
+    return removedKeys != null && removedKeys.contains(key);
+  }
+
+  boolean containsKey(String key) {
+    return !isRemoved(key) && find(key) >= 0;
+  }
+
+  RavenJToken get(String key) {
+    if (isRemoved(key)) {
+      return null;
+    }
+    if (parsedValues != null && parsedValues.containsKey(key)) {
+      return parsedValues.get(key);
+    }
+    int position = find(key);
+    if (position < 0) {
+      return null;
+    }
+    RavenJToken value = parseToken(buffer, valueStarts[position], valueEnds[position]);
+    if (parsedValues == null) {
+      parsedValues = new HashMap<>();
+    }
+    parsedValues.put(key, value);
+    return value;
+  }
+
+  boolean remove(String key) {
+    if (snapshot) {
+      throw new IllegalStateException(snapshotMsg != null ? snapshotMsg : "Cannot modify a snapshot, this is probably a bug");
+    }
+    if (!containsKey(key)) {
+      return false;
+    }
+    if (removedKeys == null) {
+      removedKeys = new HashSet<>();
+    }
+    removedKeys.add(key);
+    if (parsedValues != null) {
+      parsedValues.remove(key);
+    }
+    return true;
+  }
+
+  int size() {
+    ensureIndexed();
+    return keys.length - ((removedKeys != null) ? removedKeys.size() : 0);
+  }
+
+  boolean isSnapshot() {
+    return snapshot;
+  }
+
+  void ensureSnapshot(String msg) {
+    snapshot = true;
+    snapshotMsg = msg;
+  }
+
+  /**
+   * Parses remaining properties. Values returned so far are put into created dictionary as they are.
+   */
+  DictionaryWithParentSnapshot materialize() {
+    DictionaryWithParentSnapshot properties = new DictionaryWithParentSnapshot((Comparator<String>) null);
+    try (JsonParser parser = JsonExtensions.getDefaultJsonFactory().createJsonParser(buffer, start, end - start)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonReaderException("Expected JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String key = parser.getCurrentName();
+        parser.nextToken();
+        if (isRemoved(key)) {
+          parser.skipChildren();
+        } else if (parsedValues != null && parsedValues.containsKey(key)) {
+          parser.skipChildren();
+          properties.put(key, parsedValues.get(key));
+        } else {
+          properties.put(key, RavenJToken.readFrom(parser));
+        }
+      }
+    } catch (IOException e) {
+      throw new JsonReaderException(e.getMessage(), e);
+    }
+    if (snapshot) {
+      properties.ensureSnapshot(snapshotMsg);
+    }
+    return properties;
+  }
+
+  /**
+   * Writes object copying raw JSON of properties which were not parsed.
+   */
+  void writeTo(JsonGenerator writer) throws IOException {
+    if ((parsedValues == null || parsedValues.isEmpty()) && (removedKeys == null || removedKeys.isEmpty())) {
+      writer.writeRawValue(new String(buffer, start, end - start, Consts.UTF_8));
+      return;
+    }
+    ensureIndexed();
+    writer.writeStartObject();
+    for (int i = 0; i < keys.length; i++) {
+      String key = keys[i];
+      if (isRemoved(key)) {
+        continue;
+      }
+      writer.writeFieldName(key);
+      if (parsedValues != null && parsedValues.containsKey(key)) {
+        RavenJToken value = parsedValues.get(key);
+        if (value == null) {
+          writer.writeNull();
+        } else {
+          value.writeTo(writer);
+        }
+      } else {
+        writer.writeRawValue(new String(buffer, valueStarts[i], valueEnds[i] - valueStarts[i], Consts.UTF_8));
+      }
+    }
+    writer.writeEndObject();
+  }
+
+  /**
+   * Parses top level object eagerly, keeping objects in given arrays as raw JSON.
+   */
+  static RavenJToken parseWithLazyArrayItems(byte[] buffer, int start, int end, Set<String> lazyArrays) {
+    int first = RawJsonScanner.skipWhitespace(buffer, start, end);
+    if (first == end || buffer[first] != '{') {
+      return parseToken(buffer, start, end);
+    }
+    RawJsonScanner.ContainerCursor cursor = new RawJsonScanner.ContainerCursor(buffer, first, end);
+    RavenJObject result = new RavenJObject();
+    while (cursor.next()) {
+      String name = cursor.getName();
+      if (lazyArrays.contains(name) && cursor.getValueFirstByte() == '[') {
+        RavenJArray array = new RavenJArray();
+        RawJsonScanner.ContainerCursor items = new RawJsonScanner.ContainerCursor(buffer, cursor.getValueStart(), cursor.getValueEnd());
+        while (items.next()) {
+          if (items.getValueFirstByte() == '{') {
+            array.add(new RavenJObject(new LazyObjectSource(buffer, items.getValueStart(), items.getValueEnd())));
+          } else {
+            array.add(parseToken(buffer, items.getValueStart(), items.getValueEnd()));
+          }
+        }
+        result.set(name, array);
+      } else {
+        result.set(name, parseToken(buffer, cursor.getValueStart(), cursor.getValueEnd()));
+      }
+    }
+    return result;
+  }
+
+  private static RavenJToken parseToken(byte[] buffer, int start, int end) {
+    try (JsonParser parser = JsonExtensions.getDefaultJsonFactory().createJsonParser(buffer, start, end - start)) {
+      parser.nextToken();
+      return RavenJToken.readFrom(parser);
+    } catch (IOException e) {
+      throw new JsonReaderException(e.getMessage(), e);
+    }
+  }
+
+}
@@ -9,8 +9,8 @@ import java.util.List;
 
 import net.ravendb.abstractions.exceptions.JsonReaderException;
 import net.ravendb.abstractions.exceptions.JsonWriterException;
+import net.ravendb.abstractions.extensions.JsonExtensions;
 
-import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonToken;
@@ -158,7 +158,7 @@ public class RavenJArray extends RavenJToken implements Iterable<RavenJToken> {
    */
   public static RavenJArray parse(String json) {
     try {
-      JsonParser jsonParser = new JsonFactory().createJsonParser(json);
+      JsonParser jsonParser = JsonExtensions.getDefaultJsonFactory().createJsonParser(json);
       return load(jsonParser);
     } catch (IOException e) {
       throw new JsonReaderException(e.getMessage(), e);
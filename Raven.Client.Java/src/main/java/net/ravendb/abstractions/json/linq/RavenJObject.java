@@ -19,6 +19,8 @@ import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.impl.Utf8Generator;
+import org.codehaus.jackson.impl.WriterBasedGenerator;
 import org.codehaus.jackson.map.ObjectMapper;
 
 import com.google.common.base.Defaults;
@@ -136,6 +138,11 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
 
   private DictionaryWithParentSnapshot properties;
 
+  /**
+   * Raw JSON of object parsed lazily, null if object was already parsed.
+   */
+  private LazyObjectSource lazySource;
+
   public RavenJObject() {
     this((Comparator<String>)null);
   }
@@ -151,6 +158,26 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
     this.comparer = null;
   }
 
+  RavenJObject(LazyObjectSource lazySource) {
+    this.lazySource = lazySource;
+    this.comparer = null;
+  }
+
+  private DictionaryWithParentSnapshot properties() {
+    if (lazySource != null) {
+      properties = lazySource.materialize();
+      lazySource = null;
+    }
+    return properties;
+  }
+
+  /**
+   * Checks if object still holds raw JSON, which wasn't fully parsed yet.
+   */
+  boolean isLazilyParsed() {
+    return lazySource != null;
+  }
+
   @Override
   public boolean deepEquals(RavenJToken other, List<DocumentsChanges> changes) {
     if (other instanceof RavenJObject == false) {
@@ -162,64 +189,80 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
   public RavenJObject(RavenJObject other) {
     properties = new DictionaryWithParentSnapshot(other.comparer);
     for (Map.Entry<String, RavenJToken> kv : other.getProperties().entrySet()) {
-      properties.put(kv.getKey(), kv.getValue());
+      properties().put(kv.getKey(), kv.getValue());
     }
     this.comparer = other.comparer;
   }
 
   public void add(String propertyName, Object value) {
-    properties.put(propertyName, RavenJToken.fromObject(value));
+    properties().put(propertyName, RavenJToken.fromObject(value));
   }
 
   public void add(String propertyName, RavenJToken token) {
-    properties.put(propertyName, token);
+    properties().put(propertyName, token);
   }
 
   @Override
   protected void addForCloning(String key, RavenJToken token) {
-    properties.put(key, token);
+    properties().put(key, token);
   }
 
   @Override
   public RavenJObject cloneToken() {
+    if (lazySource != null) {
+      return new RavenJObject(lazySource.copy());
+    }
     return (RavenJObject) cloneTokenImpl(new RavenJObject());
   }
 
   public boolean containsKey(String key) {
-    return properties.containsKey(key);
+    if (lazySource != null) {
+      return lazySource.containsKey(key);
+    }
+    return properties().containsKey(key);
   }
 
   @Override
   public RavenJObject createSnapshot() {
-    return new RavenJObject(properties.createSnapshot());
+    return new RavenJObject(properties().createSnapshot());
   }
 
   @Override
   public void ensureCannotBeChangeAndEnableShapshotting() {
-    properties.ensureSnapshot();
+    ensureSnapshot(null);
   }
 
   public void ensureSnapshot(String msg) {
-    properties.ensureSnapshot(msg);
+    if (lazySource != null) {
+      lazySource.ensureSnapshot(msg);
+      return;
+    }
+    properties().ensureSnapshot(msg);
   }
 
   public RavenJToken get(String propertyName) {
-    return properties.get(propertyName);
+    if (lazySource != null) {
+      return lazySource.get(propertyName);
+    }
+    return properties().get(propertyName);
   }
 
   public int getCount() {
-    return properties.size();
+    if (lazySource != null) {
+      return lazySource.size();
+    }
+    return properties().size();
   }
 
   public Set<String> getKeys() {
-    return properties.keySet();
+    return properties().keySet();
   }
 
   /**
    * @return the properties
    */
   public DictionaryWithParentSnapshot getProperties() {
-    return properties;
+    return properties();
   }
 
   @Override
@@ -229,7 +272,10 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
 
   @Override
   public boolean isSnapshot() {
-    return properties.isSnapshot();
+    if (lazySource != null) {
+      return lazySource.isSnapshot();
+    }
+    return properties().isSnapshot();
   }
 
 
@@ -243,18 +289,21 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
 
   public RavenJObject withCaseInsensitivePropertyNames() {
     DictionaryWithParentSnapshot props = new DictionaryWithParentSnapshot(String.CASE_INSENSITIVE_ORDER);
-    for (Map.Entry<String, RavenJToken> property: properties) {
+    for (Map.Entry<String, RavenJToken> property: properties()) {
       props.put(property.getKey(), property.getValue());
     }
     return new RavenJObject(props);
   }
 
   public boolean remove(String propertyName) {
-    return properties.remove(propertyName) != null;
+    if (lazySource != null) {
+      return lazySource.remove(propertyName);
+    }
+    return properties().remove(propertyName) != null;
   }
 
   public void set(String propertyName, RavenJToken value) {
-    properties.put(propertyName, value);
+    properties().put(propertyName, value);
   }
 
   /**
@@ -264,12 +313,17 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
   @Override
   public void writeTo(JsonGenerator writer) {
     try {
+      if (lazySource != null && (writer instanceof WriterBasedGenerator || writer instanceof Utf8Generator)) {
+        // text generators can copy raw JSON which wasn't parsed
+        lazySource.writeTo(writer);
+        return;
+      }
       writer.writeStartObject();
 
-      if (properties != null) {
-        for (String key : properties.keySet()) {
+      if (properties() != null) {
+        for (String key : properties().keySet()) {
           writer.writeFieldName(key);
-          RavenJToken value = properties.get(key);
+          RavenJToken value = properties().get(key);
           if (value == null) {
             writer.writeNull();
           } else {
@@ -303,21 +357,25 @@ public class RavenJObject extends RavenJToken implements Iterable<Entry<String,
 
   @Override
   public Iterable<RavenJToken> values() {
-    return properties.values();
+    return properties().values();
   }
 
   @Override
   public <T> List<T> values(Class<T> clazz) {
-    return Extensions.convert(clazz, properties.values());
+    return Extensions.convert(clazz, properties().values());
   }
 
   @Override
   public Iterator<Entry<String, RavenJToken>> iterator() {
-    return properties.iterator();
+    return properties().iterator();
   }
 
   public boolean tryGetValue(String name, Reference<RavenJToken> value) {
-    return properties.tryGetValue(name, value);
+    if (lazySource != null) {
+      value.value = lazySource.get(name);
+      return lazySource.containsKey(name);
+    }
+    return properties().tryGetValue(name, value);
   }
 
 }
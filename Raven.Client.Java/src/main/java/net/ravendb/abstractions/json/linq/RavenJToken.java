@@ -5,6 +5,7 @@ import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Stack;
 
@@ -12,13 +13,14 @@ import net.ravendb.abstractions.basic.Tuple;
 import net.ravendb.abstractions.data.DocumentsChanges;
 import net.ravendb.abstractions.exceptions.JsonReaderException;
 import net.ravendb.abstractions.exceptions.JsonWriterException;
+import net.ravendb.abstractions.extensions.JsonExtensions;
 import net.ravendb.client.document.JsonSerializer;
 
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.FormatSchema;
-import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonParser.NumberType;
 
 
 /**
@@ -77,7 +79,7 @@ public abstract class RavenJToken {
    */
   public static RavenJToken parse(String json) throws JsonReaderException {
     try {
-      JsonParser jsonParser = new JsonFactory().createJsonParser(json);
+      JsonParser jsonParser = JsonExtensions.getDefaultJsonFactory().createJsonParser(json);
       return load(jsonParser);
     } catch (IOException e) {
       throw new JsonReaderException(e.getMessage(), e);
@@ -91,7 +93,7 @@ public abstract class RavenJToken {
    */
   public static RavenJToken tryLoad(InputStream json) throws JsonReaderException {
     try {
-      JsonParser jsonParser = new JsonFactory().createJsonParser(json);
+      JsonParser jsonParser = JsonExtensions.getDefaultJsonFactory().createJsonParser(json);
       if (!jsonParser.hasCurrentToken()) {
         if (jsonParser.nextToken() == null) {
           return null;
@@ -104,6 +106,20 @@ public abstract class RavenJToken {
     }
   }
 
+  /**
+   * Loads a {@link RavenJToken} from UTF-8 encoded JSON. If JSON is an object, objects inside its arrays
+   * with given names are kept as raw JSON and parsed when they are accessed for the first time.
+   * @param json
+   * @param lazyArrays names of top level properties containing documents
+   * @return parsed token or null if input is empty
+   */
+  public static RavenJToken tryLoadLazily(byte[] json, String... lazyArrays) {
+    if (RawJsonScanner.skipWhitespace(json, 0, json.length) == json.length) {
+      return null;
+    }
+    return LazyObjectSource.parseWithLazyArrayItems(json, 0, json.length, new HashSet<>(Arrays.asList(lazyArrays)));
+  }
+
   @SuppressWarnings({"boxing", "incomplete-switch"})
   public static RavenJToken readFrom(JsonParser parser) {
     try {
@@ -113,22 +129,40 @@ public abstract class RavenJToken {
         }
       }
 
+      if (parser instanceof RavenJTokenParser) {
+        RavenJToken node = ((RavenJTokenParser) parser).getCurrentNode();
+        if (node != null) {
+          parser.skipChildren();
+          return node.cloneToken();
+        }
+      }
+
       switch (parser.getCurrentToken()) {
         case START_OBJECT:
           return RavenJObject.load(parser);
         case START_ARRAY:
           return RavenJArray.load(parser);
         case VALUE_STRING:
-          return new RavenJValue(parser.getText(), JTokenType.STRING);
+          return new RavenJValue(ShortStringCache.readText(parser), JTokenType.STRING);
         case VALUE_NUMBER_FLOAT:
-          return new RavenJValue(parser.getNumberValue(), JTokenType.FLOAT);
+          if (parser.getNumberType() == NumberType.BIG_DECIMAL) {
+            return new RavenJValue(parser.getDecimalValue(), JTokenType.FLOAT);
+          }
+          return RavenJValue.fromDouble(parser.getDoubleValue());
         case VALUE_NUMBER_INT:
-          return new RavenJValue(parser.getNumberValue(), JTokenType.INTEGER);
+          switch (parser.getNumberType()) {
+            case INT:
+              return RavenJValue.fromLong(parser.getIntValue(), true);
+            case LONG:
+              return RavenJValue.fromLong(parser.getLongValue(), false);
+            default:
+              return new RavenJValue(parser.getNumberValue(), JTokenType.INTEGER);
+          }
         case VALUE_FALSE:
         case VALUE_TRUE:
           return new RavenJValue(parser.getBooleanValue(), JTokenType.BOOLEAN);
         case VALUE_NULL:
-          return new RavenJValue(null, JTokenType.NULL);
+          return RavenJValue.getSharedNull();
       }
     } catch (IOException e) {
       throw new JsonReaderException("Error reading RavenJToken from JsonParser" + e.getMessage(), e);
@@ -151,7 +185,7 @@ public abstract class RavenJToken {
   public String toString() {
     try {
       StringWriter stringWriter = new StringWriter();
-      JsonGenerator jsonGenerator = new JsonFactory().createJsonGenerator(stringWriter);
+      JsonGenerator jsonGenerator = JsonExtensions.getDefaultJsonFactory().createJsonGenerator(stringWriter);
       writeTo(jsonGenerator);
       jsonGenerator.close();
       return stringWriter.toString();
@@ -166,6 +200,10 @@ public abstract class RavenJToken {
     return toString();
   }
 
+  private static boolean isLazilyParsed(RavenJToken token) {
+    return token instanceof RavenJObject && ((RavenJObject) token).isLazilyParsed();
+  }
+
   protected RavenJToken cloneTokenImpl(RavenJToken newObject) {
     Stack<RavenJToken> readingStack = new Stack<>();
     Stack<RavenJToken> writingStack = new Stack<>();
@@ -182,10 +220,10 @@ public abstract class RavenJToken {
         for (String key : ravenJObject.getProperties().keySet()) {
           RavenJToken value = ravenJObject.get(key);
           if (value == null || value.getType() == JTokenType.NULL) {
-            curObject.addForCloning(key, RavenJValue.getNull());
+            curObject.addForCloning(key, RavenJValue.getSharedNull());
             continue;
           }
-          if (value instanceof RavenJValue) {
+          if (value instanceof RavenJValue || isLazilyParsed(value)) {
             curObject.addForCloning(key, value.cloneToken());
             continue;
           }
@@ -203,7 +241,7 @@ public abstract class RavenJToken {
             curObject.addForCloning(null, null);
             continue;
           }
-          if (token instanceof RavenJValue) {
+          if (token instanceof RavenJValue || isLazilyParsed(token)) {
             curObject.addForCloning(null, token.cloneToken());
             continue;
           }
@@ -235,7 +273,7 @@ public abstract class RavenJToken {
     if (this == obj) {
       return true;
     }
-    if (!this.getClass().equals(obj.getClass())) {
+    if (!tokenClass(this).equals(tokenClass(obj))) {
       return false;
     }
     return deepEquals((RavenJToken) obj);
@@ -243,6 +281,13 @@ public abstract class RavenJToken {
 
   public abstract RavenJToken createSnapshot();
 
+  /**
+   * Returns class used to check if tokens can be equal - all specialized values are {@link RavenJValue}.
+   */
+  private static Class<?> tokenClass(Object token) {
+    return (token instanceof RavenJValue) ? RavenJValue.class : token.getClass();
+  }
+
   public boolean deepEquals(RavenJToken other) {
       return deepEquals(other, (List<DocumentsChanges>)null);
   }
@@ -255,7 +300,7 @@ public abstract class RavenJToken {
       return true;
     }
 
-    if (!getClass().equals(other.getClass())) {
+    if (!tokenClass(this).equals(tokenClass(other))) {
       return false;
     }
 
@@ -285,7 +330,7 @@ public abstract class RavenJToken {
       if (curOtherReader == null && curThisReader == null) continue; // shouldn't happen, but we got an error report from a user about this
       if (curOtherReader == null || curThisReader == null) return false;
 
-      if (curThisReader.getClass().equals(curOtherReader.getClass())) {
+      if (tokenClass(curThisReader).equals(tokenClass(curOtherReader))) {
         switch (curOtherReader.getType()) {
           case ARRAY:
             RavenJArray selfArray = (RavenJArray) curThisReader;
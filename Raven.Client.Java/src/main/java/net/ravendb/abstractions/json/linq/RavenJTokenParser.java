@@ -0,0 +1,446 @@
+package net.ravendb.abstractions.json.linq;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import net.ravendb.abstractions.util.NetDateFormat;
+
+import org.apache.commons.codec.binary.Base64;
+import org.codehaus.jackson.Base64Variant;
+import org.codehaus.jackson.JsonLocation;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonStreamContext;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.ObjectCodec;
+import org.codehaus.jackson.impl.JsonParserMinimalBase;
+
+/**
+ * {@link JsonParser} which walks {@link RavenJToken} tree, so it can be bound by ObjectMapper
+ * without writing it to string and parsing it again. Counterpart of {@link RavenJTokenWriter}.
+ */
+public class RavenJTokenParser extends JsonParserMinimalBase {
+
+  private ObjectCodec codec;
+
+  private NodeContext context;
+
+  /**
+   * Token which value is reported by current parser event.
+   */
+  private RavenJToken currentNode;
+
+  private boolean closed;
+
+  public RavenJTokenParser(RavenJToken token) {
+    this(token, null);
+  }
+
+  public RavenJTokenParser(RavenJToken token, ObjectCodec codec) {
+    this.codec = codec;
+    this.context = new RootContext(token);
+  }
+
+  @Override
+  public ObjectCodec getCodec() {
+    return codec;
+  }
+
+  @Override
+  public void setCodec(ObjectCodec c) {
+    this.codec = c;
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException, JsonParseException {
+    if (closed || context == null) {
+      return null;
+    }
+    _currToken = context.nextToken();
+    if (_currToken == JsonToken.END_OBJECT || _currToken == JsonToken.END_ARRAY) {
+      currentNode = context.container;
+      context = context.parent;
+    }
+    return _currToken;
+  }
+
+  /**
+   * Skips container without visiting its children.
+   */
+  @Override
+  public JsonParser skipChildren() throws IOException, JsonParseException {
+    if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+      _currToken = (_currToken == JsonToken.START_OBJECT) ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+      context = context.parent;
+    }
+    return this;
+  }
+
+  /**
+   * Returns token for which parser reported START_OBJECT, START_ARRAY or scalar value.
+   * Can be used to short-circuit reading nested {@link RavenJToken}s from this parser.
+   */
+  public RavenJToken getCurrentNode() {
+    if (_currToken == null || _currToken == JsonToken.FIELD_NAME
+      || _currToken == JsonToken.END_OBJECT || _currToken == JsonToken.END_ARRAY) {
+      return null;
+    }
+    return currentNode;
+  }
+
+  @Override
+  protected void _handleEOF() throws JsonParseException {
+    // tree is always complete
+  }
+
+  @Override
+  public String getCurrentName() throws IOException, JsonParseException {
+    if (context == null) {
+      return null;
+    }
+    if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+      return context.parent.getCurrentName();
+    }
+    return context.getCurrentName();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    context = null;
+    currentNode = null;
+    _currToken = null;
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public JsonStreamContext getParsingContext() {
+    return context;
+  }
+
+  @Override
+  public JsonLocation getTokenLocation() {
+    return JsonLocation.NA;
+  }
+
+  @Override
+  public JsonLocation getCurrentLocation() {
+    return JsonLocation.NA;
+  }
+
+  @Override
+  public String getText() throws IOException, JsonParseException {
+    if (_currToken == null) {
+      return null;
+    }
+    switch (_currToken) {
+      case FIELD_NAME:
+        return context.getCurrentName();
+      case VALUE_STRING:
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+      case VALUE_EMBEDDED_OBJECT:
+        return valueAsText((RavenJValue) currentNode);
+      default:
+        return _currToken.asString();
+    }
+  }
+
+  private static String valueAsText(RavenJValue node) {
+    Object value = node.getValue();
+    if (value == null) {
+      return null;
+    }
+    switch (node.getType()) {
+      case DATE:
+        return NetDateFormat.getSharedInstance().format(value);
+      case BYTES:
+        return Base64.encodeBase64String((byte[]) value);
+      default:
+        return value.toString();
+    }
+  }
+
+  @Override
+  public char[] getTextCharacters() throws IOException, JsonParseException {
+    String text = getText();
+    return (text == null) ? null : text.toCharArray();
+  }
+
+  @Override
+  public boolean hasTextCharacters() {
+    return false;
+  }
+
+  @Override
+  public int getTextLength() throws IOException, JsonParseException {
+    String text = getText();
+    return (text == null) ? 0 : text.length();
+  }
+
+  @Override
+  public int getTextOffset() throws IOException, JsonParseException {
+    return 0;
+  }
+
+  @Override
+  public Object getEmbeddedObject() throws IOException, JsonParseException {
+    if (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+      return ((RavenJValue) currentNode).getValue();
+    }
+    return null;
+  }
+
+  @Override
+  public byte[] getBinaryValue(Base64Variant b64variant) throws IOException, JsonParseException {
+    if (currentNode instanceof RavenJValue) {
+      Object value = ((RavenJValue) currentNode).getValue();
+      if (value instanceof byte[]) {
+        return (byte[]) value;
+      }
+      if (_currToken == JsonToken.VALUE_STRING && value instanceof String) {
+        return Base64.decodeBase64((String) value);
+      }
+    }
+    throw _constructError("Current token (" + _currToken + ") not VALUE_STRING, can not access as binary");
+  }
+
+  /**
+   * Returns number in the narrowest form text parser would return it, so untyped binding
+   * (to Map or Object) yields the same classes as binding from JSON string.
+   */
+  @SuppressWarnings("boxing")
+  @Override
+  public Number getNumberValue() throws IOException, JsonParseException {
+    if (_currToken != JsonToken.VALUE_NUMBER_INT && _currToken != JsonToken.VALUE_NUMBER_FLOAT) {
+      throw _constructError("Current token (" + _currToken + ") not numeric, can not use numeric value accessors");
+    }
+    Number number = (Number) ((RavenJValue) currentNode).getValue();
+    if (_currToken == JsonToken.VALUE_NUMBER_FLOAT) {
+      if (number instanceof BigDecimal || number instanceof Double) {
+        return number;
+      }
+      return number.doubleValue();
+    }
+    if (number instanceof Integer) {
+      return number;
+    }
+    if (number instanceof BigInteger) {
+      BigInteger bigInteger = (BigInteger) number;
+      if (bigInteger.bitLength() >= 64) {
+        return bigInteger;
+      }
+    }
+    long longValue = number.longValue();
+    if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+      return (int) longValue;
+    }
+    return longValue;
+  }
+
+  @Override
+  public NumberType getNumberType() throws IOException, JsonParseException {
+    Number number = getNumberValue();
+    if (number instanceof Integer) {
+      return NumberType.INT;
+    } else if (number instanceof Long) {
+      return NumberType.LONG;
+    } else if (number instanceof BigInteger) {
+      return NumberType.BIG_INTEGER;
+    } else if (number instanceof BigDecimal) {
+      return NumberType.BIG_DECIMAL;
+    }
+    return NumberType.DOUBLE;
+  }
+
+  @Override
+  public int getIntValue() throws IOException, JsonParseException {
+    return getNumberValue().intValue();
+  }
+
+  @Override
+  public long getLongValue() throws IOException, JsonParseException {
+    return getNumberValue().longValue();
+  }
+
+  @Override
+  public BigInteger getBigIntegerValue() throws IOException, JsonParseException {
+    Number number = getNumberValue();
+    if (number instanceof BigInteger) {
+      return (BigInteger) number;
+    } else if (number instanceof BigDecimal) {
+      return ((BigDecimal) number).toBigInteger();
+    }
+    return BigInteger.valueOf(number.longValue());
+  }
+
+  @Override
+  public float getFloatValue() throws IOException, JsonParseException {
+    return getNumberValue().floatValue();
+  }
+
+  @Override
+  public double getDoubleValue() throws IOException, JsonParseException {
+    return getNumberValue().doubleValue();
+  }
+
+  @Override
+  public BigDecimal getDecimalValue() throws IOException, JsonParseException {
+    Number number = getNumberValue();
+    if (number instanceof BigDecimal) {
+      return (BigDecimal) number;
+    } else if (number instanceof BigInteger) {
+      return new BigDecimal((BigInteger) number);
+    } else if (number instanceof Double) {
+      return BigDecimal.valueOf(number.doubleValue());
+    }
+    return BigDecimal.valueOf(number.longValue());
+  }
+
+  /**
+   * Reports token for given node and remembers it as current one.
+   */
+  protected JsonToken valueToken(RavenJToken node) {
+    currentNode = node;
+    if (node == null) {
+      return JsonToken.VALUE_NULL;
+    }
+    switch (node.getType()) {
+      case OBJECT:
+        context = new ObjectContext(context, (RavenJObject) node);
+        return JsonToken.START_OBJECT;
+      case ARRAY:
+        context = new ArrayContext(context, (RavenJArray) node);
+        return JsonToken.START_ARRAY;
+      default:
+        break;
+    }
+
+    RavenJValue value = (RavenJValue) node;
+    if (value.getValue() == null) {
+      return JsonToken.VALUE_NULL;
+    }
+    switch (value.getType()) {
+      case NULL:
+        return JsonToken.VALUE_NULL;
+      case BOOLEAN:
+        return Boolean.TRUE.equals(value.getValue()) ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE;
+      case INTEGER:
+        return (value.getValue() instanceof Number) ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_EMBEDDED_OBJECT;
+      case FLOAT:
+        return (value.getValue() instanceof Number) ? JsonToken.VALUE_NUMBER_FLOAT : JsonToken.VALUE_EMBEDDED_OBJECT;
+      case STRING:
+      case DATE:
+      case BYTES:
+        return JsonToken.VALUE_STRING;
+      default:
+        return JsonToken.VALUE_EMBEDDED_OBJECT;
+    }
+  }
+
+  private abstract class NodeContext extends JsonStreamContext {
+    protected final NodeContext parent;
+    protected final RavenJToken container;
+
+    protected NodeContext(int type, NodeContext parent, RavenJToken container) {
+      this._type = type;
+      this._index = -1;
+      this.parent = parent;
+      this.container = container;
+    }
+
+    @Override
+    public NodeContext getParent() {
+      return parent;
+    }
+
+    public abstract JsonToken nextToken();
+  }
+
+  private class RootContext extends NodeContext {
+    private final RavenJToken root;
+
+    public RootContext(RavenJToken root) {
+      super(TYPE_ROOT, null, null);
+      this.root = root;
+    }
+
+    @Override
+    public JsonToken nextToken() {
+      if (_index >= 0) {
+        currentNode = null;
+        return null;
+      }
+      _index++;
+      return valueToken(root);
+    }
+
+    @Override
+    public String getCurrentName() {
+      return null;
+    }
+  }
+
+  private class ObjectContext extends NodeContext {
+    private final Iterator<Entry<String, RavenJToken>> iterator;
+    private Entry<String, RavenJToken> current;
+    private boolean valuePending;
+
+    public ObjectContext(NodeContext parent, RavenJObject container) {
+      super(TYPE_OBJECT, parent, container);
+      this.iterator = container.iterator();
+    }
+
+    @Override
+    public JsonToken nextToken() {
+      if (valuePending) {
+        valuePending = false;
+        return valueToken(current.getValue());
+      }
+      if (iterator.hasNext()) {
+        current = iterator.next();
+        valuePending = true;
+        _index++;
+        currentNode = null;
+        return JsonToken.FIELD_NAME;
+      }
+      current = null;
+      return JsonToken.END_OBJECT;
+    }
+
+    @Override
+    public String getCurrentName() {
+      return (current == null) ? null : current.getKey();
+    }
+  }
+
+  private class ArrayContext extends NodeContext {
+    private final Iterator<RavenJToken> iterator;
+
+    public ArrayContext(NodeContext parent, RavenJArray container) {
+      super(TYPE_ARRAY, parent, container);
+      this.iterator = container.iterator();
+    }
+
+    @Override
+    public JsonToken nextToken() {
+      if (iterator.hasNext()) {
+        _index++;
+        return valueToken(iterator.next());
+      }
+      return JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public String getCurrentName() {
+      return null;
+    }
+  }
+}
@@ -150,7 +150,7 @@ public class RavenJTokenWriter extends JsonGenerator {
   @Override
   public void writeString(String text) throws IOException, JsonGenerationException {
     if (text == null) {
-      addValue(new RavenJValue(null, JTokenType.NULL), JTokenType.NULL);
+      addValue(RavenJValue.getSharedNull(), JTokenType.NULL);
     } else {
       addValue(text, JTokenType.STRING);
     }
@@ -211,16 +211,14 @@ public class RavenJTokenWriter extends JsonGenerator {
     addValue(Arrays.copyOfRange(data, offset, offset + len), JTokenType.BYTES);
   }
 
-  @SuppressWarnings("boxing")
   @Override
   public void writeNumber(int v) throws IOException, JsonGenerationException {
-    addValue(v, JTokenType.INTEGER);
+    addValue(RavenJValue.fromLong(v, true), JTokenType.INTEGER);
   }
 
-  @SuppressWarnings("boxing")
   @Override
   public void writeNumber(long v) throws IOException, JsonGenerationException {
-    addValue(v, JTokenType.INTEGER);
+    addValue(RavenJValue.fromLong(v, false), JTokenType.INTEGER);
   }
 
   @Override
@@ -228,10 +226,9 @@ public class RavenJTokenWriter extends JsonGenerator {
     addValue(v, JTokenType.INTEGER);
   }
 
-  @SuppressWarnings("boxing")
   @Override
   public void writeNumber(double d) throws IOException, JsonGenerationException {
-    addValue(d, JTokenType.FLOAT);
+    addValue(RavenJValue.fromDouble(d), JTokenType.FLOAT);
   }
 
   @SuppressWarnings("boxing")
@@ -258,7 +255,7 @@ public class RavenJTokenWriter extends JsonGenerator {
 
   @Override
   public void writeNull() throws IOException, JsonGenerationException {
-    addValue(new RavenJValue(null, JTokenType.NULL), JTokenType.NULL);
+    addValue(RavenJValue.getSharedNull(), JTokenType.NULL);
   }
 
   @Override
@@ -14,8 +14,17 @@ import org.apache.commons.codec.binary.Base64;
 import org.codehaus.jackson.JsonGenerator;
 
 
+/**
+ * Represents a value in JSON (string, integer, date, etc).
+ *
+ * Values read by parser or written by {@link RavenJTokenWriter} use specialized representations:
+ * integers and doubles are kept as primitives and boxed only when {@link #getValue()} is called,
+ * and all nulls share single immutable instance. {@link #getNull()} returns new value, which can be modified.
+ */
 public class RavenJValue extends RavenJToken {
 
+  private static final RavenJValue NULL = new NullValue();
+
   private JTokenType valueType;
   private Object value;
   private boolean snapshot;
@@ -194,19 +203,26 @@ public class RavenJValue extends RavenJToken {
         }
       }
     } else {
-      result = prime * result + ((value == null) ? 0 : value.hashCode());
+      result = prime * result + valueHashCode();
       result = prime * result + ((valueType == null) ? 0 : valueType.hashCode());
     }
     return result;
   }
 
+  /**
+   * Hash code of underlying value - the same as hash code of boxed value.
+   */
+  protected int valueHashCode() {
+    return (value == null) ? 0 : value.hashCode();
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj)
       return true;
     if (obj == null)
       return false;
-    if (getClass() != obj.getClass())
+    if (!(obj instanceof RavenJValue))
       return false;
     RavenJValue other = (RavenJValue) obj;
     return deepEquals(other);
@@ -225,10 +241,36 @@ public class RavenJValue extends RavenJToken {
     return new RavenJValue(value, valueType);
   }
 
+  /**
+   * Returns new null value.
+   */
   public static RavenJValue getNull() {
     return new RavenJValue(null, JTokenType.NULL);
   }
 
+  /**
+   * Returns null value shared by parsed, cloned and written tokens. Returned instance is snapshot, so it can't be modified.
+   */
+  static RavenJValue getSharedNull() {
+    return NULL;
+  }
+
+  /**
+   * Creates integer value, which is boxed only when requested.
+   * @param value
+   * @param intValue true if boxed value should be {@link Integer}, false for {@link Long}
+   */
+  static RavenJValue fromLong(long value, boolean intValue) {
+    return new LongValue(value, intValue);
+  }
+
+  /**
+   * Creates float value, which is boxed only when requested.
+   */
+  static RavenJValue fromDouble(double value) {
+    return new DoubleValue(value);
+  }
+
   @SuppressWarnings("boxing")
   @Override
   public void writeTo(JsonGenerator writer) {
@@ -272,7 +314,7 @@ public class RavenJValue extends RavenJToken {
           writer.writeString((String) value);
           return;
         case DATE:
-          writer.writeString(new NetDateFormat().format(value));
+          writer.writeString(NetDateFormat.getSharedInstance().format(value));
           break;
         default:
           throw new JsonWriterException("Unexpected token:" + valueType);
@@ -285,10 +327,11 @@ public class RavenJValue extends RavenJToken {
 
   @Override
   public String toString() {
-    if (value == null) {
+    Object currentValue = getValue();
+    if (currentValue == null) {
       return "";
     }
-    return value.toString();
+    return currentValue.toString();
   }
 
   /* (non-Javadoc)
@@ -396,6 +439,7 @@ public class RavenJValue extends RavenJToken {
     if (getType() != JTokenType.INTEGER) {
       return null;
     }
+    Object value = getValue();
     if (value instanceof BigInteger) {
       return (BigInteger) value;
     } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
@@ -443,6 +487,7 @@ public class RavenJValue extends RavenJToken {
 
   @SuppressWarnings("boxing")
   private BigDecimal asBigDecimal() {
+    Object value = getValue();
     Number number = (Number) value;
     if (value instanceof BigDecimal) {
       return (BigDecimal) value;
@@ -455,4 +500,185 @@ public class RavenJValue extends RavenJToken {
     }
   }
 
+  /**
+   * Checks if this instance still holds value passed to specialized constructor - {@link #setValue(Object)}
+   * replaces it with boxed value.
+   */
+  boolean hasPrimitiveValue(JTokenType type) {
+    return value == null && valueType == type;
+  }
+
+  /**
+   * Integer kept as primitive.
+   */
+  private static final class LongValue extends RavenJValue {
+    private final long longValue;
+    private final boolean intValue;
+
+    LongValue(long longValue, boolean intValue) {
+      super(null, JTokenType.INTEGER);
+      this.longValue = longValue;
+      this.intValue = intValue;
+    }
+
+    private boolean isPrimitive() {
+      return hasPrimitiveValue(JTokenType.INTEGER);
+    }
+
+    @Override
+    public Object getValue() {
+      if (!isPrimitive()) {
+        return super.getValue();
+      }
+      if (intValue) {
+        return Integer.valueOf((int) longValue);
+      }
+      return Long.valueOf(longValue);
+    }
+
+    @Override
+    public RavenJValue cloneToken() {
+      return isPrimitive() ? new LongValue(longValue, intValue) : super.cloneToken();
+    }
+
+    @Override
+    public RavenJValue createSnapshot() {
+      if (isPrimitive() && isSnapshot()) {
+        return new LongValue(longValue, intValue);
+      }
+      return super.createSnapshot();
+    }
+
+    @Override
+    protected int valueHashCode() {
+      if (isPrimitive()) {
+        return intValue ? (int) longValue : (int) (longValue ^ (longValue >>> 32));
+      }
+      return super.valueHashCode();
+    }
+
+    @Override
+    public boolean deepEquals(RavenJToken node) {
+      if (isPrimitive() && node instanceof LongValue && ((LongValue) node).isPrimitive()) {
+        return longValue == ((LongValue) node).longValue;
+      }
+      return super.deepEquals(node);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator writer) {
+      if (!isPrimitive()) {
+        super.writeTo(writer);
+        return;
+      }
+      try {
+        writer.writeNumber(longValue);
+      } catch (IOException e) {
+        throw new JsonWriterException(e.getMessage(), e);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return isPrimitive() ? Long.toString(longValue) : super.toString();
+    }
+  }
+
+  /**
+   * Double kept as primitive.
+   */
+  private static final class DoubleValue extends RavenJValue {
+    private final double doubleValue;
+
+    DoubleValue(double doubleValue) {
+      super(null, JTokenType.FLOAT);
+      this.doubleValue = doubleValue;
+    }
+
+    private boolean isPrimitive() {
+      return hasPrimitiveValue(JTokenType.FLOAT);
+    }
+
+    @Override
+    public Object getValue() {
+      return isPrimitive() ? Double.valueOf(doubleValue) : super.getValue();
+    }
+
+    @Override
+    public RavenJValue cloneToken() {
+      return isPrimitive() ? new DoubleValue(doubleValue) : super.cloneToken();
+    }
+
+    @Override
+    public RavenJValue createSnapshot() {
+      if (isPrimitive() && isSnapshot()) {
+        return new DoubleValue(doubleValue);
+      }
+      return super.createSnapshot();
+    }
+
+    @Override
+    protected int valueHashCode() {
+      if (isPrimitive()) {
+        long bits = Double.doubleToLongBits(doubleValue);
+        return (int) (bits ^ (bits >>> 32));
+      }
+      return super.valueHashCode();
+    }
+
+    @Override
+    public boolean deepEquals(RavenJToken node) {
+      if (isPrimitive() && node instanceof DoubleValue && ((DoubleValue) node).isPrimitive()) {
+        double other = ((DoubleValue) node).doubleValue;
+        return Double.doubleToLongBits(doubleValue) == Double.doubleToLongBits(other)
+          || Math.abs(doubleValue - other) < 0.000001;
+      }
+      return super.deepEquals(node);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator writer) {
+      if (!isPrimitive()) {
+        super.writeTo(writer);
+        return;
+      }
+      try {
+        writer.writeNumber(doubleValue);
+      } catch (IOException e) {
+        throw new JsonWriterException(e.getMessage(), e);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return isPrimitive() ? Double.toString(doubleValue) : super.toString();
+    }
+  }
+
+  /**
+   * Shared null value. It is snapshot, so cloning it or creating its snapshot returns the same instance.
+   */
+  private static final class NullValue extends RavenJValue {
+
+    NullValue() {
+      super(null, JTokenType.NULL);
+      ensureCannotBeChangeAndEnableShapshotting();
+    }
+
+    @Override
+    public void setValue(Object value) {
+      throw new IllegalStateException("Cannot modify shared null value, create new RavenJValue instead");
+    }
+
+    @Override
+    public RavenJValue cloneToken() {
+      return this;
+    }
+
+    @Override
+    public RavenJValue createSnapshot() {
+      return this;
+    }
+  }
+
 }
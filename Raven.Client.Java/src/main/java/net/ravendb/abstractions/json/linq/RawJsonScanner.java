@@ -0,0 +1,191 @@
+package net.ravendb.abstractions.json.linq;
+
+import java.io.IOException;
+
+import net.ravendb.abstractions.exceptions.JsonReaderException;
+import net.ravendb.abstractions.extensions.JsonExtensions;
+
+import org.apache.http.Consts;
+import org.codehaus.jackson.JsonParser;
+
+/**
+ * Finds boundaries of JSON values in UTF-8 buffer without parsing them. Multi byte UTF-8 sequences never
+ * contain quote, backslash or bracket bytes, so single pass over bytes is enough.
+ */
+final class RawJsonScanner {
+
+  private RawJsonScanner() {
+    // empty by design
+  }
+
+  static int skipWhitespace(byte[] buffer, int position, int end) {
+    while (position < end) {
+      byte b = buffer[position];
+      if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+        break;
+      }
+      position++;
+    }
+    return position;
+  }
+
+  /**
+   * @return position right after value which starts at given position
+   */
+  static int skipValue(byte[] buffer, int position, int end) {
+    position = skipWhitespace(buffer, position, end);
+    if (position >= end) {
+      throw unexpectedEnd();
+    }
+    byte b = buffer[position];
+    if (b == '"') {
+      return skipString(buffer, position, end);
+    }
+    if (b == '{' || b == '[') {
+      int depth = 0;
+      while (position < end) {
+        b = buffer[position];
+        if (b == '"') {
+          position = skipString(buffer, position, end);
+          continue;
+        }
+        if (b == '{' || b == '[') {
+          depth++;
+        } else if (b == '}' || b == ']') {
+          depth--;
+          if (depth == 0) {
+            return position + 1;
+          }
+        }
+        position++;
+      }
+      throw unexpectedEnd();
+    }
+    // number or literal
+    while (position < end) {
+      b = buffer[position];
+      if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+        break;
+      }
+      position++;
+    }
+    return position;
+  }
+
+  /**
+   * @return position right after closing quote of string which starts at given position
+   */
+  static int skipString(byte[] buffer, int position, int end) {
+    position++;
+    while (position < end) {
+      byte b = buffer[position];
+      if (b == '\\') {
+        position += 2;
+        continue;
+      }
+      if (b == '"') {
+        return position + 1;
+      }
+      position++;
+    }
+    throw unexpectedEnd();
+  }
+
+  /**
+   * Reads string between given positions (including quotes).
+   */
+  static String readString(byte[] buffer, int start, int end) {
+    for (int i = start + 1; i < end - 1; i++) {
+      if (buffer[i] == '\\') {
+        return readEscapedString(buffer, start, end);
+      }
+    }
+    return new String(buffer, start + 1, end - start - 2, Consts.UTF_8);
+  }
+
+  private static String readEscapedString(byte[] buffer, int start, int end) {
+    try (JsonParser parser = JsonExtensions.getDefaultJsonFactory().createJsonParser(buffer, start, end - start)) {
+      parser.nextToken();
+      return parser.getText();
+    } catch (IOException e) {
+      throw new JsonReaderException(e.getMessage(), e);
+    }
+  }
+
+  private static JsonReaderException unexpectedEnd() {
+    return new JsonReaderException("Unexpected end of JSON");
+  }
+
+  /**
+   * Iterates over members of object or elements of array without parsing them.
+   */
+  static final class ContainerCursor {
+    private final byte[] buffer;
+    private final int end;
+    private final boolean object;
+    private int position;
+
+    private String name;
+    private int valueStart;
+    private int valueEnd;
+
+    ContainerCursor(byte[] buffer, int start, int end) {
+      this.buffer = buffer;
+      this.end = end;
+      this.position = skipWhitespace(buffer, start, end);
+      if (position >= end || (buffer[position] != '{' && buffer[position] != '[')) {
+        throw new JsonReaderException("Expected JSON object or array");
+      }
+      this.object = buffer[position] == '{';
+      position++;
+    }
+
+    /**
+     * Moves to next member.
+     * @return false if end of container was reached
+     */
+    boolean next() {
+      position = skipWhitespace(buffer, position, end);
+      if (position < end && buffer[position] == ',') {
+        position = skipWhitespace(buffer, position + 1, end);
+      }
+      if (position >= end) {
+        throw unexpectedEnd();
+      }
+      if (buffer[position] == '}' || buffer[position] == ']') {
+        position++;
+        return false;
+      }
+      if (object) {
+        int nameEnd = skipString(buffer, position, end);
+        name = readString(buffer, position, nameEnd);
+        position = skipWhitespace(buffer, nameEnd, end);
+        if (position >= end || buffer[position] != ':') {
+          throw new JsonReaderException("Expected ':' after property name " + name);
+        }
+        position++;
+      }
+      valueStart = skipWhitespace(buffer, position, end);
+      valueEnd = skipValue(buffer, valueStart, end);
+      position = valueEnd;
+      return true;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    int getValueStart() {
+      return valueStart;
+    }
+
+    int getValueEnd() {
+      return valueEnd;
+    }
+
+    byte getValueFirstByte() {
+      return buffer[valueStart];
+    }
+  }
+
+}
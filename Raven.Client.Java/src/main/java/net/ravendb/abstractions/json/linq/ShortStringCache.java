@@ -0,0 +1,60 @@
+package net.ravendb.abstractions.json.linq;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+
+/**
+ * Canonicalizes short string values read by parser, so repeated values (entity names, enum constants etc.)
+ * are read straight from parser buffer without allocating new string each time.
+ *
+ * Cache is direct mapped and not synchronized - strings are immutable, so racing threads can at most
+ * overwrite each other's entries.
+ */
+final class ShortStringCache {
+
+  private static final int MAX_LENGTH = 32;
+  private static final int SIZE = 2048;
+
+  private static final String[] CACHE = new String[SIZE];
+
+  private ShortStringCache() {
+    // empty by design
+  }
+
+  static String readText(JsonParser parser) throws IOException {
+    int length = parser.getTextLength();
+    if (length > MAX_LENGTH) {
+      return parser.getText();
+    }
+    char[] buffer = parser.getTextCharacters();
+    int offset = parser.getTextOffset();
+
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+
+    String cached = CACHE[slot];
+    if (cached != null && matches(cached, buffer, offset, length)) {
+      return cached;
+    }
+    String text = new String(buffer, offset, length);
+    CACHE[slot] = text;
+    return text;
+  }
+
+  private static boolean matches(String cached, char[] buffer, int offset, int length) {
+    if (cached.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (cached.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
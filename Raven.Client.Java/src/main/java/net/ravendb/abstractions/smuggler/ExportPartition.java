@@ -0,0 +1,136 @@
+package net.ravendb.abstractions.smuggler;
+
+import net.ravendb.abstractions.data.Etag;
+
+/**
+ * Part of the documents keyspace exported by a single stream. Partition is either an etag range
+ * (fromEtag exclusive, toEtag inclusive) or a key prefix. Progress of the export is tracked in
+ * the partition, so partially exported partition can be used to resume the export.
+ */
+public class ExportPartition {
+
+  private Etag fromEtag;
+  private Etag toEtag;
+  private String startsWith;
+  private Etag lastEtag;
+  private String lastKey;
+  private long exportedDocuments;
+  private boolean completed;
+
+  public ExportPartition() {
+    // empty by design
+  }
+
+  public static ExportPartition forEtagRange(Etag fromEtag, Etag toEtag) {
+    ExportPartition partition = new ExportPartition();
+    partition.setFromEtag(fromEtag);
+    partition.setToEtag(toEtag);
+    return partition;
+  }
+
+  public static ExportPartition forPrefix(String startsWith) {
+    ExportPartition partition = new ExportPartition();
+    partition.setStartsWith(startsWith);
+    return partition;
+  }
+
+  /**
+   * Etag after which partition starts. Null means the beginning of the database.
+   */
+  public Etag getFromEtag() {
+    return fromEtag;
+  }
+
+  /**
+   * Etag after which partition starts. Null means the beginning of the database.
+   * @param fromEtag
+   */
+  public void setFromEtag(Etag fromEtag) {
+    this.fromEtag = fromEtag;
+  }
+
+  /**
+   * Last etag which belongs to the partition. Null means the partition is not bounded.
+   */
+  public Etag getToEtag() {
+    return toEtag;
+  }
+
+  /**
+   * Last etag which belongs to the partition. Null means the partition is not bounded.
+   * @param toEtag
+   */
+  public void setToEtag(Etag toEtag) {
+    this.toEtag = toEtag;
+  }
+
+  /**
+   * Key prefix of documents which belong to the partition.
+   */
+  public String getStartsWith() {
+    return startsWith;
+  }
+
+  /**
+   * Key prefix of documents which belong to the partition.
+   * @param startsWith
+   */
+  public void setStartsWith(String startsWith) {
+    this.startsWith = startsWith;
+  }
+
+  /**
+   * Etag of the last exported document.
+   */
+  public Etag getLastEtag() {
+    return lastEtag;
+  }
+
+  /**
+   * Etag of the last exported document.
+   * @param lastEtag
+   */
+  public void setLastEtag(Etag lastEtag) {
+    this.lastEtag = lastEtag;
+  }
+
+  /**
+   * Key of the last exported document.
+   */
+  public String getLastKey() {
+    return lastKey;
+  }
+
+  /**
+   * Key of the last exported document.
+   * @param lastKey
+   */
+  public void setLastKey(String lastKey) {
+    this.lastKey = lastKey;
+  }
+
+  public long getExportedDocuments() {
+    return exportedDocuments;
+  }
+
+  public void setExportedDocuments(long exportedDocuments) {
+    this.exportedDocuments = exportedDocuments;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public void setCompleted(boolean completed) {
+    this.completed = completed;
+  }
+
+  @Override
+  public String toString() {
+    if (startsWith != null) {
+      return "ExportPartition [startsWith=" + startsWith + ", exportedDocuments=" + exportedDocuments + ", completed=" + completed + "]";
+    }
+    return "ExportPartition [fromEtag=" + fromEtag + ", toEtag=" + toEtag + ", exportedDocuments=" + exportedDocuments + ", completed=" + completed + "]";
+  }
+
+}
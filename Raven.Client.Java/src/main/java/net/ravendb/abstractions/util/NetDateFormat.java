@@ -20,6 +20,15 @@ public class NetDateFormat extends DateFormat {
   private static Calendar CALENDAR = new GregorianCalendar();
   private static NumberFormat NUMBER_FORMAT = new DecimalFormat();
 
+  private static final NetDateFormat SHARED_INSTANCE = new NetDateFormat();
+
+  /**
+   * Returns shared instance - format is thread safe, so there is no need to create new instance per usage.
+   */
+  public static NetDateFormat getSharedInstance() {
+    return SHARED_INSTANCE;
+  }
+
   public NetDateFormat() {
       this.numberFormat = NUMBER_FORMAT;
       this.calendar = CALENDAR;
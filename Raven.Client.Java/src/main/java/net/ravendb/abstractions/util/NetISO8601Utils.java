@@ -21,6 +21,16 @@ public class NetISO8601Utils {
    */
   private static final TimeZone TIMEZONE_GMT = TimeZone.getTimeZone(GMT_ID);
 
+  /**
+   * GMT calendar reused by formatting on given thread.
+   */
+  private static final ThreadLocal<Calendar> GMT_CALENDAR = new ThreadLocal<Calendar>() {
+    @Override
+    protected Calendar initialValue() {
+      return new GregorianCalendar(TIMEZONE_GMT, Locale.US);
+    }
+  };
+
   /**
    * Format a date into 'yyyy-MM-ddThh:mm:ssZ' (GMT timezone, no milliseconds precision)
    *
@@ -51,7 +61,7 @@ public class NetISO8601Utils {
    * @return the date formatted as yyyy-MM-ddThh:mm:ss[.sss][Z|[+-]hh:mm]
    */
   public static String format(Date date, boolean millis, TimeZone tz) {
-    Calendar calendar = new GregorianCalendar(tz, Locale.US);
+    Calendar calendar = (tz == TIMEZONE_GMT) ? GMT_CALENDAR.get() : new GregorianCalendar(tz, Locale.US);
     calendar.setTime(date);
 
     // estimate capacity of buffer as close as we can (yeah, that's pedantic ;)
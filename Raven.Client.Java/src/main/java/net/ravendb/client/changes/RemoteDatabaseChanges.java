@@ -103,36 +103,37 @@ public class RemoteDatabaseChanges extends RemoteChangesClientBase<IDatabaseChan
   @SuppressWarnings({"hiding", "boxing"})
   @Override
   protected void notifySubscribers(String type, RavenJObject value, List<DatabaseConnectionState> connections) {
-    JsonSerializer serializer = new JsonSerializer();
+    // modules registered in convention apply to notifications as well
+    JsonSerializer serializer = conventions.createSerializer();
     switch (type) {
       case "DocumentChangeNotification":
-        DocumentChangeNotification documentChangeNotification = serializer.deserialize(value.toString(), DocumentChangeNotification.class);
+        DocumentChangeNotification documentChangeNotification = serializer.deserialize(value, DocumentChangeNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(documentChangeNotification);
         }
         break;
 
       case "BulkInsertChangeNotification":
-        BulkInsertChangeNotification bulkInsertChangeNotification = serializer.deserialize(value.toString(), BulkInsertChangeNotification.class);
+        BulkInsertChangeNotification bulkInsertChangeNotification = serializer.deserialize(value, BulkInsertChangeNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(bulkInsertChangeNotification);
         }
         break;
 
       case "IndexChangeNotification":
-        IndexChangeNotification indexChangeNotification = serializer.deserialize(value.toString(), IndexChangeNotification.class);
+        IndexChangeNotification indexChangeNotification = serializer.deserialize(value, IndexChangeNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(indexChangeNotification);
         }
         break;
       case "TransformerChangeNotification":
-        TransformerChangeNotification transformerChangeNotification = serializer.deserialize(value.toString(), TransformerChangeNotification.class);
+        TransformerChangeNotification transformerChangeNotification = serializer.deserialize(value, TransformerChangeNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(transformerChangeNotification);
         }
         break;
       case "ReplicationConflictNotification":
-        ReplicationConflictNotification replicationConflictNotification = serializer.deserialize(value.toString(), ReplicationConflictNotification.class);
+        ReplicationConflictNotification replicationConflictNotification = serializer.deserialize(value, ReplicationConflictNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(replicationConflictNotification);
         }
@@ -146,7 +147,7 @@ public class RemoteDatabaseChanges extends RemoteChangesClientBase<IDatabaseChan
         }
         break;
       case "DataSubscriptionChangeNotification":
-        DataSubscriptionChangeNotification dataSubscriptionChangeNotification = serializer.deserialize(value.toString(), DataSubscriptionChangeNotification.class);
+        DataSubscriptionChangeNotification dataSubscriptionChangeNotification = serializer.deserialize(value, DataSubscriptionChangeNotification.class);
         for (DatabaseConnectionState counter : connections) {
           counter.send(dataSubscriptionChangeNotification);
         }
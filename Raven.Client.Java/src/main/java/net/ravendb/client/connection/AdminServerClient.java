@@ -58,7 +58,7 @@ public class AdminServerClient implements IAdminDatabaseCommands, IGlobalAdminDa
   public void createDatabase(DatabaseDocument databaseDocument) {
     Reference<RavenJObject> docRef = new Reference<>();
     try (HttpJsonRequest req = adminRequest.createDatabase(databaseDocument, docRef)) {
-      req.write(docRef.value.toString());
+      req.write(docRef.value);
       req.executeRequest();
     }
   }
@@ -129,7 +129,7 @@ public class AdminServerClient implements IAdminDatabaseCommands, IGlobalAdminDa
       backupRequest.setBackupLocation(backupLocation);
       backupRequest.setDatabaseDocument(databaseDocument);
 
-      request.write(RavenJObject.fromObject(backupRequest).toString());
+      request.write(RavenJObject.fromObject(backupRequest));
       request.executeRequest();
     }
   }
@@ -138,7 +138,7 @@ public class AdminServerClient implements IAdminDatabaseCommands, IGlobalAdminDa
   @Override
   public Operation startRestore(DatabaseRestoreRequest restoreRequest) {
     try (HttpJsonRequest request = adminRequest.createRestoreRequest()) {
-      request.write(RavenJObject.fromObject(restoreRequest).toString());
+      request.write(RavenJObject.fromObject(restoreRequest));
       RavenJToken jsonResponse = request.readResponseJson();
       return new Operation((ServerClient)innerServerClient.forSystemDatabase(), jsonResponse.value(Long.class, "OperationId"));
     }
@@ -3,6 +3,7 @@ package net.ravendb.client.connection;
 import net.ravendb.abstractions.basic.CleanCloseable;
 import net.ravendb.abstractions.basic.CloseableIterator;
 import net.ravendb.abstractions.basic.Reference;
+import net.ravendb.abstractions.closure.Action2;
 import net.ravendb.abstractions.commands.ICommandData;
 import net.ravendb.abstractions.connection.OperationCredentials;
 import net.ravendb.abstractions.data.*;
@@ -497,6 +498,17 @@ public interface IDatabaseCommands extends IHoldProfilingInformation {
    */
   public GetResponse[] multiGet(GetRequest[] requests);
 
+  /**
+   * Perform a single POST request containing multiple nested GET requests.
+   * Response is read as a stream and each nested response is passed to given action (together with its index)
+   * as soon as it is received, before the rest of the response is read. Responses are not kept after that.
+   * If request fails over to another server while response is read, responses which were already passed
+   * to action are not passed again.
+   * @param requests
+   * @param onResponse
+   */
+  public void multiGet(GetRequest[] requests, Action2<Integer, GetResponse> onResponse);
+
   /**
    * Perform a set based update using the specified index
    * @param indexName Name of an index to perform a query on
@@ -95,7 +95,7 @@ public class SerializationHelper {
     }
     if (StringUtils.isNotEmpty(ravenLastModified)) {
       try {
-        return new NetDateFormat().parse(ravenLastModified);
+        return NetDateFormat.getSharedInstance().parse(ravenLastModified);
       } catch (ParseException e) {
         throw new IllegalArgumentException(e.getMessage(), e);
       }
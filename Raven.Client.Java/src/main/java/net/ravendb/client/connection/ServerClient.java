@@ -28,6 +28,7 @@ import net.ravendb.client.changes.IDatabaseChanges;
 import net.ravendb.client.connection.ReplicationInformer.FailoverStatusChangedEventArgs;
 import net.ravendb.client.connection.implementation.HttpJsonRequest;
 import net.ravendb.client.connection.implementation.HttpJsonRequestFactory;
+import net.ravendb.client.connection.implementation.StreamingJsonEntity;
 import net.ravendb.client.connection.profiling.ProfilingInformation;
 import net.ravendb.client.document.*;
 import net.ravendb.client.exceptions.ConflictException;
@@ -43,6 +44,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
 
 import java.io.IOException;
@@ -800,7 +802,7 @@ public class ServerClient implements IDatabaseCommands {
 
       ErrorResponseException responseException;
       try {
-        jsonRequest.write(document.toString());
+        jsonRequest.write(document);
         RavenJObject responseJson = (RavenJObject) jsonRequest.readResponseJson();
 
         if (responseJson == null) {
@@ -897,7 +899,7 @@ public class ServerClient implements IDatabaseCommands {
         .addReplicationStatusHeaders(url, operationMetadata.getUrl(), replicationInformer, convention.getFailoverBehavior(), new HandleReplicationStatusChangesCallback())) {
         RavenJToken transformerDef = httpJsonRequest.readResponseJson();
         RavenJObject value = transformerDef.value(RavenJObject.class, "Transformer");
-        return convention.createSerializer().deserialize(value.toString(), TransformerDefinition.class);
+        return convention.createSerializer().deserialize(value, TransformerDefinition.class);
       }
     } catch (ErrorResponseException we) {
       if (we.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
@@ -1057,7 +1059,10 @@ public class ServerClient implements IDatabaseCommands {
     try (HttpJsonRequest request = jsonRequestFactory.createHttpJsonRequest(createHttpJsonRequestParams)
             .addReplicationStatusHeaders(url, operationMetadata.getUrl(), replicationInformer, convention.getFailoverBehavior(), new HandleReplicationStatusChangesCallback())) {
       if (!isGet) {
-        request.write(RavenJToken.fromObject(uniqueIds).toString());
+        request.write(RavenJToken.fromObject(uniqueIds));
+      }
+      if (convention.isParseDocumentsLazily()) {
+        request.parseDocumentsLazily("Results", "Includes");
       }
 
       RavenJToken result = request.readResponseJson();
@@ -1300,7 +1305,7 @@ public class ServerClient implements IDatabaseCommands {
         payload.add(item);
       }
 
-      request.write(payload.toString());
+      request.write(payload);
       request.executeRequest();
     }
   }
@@ -1386,7 +1391,7 @@ public class ServerClient implements IDatabaseCommands {
       request.setSkipServerCheck(cachedRequestDetails.isSkipServerCheck());
 
       RavenJObject json = (RavenJObject)request.readResponseJson();
-      return convention.createSerializer().deserialize(json.toString(), FacetResults.class);
+      return convention.createSerializer().deserialize(json, FacetResults.class);
     }
   }
 
@@ -1715,23 +1720,37 @@ public class ServerClient implements IDatabaseCommands {
 
   @Override
   public GetResponse[] multiGet(final GetRequest[] requests) {
-    return multiGetInternal(requests, null);
+    return multiGetInternal(requests, null, null);
+  }
+
+  @Override
+  public void multiGet(final GetRequest[] requests, final Action2<Integer, GetResponse> onResponse) {
+    multiGetInternal(requests, null, onResponse);
   }
 
-  private GetResponse[] multiGetInternal(final GetRequest[] requests, final Reference<OperationMetadata> operationMetadataRef) {
+  private GetResponse[] multiGetInternal(final GetRequest[] requests, final Reference<OperationMetadata> operationMetadataRef,
+    final Action2<Integer, GetResponse> onResponse) {
+    // responses passed to onResponse before failover aren't passed again when request is repeated on another server
+    final Reference<Integer> handledResponsesRef = new Reference<>(0);
     return executeWithReplication(HttpMethods.GET, new Function1<OperationMetadata, GetResponse[]>() {
       @Override
       public GetResponse[] apply(OperationMetadata operationMetadata) {
-        return directMultiGetInternal(operationMetadata, requests, operationMetadataRef);
+        return directMultiGetInternal(operationMetadata, requests, operationMetadataRef, onResponse, handledResponsesRef);
       }
     });
   }
 
-  protected GetResponse[] directMultiGetInternal(final OperationMetadata operationMetadata, GetRequest[] requests, Reference<OperationMetadata> operationMetadataRef) {
+  /**
+   * Sends multi get request. When onResponse is given, each response is passed to it as soon as it is read
+   * (skipping first handledResponsesRef responses, which were already handled) and null is returned.
+   */
+  @SuppressWarnings("boxing")
+  protected GetResponse[] directMultiGetInternal(final OperationMetadata operationMetadata, GetRequest[] requests, Reference<OperationMetadata> operationMetadataRef,
+    final Action2<Integer, GetResponse> onResponse, final Reference<Integer> handledResponsesRef) {
     if (operationMetadataRef != null) {
       operationMetadataRef.value = operationMetadata;
     }
-    MultiGetOperation multiGetOperation = new MultiGetOperation(this, convention, operationMetadata.getUrl(), requests);
+    final MultiGetOperation multiGetOperation = new MultiGetOperation(this, convention, operationMetadata.getUrl(), requests);
     // logical GET even though the actual request is a POST
     try (HttpJsonRequest httpJsonRequest = jsonRequestFactory.createHttpJsonRequest(new CreateHttpJsonRequestParams(this, multiGetOperation.getRequestUri(),
       HttpMethods.POST, new RavenJObject(), operationMetadata.getCredentials(), convention))) {
@@ -1741,24 +1760,59 @@ public class ServerClient implements IDatabaseCommands {
       String postedData = JsonConvert.serializeObject(requestsForServer);
 
       if (multiGetOperation.canFullyCache(jsonRequestFactory, httpJsonRequest, postedData)) {
-        return multiGetOperation.handleCachingResponse(new GetResponse[requests.length],
+        GetResponse[] responses = multiGetOperation.handleCachingResponse(new GetResponse[requests.length],
           jsonRequestFactory);
+        if (onResponse == null) {
+          return responses;
+        }
+        for (int i = handledResponsesRef.value; i < responses.length; i++) {
+          onResponse.apply(i, responses[i]);
+          handledResponsesRef.value = i + 1;
+        }
+        return null;
       }
 
       httpJsonRequest.write(postedData);
-      RavenJArray results = (RavenJArray)httpJsonRequest.readResponseJson();
-
-      GetResponse[] responses = convention.createSerializer().deserialize(results, GetResponse[].class);
 
-      multiGetOperation.tryResolveConflictOrCreateConcurrencyException(responses, new Function3<String, RavenJObject, Etag, ConflictException>() {
+      // each response is handled as soon as it is parsed, without building whole response array first
+      final GetResponse[] responses = onResponse == null ? new GetResponse[requests.length] : null;
+      final int requestCount = requests.length;
+      final JsonSerializer serializer = convention.createSerializer();
+      final Function3<String, RavenJObject, Etag, ConflictException> conflictResolver = new Function3<String, RavenJObject, Etag, ConflictException>() {
         @SuppressWarnings("synthetic-access")
         @Override
         public ConflictException apply(String key, RavenJObject conflictsDoc, Etag etag) {
           return tryResolveConflictOrCreateConcurrencyException(operationMetadata, key, conflictsDoc, etag);
         }
+      };
+      httpJsonRequest.readResponseJsonArray(new Action1<RavenJToken>() {
+        private int index;
+
+        @SuppressWarnings("synthetic-access")
+        @Override
+        public void apply(RavenJToken element) {
+          if (index >= requestCount) {
+            throw new IllegalStateException("Got more responses than requests from multi get, expected: " + requestCount);
+          }
+          if (index < handledResponsesRef.value) {
+            // already handled before failover
+            index++;
+            return;
+          }
+          GetResponse response = element.getType() == JTokenType.NULL ? null : serializer.deserialize(element, GetResponse.class);
+          multiGetOperation.tryResolveConflictOrCreateConcurrencyException(response, conflictResolver);
+          response = multiGetOperation.handleCachingResponse(index, response, jsonRequestFactory);
+          if (responses != null) {
+            responses[index] = response;
+          } else {
+            onResponse.apply(index, response);
+            handledResponsesRef.value = index + 1;
+          }
+          index++;
+        }
       });
 
-      return multiGetOperation.handleCachingResponse(responses, jsonRequestFactory);
+      return multiGetOperation.addCachingProfilingInformation(responses);
     }
   }
 
@@ -1819,6 +1873,9 @@ public class ServerClient implements IDatabaseCommands {
       .addReplicationStatusHeaders(url, operationMetadata.getUrl(), replicationInformer,
         convention.getFailoverBehavior(),
         new HandleReplicationStatusChangesCallback())) {
+      if (convention.isParseDocumentsLazily()) {
+        request.parseDocumentsLazily("Results", "Includes");
+      }
       RavenJObject json = (RavenJObject)request.readResponseJson();
 
       ErrorResponseException responseException;
@@ -1881,7 +1938,7 @@ public class ServerClient implements IDatabaseCommands {
     try {
       Reference<OperationMetadata> operationMetadataRef = new Reference<OperationMetadata>();
 
-      GetResponse[] x = multiGetInternal(new GetRequest[] { getRequest }, operationMetadataRef);
+      GetResponse[] x = multiGetInternal(new GetRequest[] { getRequest }, operationMetadataRef, null);
       GetResponse getResponse = x[0];
       RavenJObject json = (RavenJObject) getResponse.getResult();
       QueryResult queryResult = SerializationHelper.toQueryResult(json, HttpExtensions.getEtagHeader(getResponse), getResponse.getHeaders().get("Temp-Request-Time"), -1);
@@ -1992,17 +2049,16 @@ public class ServerClient implements IDatabaseCommands {
       .addOperationHeaders(operationsHeaders))
       .addReplicationStatusHeaders(url, operationMetadata.getUrl(), replicationInformer, convention.getFailoverBehavior(), new HandleReplicationStatusChangesCallback())) {
 
-      RavenJArray jArray = new RavenJArray();
-      for (ICommandData command: commandDatas) {
-        jArray.add(command.toJson());
-      }
-
       ErrorResponseException responseException;
       try {
-        req.write(jArray.toString());
+        req.write(createBatchEntity(commandDatas));
         RavenJArray response = (RavenJArray)req.readResponseJson();
 
         if (response == null) {
+          RavenJArray jArray = new RavenJArray();
+          for (ICommandData command: commandDatas) {
+            jArray.add(command.toJson());
+          }
           throw new IllegalStateException("Got null response from the server after doing a batch, something is very wrong. Probably a garbled response. Posted: " + jArray);
         }
         return JsonConvert.deserializeObject(BatchResult[].class, response.toString());
@@ -2016,6 +2072,23 @@ public class ServerClient implements IDatabaseCommands {
     }
   }
 
+  /**
+   * Creates request body which serializes commands one by one straight into request stream, so
+   * JSON of whole batch is never kept in memory.
+   */
+  private static StreamingJsonEntity createBatchEntity(final List<ICommandData> commandDatas) {
+    return new StreamingJsonEntity() {
+      @Override
+      protected void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (ICommandData command: commandDatas) {
+          command.toJson().writeTo(generator);
+        }
+        generator.writeEndArray();
+      }
+    };
+  }
+
   protected ConcurrencyException fetchConcurrencyException(ErrorResponseException e) {
     String text = e.getResponseString();
     RavenJObject ravenJToken = RavenJObject.parse(text);
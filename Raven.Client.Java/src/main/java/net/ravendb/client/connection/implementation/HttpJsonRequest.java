@@ -28,7 +28,9 @@ import net.ravendb.abstractions.exceptions.IndexCompilationException;
 import net.ravendb.abstractions.exceptions.JsonReaderException;
 import net.ravendb.abstractions.exceptions.JsonWriterException;
 import net.ravendb.abstractions.exceptions.ServerVersionNotSuppportedException;
+import net.ravendb.abstractions.extensions.JsonExtensions;
 import net.ravendb.abstractions.json.linq.JTokenType;
+import net.ravendb.abstractions.json.linq.RavenJArray;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.json.linq.RavenJToken;
 import net.ravendb.abstractions.util.NetDateFormat;
@@ -73,6 +75,8 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 
 import com.google.common.io.Closeables;
 
@@ -100,6 +104,7 @@ public class HttpJsonRequest implements CleanCloseable {
   private final Convention conventions;
   private boolean disabledAuthRetries;
   private String postedData;
+  private StreamingJsonEntity postedEntity;
   private boolean isRequestSendToServer;
 
   boolean shouldCacheRequest;
@@ -126,6 +131,8 @@ public class HttpJsonRequest implements CleanCloseable {
 
   private Map<String, String> defaultRequestHeaders = new HashMap<>();
 
+  private String[] lazilyParsedArrays;
+
   @SuppressWarnings("boxing")
   public HttpJsonRequest(CreateHttpJsonRequestParams requestParams, HttpJsonRequestFactory factory) {
     sp = new StopWatch();
@@ -172,16 +179,18 @@ public class HttpJsonRequest implements CleanCloseable {
     if (skipServerCheck) {
       RavenJToken result = factory.getCachedResponse(this, null);
 
-      RequestResultArgs args = new RequestResultArgs();
-      args.setDurationMilliseconds(calculateDuration());
-      args.setMethod(method);
-      args.setHttpResult(responseStatusCode);
-      args.setStatus(RequestStatus.AGGRESSIVELY_CACHED);
-      args.setResult(result.toString());
-      args.setUrl(url);
-      args.setPostedData(postedData);
-
-      factory.onLogRequest(owner, args);
+      if (factory.isLogRequestEnabled()) {
+        RequestResultArgs args = new RequestResultArgs();
+        args.setDurationMilliseconds(calculateDuration());
+        args.setMethod(method);
+        args.setHttpResult(responseStatusCode);
+        args.setStatus(RequestStatus.AGGRESSIVELY_CACHED);
+        args.setResult(result.toString());
+        args.setUrl(url);
+        args.setPostedData(getPostedData());
+
+        factory.onLogRequest(owner, args);
+      }
 
       return result;
     }
@@ -303,16 +312,18 @@ public class HttpJsonRequest implements CleanCloseable {
     if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED ||
       response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_FOUND ||
       response.getStatusLine().getStatusCode() == HttpStatus.SC_CONFLICT) {
-      RequestResultArgs requestResultArgs = new RequestResultArgs();
-      requestResultArgs.setDurationMilliseconds(calculateDuration());
-      requestResultArgs.setMethod(method);
-      requestResultArgs.setHttpResult(response.getStatusLine().getStatusCode());
-      requestResultArgs.setStatus(RequestStatus.ERROR_ON_SERVER);
-      requestResultArgs.setResult(response.getStatusLine().getReasonPhrase());
-      requestResultArgs.setUrl(url);
-      requestResultArgs.setPostedData(postedData);
-
-      factory.onLogRequest(owner, requestResultArgs);
+      if (factory.isLogRequestEnabled()) {
+        RequestResultArgs requestResultArgs = new RequestResultArgs();
+        requestResultArgs.setDurationMilliseconds(calculateDuration());
+        requestResultArgs.setMethod(method);
+        requestResultArgs.setHttpResult(response.getStatusLine().getStatusCode());
+        requestResultArgs.setStatus(RequestStatus.ERROR_ON_SERVER);
+        requestResultArgs.setResult(response.getStatusLine().getReasonPhrase());
+        requestResultArgs.setUrl(url);
+        requestResultArgs.setPostedData(getPostedData());
+
+        factory.onLogRequest(owner, requestResultArgs);
+      }
 
       throw ErrorResponseException.fromResponseMessage(response, readErrorString);
     }
@@ -322,14 +333,16 @@ public class HttpJsonRequest implements CleanCloseable {
       RavenJToken result = factory.getCachedResponse(this, responseHeaders);
       handleReplicationStatusChanges.apply(responseHeaders, primaryUrl, operationUrl);
 
-      RequestResultArgs requestResultArgs = new RequestResultArgs();
-      requestResultArgs.setDurationMilliseconds(calculateDuration());
-      requestResultArgs.setMethod(method);
-      requestResultArgs.setStatus(RequestStatus.CACHED);
-      requestResultArgs.setResult(result.toString());
-      requestResultArgs.setUrl(url);
-      requestResultArgs.setPostedData(postedData);
-      factory.onLogRequest(owner, requestResultArgs);
+      if (factory.isLogRequestEnabled()) {
+        RequestResultArgs requestResultArgs = new RequestResultArgs();
+        requestResultArgs.setDurationMilliseconds(calculateDuration());
+        requestResultArgs.setMethod(method);
+        requestResultArgs.setStatus(RequestStatus.CACHED);
+        requestResultArgs.setResult(result.toString());
+        requestResultArgs.setUrl(url);
+        requestResultArgs.setPostedData(getPostedData());
+        factory.onLogRequest(owner, requestResultArgs);
+      }
 
       return result;
     }
@@ -344,15 +357,17 @@ public class HttpJsonRequest implements CleanCloseable {
       }
     }
 
-    RequestResultArgs requestResultArgs = new RequestResultArgs();
-    requestResultArgs.setDurationMilliseconds(calculateDuration());
-    requestResultArgs.setMethod(method);
-    requestResultArgs.setHttpResult(response.getStatusLine().getStatusCode());
-    requestResultArgs.setStatus(RequestStatus.CACHED);
-    requestResultArgs.setResult(readToEnd);
-    requestResultArgs.setUrl(url);
-    requestResultArgs.setPostedData(postedData);
-    factory.onLogRequest(owner, requestResultArgs);
+    if (factory.isLogRequestEnabled()) {
+      RequestResultArgs requestResultArgs = new RequestResultArgs();
+      requestResultArgs.setDurationMilliseconds(calculateDuration());
+      requestResultArgs.setMethod(method);
+      requestResultArgs.setHttpResult(response.getStatusLine().getStatusCode());
+      requestResultArgs.setStatus(RequestStatus.CACHED);
+      requestResultArgs.setResult(readToEnd);
+      requestResultArgs.setUrl(url);
+      requestResultArgs.setPostedData(getPostedData());
+      factory.onLogRequest(owner, requestResultArgs);
+    }
 
     if (StringUtils.isBlank(readToEnd)) {
       throw ErrorResponseException.fromResponseMessage(response, true);
@@ -452,7 +467,9 @@ public class HttpJsonRequest implements CleanCloseable {
     try (InputStream responseStream = response.getEntity() != null
       ? response.getEntity().getContent() : new ByteArrayInputStream(new byte[0])) {
       CountingStream countingStream = new CountingStream(responseStream);
-      RavenJToken data = RavenJToken.tryLoad(countingStream);
+      RavenJToken data = (lazilyParsedArrays != null)
+        ? RavenJToken.tryLoadLazily(IOUtils.toByteArray(countingStream), lazilyParsedArrays)
+        : RavenJToken.tryLoad(countingStream);
 
       size = countingStream.getNumberOfReadBytes();
 
@@ -460,23 +477,84 @@ public class HttpJsonRequest implements CleanCloseable {
         factory.cacheResponse(url, data, responseHeaders);
       }
 
+      if (factory.isLogRequestEnabled()) {
+        RequestResultArgs args = new RequestResultArgs();
+        args.setDurationMilliseconds(calculateDuration());
+        args.setMethod(method);
+        args.setHttpResult(responseStatusCode);
+        args.setStatus(RequestStatus.SEND_TO_SERVER);
+        args.setResult((data != null) ? data.toString() : "");
+        args.setUrl(url);
+        args.setPostedData(getPostedData());
+
+        factory.onLogRequest(owner, args);
+      }
+
+      return data;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Reads response, which is JSON array, element by element. Each element is passed to given action
+   * as soon as it is parsed, before rest of the response is read.
+   */
+  public void readResponseJsonArray(Action1<RavenJToken> onElement) {
+    if (!writeCalled) {
+      RavenJArray result = (RavenJArray) readResponseJson();
+      for (RavenJToken element : result) {
+        onElement.apply(element);
+      }
+      return;
+    }
+
+    handleReplicationStatusChanges.apply(responseHeaders, primaryUrl, operationUrl);
+
+    RavenJArray loggedData = factory.isLogRequestEnabled() ? new RavenJArray() : null;
+    try (InputStream responseStream = response.getEntity() != null
+      ? response.getEntity().getContent() : new ByteArrayInputStream(new byte[0])) {
+      CountingStream countingStream = new CountingStream(responseStream);
+      JsonParser parser = JsonExtensions.getDefaultJsonFactory().createJsonParser(countingStream);
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonReaderException("Expected JSON array in response, got: " + parser.getCurrentToken());
+      }
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        RavenJToken element = RavenJToken.load(parser);
+        if (loggedData != null) {
+          loggedData.add(element);
+        }
+        onElement.apply(element);
+      }
+
+      size = countingStream.getNumberOfReadBytes();
+    } catch (IOException e) {
+      throw new JsonReaderException(e.getMessage(), e);
+    }
+
+    if (loggedData != null) {
       RequestResultArgs args = new RequestResultArgs();
       args.setDurationMilliseconds(calculateDuration());
       args.setMethod(method);
       args.setHttpResult(responseStatusCode);
       args.setStatus(RequestStatus.SEND_TO_SERVER);
-      args.setResult((data != null) ? data.toString() : "");
+      args.setResult(loggedData.toString());
       args.setUrl(url);
-      args.setPostedData(postedData);
+      args.setPostedData(getPostedData());
 
       factory.onLogRequest(owner, args);
-
-      return data;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Keeps objects in given top level arrays of response (ex. query results) as raw JSON,
+   * which is parsed when object is accessed for the first time.
+   */
+  public HttpJsonRequest parseDocumentsLazily(String... documentArrays) {
+    this.lazilyParsedArrays = documentArrays;
+    return this;
+  }
+
   public HttpJsonRequest addOperationHeaders(Map<String, String> operationsHeaders) {
     for (Entry<String, String> header : operationsHeaders.entrySet()) {
       headers.put(header.getKey(), header.getValue());
@@ -615,6 +693,30 @@ public class HttpJsonRequest implements CleanCloseable {
     postedData = data;
     writeCalled = true;
 
+    StringEntity innerEntity = new StringEntity(data, ContentType.APPLICATION_JSON);
+    innerEntity.setChunked(true);
+    writeEntity(innerEntity);
+  }
+
+  /**
+   * Writes JSON straight into request stream, without building whole request body in memory.
+   */
+  public void write(final RavenJToken data) {
+    write(StreamingJsonEntity.of(data));
+  }
+
+  /**
+   * Writes JSON produced by given entity straight into request stream. Entity is written again
+   * if request has to be retried.
+   */
+  public void write(final StreamingJsonEntity data) {
+    postedEntity = data;
+    writeCalled = true;
+
+    writeEntity(data);
+  }
+
+  private void writeEntity(final HttpEntity innerEntity) {
     sendRequestInternal(new Function0<HttpUriRequest>() {
       @SuppressWarnings("synthetic-access")
       @Override
@@ -622,8 +724,6 @@ public class HttpJsonRequest implements CleanCloseable {
         HttpUriRequest request = createWebRequest(url, method);
         HttpEntityEnclosingRequestBase requestMethod = (HttpEntityEnclosingRequestBase) request;
         HttpEntity entity = null;
-        StringEntity innerEntity = new StringEntity(data, ContentType.APPLICATION_JSON);
-        innerEntity.setChunked(true);
         if (factory.isDisableRequestCompression()) {
           entity = innerEntity;
         } else {
@@ -635,6 +735,17 @@ public class HttpJsonRequest implements CleanCloseable {
     }, true);
   }
 
+  private String getPostedData() {
+    if (postedData == null && postedEntity != null) {
+      try {
+        return IOUtils.toString(postedEntity.getContent(), "UTF-8");
+      } catch (IOException e) {
+        throw new JsonWriterException(e.getMessage(), e);
+      }
+    }
+    return postedData;
+  }
+
   public CloseableHttpResponse executeRawResponse(String data) throws IOException {
     return executeRawResponseInternal(new StringEntity(data));
   }
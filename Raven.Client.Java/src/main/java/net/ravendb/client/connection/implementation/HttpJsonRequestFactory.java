@@ -272,6 +272,13 @@ public class HttpJsonRequestFactory implements CleanCloseable {
     numOfCachedRequests.incrementAndGet();
   }
 
+  /**
+   * @return true if any log request handler is registered, so request results have to be serialized for it
+   */
+  public boolean isLogRequestEnabled() {
+    return !logRequest.isEmpty();
+  }
+
   public void onLogRequest(IHoldProfilingInformation sender, RequestResultArgs requestResult) {
     EventHelper.invoke(logRequest, sender, requestResult);
   }
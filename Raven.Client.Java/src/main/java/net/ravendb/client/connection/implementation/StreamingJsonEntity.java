@@ -0,0 +1,69 @@
+package net.ravendb.client.connection.implementation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import net.ravendb.abstractions.extensions.JsonExtensions;
+import net.ravendb.abstractions.json.linq.RavenJToken;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+
+/**
+ * Request entity which serializes JSON straight into request stream, so body is never kept in memory as a whole.
+ * Entity is written again when request is retried.
+ */
+public abstract class StreamingJsonEntity extends AbstractHttpEntity {
+
+  protected StreamingJsonEntity() {
+    setContentType(ContentType.APPLICATION_JSON.toString());
+    setChunked(true);
+  }
+
+  public static StreamingJsonEntity of(final RavenJToken token) {
+    return new StreamingJsonEntity() {
+      @Override
+      protected void writeJson(JsonGenerator generator) throws IOException {
+        token.writeTo(generator);
+      }
+    };
+  }
+
+  protected abstract void writeJson(JsonGenerator generator) throws IOException;
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    writeTo(content);
+    return new ByteArrayInputStream(content.toByteArray());
+  }
+
+  @Override
+  public void writeTo(OutputStream outstream) throws IOException {
+    JsonGenerator generator = JsonExtensions.getDefaultJsonFactory().createJsonGenerator(outstream, JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    writeJson(generator);
+    generator.close();
+  }
+
+}
@@ -34,7 +34,6 @@ import net.ravendb.abstractions.spatial.WktSanitizer;
 import net.ravendb.abstractions.util.NetDateFormat;
 import net.ravendb.abstractions.util.NetISO8601Utils;
 import net.ravendb.abstractions.util.RavenQuery;
-import net.ravendb.abstractions.util.TimeUtils;
 import net.ravendb.abstractions.util.ValueTypeUtils;
 import net.ravendb.client.EscapeQueryOptions;
 import net.ravendb.client.FieldHighlightings;
@@ -50,6 +49,7 @@ import net.ravendb.client.linq.LinqPathProvider;
 import net.ravendb.client.listeners.IDocumentQueryListener;
 import net.ravendb.client.shard.ShardReduceFunction;
 import net.ravendb.client.spatial.SpatialCriteria;
+import net.ravendb.client.utils.RetryBackoff;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
@@ -105,6 +105,11 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
 
   protected Tuple<String, String> lastEquality;
 
+  /**
+   * Top level equality and in clauses, used to route query to shards
+   */
+  protected QueryFieldValues fieldValues = new QueryFieldValues();
+
   protected Map<String, RavenJToken> transformerParameters = new HashMap<>();
 
   /**
@@ -350,6 +355,7 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
     sortByHints = other.sortByHints;
     pageSize = other.pageSize;
     queryText = other.queryText;
+    fieldValues = other.fieldValues;
     start = other.start;
     timeout = other.timeout;
     theWaitForNonStaleResults = other.theWaitForNonStaleResults;
@@ -580,17 +586,24 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
 
   protected void executeActualQuery() {
     theSession.incrementRequestCount();
-    while (true) {
-      try (CleanCloseable context = queryOperation.enterQueryContext()) {
-        queryOperation.logQuery();
-        QueryResult result = getDatabaseCommands().query(indexName, queryOperation.getIndexQuery(),
-          includes.toArray(new String[0]));
-        if (!queryOperation.isAcceptable(result)) {
-          TimeUtils.cleanSleep(100);
-          continue;
+    RetryBackoff backoff = new RetryBackoff(0);
+    try {
+      while (true) {
+        try (CleanCloseable context = queryOperation.enterQueryContext()) {
+          queryOperation.logQuery();
+          QueryResult result = getDatabaseCommands().query(indexName, queryOperation.getIndexQuery(),
+            includes.toArray(new String[0]));
+          if (!queryOperation.isAcceptable(result)) {
+            queryOperation.waitBeforeRetry(backoff);
+            continue;
+          }
+          break;
         }
-        break;
       }
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    } finally {
+      queryOperation.stopWaitingForIndexChanges();
     }
     invokeAfterQueryExecuted(queryOperation.getCurrentQueryResults());
   }
@@ -883,6 +896,7 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
   @Override
   @SuppressWarnings("unchecked")
   public IDocumentQuery<T> where(String whereClause) {
+    fieldValues.markUnknown(currentClauseDepth);
     appendSpaceIfNeeded(queryText.length() > 0 && queryText.charAt(queryText.length() - 1) != '(');
     queryText.append(whereClause);
     return (IDocumentQuery<T>) this;
@@ -928,9 +942,9 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
   @Override
   @SuppressWarnings("unchecked")
   public IDocumentQuery<T> openSubclause() {
-    currentClauseDepth++;
     appendSpaceIfNeeded(queryText.length() > 0 && queryText.charAt(queryText.length() - 1) != '(');
     negateIfNeeded();
+    currentClauseDepth++;
     queryText.append("(");
     return (IDocumentQuery<T>) this;
   }
@@ -965,6 +979,9 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
 
     appendSpaceIfNeeded(queryText.length() > 0 && queryText.charAt(queryText.length() - 1) != '(');
     negateIfNeeded();
+    if (isExactValue(whereParams)) {
+      fieldValues.equality(currentClauseDepth, whereParams.getFieldName(), Collections.singleton(whereParams.getValue()));
+    }
 
     queryText.append(RavenQuery.escapeField(whereParams.getFieldName()));
     queryText.append(":");
@@ -972,6 +989,14 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
     return (IDocumentQuery<T>) this;
   }
 
+  private static boolean isExactValue(WhereParams whereParams) {
+    Object value = whereParams.getValue();
+    if (value == null) {
+      return false;
+    }
+    return !whereParams.isAllowWildcards() || !(value instanceof String) || !StringUtils.containsAny((String) value, "*?");
+  }
+
   private String ensureValidFieldName(WhereParams whereParams) {
     if (theSession == null || theSession.getConventions() == null || whereParams.isNestedPath() || isMapReduce) {
       return whereParams.getFieldName();
@@ -997,6 +1022,7 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
   }
 
   private void negateIfNeeded() {
+    fieldValues.clauseStarted(currentClauseDepth, negate);
     if (negate == false) {
       return;
     }
@@ -1022,6 +1048,12 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
       queryText.append("@emptyIn<").append(fieldName).append(">:(no-results)");
       return (IDocumentQuery<T>) this;
     }
+    if (!list.contains(null) && !(list.iterator().next() instanceof Collection)) {
+      // record field under the same name as whereEquals does, so identity property maps to document id
+      WhereParams fieldParams = new WhereParams();
+      fieldParams.setFieldName(fieldName);
+      fieldValues.equality(currentClauseDepth, ensureValidFieldName(fieldParams), list);
+    }
 
     queryText.append("@in<").append(fieldName).append(">:(");
 
@@ -1262,6 +1294,7 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
     if (queryText.length() < 1) return (IDocumentQuery<T>) this;
 
     queryText.append(" AND");
+    fieldValues.operator(currentClauseDepth, QueryOperator.AND);
     return (IDocumentQuery<T>) this;
   }
 
@@ -1276,6 +1309,7 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
     }
 
     queryText.append(" OR");
+    fieldValues.operator(currentClauseDepth, QueryOperator.OR);
     return (IDocumentQuery<T>) this;
   }
 
@@ -1883,9 +1917,18 @@ public abstract class AbstractDocumentQuery<T, TSelf extends AbstractDocumentQue
     return lastEquality;
   }
 
+  /**
+   * Gets values which every result has in given field, based on top level equality and in clauses.
+   * Returns null if query contains raw query text.
+   */
+  public Map<String, Set<Object>> getQueryFieldValues() {
+    return fieldValues.toMap(defaultOperator);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public IDocumentQuery<T> intersect() {
+    fieldValues.markUnknown(currentClauseDepth);
     queryText.append(Constants.INTERSECT_SEPARATOR);
     return (IDocumentQuery<T>) this;
   }
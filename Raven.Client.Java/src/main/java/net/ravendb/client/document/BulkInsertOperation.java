@@ -98,13 +98,19 @@ public class BulkInsertOperation implements CleanCloseable {
   }
 
   public void store(Object entity, String id) throws InterruptedException {
-
-    if (operation.isAborted()) {
-      throw new IllegalStateException("Bulk insert has been aborted or the operation was timed out");
-    }
+    assertNotAborted();
 
     RavenJObject metadata = new RavenJObject();
+    RavenJObject data = convertEntityToJson(id, entity, metadata);
+
+    operation.write(id, metadata, data);
+  }
 
+  /**
+   * Converts entity to document and fills its metadata, the result is written using {@link #write(String, RavenJObject, RavenJObject)}.
+   * Allows to take snapshot of entity on one thread and write it on another.
+   */
+  RavenJObject convertEntityToJson(String id, Object entity, RavenJObject metadata) {
     String tag = documentStore.getConventions().getDynamicTagName(entity);
     if (tag != null) {
       metadata.add(Constants.RAVEN_ENTITY_NAME, tag);
@@ -112,10 +118,23 @@ public class BulkInsertOperation implements CleanCloseable {
     RavenJObject data = entityToJson.convertEntityToJson(id, entity, metadata);
 
     onBeforeEntityInsert(id, data, metadata);
+    return data;
+  }
 
+  /**
+   * Writes document converted by {@link #convertEntityToJson(String, Object, RavenJObject)}.
+   */
+  void write(String id, RavenJObject metadata, RavenJObject data) throws InterruptedException {
+    assertNotAborted();
     operation.write(id, metadata, data);
   }
 
+  private void assertNotAborted() {
+    if (operation.isAborted()) {
+      throw new IllegalStateException("Bulk insert has been aborted or the operation was timed out");
+    }
+  }
+
   private void onBeforeEntityInsert(String id, RavenJObject data, RavenJObject metadata) {
     for (BeforeEntityInsert event: onBeforeEntityInsert) {
       event.apply(id, data, metadata);
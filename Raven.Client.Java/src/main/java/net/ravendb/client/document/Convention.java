@@ -3,16 +3,19 @@ package net.ravendb.client.document;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.reflect.FieldUtils;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 
 import com.mysema.query.types.Expression;
+import com.mysema.query.types.Path;
 
+import net.ravendb.abstractions.basic.Reference;
 import net.ravendb.abstractions.closure.Action1;
 import net.ravendb.abstractions.connection.OperationCredentials;
 import net.ravendb.abstractions.replication.ReplicationClientConfiguration;
@@ -21,13 +24,18 @@ import net.ravendb.client.delegates.HttpResponseWithMetaHandler;
 import net.ravendb.client.delegates.IdentityPropertyFinder;
 import net.ravendb.client.delegates.RequestCachePolicy;
 import net.ravendb.client.indexes.AbstractIndexCreationTask;
+import net.ravendb.client.linq.ExpressionInfo;
 import net.ravendb.client.linq.LinqPathProvider;
 
 
 @SuppressWarnings("unused")
 public class Convention {
 
-  private Map<Class<?>, Field> idPropertyCache = new HashMap<>();
+  private final ConcurrentMap<Class<?>, Reference<IdentityPropertyAccessor>> identityAccessors = new ConcurrentHashMap<>();
+
+  private static final int MAX_CACHED_QUERY_MEMBERS = 4096;
+
+  private final ConcurrentMap<QueryMemberKey, ExpressionInfo> queryMembers = new ConcurrentHashMap<>();
 
   private FailoverBehaviorSet failoverBehavior = new FailoverBehaviorSet();
 
@@ -80,14 +88,75 @@ public class Convention {
    * Gets the identity property.
    * @param type
    */
-  @SuppressWarnings("boxing")
   public Field getIdentityProperty(Class<?> type) {
-    if (idPropertyCache.containsKey(type)) {
-      return idPropertyCache.get(type);
+    IdentityPropertyAccessor accessor = getIdentityPropertyAccessor(type);
+    return (accessor != null) ? accessor.getField() : null;
+  }
+
+  /**
+   * Gets accessor of the identity property or null if given type doesn't have identity property.
+   * Accessors are resolved once per type.
+   * @param type
+   */
+  public IdentityPropertyAccessor getIdentityPropertyAccessor(Class<?> type) {
+    Reference<IdentityPropertyAccessor> accessor = identityAccessors.get(type);
+    if (accessor == null) {
+      Field identityProperty = resolveIdentityProperty(type);
+      accessor = new Reference<>(identityProperty != null ? new IdentityPropertyAccessor(identityProperty) : null);
+      Reference<IdentityPropertyAccessor> existing = identityAccessors.putIfAbsent(type, accessor);
+      if (existing != null) {
+        accessor = existing;
+      }
+    }
+    return accessor.value;
+  }
+
+  /**
+   * Drops cached identity accessors, so they are resolved again using current conventions.
+   */
+  protected void clearIdentityAccessors() {
+    identityAccessors.clear();
+  }
+
+  /**
+   * Gets query member translated earlier for given member expression, query type, index and collection path
+   * or null if it wasn't translated yet.
+   * @param member
+   * @param queryType
+   * @param indexName
+   * @param currentPath
+   */
+  public ExpressionInfo getCachedQueryMember(Path<?> member, Class<?> queryType, String indexName, String currentPath) {
+    return queryMembers.get(new QueryMemberKey(member, queryType, indexName, currentPath));
+  }
+
+  /**
+   * Remembers translation of member expression, so next queries using the same member only bind values.
+   * Cache is dropped when it grows too large - it is the case when members are built dynamically.
+   * @param member
+   * @param queryType
+   * @param indexName
+   * @param currentPath
+   * @param memberInfo
+   */
+  public void cacheQueryMember(Path<?> member, Class<?> queryType, String indexName, String currentPath, ExpressionInfo memberInfo) {
+    if (queryMembers.size() >= MAX_CACHED_QUERY_MEMBERS) {
+      queryMembers.clear();
     }
+    queryMembers.put(new QueryMemberKey(member, queryType, indexName, currentPath), memberInfo);
+  }
+
+  /**
+   * Drops cached query members, so they are translated again using current conventions.
+   */
+  protected void clearQueryMembers() {
+    queryMembers.clear();
+  }
+
+  @SuppressWarnings("boxing")
+  private Field resolveIdentityProperty(Class<?> type) {
     // we want to ignore nested entities from index creation tasks
     if (type.isMemberClass() && type.getDeclaringClass() != null && AbstractIndexCreationTask.class.isAssignableFrom(type.getDeclaringClass())) {
-      idPropertyCache.put(type, null);
       return null;
     }
 
@@ -106,7 +175,6 @@ public class Convention {
       }
     }
 
-    idPropertyCache.put(type, identityProperty);
     return identityProperty;
   }
 
@@ -146,6 +214,7 @@ public class Convention {
    */
   public void setFindIdentityProperty(IdentityPropertyFinder findIdentityProperty) {
     this.findIdentityProperty = findIdentityProperty;
+    clearIdentityAccessors();
   }
 
   /**
@@ -207,6 +276,7 @@ public class Convention {
 
   public void registerCustomQueryTranslator(CustomQueryExpressionTranslator translator) {
     customQueryTranslators.add(translator);
+    clearQueryMembers();
   }
 
   public LinqPathProvider.Result translateCustomQueryExpression(LinqPathProvider provider, Expression<?> expression) {
@@ -234,4 +304,47 @@ public class Convention {
     this.saveEnumsAsIntegers = saveEnumsAsIntegers;
   }
 
+  private static final class QueryMemberKey {
+    private final Path<?> member;
+    private final Class<?> rootType;
+    private final Class<?> queryType;
+    private final String indexName;
+    private final String currentPath;
+
+    public QueryMemberKey(Path<?> member, Class<?> queryType, String indexName, String currentPath) {
+      this.member = member;
+      // paths are compared by names only, so type of root is needed to tell apart members of different classes
+      this.rootType = member.getRoot().getType();
+      this.queryType = queryType;
+      this.indexName = indexName;
+      this.currentPath = currentPath;
+    }
+
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      int result = member.hashCode();
+      result = prime * result + rootType.hashCode();
+      result = prime * result + ((queryType == null) ? 0 : queryType.hashCode());
+      result = prime * result + ((indexName == null) ? 0 : indexName.hashCode());
+      result = prime * result + ((currentPath == null) ? 0 : currentPath.hashCode());
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof QueryMemberKey)) {
+        return false;
+      }
+      QueryMemberKey other = (QueryMemberKey) obj;
+      return member.equals(other.member) && rootType.equals(other.rootType)
+        && Objects.equals(queryType, other.queryType)
+        && Objects.equals(indexName, other.indexName)
+        && Objects.equals(currentPath, other.currentPath);
+    }
+  }
+
 }
@@ -39,6 +39,7 @@ import net.ravendb.client.util.Inflector;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.map.DeserializationProblemHandler;
+import org.codehaus.jackson.map.Module;
 
 
 /**
@@ -91,6 +92,22 @@ public class DocumentConvention extends Convention implements Serializable {
 
   private boolean useParallelMultiGet;
 
+  private int streamReadAheadSize;
+
+  private boolean parseDocumentsLazily;
+
+  private int maxNumberOfCommandsPerBatch;
+
+  private long maxBatchSizeInBytes;
+
+  private int maxNumberOfParallelBatches;
+
+  private double hiLoPrefetchThreshold;
+
+  private long lazyOperationsTimeout;
+
+  private boolean waitForNonStaleResultsUsingChanges;
+
   private boolean shouldAggressiveCacheTrackChanges;
 
   private boolean shouldSaveChangesForceAggressiveCacheCheck;
@@ -107,7 +124,9 @@ public class DocumentConvention extends Convention implements Serializable {
 
   private final List<Tuple<Class<?>, TryConvertValueForQueryDelegate<?>>> listOfQueryValueConverters = new ArrayList<>();
 
-  private JsonSerializer jsonSerializer;
+  private volatile JsonSerializer jsonSerializer;
+
+  private final List<Class<?>> warmUpEntityTypes = new ArrayList<>();
 
   private EnumSet<IndexAndTransformerReplicationMode> indexAndTransformerReplicationMode;
 
@@ -118,6 +137,7 @@ public class DocumentConvention extends Convention implements Serializable {
     setIdentityTypeConvertors(Arrays.<ITypeConverter> asList(new UUIDConverter(), new Int32Converter(), new Int64Converter()));
     setDisableProfiling(true);
     setUseParallelMultiGet(true);
+    setMaxNumberOfParallelBatches(1);
     setDefaultQueryingConsistency(ConsistencyOptions.NONE);
     setFailoverBehavior(FailoverBehaviorSet.of(FailoverBehavior.ALLOW_READS_FROM_SECONDARIES));
     setShouldCacheRequest(new RequestCachePolicy() {
@@ -221,7 +241,6 @@ public class DocumentConvention extends Convention implements Serializable {
         IndexAndTransformerReplicationMode.INDEXES,
         IndexAndTransformerReplicationMode.TRANSFORMERS));
     acceptGzipContent = true;
-    jsonSerializer = new JsonSerializer(this);
   }
 
   public static String defaultTransformTypeTagNameToDocumentKeyPrefix(String typeTagName) {
@@ -306,6 +325,7 @@ public class DocumentConvention extends Convention implements Serializable {
    */
   public void setIdentityTypeConvertors(List<ITypeConverter> identityTypeConvertors) {
     this.identityTypeConvertors = identityTypeConvertors;
+    clearIdentityAccessors();
   }
 
   /**
@@ -516,6 +536,7 @@ public class DocumentConvention extends Convention implements Serializable {
    */
   public void setFindPropertyNameForIndex(PropertyNameFinder findPropertyNameForIndex) {
     this.findPropertyNameForIndex = findPropertyNameForIndex;
+    clearQueryMembers();
   }
 
   /**
@@ -533,6 +554,7 @@ public class DocumentConvention extends Convention implements Serializable {
    */
   public void setFindPropertyNameForDynamicIndex(PropertyNameFinder findPropertyNameForDynamicIndex) {
     this.findPropertyNameForDynamicIndex = findPropertyNameForDynamicIndex;
+    clearQueryMembers();
   }
 
   /**
@@ -706,6 +728,14 @@ public class DocumentConvention extends Convention implements Serializable {
     } catch (IllegalAccessException | InvocationTargetException e) {
       throw new RuntimeException(e);
     }
+    cloned.warmUpEntityTypes.addAll(warmUpEntityTypes);
+    JsonSerializer serializer = jsonSerializer;
+    if (serializer != null) {
+      // cloned convention owns its own mapper, so modules registered in this one are registered again
+      for (Module module : serializer.getModules()) {
+        cloned.createSerializer().registerModule(module);
+      }
+    }
     return cloned;
   }
 
@@ -813,10 +843,196 @@ public class DocumentConvention extends Convention implements Serializable {
     return customRangeTypes.contains(type);
   }
 
+  /**
+   * Returns serializer bound to this convention. It is created on first use (or when document store is initialized)
+   * and reused afterwards.
+   */
   public JsonSerializer createSerializer() {
-    jsonSerializer.config();
-    return jsonSerializer;
+    JsonSerializer serializer = jsonSerializer;
+    if (serializer == null) {
+      synchronized (this) {
+        if (jsonSerializer == null) {
+          jsonSerializer = new JsonSerializer(this);
+        }
+        serializer = jsonSerializer;
+      }
+    }
+    return serializer;
+  }
+
+  @Override
+  public void setSaveEnumsAsIntegers(boolean saveEnumsAsIntegers) {
+    super.setSaveEnumsAsIntegers(saveEnumsAsIntegers);
+    JsonSerializer serializer = jsonSerializer;
+    if (serializer != null) {
+      serializer.config();
+    }
+  }
 
+  /**
+   * Registers entity types which serializers are resolved during document store initialization,
+   * so first load or store of these types doesn't pay for introspection.
+   * @param types
+   */
+  public void registerWarmUpEntityTypes(Class<?>... types) {
+    warmUpEntityTypes.addAll(Arrays.asList(types));
+  }
+
+  /**
+   * Entity types which serializers are resolved during document store initialization.
+   */
+  public List<Class<?>> getWarmUpEntityTypes() {
+    return warmUpEntityTypes;
+  }
+
+  /**
+   * Number of stream results which are parsed and converted to entities on a background thread
+   * ahead of the consumer of session stream. Zero (default) disables read ahead.
+   */
+  public int getStreamReadAheadSize() {
+    return streamReadAheadSize;
+  }
+
+  /**
+   * Number of stream results which are parsed and converted to entities on a background thread
+   * ahead of the consumer of session stream. Zero (default) disables read ahead.
+   * @param streamReadAheadSize
+   */
+  public void setStreamReadAheadSize(int streamReadAheadSize) {
+    this.streamReadAheadSize = streamReadAheadSize;
+  }
+
+  /**
+   * If set, documents returned by queries and multi loads are kept as raw JSON and parsed when
+   * they are accessed for the first time. Accessing single property (ex. metadata) parses only this property.
+   */
+  public boolean isParseDocumentsLazily() {
+    return parseDocumentsLazily;
+  }
+
+  /**
+   * If set, documents returned by queries and multi loads are kept as raw JSON and parsed when
+   * they are accessed for the first time. Accessing single property (ex. metadata) parses only this property.
+   * @param parseDocumentsLazily
+   */
+  public void setParseDocumentsLazily(boolean parseDocumentsLazily) {
+    this.parseDocumentsLazily = parseDocumentsLazily;
+  }
+
+  /**
+   * Maximum number of commands sent by save changes in single request. Larger units of work are split
+   * into several requests, each of them executed in separate transaction. Zero (default) disables splitting.
+   */
+  public int getMaxNumberOfCommandsPerBatch() {
+    return maxNumberOfCommandsPerBatch;
+  }
+
+  /**
+   * Maximum number of commands sent by save changes in single request. Larger units of work are split
+   * into several requests, each of them executed in separate transaction. Zero (default) disables splitting.
+   * @param maxNumberOfCommandsPerBatch
+   */
+  public void setMaxNumberOfCommandsPerBatch(int maxNumberOfCommandsPerBatch) {
+    this.maxNumberOfCommandsPerBatch = maxNumberOfCommandsPerBatch;
+  }
+
+  /**
+   * Maximum size of JSON sent by save changes in single request (single command is never split). Size is
+   * estimated from documents, assuming single byte characters. Larger units of work are split into several
+   * requests, each of them executed in separate transaction. Zero (default) disables splitting.
+   */
+  public long getMaxBatchSizeInBytes() {
+    return maxBatchSizeInBytes;
+  }
+
+  /**
+   * Maximum size of JSON sent by save changes in single request (single command is never split). Size is
+   * estimated from documents, assuming single byte characters. Larger units of work are split into several
+   * requests, each of them executed in separate transaction. Zero (default) disables splitting.
+   * @param maxBatchSizeInBytes
+   */
+  public void setMaxBatchSizeInBytes(long maxBatchSizeInBytes) {
+    this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+  }
+
+  /**
+   * Number of requests sent at the same time when save changes was split into several requests.
+   * Default is 1 - requests are sent one after another, in order of commands. With greater value
+   * order in which requests are applied by server is not guaranteed. Requests are sent by daemon threads
+   * shared by all sessions, which are created on demand and stopped when idle.
+   */
+  public int getMaxNumberOfParallelBatches() {
+    return maxNumberOfParallelBatches;
+  }
+
+  /**
+   * Number of requests sent at the same time when save changes was split into several requests.
+   * Default is 1 - requests are sent one after another, in order of commands. With greater value
+   * order in which requests are applied by server is not guaranteed. Requests are sent by daemon threads
+   * shared by all sessions, which are created on demand and stopped when idle.
+   * @param maxNumberOfParallelBatches
+   */
+  public void setMaxNumberOfParallelBatches(int maxNumberOfParallelBatches) {
+    this.maxNumberOfParallelBatches = maxNumberOfParallelBatches;
+  }
+
+  /**
+   * Fraction of HiLo range (between 0 and 1) which is still left when next range is requested in background,
+   * so it is ready before current one is used up and generating key doesn't wait for the server.
+   * Zero (default) disables prefetching - next range is requested when current one is exhausted.
+   */
+  public double getHiLoPrefetchThreshold() {
+    return hiLoPrefetchThreshold;
+  }
+
+  /**
+   * Fraction of HiLo range (between 0 and 1) which is still left when next range is requested in background,
+   * so it is ready before current one is used up and generating key doesn't wait for the server.
+   * Zero (default) disables prefetching - next range is requested when current one is exhausted.
+   * @param hiLoPrefetchThreshold
+   */
+  public void setHiLoPrefetchThreshold(double hiLoPrefetchThreshold) {
+    if (hiLoPrefetchThreshold < 0 || hiLoPrefetchThreshold >= 1) {
+      throw new IllegalArgumentException("HiLo prefetch threshold must be between 0 and 1");
+    }
+    this.hiLoPrefetchThreshold = hiLoPrefetchThreshold;
+  }
+
+  /**
+   * Max time in milliseconds spent executing pending lazy operations, including retries of operations
+   * waiting for non stale results. Zero (default) means no limit besides timeouts of operations themselves.
+   */
+  public long getLazyOperationsTimeout() {
+    return lazyOperationsTimeout;
+  }
+
+  /**
+   * Max time in milliseconds spent executing pending lazy operations, including retries of operations
+   * waiting for non stale results. Zero (default) means no limit besides timeouts of operations themselves.
+   * @param lazyOperationsTimeout
+   */
+  public void setLazyOperationsTimeout(long lazyOperationsTimeout) {
+    if (lazyOperationsTimeout < 0) {
+      throw new IllegalArgumentException("Lazy operations timeout can't be negative");
+    }
+    this.lazyOperationsTimeout = lazyOperationsTimeout;
+  }
+
+  /**
+   * If set, query waiting for non stale results is executed again only after index reports (using changes API)
+   * that it has indexed past stale results, or after fallback poll interval. Disabled by default.
+   */
+  public boolean isWaitForNonStaleResultsUsingChanges() {
+    return waitForNonStaleResultsUsingChanges;
+  }
+
+  /**
+   * If set, query waiting for non stale results is executed again only after index reports (using changes API)
+   * that it has indexed past stale results, or after fallback poll interval. Disabled by default.
+   * @param waitForNonStaleResultsUsingChanges
+   */
+  public void setWaitForNonStaleResultsUsingChanges(boolean waitForNonStaleResultsUsingChanges) {
+    this.waitForNonStaleResultsUsingChanges = waitForNonStaleResultsUsingChanges;
   }
 
   public int getMaxLengthOfQueryUsingGetUrl() {
@@ -115,6 +115,7 @@ public class DocumentQuery<T> extends AbstractDocumentQuery<T, DocumentQuery<T>>
     try {
       documentQuery.pageSize = pageSize;
       documentQuery.queryText = new StringBuilder(queryText.toString());
+      documentQuery.fieldValues = fieldValues.copy();
       documentQuery.start = start;
       documentQuery.timeout = timeout;
       documentQuery.cutoff = cutoff;
@@ -231,6 +232,7 @@ public class DocumentQuery<T> extends AbstractDocumentQuery<T, DocumentQuery<T>>
         isMapReduce);
     documentQuery.pageSize = pageSize;
     documentQuery.queryText = new StringBuilder(queryText.toString());
+    documentQuery.fieldValues = fieldValues.copy();
     documentQuery.start = start;
     documentQuery.timeout = timeout;
     documentQuery.cutoff = cutoff;
@@ -4,6 +4,7 @@ import com.google.common.base.Defaults;
 import com.mysema.query.types.Expression;
 import net.ravendb.abstractions.basic.*;
 import net.ravendb.abstractions.closure.Action1;
+import net.ravendb.abstractions.closure.Action2;
 import net.ravendb.abstractions.closure.Function0;
 import net.ravendb.abstractions.data.*;
 import net.ravendb.abstractions.exceptions.ConcurrencyException;
@@ -17,6 +18,7 @@ import net.ravendb.client.document.batches.IEagerSessionOperations;
 import net.ravendb.client.document.batches.ILazyOperation;
 import net.ravendb.client.document.batches.ILazySessionOperations;
 import net.ravendb.client.document.batches.LazyMultiLoadOperation;
+import net.ravendb.client.document.batches.LazyOperationsExecutor;
 import net.ravendb.client.document.sessionoperations.LoadOperation;
 import net.ravendb.client.document.sessionoperations.LoadTransformerOperation;
 import net.ravendb.client.document.sessionoperations.MultiLoadOperation;
@@ -26,6 +28,7 @@ import net.ravendb.client.indexes.AbstractIndexCreationTask;
 import net.ravendb.client.indexes.AbstractTransformerCreationTask;
 import net.ravendb.client.linq.*;
 import net.ravendb.client.shard.ShardReduceFunction;
+import net.ravendb.client.utils.RetryBackoff;
 import org.apache.commons.lang.NullArgumentException;
 import org.apache.commons.lang.StringUtils;
 
@@ -556,70 +559,7 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     incrementRequestCount();
 
     CloseableIterator<RavenJObject> iterator = databaseCommands.streamQuery(ravenQueryInspector.getIndexQueried(), indexQuery, queryHeaderInformation);
-    return new StreamIterator<>(query, iterator);
-  }
-
-
-  private static class StreamIterator<T> implements CloseableIterator<StreamResult<T>> {
-
-    private CloseableIterator<RavenJObject> innerIterator;
-    private DocumentQuery<T> query;
-    private QueryOperation queryOperation;
-
-    public StreamIterator(IDocumentQuery<T> query, CloseableIterator<RavenJObject> innerIterator) {
-      super();
-      this.innerIterator = innerIterator;
-      this.query = (DocumentQuery<T>) query;
-      queryOperation = ((DocumentQuery<T>)query).initializeQueryOperation();
-      queryOperation.setDisableEntitiesTracking(true);
-    }
-
-    @Override
-    public boolean hasNext() {
-      return innerIterator.hasNext();
-    }
-
-    @Override
-    public void close() {
-      innerIterator.close();
-    }
-
-    @Override
-    public StreamResult<T> next() {
-      RavenJObject nextValue = innerIterator.next();
-      query.invokeAfterStreamExecuted(new Reference<>(nextValue));
-      RavenJObject meta = nextValue.value(RavenJObject.class, Constants.METADATA);
-
-      String key = null;
-      Etag etag = null;
-      if (meta != null) {
-        key = meta.value(String.class, "@id");
-        if (key == null) {
-          key = meta.value(String.class, Constants.DOCUMENT_ID_FIELD_NAME);
-        }
-        if (key == null) {
-          key = nextValue.value(String.class, Constants.DOCUMENT_ID_FIELD_NAME);
-        }
-
-        String value = meta.value(String.class, "@etag");
-        if (value != null) {
-          etag = Etag.parse(value);
-        }
-      }
-
-      StreamResult<T> streamResult = new StreamResult<>();
-      streamResult.setDocument(queryOperation.deserialize(query.getElementType(), nextValue));
-      streamResult.setEtag(etag);
-      streamResult.setKey(key);
-      streamResult.setMetadata(meta);
-      return streamResult;
-    }
-
-    @Override
-    public void remove() {
-      throw new IllegalStateException("Not implemented!");
-    }
-
+    return readAhead(new QueryStreamIterator<>(query, iterator), abortActionOf(iterator));
   }
 
   @Override
@@ -661,7 +601,7 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith, String matches, int start, int pageSize, RavenPagingInformation pagingInformation, String skipAfter) {
     incrementRequestCount();
     CloseableIterator<RavenJObject> iterator = databaseCommands.streamDocs(fromEtag, startsWith, matches, start, pageSize, null, pagingInformation, skipAfter);
-    return new SimpleSteamIterator<>(iterator, entityClass);
+    return readAhead(new DocumentStreamIterator<>(this, iterator, entityClass), abortActionOf(iterator));
   }
 
   @Override
@@ -670,50 +610,6 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     return databaseCommands.getMultiFacets(facetQueries);
   }
 
-  private class SimpleSteamIterator<T> implements CloseableIterator<StreamResult<T>> {
-    private CloseableIterator<RavenJObject> innerIterator;
-    private Class<T> entityClass;
-    private boolean closed = false;
-
-    public SimpleSteamIterator(CloseableIterator<RavenJObject> innerIterator, Class<T> entityClass) {
-      super();
-      this.innerIterator = innerIterator;
-      this.entityClass = entityClass;
-    }
-
-    @Override
-    public boolean hasNext() {
-      return innerIterator.hasNext();
-    }
-
-    @Override
-    public void close() {
-      closed = true;
-      innerIterator.close();
-    }
-
-    @SuppressWarnings("unchecked")
-    @Override
-    public StreamResult<T> next() {
-      if (closed) {
-        throw new IllegalStateException("Stream is closed");
-      }
-      RavenJObject next = innerIterator.next();
-      JsonDocument document = SerializationHelper.ravenJObjectToJsonDocument(next);
-      StreamResult<T> streamResult = new StreamResult<>();
-      streamResult.setDocument((T) convertToEntity(entityClass, document.getKey(), document.getDataAsJson(), document.getMetadata(), false));
-      streamResult.setEtag(document.getEtag());
-      streamResult.setKey(document.getKey());
-      streamResult.setMetadata(document.getMetadata());
-      return streamResult;
-    }
-
-    @Override
-    public void remove() {
-      throw new IllegalStateException("Not implemented!");
-    }
-  }
-
   /**
    * Saves all the changes to the Raven server.
    */
@@ -729,13 +625,7 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
       incrementRequestCount();
       logBatch(data);
 
-      BatchResult[] batchResults = getDatabaseCommands().batch(data.getCommands());
-
-      if (batchResults == null) {
-        throw new IllegalStateException("Cannot call Save Changes after the document store was disposed.");
-      }
-
-      updateBatchResults(Arrays.asList(batchResults), data);
+      executeBatch(getDatabaseCommands(), data);
     } catch (ConcurrencyException e) {
       throw e;
     }
@@ -859,7 +749,6 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     return addLazyOperation(lazyOp, onEval);
   }
 
-  @SuppressWarnings("boxing")
   @Override
   public ResponseTimeInformation executeAllPendingLazyOperations() {
     if (pendingLazyOperations.size() == 0)
@@ -868,35 +757,40 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     try {
       incrementRequestCount();
 
-      ResponseTimeInformation responseTimeDuration = new ResponseTimeInformation();
-      long time1 = new Date().getTime();
-      try {
-        while (executeLazyOperationsSingleStep(responseTimeDuration)) {
-          Thread.sleep(100);
+      ResponseTimeInformation responseTimeDuration = new LazyOperationsExecutor<ILazyOperation>(getConventions().getLazyOperationsTimeout()) {
+        @SuppressWarnings("synthetic-access")
+        @Override
+        protected List<ILazyOperation> executeRound(List<ILazyOperation> operations, ResponseTimeInformation responseTimeInformation) {
+          return executeLazyOperationsSingleStep(operations, responseTimeInformation);
         }
-      } catch (InterruptedException e) {
-        throw new RuntimeException(e);
-      }
+
+        @Override
+        protected void waitBeforeRetry(List<ILazyOperation> pendingOperations, RetryBackoff backoff) throws InterruptedException {
+          waitBeforeLazyRetry(pendingOperations, backoff);
+        }
+      }.execute(new ArrayList<>(pendingLazyOperations));
+
       for (ILazyOperation pendingLazyOperation : pendingLazyOperations) {
         if (onEvaluateLazy.containsKey(pendingLazyOperation)) {
           onEvaluateLazy.get(pendingLazyOperation).apply(pendingLazyOperation.getResult());
         }
       }
 
-      long time2 = new Date().getTime();
-      responseTimeDuration.setTotalClientDuration(time2 - time1);
-
       return responseTimeDuration;
     } finally {
+      LazyOperationsExecutor.stopWaitingForIndexChanges(pendingLazyOperations);
       pendingLazyOperations.clear();
     }
   }
 
-  @SuppressWarnings("boxing")
-  private boolean executeLazyOperationsSingleStep(ResponseTimeInformation responseTimeInformation) {
+  /**
+   * Sends given lazy operations in single multi get request.
+   * @return operations which require retry
+   */
+  private List<ILazyOperation> executeLazyOperationsSingleStep(final List<ILazyOperation> operations, final ResponseTimeInformation responseTimeInformation) {
 
     List<CleanCloseable> disposables = new ArrayList<>();
-    for (ILazyOperation lazyOp: pendingLazyOperations) {
+    for (ILazyOperation lazyOp: operations) {
       CleanCloseable context = lazyOp.enterContext();
       if (context != null) {
         disposables.add(context);
@@ -904,34 +798,30 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     }
 
     try {
-      List<GetRequest> requests = new ArrayList<>();
-      for (ILazyOperation lazyOp: pendingLazyOperations) {
+      final List<GetRequest> requests = new ArrayList<>();
+      for (ILazyOperation lazyOp: operations) {
         requests.add(lazyOp.createRequest());
       }
-      GetResponse[] responses = databaseCommands.multiGet(requests.toArray(new GetRequest[0]));
-      for (int i = 0; i < pendingLazyOperations.size(); i++) {
-
-        String tempRequestTime = responses[0].getHeaders().get("Temp-Request-Time");
-        Long parsedValue = 0L;
-        try {
-          parsedValue = Long.parseLong(tempRequestTime);
-        } catch (NumberFormatException e)  {
-          // ignore
-        }
-        ResponseTimeInformation.ResponseTimeItem responseTimeItem = new ResponseTimeInformation.ResponseTimeItem();
-        responseTimeItem.setUrl(requests.get(i).getUrlAndQuery());
-        responseTimeItem.setDuration(parsedValue);
-        responseTimeInformation.getDurationBreakdown().add(responseTimeItem);
+      // each operation handles its response as soon as it is received, before rest of multi get response is read,
+      // responses handled before failover to another server aren't passed again
+      final List<ILazyOperation> requiresRetry = new ArrayList<>();
+      databaseCommands.multiGet(requests.toArray(new GetRequest[0]), new Action2<Integer, GetResponse>() {
+        @SuppressWarnings("boxing")
+        @Override
+        public void apply(Integer index, GetResponse response) {
+          LazyOperationsExecutor.addResponseTime(responseTimeInformation, requests.get(index), response);
 
-        if (responses[i].isRequestHasErrors()) {
-          throw new IllegalStateException("Got an error from server, status code: " + responses[i].getStatus()  + "\n" + responses[i].getResult());
-        }
-        pendingLazyOperations.get(i).handleResponse(responses[i]);
-        if (pendingLazyOperations.get(i).isRequiresRetry()) {
-          return true;
+          if (response.isRequestHasErrors()) {
+            throw new IllegalStateException("Got an error from server, status code: " + response.getStatus()  + "\n" + response.getResult());
+          }
+          ILazyOperation operation = operations.get(index);
+          operation.handleResponse(response);
+          if (operation.isRequiresRetry()) {
+            requiresRetry.add(operation);
+          }
         }
-      }
-      return false;
+      });
+      return requiresRetry;
     } finally {
       for (CleanCloseable closable: disposables) {
         closable.close();
@@ -982,7 +872,7 @@ public class DocumentSession extends InMemoryDocumentSessionOperations
     for (JsonDocument doc: results) {
       response.add(queryOperation.deserialize(clazz, doc.toJson()));
     }
-    return results.toArray((T[])Array.newInstance(clazz, 0));
+    return response.toArray((T[])Array.newInstance(clazz, 0));
   }
 
   @Override
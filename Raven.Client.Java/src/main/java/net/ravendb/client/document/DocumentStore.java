@@ -313,6 +313,8 @@ public class DocumentStore extends DocumentStoreBase {
 
     assertValidConfiguration();
 
+    conventions.createSerializer().warmUp(conventions.getWarmUpEntityTypes());
+
     jsonRequestFactory = new HttpJsonRequestFactory(getMaxNumberOfCachedRequests(), conventions.isAcceptGzipContent());
     try {
       initializeEncryptor();
@@ -0,0 +1,56 @@
+package net.ravendb.client.document;
+
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.data.JsonDocument;
+import net.ravendb.abstractions.data.StreamResult;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.client.connection.SerializationHelper;
+
+/**
+ * Converts streamed documents into entities. Entities are not tracked by session.
+ */
+public class DocumentStreamIterator<T> implements CloseableIterator<StreamResult<T>> {
+  private CloseableIterator<RavenJObject> innerIterator;
+  private InMemoryDocumentSessionOperations session;
+  private Class<T> entityClass;
+  private boolean closed = false;
+
+  public DocumentStreamIterator(InMemoryDocumentSessionOperations session, CloseableIterator<RavenJObject> innerIterator, Class<T> entityClass) {
+    super();
+    this.session = session;
+    this.innerIterator = innerIterator;
+    this.entityClass = entityClass;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return innerIterator.hasNext();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    innerIterator.close();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public StreamResult<T> next() {
+    if (closed) {
+      throw new IllegalStateException("Stream is closed");
+    }
+    RavenJObject next = innerIterator.next();
+    JsonDocument document = SerializationHelper.ravenJObjectToJsonDocument(next);
+    StreamResult<T> streamResult = new StreamResult<>();
+    streamResult.setDocument((T) session.convertToEntity(entityClass, document.getKey(), document.getDataAsJson(), document.getMetadata(), false));
+    streamResult.setEtag(document.getEtag());
+    streamResult.setKey(document.getKey());
+    streamResult.setMetadata(document.getMetadata());
+    return streamResult;
+  }
+
+  @Override
+  public void remove() {
+    throw new IllegalStateException("Not implemented!");
+  }
+}
@@ -69,7 +69,7 @@ public class DocumentSubscriptions implements IReliableSubscriptions {
         : documentStore.getDatabaseCommands().forDatabase(database);
 
     try (HttpJsonRequest request = commands.createRequest(HttpMethods.POST, "/subscriptions/create")) {
-      request.write(RavenJObject.fromObject(criteria).toString());
+      request.write(RavenJObject.fromObject(criteria));
       return request.readResponseJson().value(Long.class, "Id");
     }
   }
@@ -136,7 +136,7 @@ public class DocumentSubscriptions implements IReliableSubscriptions {
   @SuppressWarnings("boxing")
   private static void sendOpenSubscriptionRequest(IDatabaseCommands commands, long id, SubscriptionConnectionOptions options) throws SubscriptionException {
     try (HttpJsonRequest request = commands.createRequest(HttpMethods.POST, String.format("/subscriptions/open?id=%d&connection=%s", id, options.getConnectionId()))) {
-      request.write(options.toRavenObject().toString());
+      request.write(options.toRavenObject());
       request.executeRequest();
     } catch (Exception e) {
       SubscriptionException subscriptionException = tryGetSubscriptionException(e);
@@ -1,6 +1,5 @@
 package net.ravendb.client.document;
 
-import java.lang.reflect.Field;
 import java.util.UUID;
 
 import net.ravendb.abstractions.basic.Reference;
@@ -9,7 +8,6 @@ import net.ravendb.abstractions.data.Constants;
 import net.ravendb.client.converters.ITypeConverter;
 
 import org.apache.commons.lang.NullArgumentException;
-import org.apache.commons.lang.reflect.FieldUtils;
 
 
 public class GenerateEntityIdOnTheClient {
@@ -21,8 +19,8 @@ public class GenerateEntityIdOnTheClient {
     this.generateKey = generateKey;
   }
 
-  private Field getIdentityProperty(Class<?> entityType) {
-    return conventions.getIdentityProperty(entityType);
+  private IdentityPropertyAccessor getIdentityPropertyAccessor(Class<?> entityType) {
+    return conventions.getIdentityPropertyAccessor(entityType);
   }
 
   /**
@@ -34,21 +32,17 @@ public class GenerateEntityIdOnTheClient {
     if (entity == null) {
       throw new NullArgumentException("entity");
     }
-    try {
-      Field identityProperty = getIdentityProperty(entity.getClass());
-      if (identityProperty != null) {
-        Object value = FieldUtils.readField(identityProperty, entity, true);
-        return getIdAsString(entity, value, identityProperty, idHolder);
-      }
-      idHolder.value = null;
-      return false;
-    } catch (IllegalAccessException e) {
-      throw new IllegalStateException(e);
+    IdentityPropertyAccessor identityProperty = getIdentityPropertyAccessor(entity.getClass());
+    if (identityProperty != null) {
+      Object value = identityProperty.getValue(entity);
+      return getIdAsString(entity, value, identityProperty, idHolder);
     }
+    idHolder.value = null;
+    return false;
   }
 
   @SuppressWarnings("boxing")
-  private boolean getIdAsString(Object entity, Object value, Field identityProperty, Reference<String> idHolder) {
+  private boolean getIdAsString(Object entity, Object value, IdentityPropertyAccessor identityProperty, Reference<String> idHolder) {
     if (value instanceof String) {
       idHolder.value = (String) value;
     }
@@ -93,7 +87,7 @@ public class GenerateEntityIdOnTheClient {
    */
   public void trySetIdentity(Object entity, String id) {
     Class<?> entityType = entity.getClass();
-    Field identityProperty = conventions.getIdentityProperty(entityType);
+    IdentityPropertyAccessor identityProperty = getIdentityPropertyAccessor(entityType);
 
     if (identityProperty == null) {
       return;
@@ -102,23 +96,27 @@ public class GenerateEntityIdOnTheClient {
     setPropertyOrField(identityProperty.getType(), entity, identityProperty, id);
   }
 
-  private void setPropertyOrField(Class<?> propertyOrFieldType, Object entity, Field field, String id) {
-    try {
-      if (String.class.equals(propertyOrFieldType)) {
-        FieldUtils.writeField(field, entity, id, true);
-      } else { // need converting
-        for (ITypeConverter converter : conventions.getIdentityTypeConvertors()) {
-          if (converter.canConvertFrom(propertyOrFieldType)) {
-            FieldUtils.writeField(field, entity, converter.convertTo(conventions.getFindIdValuePartForValueTypeConversion().find(entity, id)), true);
-            return;
-          }
-        }
-        throw new IllegalArgumentException("Could not convert identity to type " + propertyOrFieldType +
-            " because there is not matching type converter registered in the conventions' IdentityTypeConvertors");
+  private void setPropertyOrField(Class<?> propertyOrFieldType, Object entity, IdentityPropertyAccessor accessor, String id) {
+    if (String.class.equals(propertyOrFieldType)) {
+      accessor.setValue(entity, id);
+    } else { // need converting
+      ITypeConverter converter = accessor.getTypeConverter();
+      if (converter == null) {
+        converter = findTypeConverter(propertyOrFieldType);
+        accessor.setTypeConverter(converter);
+      }
+      accessor.setValue(entity, converter.convertTo(conventions.getFindIdValuePartForValueTypeConversion().find(entity, id)));
+    }
+  }
+
+  private ITypeConverter findTypeConverter(Class<?> propertyOrFieldType) {
+    for (ITypeConverter converter : conventions.getIdentityTypeConvertors()) {
+      if (converter.canConvertFrom(propertyOrFieldType)) {
+        return converter;
       }
-    } catch (IllegalAccessException e) {
-      throw new IllegalStateException(e);
     }
+    throw new IllegalArgumentException("Could not convert identity to type " + propertyOrFieldType +
+        " because there is not matching type converter registered in the conventions' IdentityTypeConvertors");
   }
 
 
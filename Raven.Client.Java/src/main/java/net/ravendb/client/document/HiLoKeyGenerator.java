@@ -1,5 +1,12 @@
 package net.ravendb.client.document;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import net.ravendb.abstractions.basic.CleanCloseable;
 import net.ravendb.abstractions.data.Etag;
 import net.ravendb.abstractions.data.JsonDocument;
@@ -7,6 +14,8 @@ import net.ravendb.abstractions.data.MultiLoadResult;
 import net.ravendb.abstractions.exceptions.ConcurrencyException;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.json.linq.RavenJValue;
+import net.ravendb.abstractions.logging.ILog;
+import net.ravendb.abstractions.logging.LogManager;
 import net.ravendb.client.connection.IDatabaseCommands;
 import net.ravendb.client.exceptions.ConflictException;
 
@@ -14,8 +23,25 @@ import net.ravendb.client.exceptions.ConflictException;
  * Generate hilo numbers against a RavenDB document
  */
 public class HiLoKeyGenerator extends HiLoKeyGeneratorBase {
+
+  private static final ILog logger = LogManager.getCurrentClassLogger();
+
+  /**
+   * Shared by all generators - threads are created only while ranges are prefetched.
+   */
+  private static final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "RavenDB HiLo prefetch");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
   private final Object generatorLock = new Object();
 
+  private Future<RangeValue> nextRange;
+
   /**
    * Initializes a new instance of the {@link HiLoKeyGenerator} class.
    * @param tag
@@ -45,17 +71,66 @@ public class HiLoKeyGenerator extends HiLoKeyGeneratorBase {
       RangeValue myRange = getRange();// thread safe copy
       long current = myRange.current.incrementAndGet();
 
-      if (current <= myRange.max.longValue())
+      if (current <= myRange.max.longValue()) {
+        // only one thread gets the id at the threshold, so next range is requested once
+        if (current == prefetchAt(myRange)) {
+          prefetchNextRange(commands, myRange);
+        }
         return current;
+      }
 
       synchronized (generatorLock) {
         if (getRange() != myRange)
           // Lock was contended, and the max has already been changed. Just get a new id as usual.
           continue;
 
-        setRange(getNextRange(commands));
+        setRange(takeNextRange(commands));
+      }
+    }
+  }
+
+  private long prefetchAt(RangeValue range) {
+    double threshold = getPrefetchThreshold();
+    if (threshold <= 0) {
+      return -1;
+    }
+    long size = range.max.longValue() - range.min.longValue() + 1;
+    return range.max.longValue() - (long) (size * threshold);
+  }
+
+  private void prefetchNextRange(final IDatabaseCommands commands, RangeValue myRange) {
+    synchronized (generatorLock) {
+      if (getRange() != myRange || nextRange != null) {
+        return;
+      }
+      nextRange = prefetchExecutor.submit(new Callable<RangeValue>() {
+        @SuppressWarnings("synthetic-access")
+        @Override
+        public RangeValue call() throws Exception {
+          return getNextRange(commands);
+        }
+      });
+    }
+  }
+
+  /**
+   * Waits for prefetched range if it was requested, otherwise gets next range from the server.
+   * Must be called under generator lock.
+   */
+  private RangeValue takeNextRange(IDatabaseCommands commands) {
+    Future<RangeValue> prefetched = nextRange;
+    nextRange = null;
+    if (prefetched != null) {
+      try {
+        return prefetched.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for HiLo range of " + tag, e);
+      } catch (ExecutionException e) {
+        logger.warnException("Unable to prefetch HiLo range of " + tag + ", requesting it again", e.getCause());
       }
     }
+    return getNextRange(commands);
   }
 
   @SuppressWarnings("boxing")
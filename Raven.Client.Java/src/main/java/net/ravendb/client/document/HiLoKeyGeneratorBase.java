@@ -1,6 +1,5 @@
 package net.ravendb.client.document;
 
-import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -21,16 +20,24 @@ public abstract class HiLoKeyGeneratorBase {
   protected long baseCapacity;
   private volatile RangeValue range;
 
-  protected String lastServerPrefix;
-  protected long lastRequestedUtc1, lastRequestedUtc2;
+  /**
+   * Capacity is sized so that range lasts about this long at measured consumption rate.
+   */
+  private static final long TARGET_RANGE_DURATION_MILLIS = 10 * 1000;
+
+  protected volatile String lastServerPrefix;
+  private volatile long rangeStartedAt;
+  private double consumptionRate;
 
   private boolean disableCapacityChanges;
+  private volatile double prefetchThreshold;
 
   protected HiLoKeyGeneratorBase(String tag, long capacity) {
     this.tag = tag;
     this.capacity = capacity;
     baseCapacity = capacity;
     this.range = new RangeValue(1, 0);
+    this.rangeStartedAt = System.nanoTime();
   }
 
   protected String getDocumentKeyFromId(DocumentConvention convention, long nextId) {
@@ -62,25 +69,42 @@ public abstract class HiLoKeyGeneratorBase {
     this.disableCapacityChanges = disableCapacityChanges;
   }
 
+  /**
+   * Fraction of range which is still left when next range is requested in background. Zero disables prefetching.
+   */
+  public double getPrefetchThreshold() {
+    return prefetchThreshold;
+  }
+
+  /**
+   * Fraction of range which is still left when next range is requested in background. Zero disables prefetching.
+   * @param prefetchThreshold
+   */
+  public void setPrefetchThreshold(double prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+  }
+
+  /**
+   * Adjusts capacity to rate at which ids of current range were consumed. Rate is smoothed over consecutive
+   * ranges, capacity grows at most four times and shrinks at most by half per range, but never below base capacity.
+   */
   protected void modifyCapacityIfRequired() {
     if (disableCapacityChanges) {
       return;
     }
-
-    long span = new Date().getTime() - lastRequestedUtc1;
-    if (span < 5 * 1000) {
-      span = new Date().getTime() - lastRequestedUtc2;
-      if (span < 3000) {
-        capacity *= Math.max(capacity, Math.max(capacity * 2, capacity * 4));
-      } else {
-        capacity *= Math.max(capacity, capacity * 2);
-      }
-    } else if (span > 60 * 1000) {
-      capacity = Math.max(baseCapacity, capacity / 2);
+    RangeValue current = getRange();
+    long used = Math.min(current.current.get(), current.max.get()) - current.min.get() + 1;
+    if (used <= 0) {
+      return;
     }
-
-    lastRequestedUtc2 = lastRequestedUtc1;
-    lastRequestedUtc1 = new Date().getTime();
+    long elapsedMillis = Math.max(1, (System.nanoTime() - rangeStartedAt) / 1000000);
+    double rate = used * 1000.0 / elapsedMillis;
+    consumptionRate = consumptionRate > 0 ? (consumptionRate + rate) / 2 : rate;
+
+    long desired = (long) (consumptionRate * TARGET_RANGE_DURATION_MILLIS / 1000);
+    desired = Math.min(desired, capacity * 4);
+    desired = Math.max(desired, capacity / 2);
+    capacity = Math.max(baseCapacity, desired);
   }
 
   protected JsonDocument handleGetDocumentResult(MultiLoadResult documents) {
@@ -112,6 +136,7 @@ public abstract class HiLoKeyGeneratorBase {
   }
 
   protected void setRange(RangeValue range) {
+    rangeStartedAt = System.nanoTime();
     this.range = range;
   }
 
@@ -0,0 +1,87 @@
+package net.ravendb.client.document;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import net.ravendb.client.converters.ITypeConverter;
+
+/**
+ * Reads and writes identity property of given entity class using method handles resolved once per class.
+ * Instances are cached by {@link Convention}.
+ */
+public class IdentityPropertyAccessor {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Field field;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  /**
+   * Type converter matching identity property type, resolved on first non string id assignment.
+   */
+  private volatile ITypeConverter typeConverter;
+
+  IdentityPropertyAccessor(Field field) {
+    this.field = field;
+    field.setAccessible(true);
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+    MethodHandle setterHandle;
+    try {
+      setterHandle = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      // final fields can be only written using reflection
+      setterHandle = null;
+    }
+    this.setter = setterHandle;
+  }
+
+  public Field getField() {
+    return field;
+  }
+
+  public Class<?> getType() {
+    return field.getType();
+  }
+
+  public Object getValue(Object entity) {
+    try {
+      return getter.invokeExact(entity);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public void setValue(Object entity, Object value) {
+    try {
+      if (setter != null) {
+        setter.invokeExact(entity, value);
+      } else {
+        field.set(entity, value);
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  ITypeConverter getTypeConverter() {
+    return typeConverter;
+  }
+
+  void setTypeConverter(ITypeConverter typeConverter) {
+    this.typeConverter = typeConverter;
+  }
+
+}
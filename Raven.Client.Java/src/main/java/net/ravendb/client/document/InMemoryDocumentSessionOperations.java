@@ -5,6 +5,7 @@ import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -15,9 +16,15 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.basic.CloseableIterator;
 import net.ravendb.abstractions.basic.Reference;
 import net.ravendb.abstractions.basic.Tuple;
 import net.ravendb.abstractions.closure.Action1;
@@ -33,6 +40,7 @@ import net.ravendb.abstractions.data.DocumentsChanges.ChangeType;
 import net.ravendb.abstractions.data.Etag;
 import net.ravendb.abstractions.data.HttpMethods;
 import net.ravendb.abstractions.data.JsonDocument;
+import net.ravendb.abstractions.data.StreamResult;
 import net.ravendb.abstractions.exceptions.ConcurrencyException;
 import net.ravendb.abstractions.exceptions.ReadVetoException;
 import net.ravendb.abstractions.extensions.MetadataExtensions;
@@ -46,6 +54,8 @@ import net.ravendb.abstractions.util.IncludesUtil;
 import net.ravendb.client.DocumentStoreBase;
 import net.ravendb.client.IDocumentStore;
 import net.ravendb.client.connection.HttpExtensions;
+import net.ravendb.client.connection.IDatabaseCommands;
+import net.ravendb.client.connection.JsonStreamIterator;
 import net.ravendb.client.document.batches.ILazyOperation;
 import net.ravendb.client.exceptions.NonAuthoritativeInformationException;
 import net.ravendb.client.exceptions.NonUniqueObjectException;
@@ -57,6 +67,7 @@ import net.ravendb.client.util.IdentityHashSet;
 import net.ravendb.client.util.Types;
 import net.ravendb.client.utils.Closer;
 import net.ravendb.client.utils.Lang;
+import net.ravendb.client.utils.ReadAheadIterator;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.apache.commons.lang.StringUtils;
@@ -76,6 +87,18 @@ public abstract class InMemoryDocumentSessionOperations implements CleanCloseabl
 
   private final int hash = counter.incrementAndGet();
 
+  /**
+   * Shared by all sessions - threads are created only while save changes sends batches in parallel.
+   */
+  private static final ExecutorService batchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "RavenDB save changes batch");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
   protected boolean generateDocumentKeysOnStore = true;
   //session id
   private UUID id;
@@ -803,6 +826,80 @@ public abstract class InMemoryDocumentSessionOperations implements CleanCloseabl
 
   }
 
+  /**
+   * Sends commands to the server and updates session with results. Commands are split into several
+   * requests when conventions limit size of batch - results of requests which succeeded are applied
+   * even if other request failed.
+   * @param databaseCommands
+   * @param saveChangesData
+   */
+  protected void executeBatch(final IDatabaseCommands databaseCommands, SaveChangesData saveChangesData) {
+    DocumentConvention conventions = getConventions();
+    List<SaveChangesData> batches = saveChangesData.split(conventions.getMaxNumberOfCommandsPerBatch(), conventions.getMaxBatchSizeInBytes());
+    int parallelism = Math.min(conventions.getMaxNumberOfParallelBatches(), batches.size());
+
+    if (parallelism <= 1) {
+      for (SaveChangesData batch : batches) {
+        updateBatchResults(Arrays.asList(sendBatch(databaseCommands, batch)), batch);
+      }
+      return;
+    }
+
+    // each worker sends next unsent batch, so at most parallelism requests are sent at once
+    final List<SaveChangesData> allBatches = batches;
+    final AtomicInteger nextBatch = new AtomicInteger();
+    final BatchResult[][] results = new BatchResult[batches.size()][];
+    final RuntimeException[] errors = new RuntimeException[batches.size()];
+    Runnable worker = new Runnable() {
+      @Override
+      public void run() {
+        int i;
+        while ((i = nextBatch.getAndIncrement()) < allBatches.size()) {
+          try {
+            results[i] = sendBatch(databaseCommands, allBatches.get(i));
+          } catch (RuntimeException e) {
+            errors[i] = e;
+          }
+        }
+      }
+    };
+    List<Future<?>> workers = new ArrayList<>();
+    for (int i = 0; i < parallelism; i++) {
+      workers.add(batchExecutor.submit(worker));
+    }
+    for (Future<?> workerTask : workers) {
+      try {
+        workerTask.get();
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e.getCause());
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    RuntimeException firstError = null;
+    for (int i = 0; i < batches.size(); i++) {
+      if (errors[i] != null) {
+        if (firstError == null) {
+          firstError = errors[i];
+        }
+        continue;
+      }
+      updateBatchResults(Arrays.asList(results[i]), batches.get(i));
+    }
+    if (firstError != null) {
+      throw firstError;
+    }
+  }
+
+  private static BatchResult[] sendBatch(IDatabaseCommands databaseCommands, SaveChangesData batch) {
+    BatchResult[] batchResults = databaseCommands.batch(batch.getCommands());
+    if (batchResults == null) {
+      throw new IllegalStateException("Cannot call Save Changes after the document store was disposed.");
+    }
+    return batchResults;
+  }
+
   /**
    * Updates the batch results.
    * @param batchResults
@@ -1091,6 +1188,36 @@ public abstract class InMemoryDocumentSessionOperations implements CleanCloseabl
     //empty by design
   }
 
+  /**
+   * Moves parsing and entity conversion to a background thread if {@link DocumentConvention#getStreamReadAheadSize()} is set.
+   * @param streamIterator
+   * @param abortAction action interrupting blocked read of the stream or null
+   */
+  protected <T> CloseableIterator<StreamResult<T>> readAhead(CloseableIterator<StreamResult<T>> streamIterator, CleanCloseable abortAction) {
+    int readAheadSize = getConventions().getStreamReadAheadSize();
+    if (readAheadSize <= 0) {
+      return streamIterator;
+    }
+    return new ReadAheadIterator<>(streamIterator, readAheadSize, abortAction);
+  }
+
+  /**
+   * Gets action which drops connection of the stream, so read blocked in other thread is interrupted.
+   * Returns null if iterator can't be aborted.
+   * @param innerIterator
+   */
+  protected static CleanCloseable abortActionOf(final CloseableIterator<RavenJObject> innerIterator) {
+    if (innerIterator instanceof JsonStreamIterator) {
+      return new CleanCloseable() {
+        @Override
+        public void close() {
+          ((JsonStreamIterator<?>) innerIterator).abort();
+        }
+      };
+    }
+    return null;
+  }
+
   @SuppressWarnings("boxing")
   protected void logBatch(SaveChangesData data) {
 
@@ -1,49 +1,130 @@
 package net.ravendb.client.document;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import net.ravendb.abstractions.exceptions.JsonReaderException;
 import net.ravendb.abstractions.exceptions.JsonWriterException;
 import net.ravendb.abstractions.extensions.JsonExtensions;
 import net.ravendb.abstractions.json.linq.RavenJToken;
+import net.ravendb.abstractions.json.linq.RavenJTokenParser;
 import net.ravendb.abstractions.json.linq.RavenJTokenWriter;
 
+import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.map.Module;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
 import org.codehaus.jackson.map.SerializationConfig.Feature;
+import org.codehaus.jackson.map.type.TypeFactory;
 
-
+/**
+ * Serializer used by client. Instance created for {@link DocumentConvention} owns its own mapper,
+ * so stores with different conventions don't affect each other. Readers and writers are resolved
+ * once per class and cached.
+ */
 public class JsonSerializer {
-  private static ObjectMapper objectMapper;
+
+  private static class DefaultMapperHolder {
+    static final ObjectMapper MAPPER = JsonExtensions.createDefaultJsonSerializer();
+    static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+  }
+
+  private final ObjectMapper objectMapper;
+  private final ConcurrentMap<Class<?>, ObjectReader> readers;
+  private final ConcurrentMap<Class<?>, ObjectWriter> writers;
+  private final List<Module> modules = new CopyOnWriteArrayList<>();
   private DocumentConvention convention;
 
+  /**
+   * Creates serializer backed by shared mapper with default settings.
+   */
   public JsonSerializer() {
-    if (objectMapper == null) {
-      synchronized (JsonSerializer.class) {
-        if (objectMapper == null) {
-          objectMapper = JsonExtensions.createDefaultJsonSerializer();
-        }
-      }
-    }
+    this.objectMapper = DefaultMapperHolder.MAPPER;
+    this.readers = DefaultMapperHolder.READERS;
+    this.writers = DefaultMapperHolder.WRITERS;
   }
 
+  /**
+   * Creates serializer with its own mapper configured from given convention.
+   */
   public JsonSerializer(DocumentConvention convention) {
-    this();
+    this.objectMapper = JsonExtensions.createDefaultJsonSerializer();
+    this.readers = new ConcurrentHashMap<>();
+    this.writers = new ConcurrentHashMap<>();
     this.convention = convention;
     config();
   }
 
-  public void config() {
+  /**
+   * Applies convention settings to mapper. Called when serializer is created and when convention
+   * settings used by serializer change - not on each serializer usage.
+   */
+  public synchronized void config() {
+    if (convention == null) {
+      return;
+    }
     if (convention.isSaveEnumsAsIntegers()) {
       objectMapper.enable(Feature.WRITE_ENUMS_USING_INDEX);
     } else {
       objectMapper.disable(Feature.WRITE_ENUMS_USING_INDEX);
     }
+    clearCache();
+  }
+
+  /**
+   * Resolves serializers and deserializers for given types up front, so first request
+   * which uses them doesn't pay for introspection.
+   */
+  public void warmUp(Iterable<Class<?>> types) {
+    for (Class<?> type : types) {
+      objectMapper.canSerialize(type);
+      objectMapper.canDeserialize(TypeFactory.defaultInstance().constructType(type));
+      getReader(type);
+      getWriter(type);
+    }
+  }
+
+  protected ObjectReader getReader(Class<?> type) {
+    ObjectReader reader = readers.get(type);
+    if (reader == null) {
+      reader = objectMapper.reader(type);
+      ObjectReader existing = readers.putIfAbsent(type, reader);
+      if (existing != null) {
+        reader = existing;
+      }
+    }
+    return reader;
+  }
+
+  protected ObjectWriter getWriter(Class<?> type) {
+    ObjectWriter writer = writers.get(type);
+    if (writer == null) {
+      writer = objectMapper.writerWithType(type);
+      ObjectWriter existing = writers.putIfAbsent(type, writer);
+      if (existing != null) {
+        writer = existing;
+      }
+    }
+    return writer;
+  }
+
+  private void clearCache() {
+    readers.clear();
+    writers.clear();
   }
 
   public void serialize(RavenJTokenWriter jsonWriter, Object value) {
     try {
-      objectMapper.writeValue(jsonWriter, value);
+      if (value == null) {
+        objectMapper.writeValue(jsonWriter, value);
+      } else {
+        getWriter(value.getClass()).writeValue(jsonWriter, value);
+      }
     } catch (IOException e) {
       throw new JsonWriterException(e.getMessage(), e);
     }
@@ -51,7 +132,10 @@ public class JsonSerializer {
 
   public String serializeAsString(Object value) {
     try {
-      return objectMapper.writeValueAsString(value);
+      if (value == null) {
+        return objectMapper.writeValueAsString(value);
+      }
+      return getWriter(value.getClass()).writeValueAsString(value);
     } catch (IOException e) {
       throw new JsonWriterException(e.getMessage(), e);
     }
@@ -59,18 +143,41 @@ public class JsonSerializer {
 
   public <T> T deserialize(String input, Class<T> type) {
     try {
-      return objectMapper.readValue(input, type);
+      return getReader(type).readValue(input);
     } catch (IOException e) {
       throw new JsonReaderException(e.getMessage(), e);
     }
   }
 
+  /**
+   * Binds value starting at current token of given parser.
+   */
+  public <T> T deserialize(JsonParser parser, Class<T> type) {
+    try {
+      return getReader(type).readValue(parser);
+    } catch (IOException e) {
+      throw new JsonReaderException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Binds token tree directly, without writing it to string first.
+   */
   public <T> T deserialize(RavenJToken y, Class<T> type) {
-    return deserialize(y.toString(), type);
+    return deserialize(new RavenJTokenParser(y, objectMapper), type);
   }
 
-  public void registerModule(Module setupMoneyModule) {
+  public synchronized void registerModule(Module setupMoneyModule) {
     objectMapper.registerModule(setupMoneyModule);
+    modules.add(setupMoneyModule);
+    clearCache();
+  }
+
+  /**
+   * Modules registered in this serializer, in order of registration.
+   */
+  public List<Module> getModules() {
+    return modules;
   }
 
 }
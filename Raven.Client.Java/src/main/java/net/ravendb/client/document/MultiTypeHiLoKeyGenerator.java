@@ -46,6 +46,7 @@ public class MultiTypeHiLoKeyGenerator {
       }
 
       value = new HiLoKeyGenerator(tag, capacity);
+      value.setPrefetchThreshold(conventions.getHiLoPrefetchThreshold());
       keyGeneratorsByTag.put(tag, value);
     }
 
@@ -0,0 +1,396 @@
+package net.ravendb.client.document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.data.Constants;
+import net.ravendb.abstractions.data.DatabaseStatistics;
+import net.ravendb.abstractions.data.Etag;
+import net.ravendb.abstractions.data.JsonDocument;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.logging.ILog;
+import net.ravendb.abstractions.logging.LogManager;
+import net.ravendb.abstractions.smuggler.ExportPartition;
+import net.ravendb.client.connection.IDatabaseCommands;
+import net.ravendb.client.connection.JsonStreamIterator;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Exports documents using multiple concurrent streams. Each stream reads single {@link ExportPartition}.
+ * Progress is tracked in partitions as documents are returned to the caller, so export can be resumed
+ * using the same partitions.
+ */
+public class ParallelExportOperation {
+
+  private static final ILog logger = LogManager.getCurrentClassLogger();
+
+  private final static Object PARTITION_END_MARKER = new Object();
+
+  private final IDatabaseCommands databaseCommands;
+  private final List<ExportPartition> partitions;
+  private int bufferSize = 1024;
+
+  public ParallelExportOperation(IDatabaseCommands databaseCommands, List<ExportPartition> partitions) {
+    this.databaseCommands = databaseCommands;
+    this.partitions = partitions;
+  }
+
+  /**
+   * Splits documents into partitions containing similar number of documents. Boundaries are sampled
+   * from documents ordered by etag, using statistics to find number of documents.
+   */
+  public static List<ExportPartition> partitionByEtag(IDatabaseCommands databaseCommands, int partitionsCount) {
+    if (partitionsCount < 1) {
+      throw new IllegalArgumentException("Number of partitions must be greater than zero");
+    }
+
+    DatabaseStatistics statistics = databaseCommands.getStatistics();
+    long documentsCount = statistics.getCountOfDocuments();
+
+    List<Etag> boundaries = new ArrayList<>();
+    for (int i = 1; i < partitionsCount && documentsCount > 0; i++) {
+      // documents are returned from the most recently modified one
+      long skip = documentsCount - documentsCount * i / partitionsCount;
+      List<JsonDocument> documents = databaseCommands.getDocuments((int) Math.min(skip, Integer.MAX_VALUE), 1, true);
+      if (!documents.isEmpty() && documents.get(0).getEtag() != null && !boundaries.contains(documents.get(0).getEtag())) {
+        boundaries.add(documents.get(0).getEtag());
+      }
+    }
+    Collections.sort(boundaries);
+
+    List<ExportPartition> result = new ArrayList<>(boundaries.size() + 1);
+    Etag fromEtag = null;
+    for (Etag boundary : boundaries) {
+      result.add(ExportPartition.forEtagRange(fromEtag, boundary));
+      fromEtag = boundary;
+    }
+    result.add(ExportPartition.forEtagRange(fromEtag, null));
+    return result;
+  }
+
+  /**
+   * Creates partition for each of given key prefixes.
+   */
+  public static List<ExportPartition> partitionByPrefix(String... prefixes) {
+    List<ExportPartition> result = new ArrayList<>(prefixes.length);
+    for (String prefix : prefixes) {
+      result.add(ExportPartition.forPrefix(prefix));
+    }
+    return result;
+  }
+
+  public List<ExportPartition> getPartitions() {
+    return partitions;
+  }
+
+  /**
+   * Maximum number of documents read ahead by all streams in {@link #stream()}.
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Maximum number of documents read ahead by all streams in {@link #stream()}.
+   * @param bufferSize
+   */
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Streams single partition, starting after the last exported document of the partition.
+   */
+  public CloseableIterator<RavenJObject> streamPartition(ExportPartition partition) {
+    return new PartitionIterator(partition, true);
+  }
+
+  /**
+   * Streams all not completed partitions concurrently. Documents are returned in the order they arrive.
+   */
+  public CloseableIterator<RavenJObject> stream() {
+    List<PartitionIterator> iterators = new ArrayList<>();
+    for (ExportPartition partition : partitions) {
+      if (!partition.isCompleted()) {
+        iterators.add(new PartitionIterator(partition, false));
+      }
+    }
+    return new MergedIterator(iterators);
+  }
+
+  private static void documentExported(ExportPartition partition, RavenJObject document) {
+    RavenJObject metadata = document.value(RavenJObject.class, Constants.METADATA);
+    if (metadata != null) {
+      String etag = metadata.value(String.class, "@etag");
+      if (StringUtils.isNotEmpty(etag)) {
+        partition.setLastEtag(Etag.parse(etag));
+      }
+      partition.setLastKey(metadata.value(String.class, "@id"));
+    }
+    partition.setExportedDocuments(partition.getExportedDocuments() + 1);
+  }
+
+  private static Etag getEtag(RavenJObject document) {
+    RavenJObject metadata = document.value(RavenJObject.class, Constants.METADATA);
+    if (metadata == null) {
+      return null;
+    }
+    String etag = metadata.value(String.class, "@etag");
+    return StringUtils.isNotEmpty(etag) ? Etag.parse(etag) : null;
+  }
+
+  private class PartitionIterator implements CloseableIterator<RavenJObject> {
+    private final ExportPartition partition;
+    private final boolean trackProgress;
+    private volatile CloseableIterator<RavenJObject> innerIterator;
+    private RavenJObject nextDocument;
+    private boolean finished;
+
+    public PartitionIterator(ExportPartition partition, boolean trackProgress) {
+      this.partition = partition;
+      this.trackProgress = trackProgress;
+      this.finished = partition.isCompleted();
+    }
+
+    private CloseableIterator<RavenJObject> openStream() {
+      if (partition.getStartsWith() != null) {
+        return databaseCommands.streamDocs(null, partition.getStartsWith(), null, 0, Integer.MAX_VALUE, null, null, partition.getLastKey());
+      }
+      Etag fromEtag = partition.getLastEtag() != null ? partition.getLastEtag() : partition.getFromEtag();
+      return databaseCommands.streamDocs(fromEtag);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextDocument != null) {
+        return true;
+      }
+      if (finished) {
+        return false;
+      }
+      if (innerIterator == null) {
+        innerIterator = openStream();
+      }
+      if (innerIterator.hasNext()) {
+        RavenJObject document = innerIterator.next();
+        Etag etag = getEtag(document);
+        if (partition.getToEtag() == null || etag == null || etag.compareTo(partition.getToEtag()) <= 0) {
+          nextDocument = document;
+          return true;
+        }
+      }
+      finished = true;
+      if (trackProgress) {
+        partition.setCompleted(true);
+      }
+      return false;
+    }
+
+    @Override
+    public RavenJObject next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      RavenJObject result = nextDocument;
+      nextDocument = null;
+      if (trackProgress) {
+        documentExported(partition, result);
+      }
+      return result;
+    }
+
+    public void abort() {
+      if (innerIterator instanceof JsonStreamIterator) {
+        ((JsonStreamIterator<?>) innerIterator).abort();
+      }
+    }
+
+    @Override
+    public void remove() {
+      throw new IllegalStateException("Not implemented!");
+    }
+
+    @Override
+    public void close() {
+      if (innerIterator == null) {
+        return;
+      }
+      if (!finished) {
+        // do not read the rest of partition which is out of the range
+        abort();
+      }
+      innerIterator.close();
+    }
+  }
+
+  private static class StreamedItem {
+    private final PartitionIterator source;
+    private final Object item;
+
+    public StreamedItem(PartitionIterator source, Object item) {
+      this.source = source;
+      this.item = item;
+    }
+  }
+
+  private class MergedIterator implements CloseableIterator<RavenJObject> {
+    private final List<PartitionIterator> iterators;
+    private final BlockingQueue<StreamedItem> buffer;
+    private final ExecutorService executorService;
+    private int runningPartitions;
+    private Throwable failure;
+    private StreamedItem nextItem;
+    private volatile boolean closed;
+
+    public MergedIterator(List<PartitionIterator> iterators) {
+      this.iterators = iterators;
+      this.runningPartitions = iterators.size();
+      this.buffer = new ArrayBlockingQueue<>(Math.max(bufferSize, iterators.size()));
+      this.executorService = Executors.newFixedThreadPool(Math.max(1, iterators.size()));
+
+      for (final PartitionIterator iterator : iterators) {
+        executorService.submit(new Runnable() {
+          @Override
+          public void run() {
+            readPartition(iterator);
+          }
+        });
+      }
+      executorService.shutdown();
+    }
+
+    /**
+     * Always ends with end marker or failure of partition, consumer counts running partitions by them.
+     */
+    private void readPartition(PartitionIterator iterator) {
+      Object marker = PARTITION_END_MARKER;
+      try {
+        while (!closed && iterator.hasNext()) {
+          if (!put(new StreamedItem(iterator, iterator.next()))) {
+            return;
+          }
+        }
+      } catch (Throwable e) {
+        if (closed) {
+          logger.debugException("Export of partition stopped after iterator was closed", e);
+        } else {
+          marker = e;
+        }
+      } finally {
+        putMarker(new StreamedItem(iterator, marker));
+      }
+    }
+
+    private void putMarker(StreamedItem marker) {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            put(marker);
+            return;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    private boolean put(StreamedItem item) throws InterruptedException {
+      while (!buffer.offer(item, 100, TimeUnit.MILLISECONDS)) {
+        if (closed) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (failure != null) {
+        // documents of other partitions aren't returned after failure, export has to be resumed
+        throw propagate(failure);
+      }
+      while (nextItem == null) {
+        if (closed || runningPartitions == 0) {
+          return false;
+        }
+        StreamedItem item;
+        try {
+          item = buffer.take();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        if (item.item == PARTITION_END_MARKER) {
+          item.source.partition.setCompleted(true);
+          runningPartitions--;
+        } else if (item.item instanceof Throwable) {
+          runningPartitions--;
+          failure = (Throwable) item.item;
+          throw propagate(failure);
+        } else {
+          nextItem = item;
+        }
+      }
+      return true;
+    }
+
+    private RuntimeException propagate(Throwable e) {
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+      return e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+    }
+
+    @Override
+    public RavenJObject next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      StreamedItem result = nextItem;
+      nextItem = null;
+      RavenJObject document = (RavenJObject) result.item;
+      documentExported(result.source.partition, document);
+      return document;
+    }
+
+    @Override
+    public void remove() {
+      throw new IllegalStateException("Not implemented!");
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (PartitionIterator iterator : iterators) {
+        iterator.abort();
+      }
+      buffer.clear();
+      executorService.shutdownNow();
+      try {
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      for (PartitionIterator iterator : iterators) {
+        iterator.close();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+package net.ravendb.client.document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.ravendb.abstractions.data.QueryOperator;
+
+/**
+ * Records top level equality and in clauses of query as query is built, so values which every result has in given field
+ * are known without parsing query text. Clauses nested in subclauses are not recorded, subclause counts as clause
+ * which doesn't constrain any field.
+ */
+public class QueryFieldValues {
+
+  private static class Clause {
+    private final QueryOperator operator;
+    private final boolean negated;
+    private String fieldName;
+    private Set<Object> values;
+
+    public Clause(QueryOperator operator, boolean negated) {
+      this.operator = operator;
+      this.negated = negated;
+    }
+  }
+
+  private final List<Clause> clauses = new ArrayList<>();
+  private QueryOperator nextOperator;
+  private boolean unknown;
+
+  public QueryFieldValues copy() {
+    QueryFieldValues copy = new QueryFieldValues();
+    for (Clause clause : clauses) {
+      Clause clauseCopy = new Clause(clause.operator, clause.negated);
+      clauseCopy.fieldName = clause.fieldName;
+      clauseCopy.values = clause.values;
+      copy.clauses.add(clauseCopy);
+    }
+    copy.nextOperator = nextOperator;
+    copy.unknown = unknown;
+    return copy;
+  }
+
+  /**
+   * New clause was started at given depth.
+   */
+  public void clauseStarted(int depth, boolean negated) {
+    if (depth == 0) {
+      clauses.add(new Clause(nextOperator, negated));
+      nextOperator = null;
+    }
+  }
+
+  /**
+   * Clause started last compares field with given values.
+   */
+  public void equality(int depth, String fieldName, Collection<?> values) {
+    if (depth != 0 || clauses.isEmpty()) {
+      return;
+    }
+    Clause clause = clauses.get(clauses.size() - 1);
+    if (!clause.negated && clause.fieldName == null) {
+      clause.fieldName = fieldName;
+      clause.values = new LinkedHashSet<>(values);
+    }
+  }
+
+  /**
+   * Operator was explicitly added before next clause.
+   */
+  public void operator(int depth, QueryOperator operator) {
+    if (depth == 0) {
+      nextOperator = operator;
+    }
+  }
+
+  /**
+   * Query contains raw text, so structure of query is unknown.
+   */
+  public void markUnknown(int depth) {
+    if (depth == 0) {
+      unknown = true;
+    }
+  }
+
+  /**
+   * Gets values which every result of query has in given field. Fields which are not constrained are not present.
+   * Returns null if structure of query is unknown.
+   * @param defaultOperator operator used between clauses without explicit operator
+   */
+  public Map<String, Set<Object>> toMap(QueryOperator defaultOperator) {
+    if (unknown) {
+      return null;
+    }
+    Map<String, Set<Object>> result = new HashMap<>();
+    if (clauses.isEmpty()) {
+      return result;
+    }
+
+    boolean allAnd = true;
+    boolean allOr = true;
+    for (int i = 1; i < clauses.size(); i++) {
+      QueryOperator operator = clauses.get(i).operator != null ? clauses.get(i).operator : defaultOperator;
+      allAnd &= operator == QueryOperator.AND;
+      allOr &= operator == QueryOperator.OR;
+    }
+
+    if (allAnd) {
+      for (Clause clause : clauses) {
+        if (clause.fieldName == null) {
+          continue;
+        }
+        Set<Object> values = result.get(clause.fieldName);
+        if (values == null) {
+          result.put(clause.fieldName, new LinkedHashSet<>(clause.values));
+        } else {
+          values.retainAll(clause.values);
+        }
+      }
+    } else if (allOr) {
+      // only disjunction of clauses over the same field constrains it
+      String fieldName = clauses.get(0).fieldName;
+      Set<Object> values = new LinkedHashSet<>();
+      for (Clause clause : clauses) {
+        if (clause.fieldName == null || !clause.fieldName.equals(fieldName)) {
+          return result;
+        }
+        values.addAll(clause.values);
+      }
+      result.put(fieldName, values);
+    }
+    return result;
+  }
+}
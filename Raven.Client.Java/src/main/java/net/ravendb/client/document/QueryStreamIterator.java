@@ -0,0 +1,75 @@
+package net.ravendb.client.document;
+
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.basic.Reference;
+import net.ravendb.abstractions.data.Constants;
+import net.ravendb.abstractions.data.Etag;
+import net.ravendb.abstractions.data.StreamResult;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.client.IDocumentQuery;
+import net.ravendb.client.document.sessionoperations.QueryOperation;
+
+/**
+ * Converts results of streamed query into entities. Entities are not tracked by session.
+ */
+public class QueryStreamIterator<T> implements CloseableIterator<StreamResult<T>> {
+
+  private CloseableIterator<RavenJObject> innerIterator;
+  private DocumentQuery<T> query;
+  private QueryOperation queryOperation;
+
+  public QueryStreamIterator(IDocumentQuery<T> query, CloseableIterator<RavenJObject> innerIterator) {
+    super();
+    this.innerIterator = innerIterator;
+    this.query = (DocumentQuery<T>) query;
+    queryOperation = ((DocumentQuery<T>)query).initializeQueryOperation();
+    queryOperation.setDisableEntitiesTracking(true);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return innerIterator.hasNext();
+  }
+
+  @Override
+  public void close() {
+    innerIterator.close();
+  }
+
+  @Override
+  public StreamResult<T> next() {
+    RavenJObject nextValue = innerIterator.next();
+    query.invokeAfterStreamExecuted(new Reference<>(nextValue));
+    RavenJObject meta = nextValue.value(RavenJObject.class, Constants.METADATA);
+
+    String key = null;
+    Etag etag = null;
+    if (meta != null) {
+      key = meta.value(String.class, "@id");
+      if (key == null) {
+        key = meta.value(String.class, Constants.DOCUMENT_ID_FIELD_NAME);
+      }
+      if (key == null) {
+        key = nextValue.value(String.class, Constants.DOCUMENT_ID_FIELD_NAME);
+      }
+
+      String value = meta.value(String.class, "@etag");
+      if (value != null) {
+        etag = Etag.parse(value);
+      }
+    }
+
+    StreamResult<T> streamResult = new StreamResult<>();
+    streamResult.setDocument(queryOperation.deserialize(query.getElementType(), nextValue));
+    streamResult.setEtag(etag);
+    streamResult.setKey(key);
+    streamResult.setMetadata(meta);
+    return streamResult;
+  }
+
+  @Override
+  public void remove() {
+    throw new IllegalStateException("Not implemented!");
+  }
+
+}
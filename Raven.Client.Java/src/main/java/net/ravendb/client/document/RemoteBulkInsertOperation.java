@@ -13,7 +13,6 @@ import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPOutputStream;
 
 import net.ravendb.abstractions.closure.Action1;
 import net.ravendb.abstractions.data.BulkInsertChangeNotification;
@@ -31,6 +30,7 @@ import net.ravendb.client.connection.implementation.HttpJsonRequest;
 import net.ravendb.client.extensions.HttpJsonRequestExtension;
 import net.ravendb.client.utils.CancellationTokenSource;
 import net.ravendb.client.utils.CancellationTokenSource.CancellationToken;
+import net.ravendb.java.http.client.PooledGzipOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.ArrayUtils;
@@ -446,19 +446,22 @@ public class RemoteBulkInsertOperation implements ILowLevelBulkInsertOperation,
   }
 
   private void writeToBuffer(Collection<RavenJObject> localBatch) throws IOException {
-    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(bufferedStream);
-
-    BsonGenerator bsonWriter = bsonFactory.createJsonGenerator(gzipOutputStream);
-    bsonWriter.disable(org.codehaus.jackson.JsonGenerator.Feature.AUTO_CLOSE_TARGET);
-
-    byte[] bytes = ByteBuffer.allocate(4).putInt(localBatch.size()).array();
-    ArrayUtils.reverse(bytes);
-    gzipOutputStream.write(bytes);
-    for (RavenJObject doc : localBatch) {
-      doc.writeTo(bsonWriter);
+    PooledGzipOutputStream gzipOutputStream = new PooledGzipOutputStream(bufferedStream);
+    try {
+      BsonGenerator bsonWriter = bsonFactory.createJsonGenerator(gzipOutputStream);
+      bsonWriter.disable(org.codehaus.jackson.JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      byte[] bytes = ByteBuffer.allocate(4).putInt(localBatch.size()).array();
+      ArrayUtils.reverse(bytes);
+      gzipOutputStream.write(bytes);
+      for (RavenJObject doc : localBatch) {
+        doc.writeTo(bsonWriter);
+      }
+      bsonWriter.close();
+      gzipOutputStream.finish();
+    } finally {
+      gzipOutputStream.release();
     }
-    bsonWriter.close();
-    gzipOutputStream.finish();
     bufferedStream.flush();
   }
 
@@ -11,12 +11,15 @@ public class ResponseTimeInformation {
 
   private List<ResponseTimeItem> durationBreakdown;
 
+  private List<ResponseTimeRound> rounds;
+
 
   @SuppressWarnings("boxing")
   public ResponseTimeInformation() {
     totalClientDuration = 0L;
     totalServerDuration = 0L;
     durationBreakdown = new ArrayList<>();
+    rounds = new ArrayList<>();
   }
 
   public Long getTotalServerDuration() {
@@ -48,6 +51,23 @@ public class ResponseTimeInformation {
     this.durationBreakdown = durationBreakdown;
   }
 
+  /**
+   * Requests sent to execute pending operations. Operations which had to be retried (ex. waiting for non stale
+   * results) are sent in more than one round.
+   */
+  public List<ResponseTimeRound> getRounds() {
+    return rounds;
+  }
+
+  /**
+   * Requests sent to execute pending operations. Operations which had to be retried (ex. waiting for non stale
+   * results) are sent in more than one round.
+   * @param rounds
+   */
+  public void setRounds(List<ResponseTimeRound> rounds) {
+    this.rounds = rounds;
+  }
+
   @SuppressWarnings("boxing")
   public void computeServerTotal() {
     long total = 0;
@@ -78,4 +98,55 @@ public class ResponseTimeInformation {
     }
 
   }
+
+  public static class ResponseTimeRound {
+    private int operationsCount;
+    private long waitDuration;
+    private long duration;
+
+    /**
+     * Number of operations sent in this round.
+     */
+    public int getOperationsCount() {
+      return operationsCount;
+    }
+
+    /**
+     * Number of operations sent in this round.
+     * @param operationsCount
+     */
+    public void setOperationsCount(int operationsCount) {
+      this.operationsCount = operationsCount;
+    }
+
+    /**
+     * Time in milliseconds waited before this round was sent.
+     */
+    public long getWaitDuration() {
+      return waitDuration;
+    }
+
+    /**
+     * Time in milliseconds waited before this round was sent.
+     * @param waitDuration
+     */
+    public void setWaitDuration(long waitDuration) {
+      this.waitDuration = waitDuration;
+    }
+
+    /**
+     * Client side duration of this round in milliseconds.
+     */
+    public long getDuration() {
+      return duration;
+    }
+
+    /**
+     * Client side duration of this round in milliseconds.
+     * @param duration
+     */
+    public void setDuration(long duration) {
+      this.duration = duration;
+    }
+  }
 }
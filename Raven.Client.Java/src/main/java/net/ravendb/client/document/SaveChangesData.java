@@ -2,8 +2,13 @@ package net.ravendb.client.document;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import net.ravendb.abstractions.commands.ICommandData;
+import net.ravendb.abstractions.json.linq.RavenJArray;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJToken;
+import net.ravendb.abstractions.json.linq.RavenJValue;
 
 
 /**
@@ -39,6 +44,88 @@ public class SaveChangesData {
     this.entities = entities;
   }
 
+  /**
+   * Splits data into parts sent in separate requests. Commands keep their order and each part
+   * gets deferred commands and entities matching its commands, so it can be passed to updateBatchResults.
+   * @param maxCommands maximum number of commands in single part (0 for no limit)
+   * @param maxSizeInBytes maximum estimated size of commands JSON in single part (0 for no limit), single command is never split
+   */
+  public List<SaveChangesData> split(int maxCommands, long maxSizeInBytes) {
+    List<SaveChangesData> parts = new ArrayList<>();
+    if ((maxCommands <= 0 || commands.size() <= maxCommands) && maxSizeInBytes <= 0) {
+      parts.add(this);
+      return parts;
+    }
 
+    int partStart = 0;
+    long partSize = 0;
+    for (int i = 0; i < commands.size(); i++) {
+      long commandSize = (maxSizeInBytes > 0) ? estimateJsonSize(commands.get(i).toJson()) : 0;
+      boolean full = (maxCommands > 0 && i - partStart == maxCommands)
+        || (maxSizeInBytes > 0 && i > partStart && partSize + commandSize > maxSizeInBytes);
+      if (full) {
+        parts.add(subData(partStart, i));
+        partStart = i;
+        partSize = 0;
+      }
+      partSize += commandSize;
+    }
+    if (partStart < commands.size()) {
+      parts.add(subData(partStart, commands.size()));
+    }
+    return parts;
+  }
+
+  private SaveChangesData subData(int start, int end) {
+    SaveChangesData part = new SaveChangesData();
+    part.setCommands(new ArrayList<>(commands.subList(start, end)));
+    part.setDeferredCommandsCount(Math.max(0, Math.min(end, deferredCommandsCount) - start));
+    part.setEntities(new ArrayList<>(entities.subList(Math.max(start, deferredCommandsCount) - deferredCommandsCount,
+      Math.max(end, deferredCommandsCount) - deferredCommandsCount)));
+    return part;
+  }
+
+  /**
+   * Estimates size of JSON written for token without serializing it - request body is written only once,
+   * when batch is sent. Strings are counted as if they had single byte characters and no escaping.
+   * @param token
+   */
+  static long estimateJsonSize(RavenJToken token) {
+    if (token == null) {
+      return 4;
+    }
+    switch (token.getType()) {
+      case OBJECT:
+        long objectSize = 1;
+        for (Map.Entry<String, RavenJToken> property : (RavenJObject) token) {
+          // key with quotes, colon and comma or closing brace
+          objectSize += property.getKey().length() + 4 + estimateJsonSize(property.getValue());
+        }
+        return Math.max(2, objectSize);
+      case ARRAY:
+        long arraySize = 1;
+        for (RavenJToken item : (RavenJArray) token) {
+          arraySize += estimateJsonSize(item) + 1;
+        }
+        return Math.max(2, arraySize);
+      default:
+        Object value = ((RavenJValue) token).getValue();
+        if (value == null) {
+          return 4;
+        }
+        switch (token.getType()) {
+          case STRING:
+            return ((String) value).length() + 2;
+          case INTEGER:
+          case FLOAT:
+          case BOOLEAN:
+            return value.toString().length();
+          case BYTES:
+            return (((byte[]) value).length + 2) / 3 * 4 + 2;
+          default:
+            return value.toString().length() + 2;
+        }
+    }
+  }
 
 }
@@ -2,8 +2,12 @@ package net.ravendb.client.document;
 
 import net.ravendb.abstractions.basic.CleanCloseable;
 import net.ravendb.abstractions.basic.Reference;
+import net.ravendb.abstractions.closure.Action1;
 import net.ravendb.abstractions.closure.Function1;
 import net.ravendb.abstractions.data.BulkInsertOptions;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.logging.ILog;
+import net.ravendb.abstractions.logging.LogManager;
 import net.ravendb.client.IDocumentStore;
 import net.ravendb.client.connection.IDatabaseCommands;
 import net.ravendb.client.extensions.MultiDatabase;
@@ -11,11 +15,32 @@ import net.ravendb.client.shard.IShardResolutionStrategy;
 import net.ravendb.client.shard.ShardStrategy;
 import net.ravendb.client.shard.ShardedDocumentStore;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Bulk insert into sharded store.
+ *
+ * Documents are routed to shards and converted to JSON on caller thread, so entity can be changed once store
+ * returns and listeners run on caller thread. Converted documents are written to each shard by its own writer thread,
+ * so slow shard only throttles documents destined for it. Each shard buffers up to maxPendingDocumentsPerShard
+ * documents, all shards together buffer up to maxPendingBytes bytes (estimated size of document JSON).
+ */
 public class ShardedBulkInsertOperation implements CleanCloseable {
 
+    private static final ILog logger = LogManager.getCurrentClassLogger();
+
+    private static final Object END_OF_SHARD_MARKER = new Object();
+
+    private static final int DEFAULT_MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
     private final GenerateEntityIdOnTheClient generateEntityIdOnTheClient;
     private final ShardedDocumentStore shardedDocumentStore;
     private IDatabaseCommands databaseCommands;
@@ -25,15 +50,121 @@ public class ShardedBulkInsertOperation implements CleanCloseable {
     private final IShardResolutionStrategy shardResolutionStrategy;
     private final ShardStrategy shardStrategy;
 
-    //Key - ShardID, Value - BulkInsertOperation
-    private Map<String, BulkInsertOperation> bulks;
+    //Key - ShardID, Value - writer of shard
+    private final Map<String, ShardWriter> writers;
+
+    private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+    private int maxPendingDocumentsPerShard;
+    private final int reportInterval;
+    private Semaphore pendingBytes;
+    private final AtomicLong storedDocuments = new AtomicLong();
+    private volatile Action1<String> report;
+    private volatile boolean aborted;
+
+    private static class PendingDocument {
+        private final String id;
+        private final RavenJObject data;
+        private final RavenJObject metadata;
+        private final int size;
+
+        public PendingDocument(String id, RavenJObject data, RavenJObject metadata, int size) {
+            this.id = id;
+            this.data = data;
+            this.metadata = metadata;
+            this.size = size;
+        }
+    }
+
+    private class ShardWriter implements Runnable {
+        private final String shardId;
+        private final BulkInsertOperation operation;
+        private final BlockingQueue<Object> queue;
+        private final Thread thread;
+        private final AtomicLong stored = new AtomicLong();
+        private volatile Throwable failure;
+
+        public ShardWriter(String shardId, BulkInsertOperation operation) {
+            this.shardId = shardId;
+            this.operation = operation;
+            this.queue = new ArrayBlockingQueue<>(maxPendingDocumentsPerShard);
+            this.thread = new Thread(this, "RavenDB sharded bulk insert: " + shardId);
+            thread.setDaemon(true);
+        }
+
+        @SuppressWarnings("synthetic-access")
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Object item = queue.take();
+                    if (item == END_OF_SHARD_MARKER) {
+                        return;
+                    }
+                    PendingDocument document = (PendingDocument) item;
+                    try {
+                        operation.write(document.id, document.metadata, document.data);
+                    } finally {
+                        pendingBytes.release(document.size);
+                    }
+                    stored.incrementAndGet();
+                    long total = storedDocuments.incrementAndGet();
+                    if (total % reportInterval == 0) {
+                        reportProgress(total);
+                    }
+                }
+            } catch (Throwable e) {
+                // errors are recorded as well, so close doesn't return normally while documents are lost
+                if (aborted && e instanceof Exception) {
+                    logger.debugException("Writer of shard " + shardId + " stopped after bulk insert was aborted", (Exception) e);
+                } else {
+                    failure = e;
+                }
+                discardPending();
+            }
+        }
+
+        /**
+         * Drops documents which won't be written and returns their memory budget.
+         */
+        @SuppressWarnings("synthetic-access")
+        private void discardPending() {
+            List<Object> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            for (Object item : pending) {
+                if (item != END_OF_SHARD_MARKER) {
+                    pendingBytes.release(((PendingDocument) item).size);
+                }
+            }
+        }
+
+        @SuppressWarnings("synthetic-access")
+        public void enqueue(Object item) throws InterruptedException {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                throwIfFailed();
+                if (!thread.isAlive()) {
+                    throw new IllegalStateException("Bulk insert has been aborted");
+                }
+            }
+        }
+
+        /**
+         * Signals writer that no more documents will come. Writer which already stopped is not waited for.
+         */
+        public void finish() throws InterruptedException {
+            while (!queue.offer(END_OF_SHARD_MARKER, 100, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    return;
+                }
+            }
+        }
+    }
 
     public ShardedBulkInsertOperation(final String database, final ShardedDocumentStore shardedDocumentStore, BulkInsertOptions options) {
         this.database = database;
         this.shardedDocumentStore = shardedDocumentStore;
         this.options = options;
         shards = shardedDocumentStore.getShardStrategy().getShards();
-        bulks = new HashMap<>();
+        writers = new LinkedHashMap<>();
         generateEntityIdOnTheClient = new GenerateEntityIdOnTheClient(shardedDocumentStore.getConventions(), new Function1<Object, String>() {
             @Override
             public String apply(Object entity) {
@@ -42,11 +173,110 @@ public class ShardedBulkInsertOperation implements CleanCloseable {
         });
         shardResolutionStrategy = shardedDocumentStore.getShardStrategy().getShardResolutionStrategy();
         shardStrategy = shardedDocumentStore.getShardStrategy();
+        maxPendingDocumentsPerShard = Math.max(1, 2 * options.getBatchSize());
+        reportInterval = Math.max(1, options.getBatchSize());
+    }
+
+    /**
+     * Max size in bytes of documents waiting to be written, summed over all shards. Document larger than
+     * this limit is written alone.
+     */
+    public int getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    /**
+     * Max size in bytes of documents waiting to be written, summed over all shards. Document larger than
+     * this limit is written alone.
+     * @param maxPendingBytes
+     */
+    public void setMaxPendingBytes(int maxPendingBytes) {
+        assertNotStarted();
+        if (maxPendingBytes < 1) {
+            throw new IllegalArgumentException("Max pending bytes must be greater than zero");
+        }
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Max number of documents waiting to be written to single shard.
+     */
+    public int getMaxPendingDocumentsPerShard() {
+        return maxPendingDocumentsPerShard;
+    }
+
+    /**
+     * Max number of documents waiting to be written to single shard.
+     * @param maxPendingDocumentsPerShard
+     */
+    public void setMaxPendingDocumentsPerShard(int maxPendingDocumentsPerShard) {
+        assertNotStarted();
+        if (maxPendingDocumentsPerShard < 1) {
+            throw new IllegalArgumentException("Max pending documents per shard must be greater than zero");
+        }
+        this.maxPendingDocumentsPerShard = maxPendingDocumentsPerShard;
+    }
+
+    private void assertNotStarted() {
+        if (pendingBytes != null) {
+            throw new IllegalStateException("Bulk insert has already started");
+        }
+    }
+
+    /**
+     * Report of the progress of operation. Called from writer threads, messages of shards are prefixed with shard id.
+     */
+    public Action1<String> getReport() {
+        return report;
+    }
+
+    /**
+     * Report of the progress of operation. Called from writer threads, messages of shards are prefixed with shard id.
+     * @param report
+     */
+    public void setReport(Action1<String> report) {
+        this.report = report;
+    }
+
+    /**
+     * Number of documents written to all shards so far.
+     */
+    public long getStoredDocuments() {
+        return storedDocuments.get();
+    }
+
+    /**
+     * Number of documents written to each shard so far, keyed by shard id.
+     */
+    public synchronized Map<String, Long> getStoredDocumentsPerShard() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (ShardWriter writer : writers.values()) {
+            result.put(writer.shardId, writer.stored.get());
+        }
+        return result;
+    }
+
+    /**
+     * Size in bytes of documents waiting to be written to all shards.
+     */
+    public int getPendingBytes() {
+        Semaphore pending = pendingBytes;
+        return pending != null ? maxPendingBytes - pending.availablePermits() : 0;
+    }
+
+    private void reportProgress(long total) {
+        Action1<String> action = report;
+        if (action != null) {
+            action.apply("Stored " + total + " documents " + getStoredDocumentsPerShard());
+        }
     }
 
     public boolean isAborted() {
-        for (BulkInsertOperation op: bulks.values()) {
-            if (op.isAborted()) {
+        if (aborted) {
+            return true;
+        }
+        for (ShardWriter writer: writersSnapshot()) {
+            if (writer.operation.isAborted()) {
                 return true;
             }
         }
@@ -54,20 +284,63 @@ public class ShardedBulkInsertOperation implements CleanCloseable {
     }
 
     public void abort() {
-        for (BulkInsertOperation op: bulks.values()) {
-            op.abort();
+        aborted = true;
+        for (ShardWriter writer: writersSnapshot()) {
+            writer.operation.abort();
+            writer.thread.interrupt();
         }
     }
 
+    private synchronized List<ShardWriter> writersSnapshot() {
+        return new ArrayList<>(writers.values());
+    }
+
     public IDatabaseCommands getDatabaseCommands() {
         return databaseCommands;
     }
 
     public void store(Object entity) throws InterruptedException {
+        if (aborted) {
+            throw new IllegalStateException("Bulk insert has been aborted");
+        }
+        throwIfFailed();
+
         String shardId = shardResolutionStrategy.generateShardIdFor(entity, this);
-        IDocumentStore shard = shards.get(shardId);
-        BulkInsertOperation bulkInsertOperation = bulks.get(shardId);
-        if (bulkInsertOperation == null) {
+        ShardWriter writer = getOrCreateWriter(shardId);
+
+        databaseCommands = shards.get(shardId).getDatabaseCommands();
+
+        Reference<String> idRef = new Reference<>();
+        if (!generateEntityIdOnTheClient.tryGetIdFromInstance(entity, idRef)) {
+            idRef.value = generateEntityIdOnTheClient.getOrGenerateDocumentKey(entity);
+        }
+
+        String modifyDocumentId = shardStrategy.getModifyDocumentId().apply(shardedDocumentStore.getConventions(), shardId, idRef.value);
+
+        // snapshot of entity is taken now, writer thread only sends it
+        RavenJObject metadata = new RavenJObject();
+        RavenJObject data = writer.operation.convertEntityToJson(modifyDocumentId, entity, metadata);
+        long estimatedSize = SaveChangesData.estimateJsonSize(data) + SaveChangesData.estimateJsonSize(metadata);
+        int size = (int) Math.max(1, Math.min(estimatedSize, maxPendingBytes));
+
+        while (!pendingBytes.tryAcquire(size, 100, TimeUnit.MILLISECONDS)) {
+            throwIfFailed();
+        }
+        try {
+            writer.enqueue(new PendingDocument(modifyDocumentId, data, metadata, size));
+        } catch (InterruptedException | RuntimeException e) {
+            pendingBytes.release(size);
+            throw e;
+        }
+    }
+
+    private synchronized ShardWriter getOrCreateWriter(String shardId) {
+        ShardWriter writer = writers.get(shardId);
+        if (writer == null) {
+            if (pendingBytes == null) {
+                pendingBytes = new Semaphore(maxPendingBytes);
+            }
+            IDocumentStore shard = shards.get(shardId);
 
             String actualDatabaseName = database;
             if (actualDatabaseName == null) {
@@ -77,26 +350,62 @@ public class ShardedBulkInsertOperation implements CleanCloseable {
                 actualDatabaseName = MultiDatabase.getDatabaseName(shard.getUrl());
             }
 
-            bulkInsertOperation = new BulkInsertOperation(actualDatabaseName, shard, shard.getListeners(), options, shard.changes());
-            bulks.put(shardId, bulkInsertOperation);
+            BulkInsertOperation bulkInsertOperation = createBulkInsertOperation(actualDatabaseName, shard);
+            final String reportPrefix = "Shard " + shardId + ": ";
+            bulkInsertOperation.setReport(new Action1<String>() {
+                @SuppressWarnings("synthetic-access")
+                @Override
+                public void apply(String message) {
+                    Action1<String> action = report;
+                    if (action != null) {
+                        action.apply(reportPrefix + message);
+                    }
+                }
+            });
+            writer = new ShardWriter(shardId, bulkInsertOperation);
+            writers.put(shardId, writer);
+            writer.thread.start();
         }
+        return writer;
+    }
 
-        databaseCommands = shards.get(shardId).getDatabaseCommands();
+    protected BulkInsertOperation createBulkInsertOperation(String actualDatabaseName, IDocumentStore shard) {
+        return new BulkInsertOperation(actualDatabaseName, shard, shard.getListeners(), options, shard.changes());
+    }
 
-        Reference<String> idRef = new Reference<>();
-        if (!generateEntityIdOnTheClient.tryGetIdFromInstance(entity, idRef)) {
-            idRef.value = generateEntityIdOnTheClient.getOrGenerateDocumentKey(entity);
+    private void throwIfFailed() {
+        for (ShardWriter writer: writersSnapshot()) {
+            Throwable failure = writer.failure;
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Bulk insert into shard " + writer.shardId + " failed", failure);
+            }
         }
-
-        String modifyDocumentId = shardStrategy.getModifyDocumentId().apply(shardedDocumentStore.getConventions(), shardId, idRef.value);
-        bulkInsertOperation.store(entity, modifyDocumentId);
     }
 
+    /**
+     * Waits until all pending documents are written and closes operations of all shards.
+     * Fails if writing to any shard failed.
+     */
     @Override
     public void close() {
-        for (BulkInsertOperation op: bulks.values()) {
-            op.close();
+        List<ShardWriter> allWriters = writersSnapshot();
+        try {
+            for (ShardWriter writer: allWriters) {
+                writer.finish();
+            }
+            for (ShardWriter writer: allWriters) {
+                writer.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
         }
-
+        for (ShardWriter writer: allWriters) {
+            writer.operation.close();
+        }
+        throwIfFailed();
     }
 }
@@ -13,6 +13,7 @@ import net.ravendb.abstractions.exceptions.subscriptions.SubscriptionClosedExcep
 import net.ravendb.abstractions.exceptions.subscriptions.SubscriptionDoesNotExistException;
 import net.ravendb.abstractions.exceptions.subscriptions.SubscriptionException;
 import net.ravendb.abstractions.exceptions.subscriptions.SubscriptionInUseException;
+import net.ravendb.abstractions.json.MetadataExtractingJsonParser;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.logging.ILog;
 import net.ravendb.abstractions.logging.LogManager;
@@ -20,8 +21,7 @@ import net.ravendb.abstractions.util.AutoResetEvent;
 import net.ravendb.abstractions.util.ManualResetEvent;
 import net.ravendb.client.changes.*;
 import net.ravendb.client.connection.IDatabaseCommands;
-import net.ravendb.client.connection.RavenJObjectIterator;
-import net.ravendb.client.connection.ServerClient;
+import net.ravendb.client.connection.JsonStreamIterator;
 import net.ravendb.client.connection.implementation.HttpJsonRequest;
 import net.ravendb.client.connection.profiling.ConcurrentSet;
 import net.ravendb.client.extensions.HttpJsonRequestExtension;
@@ -35,16 +35,24 @@ import org.codehaus.jackson.JsonParser;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class Subscription<T> implements IObservable<T>, CleanCloseable {
 
   private final static Object END_OF_COLLECTION_MARKER = new Object();
+  private final static Object STOP_PROCESSING_MARKER = new Object();
 
   private final ExecutorService executorService = Executors.newFixedThreadPool(3);
 
+  private final ExecutorService workersExecutorService;
+
   protected static final ILog logger = LogManager.getCurrentClassLogger();
 
   private final Class<T> clazz;
@@ -78,7 +86,7 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
 
   private EventHandler<VoidArgs> eventHandler;
 
-  private boolean isErroredBecauseOfSubscriber;
+  private volatile boolean isErroredBecauseOfSubscriber;
   private Exception lastSubscriberException;
   private Throwable subscriptionConnectionException;
   private boolean connectionClosed;
@@ -89,6 +97,7 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
     this.clazz = clazz;
     this.id = id;
     this.options = options;
+    this.workersExecutorService = options.getProcessingWorkers() > 1 ? Executors.newFixedThreadPool(options.getProcessingWorkers()) : null;
     this.commands = commands;
     this.changes = changes;
     this.conventions = conventions;
@@ -143,95 +152,60 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
 
             final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(options.getBatchOptions().getMaxDocCount() + 1);
             Future<?> processingTask = null;
+            PartitionedDocumentProcessor partitionedProcessor = null;
+            BatchWorkerStatistics batchStatistics = null;
 
             try (HttpJsonRequest subscriptionRequest = createPullingRequest()) {
               try (CloseableHttpResponse response = subscriptionRequest.executeRawResponse()) {
                 HttpJsonRequestExtension.assertNotFailingResponse(response);
 
-                try (RavenJObjectIterator streamedDocs = ServerClient.yieldStreamResults(response, 0, Integer.MAX_VALUE, null, new Function1<JsonParser, Boolean>() {
-                  @SuppressWarnings({"synthetic-access"})
-                  @Override
-                  public Boolean apply(JsonParser reader) {
-                    try {
-                      if (!"LastProcessedEtag".equals(reader.getText())) {
-                        return false;
-                      }
-                      if (reader.nextToken() == null) {
-                        return false;
-                      }
-                      lastProcessedEtagOnServerRef.value = Etag.parse(reader.getText());
-                      return true;
-                    } catch (IOException e) {
-                      return false;
-                    }
-                  }
-                })) {
+                try (JsonStreamIterator<StreamedDocument> streamedDocs = openStreamedDocuments(response, lastProcessedEtagOnServerRef)) {
                   while (streamedDocs.hasNext()) {
                     if (pulledDocs == false) {
                       EventHelper.invoke(beforeBatch, this, EventArgs.EMPTY);
 
-                      processingTask = executorService.submit(new Runnable() {
-                        @Override
-                        public void run() {
-                          T doc;
-                          try {
-                            while (true) {
-                              Object takenObject = queue.take();
+                      if (workersExecutorService != null) {
+                        partitionedProcessor = new PartitionedDocumentProcessor();
+                        batchStatistics = partitionedProcessor.newBatchStatistics();
+                      } else {
+                        processingTask = executorService.submit(new Runnable() {
+                          @Override
+                          public void run() {
+                            try {
+                              while (true) {
+                                Object takenObject = queue.take();
+
+                                if (END_OF_COLLECTION_MARKER == takenObject) {
+                                  break;
+                                }
 
-                              if (END_OF_COLLECTION_MARKER == takenObject) {
-                                break;
-                              }
+                                cts.getToken().throwIfCancellationRequested();
 
-                              doc = (T) takenObject;
-                              cts.getToken().throwIfCancellationRequested();
-
-                              for (IObserver<T> subscriber : subscribers) {
-                                try {
-                                  subscriber.onNext(doc);
-                                } catch (Exception ex) {
-                                  logger.warnException("Subscriber threw an exception", ex);
-                                  if (options.isIgnoreSubscribersErrors() == false) {
-                                    isErroredBecauseOfSubscriber = true;
-                                    lastSubscriberException = ex;
-                                    try {
-                                      subscriber.onError(ex);
-                                    } catch (Exception e) {
-                                      // can happen if a subscriber doesn't have an onError handler - just ignore it
-                                    }
-                                    break;
-                                  }
+                                if (!deliverToSubscribers((T) takenObject)) {
+                                  break;
                                 }
-                              }
 
-                              if (isErroredBecauseOfSubscriber) {
-                                break;
+                                processedDocsRef.value++;
                               }
-
-                              processedDocsRef.value++;
+                            } catch (InterruptedException e) {
+                              throw new RuntimeException(e);
                             }
-                          } catch (InterruptedException e) {
-                            throw new RuntimeException(e);
                           }
-                        }
-                      });
+                        });
+                      }
                     }
                     pulledDocs = true;
 
                     cts.getToken().throwIfCancellationRequested();
 
-                    RavenJObject jsonDoc = streamedDocs.next();
-
-                    if (isStronglyTyped) {
-                      T instance = conventions.createSerializer().deserialize(jsonDoc.toString(), clazz);
-                      String docId = jsonDoc.get(Constants.METADATA).value(String.class, "@id");
+                    StreamedDocument streamedDocument = streamedDocs.next();
 
-                      if (StringUtils.isNotEmpty(docId)) {
-                        generateEntityIdOnTheClient.trySetIdentity(instance, docId);
+                    if (partitionedProcessor != null) {
+                      if (!partitionedProcessor.dispatch(streamedDocument.document, streamedDocument.documentId, batchStatistics, null)) {
+                        break;
                       }
-
-                      queue.add(instance);
                     } else {
-                      queue.add((T) jsonDoc);
+                      queue.add(streamedDocument.document);
                     }
 
                     if (isErroredBecauseOfSubscriber) {
@@ -247,6 +221,15 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
                 processingTask.get();
               }
 
+              List<WorkerStatistics> workerStatistics = Collections.emptyList();
+              if (partitionedProcessor != null) {
+                partitionedProcessor.finish();
+                workerStatistics = batchStatistics.snapshot();
+                for (WorkerStatistics statistics : workerStatistics) {
+                  processedDocsRef.value += statistics.getDocumentsProcessed();
+                }
+              }
+
               if (isErroredBecauseOfSubscriber) {
                 break;
               }
@@ -259,7 +242,7 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
                   acknowledgeBatchToServer(lastProcessedEtagOnServerRef.value);
                   EventHelper.invoke(afterAcknowledgment, this, new LastProcessedEtagEventArgs(lastProcessedEtagOnServerRef.value));
 
-                  EventHelper.invoke(afterBatch, this, new DocumentProcessedEventArgs(processedDocsRef.value));
+                  EventHelper.invoke(afterBatch, this, new DocumentProcessedEventArgs(processedDocsRef.value, workerStatistics));
                   continue; // try to pull more documents from subscription
                 } else {
                   if (!lastProcessedEtagOnServerRef.value.equals(lastProcessedEtagOnClient)) {
@@ -275,12 +258,117 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
                 }
               }
 
-              while (newDocuments.waitOne(options.getClientAliveNotificationInterval(), TimeUnit.MILLISECONDS) == false) {
-                try (HttpJsonRequest clientAliveRequest = createClientAliveRequest()) {
-                  clientAliveRequest.executeRequest();
+              waitForNewDocuments();
+            }
+          }
+        } catch (InterruptedException | IOException e) {
+          throw new RuntimeException(e);
+        } catch (ErrorResponseException e) {
+          SubscriptionException subscriptionException = DocumentSubscriptions.tryGetSubscriptionException(e);
+          if (subscriptionException != null) {
+            throw subscriptionException;
+          }
+          throw e;
+        }
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Pipelined version of {@link #pullDocuments()}. Streamed documents are put into a buffer which is drained by
+   * a single processing task. Once the number of not yet processed documents drops to the configured prefetch depth
+   * the documents processed so far are acknowledged and the next batch is pulled while the rest of the buffer is
+   * still being processed. Server starts every pull from the last acknowledged etag, so documents which are already
+   * buffered are sent once again - those are skipped based on their etags.
+   */
+  private Future<?> pullDocumentsPipelined() {
+    return executorService.submit(new Callable<Void>() {
+      @SuppressWarnings({"synthetic-access", "boxing"})
+      @Override
+      public Void call() throws Exception {
+        PipelinedBatchProcessor processor = new PipelinedBatchProcessor();
+        Future<?> processingTask = executorService.submit(processor);
+
+        try {
+          Etag lastEnqueuedEtag = null;
+
+          while (true) {
+            anySubscriber.waitOne();
+
+            cts.getToken().throwIfCancellationRequested();
+
+            if (isErroredBecauseOfSubscriber) {
+              break;
+            }
+
+            processor.acknowledgeProcessedDocuments();
+
+            int newDocs = 0;
+            final Reference<Etag> lastProcessedEtagOnServerRef = new Reference<>();
+
+            try (HttpJsonRequest subscriptionRequest = createPullingRequest()) {
+              try (CloseableHttpResponse response = subscriptionRequest.executeRawResponse()) {
+                HttpJsonRequestExtension.assertNotFailingResponse(response);
+
+                try (JsonStreamIterator<StreamedDocument> streamedDocs = openStreamedDocuments(response, lastProcessedEtagOnServerRef)) {
+                  while (streamedDocs.hasNext()) {
+                    cts.getToken().throwIfCancellationRequested();
+
+                    StreamedDocument streamedDocument = streamedDocs.next();
+                    Etag docEtag = streamedDocument.etag;
+
+                    if (docEtag != null && lastEnqueuedEtag != null && docEtag.compareTo(lastEnqueuedEtag) <= 0) {
+                      continue; // document is already buffered or processed
+                    }
+
+                    if (newDocs == 0) {
+                      EventHelper.invoke(beforeBatch, this, EventArgs.EMPTY);
+                    }
+
+                    if (!processor.enqueue(streamedDocument)) {
+                      break;
+                    }
+
+                    if (docEtag != null) {
+                      lastEnqueuedEtag = docEtag;
+                    }
+                    newDocs++;
+                  }
                 }
               }
             }
+
+            if (isErroredBecauseOfSubscriber) {
+              break;
+            }
+
+            Etag lastProcessedEtagOnServer = lastProcessedEtagOnServerRef.value;
+
+            if (newDocs > 0) {
+              if (lastProcessedEtagOnServer != null) {
+                processor.enqueue(new BatchEnd(lastProcessedEtagOnServer, newDocs));
+                lastEnqueuedEtag = lastProcessedEtagOnServer;
+              }
+              // pull the next batch as soon as the buffer goes down to the prefetch depth
+              processor.waitForPendingDocuments(options.getPrefetchDepth());
+              continue;
+            }
+
+            processor.waitForPendingDocuments(0);
+
+            if (isErroredBecauseOfSubscriber) {
+              break;
+            }
+
+            processor.acknowledgeProcessedDocuments();
+
+            if (lastProcessedEtagOnServer != null && processor.acknowledgeSilently(lastProcessedEtagOnServer)) {
+              lastEnqueuedEtag = lastProcessedEtagOnServer;
+              continue; // try to pull more documents from subscription
+            }
+
+            waitForNewDocuments();
           }
         } catch (InterruptedException | IOException e) {
           throw new RuntimeException(e);
@@ -290,12 +378,466 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
             throw subscriptionException;
           }
           throw e;
+        } finally {
+          processor.stop();
+          try {
+            processingTask.get();
+          } catch (ExecutionException e) {
+            logger.debugException("Processing task of pipelined subscription has finished with exception", e);
+          }
         }
         return null;
       }
     });
   }
 
+  private static class StreamedDocument {
+    private final Object document;
+    private final String documentId;
+    private final Etag etag;
+
+    public StreamedDocument(Object document, String documentId, Etag etag) {
+      this.document = document;
+      this.documentId = documentId;
+      this.etag = etag;
+    }
+  }
+
+  private static class BatchEnd {
+    private final Etag lastProcessedEtagOnServer;
+    private final int documentsCount;
+    private BatchWorkerStatistics workerStatistics;
+
+    public BatchEnd(Etag lastProcessedEtagOnServer, int documentsCount) {
+      this.lastProcessedEtagOnServer = lastProcessedEtagOnServer;
+      this.documentsCount = documentsCount;
+    }
+  }
+
+  /**
+   * Delivers buffered documents to the subscribers and tracks the etag up to which everything was processed.
+   * When documents are processed by multiple workers the etag is advanced only over the documents for which
+   * all preceding documents were processed as well.
+   * Acknowledgments are always sent by the pulling task, so they are strictly ordered.
+   */
+  private class PipelinedBatchProcessor implements Runnable {
+    private final BlockingQueue<Object> buffer;
+    private final Object pendingLock = new Object();
+    private final ConcurrentLinkedQueue<BatchEnd> completedBatches = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Object> completedOutOfOrder = new HashMap<>();
+    private final PartitionedDocumentProcessor partitionedProcessor;
+    private BatchWorkerStatistics currentBatchStatistics;
+    private int pendingDocs;
+    private long nextSequence;
+    private long nextSequenceToComplete;
+    private volatile Etag processedUpTo;
+    private volatile boolean stopped;
+    private Etag lastAcknowledgedEtag;
+
+    @SuppressWarnings("synthetic-access")
+    public PipelinedBatchProcessor() {
+      buffer = new ArrayBlockingQueue<>(options.getBatchOptions().getMaxDocCount() + options.getPrefetchDepth() + 2);
+      partitionedProcessor = workersExecutorService != null ? new PartitionedDocumentProcessor() : null;
+      currentBatchStatistics = partitionedProcessor != null ? partitionedProcessor.newBatchStatistics() : null;
+    }
+
+    @SuppressWarnings({"unchecked", "synthetic-access"})
+    @Override
+    public void run() {
+      try {
+        while (!stopped && !isErroredBecauseOfSubscriber) {
+          final Object item = buffer.take();
+          if (item == STOP_PROCESSING_MARKER) {
+            break;
+          }
+
+          final long sequence = nextSequence++;
+
+          if (item instanceof BatchEnd) {
+            if (partitionedProcessor != null) {
+              // documents dispatched from now on belong to the next batch
+              ((BatchEnd) item).workerStatistics = currentBatchStatistics;
+              currentBatchStatistics = partitionedProcessor.newBatchStatistics();
+            }
+            markCompleted(sequence, item);
+            continue;
+          }
+
+          cts.getToken().throwIfCancellationRequested();
+
+          StreamedDocument streamedDocument = (StreamedDocument) item;
+
+          if (partitionedProcessor != null) {
+            boolean dispatched = partitionedProcessor.dispatch(streamedDocument.document, streamedDocument.documentId, currentBatchStatistics, new Action0() {
+              @Override
+              public void apply() {
+                markCompleted(sequence, item);
+              }
+            });
+            if (!dispatched) {
+              break;
+            }
+          } else if (deliverToSubscribers((T) streamedDocument.document)) {
+            markCompleted(sequence, item);
+          } else {
+            break;
+          }
+        }
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      } finally {
+        stopped = true;
+        // releases pulling task blocked on full buffer, remaining documents won't be processed anyway
+        buffer.clear();
+        synchronized (pendingLock) {
+          pendingLock.notifyAll();
+        }
+        if (partitionedProcessor != null) {
+          partitionedProcessor.finishQuietly();
+        }
+      }
+    }
+
+    private void markCompleted(long sequence, Object item) {
+      synchronized (pendingLock) {
+        completedOutOfOrder.put(sequence, item);
+
+        Object completed;
+        while ((completed = completedOutOfOrder.remove(nextSequenceToComplete)) != null) {
+          nextSequenceToComplete++;
+          if (completed instanceof BatchEnd) {
+            BatchEnd batchEnd = (BatchEnd) completed;
+            processedUpTo = batchEnd.lastProcessedEtagOnServer;
+            completedBatches.add(batchEnd);
+          } else {
+            StreamedDocument streamedDocument = (StreamedDocument) completed;
+            if (streamedDocument.etag != null) {
+              processedUpTo = streamedDocument.etag;
+            }
+          }
+        }
+
+        if (item instanceof StreamedDocument) {
+          pendingDocs--;
+          pendingLock.notifyAll();
+        }
+      }
+    }
+
+    /**
+     * @return false if processing was stopped and the item was not buffered
+     */
+    @SuppressWarnings("synthetic-access")
+    public boolean enqueue(Object item) throws InterruptedException {
+      if (item instanceof StreamedDocument) {
+        synchronized (pendingLock) {
+          pendingDocs++;
+        }
+      }
+      cts.getToken().throwIfCancellationRequested();
+      if (stopped) {
+        return false;
+      }
+      // processing task clears the buffer when it stops, so put is never blocked after that
+      buffer.put(item);
+      return true;
+    }
+
+    @SuppressWarnings("synthetic-access")
+    public void waitForPendingDocuments(int maxPendingDocs) throws InterruptedException {
+      synchronized (pendingLock) {
+        while (pendingDocs > maxPendingDocs && !stopped && !isErroredBecauseOfSubscriber) {
+          cts.getToken().throwIfCancellationRequested();
+          pendingLock.wait(100);
+        }
+      }
+    }
+
+    @SuppressWarnings({"synthetic-access", "boxing"})
+    public void acknowledgeProcessedDocuments() {
+      Etag etagToAcknowledge = processedUpTo;
+      if (etagToAcknowledge == null || isErroredBecauseOfSubscriber
+        || (lastAcknowledgedEtag != null && etagToAcknowledge.compareTo(lastAcknowledgedEtag) <= 0)) {
+        return;
+      }
+
+      EventHelper.invoke(beforeAcknowledgment, Subscription.this, EventArgs.EMPTY);
+      acknowledgeBatchToServer(etagToAcknowledge);
+      lastAcknowledgedEtag = etagToAcknowledge;
+      EventHelper.invoke(afterAcknowledgment, Subscription.this, new LastProcessedEtagEventArgs(etagToAcknowledge));
+
+      BatchEnd batchEnd;
+      while ((batchEnd = completedBatches.peek()) != null && batchEnd.lastProcessedEtagOnServer.compareTo(etagToAcknowledge) <= 0) {
+        completedBatches.poll();
+        List<WorkerStatistics> workerStatistics = batchEnd.workerStatistics != null
+          ? batchEnd.workerStatistics.snapshot() : Collections.<WorkerStatistics> emptyList();
+        EventHelper.invoke(afterBatch, Subscription.this, new DocumentProcessedEventArgs(batchEnd.documentsCount, workerStatistics));
+      }
+    }
+
+    /**
+     * This is a silent acknowledge, this can happen because there was no documents in range
+     * to be accessible in the time available.
+     * @return true if the etag was acknowledged
+     */
+    @SuppressWarnings("synthetic-access")
+    public boolean acknowledgeSilently(Etag lastProcessedEtagOnServer) {
+      if (lastAcknowledgedEtag != null && lastProcessedEtagOnServer.compareTo(lastAcknowledgedEtag) <= 0) {
+        return false;
+      }
+      acknowledgeBatchToServer(lastProcessedEtagOnServer);
+      lastAcknowledgedEtag = lastProcessedEtagOnServer;
+      processedUpTo = lastProcessedEtagOnServer;
+      return true;
+    }
+
+    public void stop() {
+      stopped = true;
+      // wakes processing task blocked on empty buffer
+      buffer.clear();
+      buffer.offer(STOP_PROCESSING_MARKER);
+    }
+  }
+
+  private static class PartitionedDocument {
+    private final Object document;
+    private final BatchWorkerStatistics statistics;
+    private final Action0 onProcessed;
+
+    public PartitionedDocument(Object document, BatchWorkerStatistics statistics, Action0 onProcessed) {
+      this.document = document;
+      this.statistics = statistics;
+      this.onProcessed = onProcessed;
+    }
+  }
+
+  /**
+   * Statistics of every worker gathered for documents of single batch.
+   */
+  private static class BatchWorkerStatistics {
+    private final AtomicInteger[] processedDocs;
+    private final AtomicLong[] processingTimes;
+
+    public BatchWorkerStatistics(int workers) {
+      processedDocs = new AtomicInteger[workers];
+      processingTimes = new AtomicLong[workers];
+      for (int i = 0; i < workers; i++) {
+        processedDocs[i] = new AtomicInteger();
+        processingTimes[i] = new AtomicLong();
+      }
+    }
+
+    public void add(int workerIndex, long processingTimeInNanos) {
+      processedDocs[workerIndex].incrementAndGet();
+      processingTimes[workerIndex].addAndGet(processingTimeInNanos);
+    }
+
+    public List<WorkerStatistics> snapshot() {
+      List<WorkerStatistics> result = new ArrayList<>(processedDocs.length);
+      for (int i = 0; i < processedDocs.length; i++) {
+        result.add(new WorkerStatistics(i, processedDocs[i].get(), TimeUnit.NANOSECONDS.toMillis(processingTimes[i].get())));
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Delivers documents to subscribers using {@link SubscriptionConnectionOptions#getProcessingWorkers()} workers.
+   * Documents are assigned to workers by partition key, so documents with the same key are processed in order.
+   * Every worker buffers at most max doc count of a batch, dispatching blocks when worker falls behind.
+   */
+  private class PartitionedDocumentProcessor {
+    private final List<BlockingQueue<Object>> partitions = new ArrayList<>();
+    private final List<Future<?>> workerTasks = new ArrayList<>();
+
+    @SuppressWarnings("synthetic-access")
+    public PartitionedDocumentProcessor() {
+      int workers = options.getProcessingWorkers();
+
+      for (int i = 0; i < workers; i++) {
+        final int workerIndex = i;
+        final BlockingQueue<Object> partition = new ArrayBlockingQueue<>(options.getBatchOptions().getMaxDocCount() + 1);
+        partitions.add(partition);
+        workerTasks.add(workersExecutorService.submit(new Runnable() {
+          @Override
+          public void run() {
+            processPartition(workerIndex, partition);
+          }
+        }));
+      }
+    }
+
+    public BatchWorkerStatistics newBatchStatistics() {
+      return new BatchWorkerStatistics(partitions.size());
+    }
+
+    /**
+     * @return false if worker stopped and the document was not dispatched
+     */
+    @SuppressWarnings("synthetic-access")
+    public boolean dispatch(Object document, String documentId, BatchWorkerStatistics statistics, Action0 onProcessed) throws InterruptedException {
+      Function1<Object, Object> partitionKeyResolver = options.getPartitionKeyResolver();
+      Object key = partitionKeyResolver != null ? partitionKeyResolver.apply(document) : documentId;
+      int partition = key != null ? (key.hashCode() & Integer.MAX_VALUE) % partitions.size() : 0;
+      return offer(partition, new PartitionedDocument(document, statistics, onProcessed));
+    }
+
+    private boolean offer(int partition, Object item) throws InterruptedException {
+      while (!partitions.get(partition).offer(item, 100, TimeUnit.MILLISECONDS)) {
+        if (workerTasks.get(partition).isDone()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @SuppressWarnings({"unchecked", "synthetic-access"})
+    private void processPartition(int workerIndex, BlockingQueue<Object> partition) {
+      try {
+        while (true) {
+          Object takenObject = partition.take();
+
+          if (END_OF_COLLECTION_MARKER == takenObject || isErroredBecauseOfSubscriber) {
+            break;
+          }
+
+          cts.getToken().throwIfCancellationRequested();
+
+          PartitionedDocument partitionedDocument = (PartitionedDocument) takenObject;
+
+          long start = System.nanoTime();
+          boolean delivered = deliverToSubscribers((T) partitionedDocument.document);
+          long processingTime = System.nanoTime() - start;
+
+          if (!delivered) {
+            break;
+          }
+
+          partitionedDocument.statistics.add(workerIndex, processingTime);
+
+          if (partitionedDocument.onProcessed != null) {
+            partitionedDocument.onProcessed.apply();
+          }
+        }
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * Waits until every worker processes its partition.
+     */
+    public void finish() throws InterruptedException, ExecutionException {
+      for (int i = 0; i < partitions.size(); i++) {
+        offer(i, END_OF_COLLECTION_MARKER);
+      }
+      for (Future<?> workerTask : workerTasks) {
+        workerTask.get();
+      }
+    }
+
+    @SuppressWarnings("synthetic-access")
+    public void finishQuietly() {
+      try {
+        finish();
+      } catch (InterruptedException | ExecutionException e) {
+        logger.debugException("Subscription worker has finished with exception", e);
+      }
+    }
+  }
+
+  /**
+   * @return false if subscriber threw an exception and subscription errors aren't ignored
+   */
+  private boolean deliverToSubscribers(T doc) {
+    for (IObserver<T> subscriber : subscribers) {
+      try {
+        subscriber.onNext(doc);
+      } catch (Exception ex) {
+        logger.warnException("Subscriber threw an exception", ex);
+        if (options.isIgnoreSubscribersErrors() == false) {
+          isErroredBecauseOfSubscriber = true;
+          lastSubscriberException = ex;
+          try {
+            subscriber.onError(ex);
+          } catch (Exception e) {
+            // can happen if a subscriber doesn't have an onError handler - just ignore it
+          }
+          break;
+        }
+      }
+    }
+    return !isErroredBecauseOfSubscriber;
+  }
+
+  private JsonStreamIterator<StreamedDocument> openStreamedDocuments(CloseableHttpResponse response, Reference<Etag> lastProcessedEtagOnServerRef) {
+    JsonStreamIterator.ObjectReader<StreamedDocument> reader = isStronglyTyped ? new TypedDocumentReader() : RAW_DOCUMENT_READER;
+    return new JsonStreamIterator<>(response, 0, Integer.MAX_VALUE, null, createLastProcessedEtagReader(lastProcessedEtagOnServerRef), reader);
+  }
+
+  private static final JsonStreamIterator.ObjectReader<StreamedDocument> RAW_DOCUMENT_READER = new JsonStreamIterator.ObjectReader<StreamedDocument>() {
+    @Override
+    public StreamedDocument read(JsonParser parser) throws IOException {
+      RavenJObject jsonDoc = RavenJObject.load(parser);
+      RavenJObject metadata = jsonDoc.value(RavenJObject.class, Constants.METADATA);
+      if (metadata == null) {
+        return new StreamedDocument(jsonDoc, null, null);
+      }
+      String etag = metadata.value(String.class, "@etag");
+      return new StreamedDocument(jsonDoc, metadata.value(String.class, "@id"), StringUtils.isNotEmpty(etag) ? Etag.parse(etag) : null);
+    }
+  };
+
+  /**
+   * Binds entity directly from the streamed document, without building intermediate {@link RavenJObject}.
+   */
+  private class TypedDocumentReader implements JsonStreamIterator.ObjectReader<StreamedDocument> {
+    private final JsonSerializer serializer = conventions.createSerializer();
+
+    @SuppressWarnings("synthetic-access")
+    @Override
+    public StreamedDocument read(JsonParser parser) throws IOException {
+      MetadataExtractingJsonParser documentParser = new MetadataExtractingJsonParser(parser);
+      T instance = serializer.deserialize(documentParser, clazz);
+      String docId = documentParser.getDocumentId();
+
+      if (StringUtils.isNotEmpty(docId)) {
+        generateEntityIdOnTheClient.trySetIdentity(instance, docId);
+      }
+
+      String etag = documentParser.getDocumentEtag();
+      return new StreamedDocument(instance, docId, StringUtils.isNotEmpty(etag) ? Etag.parse(etag) : null);
+    }
+  }
+
+  private static Function1<JsonParser, Boolean> createLastProcessedEtagReader(final Reference<Etag> lastProcessedEtagOnServerRef) {
+    return new Function1<JsonParser, Boolean>() {
+      @Override
+      public Boolean apply(JsonParser reader) {
+        try {
+          if (!"LastProcessedEtag".equals(reader.getText())) {
+            return false;
+          }
+          if (reader.nextToken() == null) {
+            return false;
+          }
+          lastProcessedEtagOnServerRef.value = Etag.parse(reader.getText());
+          return true;
+        } catch (IOException e) {
+          return false;
+        }
+      }
+    };
+  }
+
+  private void waitForNewDocuments() throws InterruptedException {
+    while (newDocuments.waitOne(options.getClientAliveNotificationInterval(), TimeUnit.MILLISECONDS) == false) {
+      try (HttpJsonRequest clientAliveRequest = createClientAliveRequest()) {
+        clientAliveRequest.executeRequest();
+      }
+    }
+  }
+
   private void acknowledgeBatchToServer(Etag lastProcessedEtagOnServer) {
     try (HttpJsonRequest acknowledgmentRequest = createAcknowledgmentRequest(lastProcessedEtagOnServer)) {
       try {
@@ -312,7 +854,7 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
       @Override
       public void run() {
         subscriptionConnectionException = null;
-        pullingTask = pullDocuments();
+        pullingTask = options.getPrefetchDepth() > 0 ? pullDocumentsPipelined() : pullDocuments();
 
         try {
           pullingTask.get();
@@ -552,6 +1094,10 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
         }
       }
 
+      if (workersExecutorService != null) {
+        workersExecutorService.shutdown();
+      }
+
       executorService.shutdown(); //TODO: make sure this invocation will throw is any task in queue will throw
       // TODO: verify if it stopping underlaying threads
       // TODO: filter for operation canceled exception and don't rethrow if such
@@ -575,14 +1121,59 @@ public class Subscription<T> implements IObservable<T>, CleanCloseable {
 
   public static class DocumentProcessedEventArgs extends EventArgs {
     public DocumentProcessedEventArgs(int documentsProcessed) {
+      this(documentsProcessed, Collections.<WorkerStatistics> emptyList());
+    }
+
+    public DocumentProcessedEventArgs(int documentsProcessed, List<WorkerStatistics> workerStatistics) {
       this.documentsProcessed = documentsProcessed;
+      this.workerStatistics = workerStatistics;
+    }
+
+    private final int documentsProcessed;
+
+    private final List<WorkerStatistics> workerStatistics;
+
+    public int getDocumentsProcessed() {
+      return documentsProcessed;
     }
 
+    /**
+     * Statistics of every processing worker. Empty if documents are processed by a single worker.
+     */
+    public List<WorkerStatistics> getWorkerStatistics() {
+      return workerStatistics;
+    }
+  }
+
+  public static class WorkerStatistics {
+    private final int workerIndex;
     private final int documentsProcessed;
+    private final long processingTimeInMillis;
+
+    public WorkerStatistics(int workerIndex, int documentsProcessed, long processingTimeInMillis) {
+      this.workerIndex = workerIndex;
+      this.documentsProcessed = documentsProcessed;
+      this.processingTimeInMillis = processingTimeInMillis;
+    }
+
+    public int getWorkerIndex() {
+      return workerIndex;
+    }
 
     public int getDocumentsProcessed() {
       return documentsProcessed;
     }
+
+    /**
+     * Time spent by the worker in subscribers.
+     */
+    public long getProcessingTimeInMillis() {
+      return processingTimeInMillis;
+    }
+
+    public double getDocumentsPerSecond() {
+      return processingTimeInMillis > 0 ? documentsProcessed * 1000.0 / processingTimeInMillis : 0;
+    }
   }
 
   public static class LastProcessedEtagEventArgs extends EventArgs {
@@ -0,0 +1,126 @@
+package net.ravendb.client.document.batches;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.data.GetRequest;
+import net.ravendb.abstractions.data.GetResponse;
+import net.ravendb.client.document.ResponseTimeInformation;
+import net.ravendb.client.document.ResponseTimeInformation.ResponseTimeItem;
+import net.ravendb.client.document.ResponseTimeInformation.ResponseTimeRound;
+import net.ravendb.client.utils.RetryBackoff;
+
+/**
+ * Executes pending lazy operations in rounds. First round sends all operations, each next round sends only
+ * operations which required retry (ex. query waiting for non stale results). Rounds are separated by growing wait
+ * and execution fails when operations are not completed within timeout.
+ *
+ * @param <T> pending operation, ex. lazy operation with shards it is executed on
+ */
+public abstract class LazyOperationsExecutor<T> {
+
+  private final long timeoutMillis;
+
+  /**
+   * @param timeoutMillis max total time in milliseconds, 0 means no limit
+   */
+  public LazyOperationsExecutor(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Sends given operations and handles responses.
+   * @return operations which require retry
+   */
+  protected abstract List<T> executeRound(List<T> operations, ResponseTimeInformation responseTimeInformation);
+
+  /**
+   * Waits before operations which require retry are sent again.
+   */
+  protected void waitBeforeRetry(List<T> pendingOperations, RetryBackoff backoff) throws InterruptedException {
+    backoff.waitBeforeRetry();
+  }
+
+  /**
+   * Waits before given lazy operations are sent again. When all of them are queries, stale query waits for index changes
+   * (if enabled by conventions) - such wait always ends after fallback poll interval, so other queries are not delayed for long.
+   * Otherwise backoff is used.
+   * @param pendingOperations
+   * @param backoff
+   */
+  public static void waitBeforeLazyRetry(List<ILazyOperation> pendingOperations, RetryBackoff backoff) throws InterruptedException {
+    for (ILazyOperation operation : pendingOperations) {
+      if (!(operation instanceof LazyQueryOperation)) {
+        backoff.waitBeforeRetry();
+        return;
+      }
+    }
+    ((LazyQueryOperation<?>) pendingOperations.get(0)).waitBeforeRetry(backoff);
+  }
+
+  /**
+   * Releases subscriptions to index changes taken by lazy queries, ex. when operations didn't complete within timeout.
+   * @param operations
+   */
+  public static void stopWaitingForIndexChanges(List<ILazyOperation> operations) {
+    for (ILazyOperation operation : operations) {
+      if (operation instanceof LazyQueryOperation) {
+        ((LazyQueryOperation<?>) operation).stopWaitingForIndexChanges();
+      }
+    }
+  }
+
+  @SuppressWarnings("boxing")
+  public ResponseTimeInformation execute(List<T> operations) {
+    ResponseTimeInformation responseTimeInformation = new ResponseTimeInformation();
+    RetryBackoff backoff = new RetryBackoff(timeoutMillis);
+    List<T> pending = operations;
+    long waitDuration = 0;
+    try {
+      while (!pending.isEmpty()) {
+        long roundStart = System.nanoTime();
+        ResponseTimeRound round = new ResponseTimeRound();
+        round.setOperationsCount(pending.size());
+        round.setWaitDuration(waitDuration);
+        pending = executeRound(pending, responseTimeInformation);
+        round.setDuration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart));
+        responseTimeInformation.getRounds().add(round);
+
+        if (!pending.isEmpty()) {
+          if (backoff.isExpired()) {
+            throw new IllegalStateException(String.format("Waited for %dms for %d lazy operations to complete, gave up after %d rounds",
+              backoff.getElapsedMillis(), pending.size(), responseTimeInformation.getRounds().size()));
+          }
+          long waitStart = System.nanoTime();
+          waitBeforeRetry(pending, backoff);
+          waitDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart);
+        }
+      }
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+    responseTimeInformation.computeServerTotal();
+    responseTimeInformation.setTotalClientDuration(backoff.getElapsedMillis());
+    return responseTimeInformation;
+  }
+
+  /**
+   * Adds server side duration of given request to duration breakdown.
+   */
+  @SuppressWarnings("boxing")
+  public static void addResponseTime(ResponseTimeInformation responseTimeInformation, GetRequest request, GetResponse response) {
+    long duration = 0;
+    String tempRequestTime = response.getHeaders().get("Temp-Request-Time");
+    if (tempRequestTime != null) {
+      try {
+        duration = Long.parseLong(tempRequestTime);
+      } catch (NumberFormatException e) {
+        // ignore
+      }
+    }
+    ResponseTimeItem responseTimeItem = new ResponseTimeItem();
+    responseTimeItem.setUrl(request.getUrlAndQuery());
+    responseTimeItem.setDuration(duration);
+    responseTimeInformation.getDurationBreakdown().add(responseTimeItem);
+  }
+}
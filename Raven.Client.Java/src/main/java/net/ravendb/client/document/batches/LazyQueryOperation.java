@@ -15,6 +15,7 @@ import net.ravendb.client.connection.HttpExtensions;
 import net.ravendb.client.connection.SerializationHelper;
 import net.ravendb.client.document.sessionoperations.QueryOperation;
 import net.ravendb.client.shard.ShardStrategy;
+import net.ravendb.client.utils.RetryBackoff;
 
 import org.apache.http.HttpStatus;
 
@@ -155,6 +156,21 @@ public class LazyQueryOperation<T> implements ILazyOperation {
     return queryOperation.enterQueryContext();
   }
 
+  /**
+   * Waits before query which requires retry is sent again, using index changes if enabled by conventions.
+   * @param backoff
+   */
+  public void waitBeforeRetry(RetryBackoff backoff) throws InterruptedException {
+    queryOperation.waitBeforeRetry(backoff);
+  }
+
+  /**
+   * Releases subscription to index changes, if query was waiting for them.
+   */
+  public void stopWaitingForIndexChanges() {
+    queryOperation.stopWaitingForIndexChanges();
+  }
+
   public void setHeaders(Map<String, String> headers) {
     this.headers = headers;
   }
@@ -0,0 +1,75 @@
+package net.ravendb.client.document.sessionoperations;
+
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.data.IndexChangeNotification;
+import net.ravendb.abstractions.data.IndexChangeTypes;
+import net.ravendb.client.changes.IObservable;
+import net.ravendb.client.changes.ObserverAdapter;
+
+/**
+ * Waits until index reports (using changes API) that it completed map or reduce after query returned stale results.
+ * Etags of notifications aren't compared with index etag of query result, since the latter isn't document etag.
+ * Notifications can be missed (ex. ones sent before subscription was registered on the server),
+ * so waiting always ends after fallback poll interval.
+ */
+public class IndexChangesWaiter extends ObserverAdapter<IndexChangeNotification> implements CleanCloseable {
+
+  public static final long DEFAULT_FALLBACK_POLL_INTERVAL_MILLIS = 1000;
+
+  private final long fallbackPollIntervalMillis;
+  private final CleanCloseable subscription;
+
+  private long notifications;
+  private long notificationsBeforeStaleResult;
+
+  /**
+   * @param indexChanges changes of queried index
+   * @param fallbackPollIntervalMillis max time single wait takes
+   */
+  public IndexChangesWaiter(IObservable<IndexChangeNotification> indexChanges, long fallbackPollIntervalMillis) {
+    this.fallbackPollIntervalMillis = fallbackPollIntervalMillis;
+    this.subscription = indexChanges.subscribe(this);
+  }
+
+  @Override
+  public synchronized void onNext(IndexChangeNotification notification) {
+    if (notification.getType() != IndexChangeTypes.MAP_COMPLETED && notification.getType() != IndexChangeTypes.REDUCE_COMPLETED) {
+      return;
+    }
+    notifications++;
+    notifyAll();
+  }
+
+  /**
+   * Marks that query returned stale results, only notifications received after this call end the next wait.
+   */
+  public synchronized void staleResultReceived() {
+    notificationsBeforeStaleResult = notifications;
+  }
+
+  /**
+   * Waits until index completed map or reduce since last stale result or until fallback poll interval elapses,
+   * whichever comes first.
+   * @param maxWaitMillis max time to wait, ex. time left until query timeout
+   * @return true if index reported progress, false if waiting timed out
+   */
+  public synchronized boolean waitForIndexing(long maxWaitMillis) throws InterruptedException {
+    long waitNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(maxWaitMillis, fallbackPollIntervalMillis));
+    long deadline = System.nanoTime() + waitNanos;
+    while (notifications == notificationsBeforeStaleResult) {
+      if (waitNanos <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+      waitNanos = deadline - System.nanoTime();
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+    subscription.close();
+  }
+}
@@ -1,6 +1,5 @@
 package net.ravendb.client.document.sessionoperations;
 
-import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.Map.Entry;
@@ -12,7 +11,6 @@ import net.ravendb.abstractions.data.Constants;
 import net.ravendb.abstractions.data.IndexQuery;
 import net.ravendb.abstractions.data.JsonDocument;
 import net.ravendb.abstractions.data.QueryResult;
-import net.ravendb.abstractions.extensions.JsonExtensions;
 import net.ravendb.abstractions.json.linq.JTokenType;
 import net.ravendb.abstractions.json.linq.RavenJArray;
 import net.ravendb.abstractions.json.linq.RavenJObject;
@@ -20,10 +18,13 @@ import net.ravendb.abstractions.json.linq.RavenJToken;
 import net.ravendb.abstractions.json.linq.RavenJValue;
 import net.ravendb.abstractions.logging.ILog;
 import net.ravendb.abstractions.logging.LogManager;
+import net.ravendb.client.IDocumentStore;
+import net.ravendb.client.changes.IDatabaseChanges;
 import net.ravendb.client.connection.SerializationHelper;
 import net.ravendb.client.document.InMemoryDocumentSessionOperations;
 import net.ravendb.client.exceptions.NonAuthoritativeInformationException;
 import net.ravendb.client.shard.ShardReduceFunction;
+import net.ravendb.client.utils.RetryBackoff;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -42,6 +43,10 @@ public class QueryOperation {
   private QueryResult currentQueryResults;
   private final String[] projectionFields;
   private boolean firstRequest = true;
+  private boolean lastResultStale;
+  private IndexChangesWaiter indexChangesWaiter;
+  private boolean indexChangesUnavailable;
+  private IDocumentStore indexChangesStore;
 
   private static final Pattern ID_ONLY =  Pattern.compile("^__document_id\\s*:\\s*([\\w_\\-/\\\\\\.]+)\\s*$");
 
@@ -110,6 +115,10 @@ public class QueryOperation {
     if (firstRequest) {
       startTiming();
       firstRequest = false;
+      if (waitForNonStaleResults) {
+        // subscribed before first query, so indexing which completes while it runs isn't missed
+        getIndexChangesWaiter();
+      }
     }
 
     if (waitForNonStaleResults == false) {
@@ -249,11 +258,7 @@ public class QueryOperation {
       }
     }
 
-    try {
-      return JsonExtensions.createDefaultJsonSerializer().readValue(result.toString(), clazz);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    return sessionOperations.getConventions().createSerializer().deserialize(result, clazz);
   }
 
   private void handleInternalMetadata(RavenJObject result) {
@@ -311,11 +316,13 @@ public class QueryOperation {
           indexName,
           sessionOperations.getStoreIdentifier(),
           result.getIndexEtag());
+      lastResultStale = false;
       return false;
     }
     if (waitForNonStaleResults && result.isStale()) {
       if ((new Date().getTime() - spStart) > timeout) {
         spStop = new Date().getTime();
+        stopWaitingForIndexChanges();
         throw new RuntimeException(
             String.format("Waited for %sms for the query to return non stale result.",
                 (spStop - spStart)));
@@ -326,8 +333,13 @@ public class QueryOperation {
           indexName,
           sessionOperations.getStoreIdentifier(),
           result.getIndexEtag());
+      lastResultStale = true;
+      if (indexChangesWaiter != null) {
+        indexChangesWaiter.staleResultReceived();
+      }
       return false;
     }
+    stopWaitingForIndexChanges();
     currentQueryResults = result;
     currentQueryResults.ensureSnapshot();
     log.debug("Query returned %d/%d %sresults", result.getResults().size(),
@@ -335,4 +347,51 @@ public class QueryOperation {
     return true;
   }
 
+  /**
+   * Waits before query which returned unacceptable result is executed again.
+   * If enabled by conventions, stale results are waited for using index changes, otherwise given backoff is used.
+   * Wait never exceeds query timeout nor time left until backoff timeout.
+   */
+  public void waitBeforeRetry(RetryBackoff backoff) throws InterruptedException {
+    IndexChangesWaiter waiter = lastResultStale ? getIndexChangesWaiter() : null;
+    if (waiter == null) {
+      backoff.waitBeforeRetry();
+      return;
+    }
+    long remaining = Math.min(timeout - (new Date().getTime() - spStart), backoff.getRemainingMillis());
+    waiter.waitForIndexing(Math.max(0, remaining));
+  }
+
+  private IndexChangesWaiter getIndexChangesWaiter() {
+    if (indexChangesWaiter == null && !indexChangesUnavailable && sessionOperations.getConventions().isWaitForNonStaleResultsUsingChanges()) {
+      try {
+        IDocumentStore store = indexChangesStore != null ? indexChangesStore : sessionOperations.getDocumentStore();
+        IDatabaseChanges changes = store.changes(sessionOperations.getDatabaseName());
+        indexChangesWaiter = new IndexChangesWaiter(changes.forIndex(indexName), IndexChangesWaiter.DEFAULT_FALLBACK_POLL_INTERVAL_MILLIS);
+      } catch (RuntimeException e) {
+        log.debugException("Unable to subscribe to changes of index " + indexName + ", stale query will be polled", e);
+        indexChangesUnavailable = true;
+      }
+    }
+    return indexChangesWaiter;
+  }
+
+  /**
+   * Sets store which reports changes of queried index, ex. store of single shard. By default store of session is used.
+   * @param indexChangesStore
+   */
+  public void setIndexChangesStore(IDocumentStore indexChangesStore) {
+    this.indexChangesStore = indexChangesStore;
+  }
+
+  /**
+   * Releases subscription to index changes, if query was waiting for them.
+   */
+  public void stopWaitingForIndexChanges() {
+    if (indexChangesWaiter != null) {
+      indexChangesWaiter.close();
+      indexChangesWaiter = null;
+    }
+  }
+
 }
@@ -43,6 +43,7 @@ import com.mysema.query.types.Order;
 import com.mysema.query.types.OrderSpecifier;
 import com.mysema.query.types.ParamExpression;
 import com.mysema.query.types.Path;
+import com.mysema.query.types.PathType;
 import com.mysema.query.types.PredicateOperation;
 import com.mysema.query.types.expr.BooleanOperation;
 import com.mysema.query.types.expr.Param;
@@ -564,6 +565,15 @@ public class RavenQueryProviderProcessor<T> {
   }
 
   private ExpressionInfo getMemberDirect(Expression< ? > expression) {
+    // translation of plain member doesn't depend on query values, so it is done once and reused by next queries
+    Path<?> member = isCacheableMember(expression) ? (Path<?>) expression : null;
+    if (member != null) {
+      ExpressionInfo cached = queryGenerator.getConventions().getCachedQueryMember(member, clazz, indexName, currentPath);
+      if (cached != null) {
+        return copyOf(cached);
+      }
+    }
+
     Result result = linqPathProvider.getPath(expression);
 
     //for standard queries, we take just the last part. But for dynamic queries, we take the whole part
@@ -575,9 +585,36 @@ public class RavenQueryProviderProcessor<T> {
 
       ExpressionInfo expressionInfo = new ExpressionInfo(propertyName, result.getMemberType(), result.isNestedPath());
       expressionInfo.setMaybeProperty(result.getMaybeProperty());
+      if (member != null) {
+        queryGenerator.getConventions().cacheQueryMember(member, clazz, indexName, currentPath, copyOf(expressionInfo));
+      }
       return expressionInfo;
   }
 
+  private static ExpressionInfo copyOf(ExpressionInfo expressionInfo) {
+    ExpressionInfo copy = new ExpressionInfo(expressionInfo.getPath(), expressionInfo.getClazz(), expressionInfo.isNestedPath());
+    copy.setMaybeProperty(expressionInfo.getMaybeProperty());
+    return copy;
+  }
+
+  /**
+   * Only chains of properties are cached - map keys and list indexes are values of the query.
+   */
+  private static boolean isCacheableMember(Expression< ? > expression) {
+    if (!(expression instanceof Path)) {
+      return false;
+    }
+    Path<?> path = (Path< ? >) expression;
+    while (path != null) {
+      PathType pathType = path.getMetadata().getPathType();
+      if (!PathType.PROPERTY.equals(pathType) && !PathType.VARIABLE.equals(pathType) && !PathType.DELEGATE.equals(pathType)) {
+        return false;
+      }
+      path = path.getMetadata().getParent();
+    }
+    return true;
+  }
+
   private static Param<?> getParameterExpressionIncludingConvertions(Expression<?> expression) {
     if (expression instanceof ParamExpression){
       return (Param< ? >) expression;
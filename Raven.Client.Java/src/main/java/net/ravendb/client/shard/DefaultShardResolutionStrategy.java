@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,6 +27,8 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
   private final Map<Class<?>, Pattern> regexToCaptureShardIdFromQueriesByType = new HashMap<>();
   private final Map<Class<?>, Function1<Object, String>> shardResultToStringByType = new HashMap<>();
   private final Map<Class<?>, Function1<String, String>> queryResultToStringByType = new HashMap<>();
+  private final Map<Class<?>, String> shardFieldForQueryingByType = new HashMap<>();
+  private final Map<Class<?>, Function1<Object, String>> queryValueToStringByType = new HashMap<>();
 
   public DefaultShardResolutionStrategy(Collection<String> shardIds, ShardStrategy shardStrategy) {
     this.shardStrategy = shardStrategy;
@@ -66,6 +69,7 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
     }
 
     final Function1<TResult, String> finalValueTranslator = valueTranslator;
+    final Function1<String, String> finalQueryTranslator;
 
     if (queryTranslator == null) {
       queryTranslator = new Function1<String, String>() {
@@ -77,6 +81,8 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
       };
     }
 
+    finalQueryTranslator = queryTranslator;
+
     String shardFieldForQuerying = ExpressionExtensions.toPropertyPath(shardingProperty);
 
     if (shardStrategy.getConventions().getFindIdentityProperty().find(ExpressionExtensions.toProperty(shardingProperty))) {
@@ -102,6 +108,17 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
       }
     });
     queryResultToStringByType.put(shardingProperty.getRoot().getType(), queryTranslator);
+    shardFieldForQueryingByType.put(shardingProperty.getRoot().getType(), shardFieldForQuerying);
+    queryValueToStringByType.put(shardingProperty.getRoot().getType(), new Function1<Object, String>() {
+      @SuppressWarnings("unchecked")
+      @Override
+      public String apply(Object value) {
+        if (shardingProperty.getType().isInstance(value)) {
+          return finalValueTranslator.apply((TResult) value);
+        }
+        return finalQueryTranslator.apply(value.toString());
+      }
+    });
     return this;
 
   }
@@ -139,7 +156,12 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
    */
   @Override
   public List<String> potentialShardsFor(ShardRequestData requestData) {
+    if (requestData.getQuery() != null && requestData.getQueryFieldValues() != null) {
+      return potentialShardsFor(requestData.getEntityType(), requestData.getQueryFieldValues());
+    }
+
     if (requestData.getQuery() != null) {
+      // query structure is not known - look for shard field in query text
       Pattern regex = regexToCaptureShardIdFromQueriesByType.get(requestData.getEntityType());
       if (regex == null) {
         return null; // we have no special knowledge, let us just query everything
@@ -190,4 +212,32 @@ public class DefaultShardResolutionStrategy implements IShardResolutionStrategy
     }
     return list;
   }
+
+  /**
+   * Selects shards using values of sharding property recorded when query was built.
+   * Returns null (all shards) if query doesn't constrain sharding property.
+   */
+  private List<String> potentialShardsFor(Class<?> entityType, Map<String, Set<Object>> queryFieldValues) {
+    String shardFieldForQuerying = shardFieldForQueryingByType.get(entityType);
+    if (shardFieldForQuerying == null) {
+      return null; // we have no special knowledge, let us just query everything
+    }
+    Set<Object> values = queryFieldValues.get(shardFieldForQuerying);
+    if (values == null || values.isEmpty()) {
+      return null;
+    }
+
+    Function1<Object, String> translateQueryValueToShardId = queryValueToStringByType.get(entityType);
+    List<String> potentialShardsFor = new ArrayList<>();
+    for (Object value : values) {
+      String shardId = translateQueryValueToShardId.apply(value);
+      if (!shardIds.contains(shardId)) {
+        return null; // we couldn't find the shard id, sending to all shards
+      }
+      if (!potentialShardsFor.contains(shardId)) {
+        potentialShardsFor.add(shardId);
+      }
+    }
+    return potentialShardsFor;
+  }
 }
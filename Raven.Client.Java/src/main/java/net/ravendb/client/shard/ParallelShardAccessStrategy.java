@@ -2,35 +2,93 @@ package net.ravendb.client.shard;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import net.ravendb.abstractions.basic.CleanCloseable;
 import net.ravendb.abstractions.closure.Function2;
 import net.ravendb.abstractions.exceptions.AggregateException;
 import net.ravendb.client.connection.IDatabaseCommands;
+import net.ravendb.client.connection.ServerClient;
 
 
 /**
- * ParallelShardAccessStrategy
- * NOTE: Remember to close this instance!
+ * Applies an operation to all the shard sessions in parallel.
  *
+ * By default operations run on executor owned by the instance, which is shut down when instance is closed
+ * (closing {@link ShardedDocumentStore} closes its shard access strategy). Injected executors are left to their owners.
+ * Each shard has to respond within shard timeout (if set). When partial results are allowed, shards which didn't respond
+ * in time are left out of results and reported to error handlers, otherwise timeout is treated as any other shard error.
+ * Operations are never run by calling thread, so shard timeout applies to all of them. Operation rejected by executor
+ * is treated as error of its shard.
  */
 public class ParallelShardAccessStrategy implements IShardAccessStrategy, CleanCloseable {
 
+  private static final int POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+  private static final int MAX_QUEUED_OPERATIONS = 1024;
+
+  private List<ShardingErrorHandle<IDatabaseCommands>> onError = new ArrayList<>();
+  private final ExecutorService threadPool;
+  private final boolean ownsThreadPool;
+  private volatile boolean closed;
+  private long shardTimeoutMillis;
+  private boolean allowPartialResults;
+  private final ConcurrentMap<String, ShardAccessMetrics> metrics = new ConcurrentHashMap<>();
+
+  /**
+   * Creates strategy with its own executor, which is shut down when strategy is closed.
+   * Threads are created on demand and stopped when idle. When all threads are busy and too many operations are waiting,
+   * executor rejects operation and its shard fails.
+   */
   public ParallelShardAccessStrategy() {
-    super();
-    threadPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    this(createThreadPool(), true);
   }
 
-  private List<ShardingErrorHandle<IDatabaseCommands>> onError = new ArrayList<>();
-  private ExecutorService threadPool;
+  /**
+   * Creates strategy which uses given executor. Executor is not shut down when strategy is closed.
+   * @param threadPool
+   */
+  public ParallelShardAccessStrategy(ExecutorService threadPool) {
+    this(threadPool, false);
+  }
 
+  private ParallelShardAccessStrategy(ExecutorService threadPool, boolean ownsThreadPool) {
+    super();
+    this.threadPool = threadPool;
+    this.ownsThreadPool = ownsThreadPool;
+  }
+
+  private static ExecutorService createThreadPool() {
+    final AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+      new ArrayBlockingQueue<Runnable>(MAX_QUEUED_OPERATIONS), new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "RavenDB shard access #" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    }, new ThreadPoolExecutor.AbortPolicy());
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
 
   @Override
   public void addOnError(ShardingErrorHandle<IDatabaseCommands> handler) {
@@ -42,66 +100,168 @@ public class ParallelShardAccessStrategy implements IShardAccessStrategy, CleanC
     onError.remove(handler);
   }
 
+  /**
+   * Max time in milliseconds each shard has to complete an operation, 0 means no limit.
+   */
+  public long getShardTimeoutMillis() {
+    return shardTimeoutMillis;
+  }
+
+  /**
+   * Max time in milliseconds each shard has to complete an operation, 0 means no limit.
+   * @param shardTimeoutMillis
+   */
+  public void setShardTimeoutMillis(long shardTimeoutMillis) {
+    if (shardTimeoutMillis < 0) {
+      throw new IllegalArgumentException("Shard timeout can't be negative");
+    }
+    this.shardTimeoutMillis = shardTimeoutMillis;
+  }
+
+  /**
+   * If true, results of shards which responded within shard timeout are returned and shards which timed out
+   * are reported to error handlers only. Call still fails if no shard responded.
+   */
+  public boolean isAllowPartialResults() {
+    return allowPartialResults;
+  }
+
+  /**
+   * If true, results of shards which responded within shard timeout are returned and shards which timed out
+   * are reported to error handlers only. Call still fails if no shard responded.
+   * @param allowPartialResults
+   */
+  public void setAllowPartialResults(boolean allowPartialResults) {
+    this.allowPartialResults = allowPartialResults;
+  }
+
+  /**
+   * Gets latency metrics of each shard, keyed by shard url.
+   */
+  public Map<String, ShardAccessMetrics> getMetrics() {
+    return Collections.unmodifiableMap(new HashMap<>(metrics));
+  }
+
+  private ShardAccessMetrics metricsFor(IDatabaseCommands commands) {
+    String key = commands instanceof ServerClient ? ((ServerClient) commands).getUrl() : String.valueOf(commands);
+    ShardAccessMetrics shardMetrics = metrics.get(key);
+    if (shardMetrics == null) {
+      metrics.putIfAbsent(key, new ShardAccessMetrics());
+      shardMetrics = metrics.get(key);
+    }
+    return shardMetrics;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T> T[] apply(Class<?> clazz, final List<IDatabaseCommands> commands, final ShardRequestData request,
     final Function2<IDatabaseCommands, Integer, T> operation) {
+    if (closed) {
+      throw new IllegalStateException("Shard access strategy was closed");
+    }
     final T[] returnedLists = (T[]) Array.newInstance(clazz, commands.size());
     final boolean[] valueSet = new boolean[commands.size()];
-    final Exception[] errors = new Exception[commands.size()];
+    final AtomicReferenceArray<Exception> errors = new AtomicReferenceArray<>(commands.size());
 
-    Collection<Callable<Void>> tasks = new ArrayList<>();
+    List<Future<Void>> futures = new ArrayList<>(commands.size());
     for (int i = 0; i < commands.size(); i++) {
       final int copy = i;
       final IDatabaseCommands cmd = commands.get(i);
-      tasks.add(new Callable<Void>() {
+      final ShardAccessMetrics shardMetrics = metricsFor(cmd);
+      Callable<Void> shardOperation = new Callable<Void>() {
         @SuppressWarnings({"boxing", "synthetic-access"})
         @Override
         public Void call() throws Exception {
+          long start = System.nanoTime();
+          boolean failed = true;
           try {
             T value = operation.apply(cmd, copy);
             returnedLists[copy] = value;
             valueSet[copy] = true;
+            failed = false;
             return null;
           } catch (Exception e) {
-            if (onError.isEmpty()) {
-              throw e;
-            }
-            for (ShardingErrorHandle<IDatabaseCommands> handler: onError) {
-              if (!handler.apply(commands.get(copy), request, e)) {
-                throw e;
-              }
+            // shard which already timed out is not reported again
+            if (errors.compareAndSet(copy, null, e)) {
+              handleError(cmd, request, e);
             }
-            errors[copy] = e;
+          } finally {
+            shardMetrics.recordCompleted(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed);
           }
           return null;
         }
-      });
+      };
+      try {
+        futures.add(threadPool.submit(shardOperation));
+      } catch (RejectedExecutionException e) {
+        futures.add(null);
+        IllegalStateException rejected = new IllegalStateException("Operation on shard #" + i + " was rejected, too many shard operations are waiting", e);
+        errors.set(i, rejected);
+        try {
+          handleError(cmd, request, rejected);
+        } catch (RuntimeException ex) {
+          cancelAll(futures);
+          throw ex;
+        }
+      }
     }
-    try {
-      List<Future<Void>> invokeAll = threadPool.invokeAll(tasks);
 
-      for (Future<Void> f : invokeAll) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shardTimeoutMillis);
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<Void> f = futures.get(i);
+        if (f == null) {
+          // rejected operation was already handled
+          continue;
+        }
         try {
-          f.get();
+          if (shardTimeoutMillis > 0 && errors.get(i) == null) {
+            f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+          } else {
+            f.get();
+          }
         } catch (ExecutionException e) {
+          cancelAll(futures);
           if (e.getCause() instanceof RuntimeException) {
             throw (RuntimeException)e.getCause();
           }
           throw new RuntimeException(e);
+        } catch (TimeoutException e) {
+          IllegalStateException timeout = new IllegalStateException("Shard #" + i + " didn't respond within " + shardTimeoutMillis + " ms", e);
+          if (!errors.compareAndSet(i, null, timeout)) {
+            // shard has just failed, wait until its error is handled
+            i--;
+            continue;
+          }
+          f.cancel(true);
+          metricsFor(commands.get(i)).recordTimeout();
+          if (allowPartialResults) {
+            for (ShardingErrorHandle<IDatabaseCommands> handler: onError) {
+              handler.apply(commands.get(i), request, timeout);
+            }
+          } else {
+            try {
+              handleError(commands.get(i), request, timeout);
+            } catch (RuntimeException ex) {
+              cancelAll(futures);
+              throw ex;
+            }
+          }
         }
       }
-      boolean allErrored = false;
-      for (Exception e : errors) {
-        allErrored &= e != null;
+      Exception[] shardErrors = new Exception[errors.length()];
+      boolean allErrored = shardErrors.length > 0;
+      for (int i = 0; i < shardErrors.length; i++) {
+        shardErrors[i] = errors.get(i);
+        allErrored &= shardErrors[i] != null;
       }
       if (allErrored) {
-        throw new AggregateException(errors);
+        throw new AggregateException(shardErrors);
       }
 
       List<T> result = new ArrayList<>();
       for (int i = 0; i < valueSet.length; i++) {
-        if (valueSet[i]) {
+        if (valueSet[i] && shardErrors[i] == null) {
           result.add(returnedLists[i]);
         }
       }
@@ -109,12 +269,42 @@ public class ParallelShardAccessStrategy implements IShardAccessStrategy, CleanC
       return result.toArray((T[]) Array.newInstance(clazz, 0));
 
     } catch (InterruptedException e) {
+      cancelAll(futures);
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Rethrows error of shard unless all error handlers decided to ignore it.
+   */
+  @SuppressWarnings("boxing")
+  private <E extends Exception> void handleError(IDatabaseCommands commands, ShardRequestData request, E e) throws E {
+    if (onError.isEmpty()) {
+      throw e;
+    }
+    for (ShardingErrorHandle<IDatabaseCommands> handler: onError) {
+      if (!handler.apply(commands, request, e)) {
+        throw e;
+      }
+    }
+  }
+
+  private static void cancelAll(List<Future<Void>> futures) {
+    for (Future<Void> future : futures) {
+      if (future != null) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Shuts down executor created by this instance. Injected executor is left running.
+   */
   @Override
   public void close() {
-    threadPool.shutdown();
+    closed = true;
+    if (ownsThreadPool) {
+      threadPool.shutdown();
+    }
   }
 }
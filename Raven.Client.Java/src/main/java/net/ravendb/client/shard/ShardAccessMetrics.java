@@ -0,0 +1,72 @@
+package net.ravendb.client.shard;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and failure counters of operations executed on single shard by {@link ParallelShardAccessStrategy}.
+ */
+public class ShardAccessMetrics {
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong totalLatencyMillis = new AtomicLong();
+  private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+  void recordCompleted(long latencyMillis, boolean failed) {
+    requests.incrementAndGet();
+    if (failed) {
+      failures.incrementAndGet();
+    }
+    totalLatencyMillis.addAndGet(latencyMillis);
+    long max;
+    do {
+      max = maxLatencyMillis.get();
+    } while (latencyMillis > max && !maxLatencyMillis.compareAndSet(max, latencyMillis));
+  }
+
+  void recordTimeout() {
+    timeouts.incrementAndGet();
+  }
+
+  /**
+   * Number of operations which completed, including failed ones.
+   */
+  public long getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * Number of operations which completed with exception.
+   */
+  public long getFailures() {
+    return failures.get();
+  }
+
+  /**
+   * Number of operations which didn't complete within shard timeout.
+   */
+  public long getTimeouts() {
+    return timeouts.get();
+  }
+
+  public long getTotalLatencyMillis() {
+    return totalLatencyMillis.get();
+  }
+
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis.get();
+  }
+
+  public double getAverageLatencyMillis() {
+    long count = requests.get();
+    return count == 0 ? 0 : (double) totalLatencyMillis.get() / count;
+  }
+
+  @SuppressWarnings("boxing")
+  @Override
+  public String toString() {
+    return String.format("requests: %d, failures: %d, timeouts: %d, avg latency: %.1f ms, max latency: %d ms",
+      getRequests(), getFailures(), getTimeouts(), getAverageLatencyMillis(), getMaxLatencyMillis());
+  }
+}
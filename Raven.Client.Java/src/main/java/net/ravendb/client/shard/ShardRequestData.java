@@ -2,6 +2,8 @@ package net.ravendb.client.shard;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.ravendb.abstractions.data.IndexQuery;
 
@@ -15,6 +17,7 @@ public class ShardRequestData {
   private Class entityType;
   private IndexQuery query;
   private String indexName;
+  private Map<String, Set<Object>> queryFieldValues;
 
   public ShardRequestData(List<String> keys, Class<?> entityType) {
     super();
@@ -60,4 +63,21 @@ public class ShardRequestData {
     this.indexName = indexName;
   }
 
+  /**
+   * Values which every query result has in given field, recorded from equality and in clauses when query was built.
+   * Fields which are not present are not constrained by query. Null if query structure is not known.
+   */
+  public Map<String, Set<Object>> getQueryFieldValues() {
+    return queryFieldValues;
+  }
+
+  /**
+   * Values which every query result has in given field, recorded from equality and in clauses when query was built.
+   * Fields which are not present are not constrained by query. Null if query structure is not known.
+   * @param queryFieldValues
+   */
+  public void setQueryFieldValues(Map<String, Set<Object>> queryFieldValues) {
+    this.queryFieldValues = queryFieldValues;
+  }
+
 }
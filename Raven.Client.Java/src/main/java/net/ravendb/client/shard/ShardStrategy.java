@@ -4,8 +4,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -15,10 +13,7 @@ import net.ravendb.abstractions.closure.Function1;
 import net.ravendb.abstractions.data.Etag;
 import net.ravendb.abstractions.data.IndexQuery;
 import net.ravendb.abstractions.data.QueryResult;
-import net.ravendb.abstractions.data.SortedField;
-import net.ravendb.abstractions.json.linq.JTokenType;
 import net.ravendb.abstractions.json.linq.RavenJObject;
-import net.ravendb.abstractions.json.linq.RavenJToken;
 import net.ravendb.client.IDocumentStore;
 import net.ravendb.client.document.DocumentConvention;
 import net.ravendb.client.utils.encryptors.Encryptor;
@@ -90,7 +85,7 @@ public class ShardStrategy {
 
   /**
    *  Merge the query results from all the shards into a single query results object by simply
-   *  concatenating all of the values
+   *  concatenating all of the values. When query is sorted, pages of shards are merged keeping the order.
    */
   @SuppressWarnings("boxing")
   public QueryResult defaultMergeQueryResults(IndexQuery query, List<QueryResult> queryResults) {
@@ -102,46 +97,18 @@ public class ShardStrategy {
       byte[] hash = Encryptor.getCurrent().createHash().compute16(baos.toByteArray());
       Etag indexEtag = Etag.parse(hash);
 
-      List<RavenJObject> results = new ArrayList<>();
-      for (QueryResult interResult: queryResults) {
-        results.addAll(interResult.getResults());
-      }
-
-      // apply sorting
-      if (query.getSortedFields() != null) {
-        final List<String> fieldsToSort = new ArrayList<>();
-        final List<Integer> desceding = new ArrayList<>();
-        for (SortedField field: query.getSortedFields()) {
-          String f = field.getField();
-          if (f.endsWith("_Range")) {
-            f = f.substring(0, f.length() - "_Range".length());
-          }
-          fieldsToSort.add(f);
-          desceding.add(field.isDescending() ? -1 : 1);
+      List<RavenJObject> results;
+      if (query.getSortedFields() != null && query.getSortedFields().length > 0) {
+        List<List<RavenJObject>> shardResults = new ArrayList<>(queryResults.size());
+        for (QueryResult interResult: queryResults) {
+          shardResults.add(interResult.getResults());
+        }
+        results = new ShardedResultsMerger(query.getSortedFields()).merge(shardResults);
+      } else {
+        results = new ArrayList<>();
+        for (QueryResult interResult: queryResults) {
+          results.addAll(interResult.getResults());
         }
-
-        Collections.sort(results, new Comparator<RavenJObject>() {
-          @Override
-          public int compare(RavenJObject o1, RavenJObject o2) {
-            for (int i = 0; i < fieldsToSort.size(); i++) {
-              int orderSignum = desceding.get(i);
-              RavenJToken t1 = o1.selectTokenWithRavenSyntaxReturningSingleValue(fieldsToSort.get(i));
-              RavenJToken t2 = o2.selectTokenWithRavenSyntaxReturningSingleValue(fieldsToSort.get(i));
-              if (t1.getType() == JTokenType.INTEGER && t2.getType() == JTokenType.INTEGER) {
-                int result = t1.value(Integer.class).compareTo(t2.value(Integer.class)) * orderSignum;
-                if (result != 0) {
-                  return result;
-                }
-              } else {
-                int result = t1.toString().compareTo(t2.toString()) * orderSignum;
-                if (result != 0) {
-                  return result;
-                }
-              }
-            }
-            return 0;
-          }
-        });
       }
 
       QueryResult mergedQueryResult = new QueryResult();
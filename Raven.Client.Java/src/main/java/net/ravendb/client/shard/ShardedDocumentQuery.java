@@ -17,6 +17,7 @@ import net.ravendb.abstractions.closure.Function2;
 import net.ravendb.abstractions.data.Constants;
 import net.ravendb.abstractions.data.IndexQuery;
 import net.ravendb.abstractions.data.QueryResult;
+import net.ravendb.abstractions.data.SortedField;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.client.IDocumentQuery;
 import net.ravendb.client.connection.IDatabaseCommands;
@@ -25,6 +26,7 @@ import net.ravendb.client.document.InMemoryDocumentSessionOperations;
 import net.ravendb.client.document.batches.LazyQueryOperation;
 import net.ravendb.client.document.sessionoperations.QueryOperation;
 import net.ravendb.client.listeners.IDocumentQueryListener;
+import net.ravendb.client.utils.RetryBackoff;
 
 import com.google.common.collect.Iterables;
 
@@ -35,23 +37,32 @@ public class ShardedDocumentQuery<T> extends DocumentQuery<T> {
   private List<QueryOperation> shardQueryOperations;
 
   private List<IDatabaseCommands> databaseCommands;
+  private List<String> shardIds;
 
-  private List<IDatabaseCommands> getShardDatabaseCommands() {
+  List<IDatabaseCommands> getShardDatabaseCommands() {
     if (databaseCommands == null) {
-      ShardRequestData shardRequestData = new ShardRequestData();
-      shardRequestData.setEntityType(getElementType());
-      shardRequestData.setQuery(getIndexQueryProp());
-      shardRequestData.setIndexName(indexName);
-      List<Tuple<String, IDatabaseCommands>> shardsToOperateOn = getShardsToOperateOn.apply(shardRequestData);
+      List<Tuple<String, IDatabaseCommands>> shardsToOperateOn = getShardsToOperateOn.apply(createShardRequestData());
       List<IDatabaseCommands> commands = new ArrayList<>(shardsToOperateOn.size());
+      List<String> ids = new ArrayList<>(shardsToOperateOn.size());
       for (Tuple<String, IDatabaseCommands> shard: shardsToOperateOn) {
+        ids.add(shard.getItem1());
         commands.add(shard.getItem2());
       }
+      shardIds = ids;
       databaseCommands = commands;
     }
     return databaseCommands;
   }
 
+  ShardRequestData createShardRequestData() {
+    ShardRequestData shardRequestData = new ShardRequestData();
+    shardRequestData.setEntityType(getElementType());
+    shardRequestData.setQuery(getIndexQueryProp());
+    shardRequestData.setIndexName(indexName);
+    shardRequestData.setQueryFieldValues(getQueryFieldValues());
+    return shardRequestData;
+  }
+
   private IndexQuery indexQuery;
 
   private IndexQuery getIndexQueryProp() {
@@ -82,9 +93,19 @@ public class ShardedDocumentQuery<T> extends DocumentQuery<T> {
 
     executeBeforeQueryListeners();
 
-    for (IDatabaseCommands dbCmd: getShardDatabaseCommands()) {
-      clearSortHints(dbCmd);
-      shardQueryOperations.add(initializeQueryOperation());
+    List<IDatabaseCommands> shardDatabaseCommands = getShardDatabaseCommands();
+    for (int i = 0; i < shardDatabaseCommands.size(); i++) {
+      clearSortHints(shardDatabaseCommands.get(i));
+      QueryOperation shardQueryOperation = initializeQueryOperation();
+      // stale shard waits for changes of its own index
+      shardQueryOperation.setIndexChangesStore(shardStrategy.getShards().get(shardIds.get(i)));
+      if (isPagedAcrossShards()) {
+        // page is taken from merged results, so each shard returns everything up to the end of the page
+        IndexQuery shardQuery = shardQueryOperation.getIndexQuery();
+        shardQuery.setPageSize((int) Math.min(Integer.MAX_VALUE, (long) shardQuery.getStart() + shardQuery.getPageSize()));
+        shardQuery.setStart(0);
+      }
+      shardQueryOperations.add(shardQueryOperation);
     }
 
     executeActualQuery();
@@ -98,6 +119,7 @@ public class ShardedDocumentQuery<T> extends DocumentQuery<T> {
 
     documentQuery.pageSize = pageSize;
     documentQuery.queryText = new StringBuilder(queryText.toString());
+    documentQuery.fieldValues = fieldValues.copy();
     documentQuery.start = start;
     documentQuery.timeout = timeout;
     documentQuery.cutoff = cutoff;
@@ -148,40 +170,48 @@ public class ShardedDocumentQuery<T> extends DocumentQuery<T> {
     for (int i =0 ; i < results.length; i++) {
       results[i] = Boolean.FALSE;
     }
-    while (true) {
-      final Boolean[] currentCopy = results;
-      ShardRequestData shardRequestData = new ShardRequestData();
-      shardRequestData.setEntityType(getElementType());
-      shardRequestData.setQuery(getIndexQueryProp());
-      shardRequestData.setIndexName(indexName);
-      results = shardStrategy.getShardAccessStrategy().apply(Boolean.class, getShardDatabaseCommands(), shardRequestData, new Function2<IDatabaseCommands, Integer, Boolean>() {
-        @SuppressWarnings({"synthetic-access"})
-        @Override
-        public Boolean apply(IDatabaseCommands dbCmd, Integer i) {
-          if (currentCopy[i]) { // if we already got a good result here, do nothing
-            return true;
+    RetryBackoff backoff = new RetryBackoff(0);
+    try {
+      while (true) {
+        final Boolean[] currentCopy = results;
+        ShardRequestData shardRequestData = createShardRequestData();
+        results = shardStrategy.getShardAccessStrategy().apply(Boolean.class, getShardDatabaseCommands(), shardRequestData, new Function2<IDatabaseCommands, Integer, Boolean>() {
+          @SuppressWarnings({"synthetic-access"})
+          @Override
+          public Boolean apply(IDatabaseCommands dbCmd, Integer i) {
+            if (currentCopy[i]) { // if we already got a good result here, do nothing
+              return true;
+            }
+
+            QueryOperation queryOp = shardQueryOperations.get(i);
+            try (CleanCloseable scope = queryOp.enterQueryContext()) {
+              queryOp.logQuery();
+              QueryResult result = dbCmd.query(indexName, queryOp.getIndexQuery(), includes.toArray(new String[0]));
+              return queryOp.isAcceptable(result);
+            }
           }
+        });
 
-          QueryOperation queryOp = shardQueryOperations.get(i);
-          try (CleanCloseable scope = queryOp.enterQueryContext()) {
-            queryOp.logQuery();
-            QueryResult result = dbCmd.query(indexName, queryOp.getIndexQuery(), includes.toArray(new String[0]));
-            return queryOp.isAcceptable(result);
+        int firstPending = -1;
+        for (int i = 0; i < results.length && firstPending == -1; i++) {
+          if (!results[i]) {
+            firstPending = i;
           }
         }
-      });
-
-      boolean allAcceptable = true;
-      for (boolean r : results) {
-        allAcceptable &= r;
-      }
-      if (allAcceptable) {
-        break;
+        if (firstPending == -1) {
+          break;
+        }
+        try {
+          // wait for changes of first shard which returned stale results, such wait always ends after
+          // fallback poll interval, so other shards are queried again as well
+          shardQueryOperations.get(firstPending).waitBeforeRetry(backoff);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
       }
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        throw new RuntimeException(e);
+    } finally {
+      for (QueryOperation shardQueryOperation : shardQueryOperations) {
+        shardQueryOperation.stopWaitingForIndexChanges();
       }
     }
 
@@ -194,11 +224,26 @@ public class ShardedDocumentQuery<T> extends DocumentQuery<T> {
       }
     }
     QueryResult mergedQueryResult = shardStrategy.getMergeQueryResults().apply(getIndexQueryProp(), notEmptyQueryResults);
+    if (isPagedAcrossShards()) {
+      IndexQuery query = getIndexQueryProp();
+      List<RavenJObject> mergedResults = mergedQueryResult.getResults();
+      int pageStart = Math.min(query.getStart(), mergedResults.size());
+      int pageEnd = pageStart + Math.min(query.getPageSize(), mergedResults.size() - pageStart);
+      mergedQueryResult.setResults(new ArrayList<>(mergedResults.subList(pageStart, pageEnd)));
+    }
     shardQueryOperations.get(0).forceResult(mergedQueryResult);
     queryOperation = shardQueryOperations.get(0);
     afterQueryExecutedCallback.apply(mergedQueryResult);
   }
 
+  /**
+   * Sorted results can be paged only after merging shard results.
+   */
+  private boolean isPagedAcrossShards() {
+    SortedField[] sortedFields = getIndexQueryProp().getSortedFields();
+    return sortedFields != null && sortedFields.length > 0;
+  }
+
   protected static void assertNoDuplicateIdsInResults(List<QueryOperation> shardQueryOperations) {
     Map<String, Set<QueryOperation>> shardsPerId = new HashMap<>();
     for (QueryOperation shardQueryOperation : shardQueryOperations) {
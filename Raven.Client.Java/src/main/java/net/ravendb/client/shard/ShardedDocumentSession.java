@@ -19,6 +19,7 @@ import net.ravendb.client.document.batches.IEagerSessionOperations;
 import net.ravendb.client.document.batches.ILazyOperation;
 import net.ravendb.client.document.batches.ILazySessionOperations;
 import net.ravendb.client.document.batches.LazyMultiLoadOperation;
+import net.ravendb.client.document.batches.LazyOperationsExecutor;
 import net.ravendb.client.document.sessionoperations.LoadOperation;
 import net.ravendb.client.document.sessionoperations.LoadTransformerOperation;
 import net.ravendb.client.document.sessionoperations.MultiLoadOperation;
@@ -27,8 +28,10 @@ import net.ravendb.client.exceptions.ConflictException;
 import net.ravendb.client.indexes.AbstractIndexCreationTask;
 import net.ravendb.client.indexes.AbstractTransformerCreationTask;
 import net.ravendb.client.linq.IDocumentQueryGenerator;
+import net.ravendb.client.linq.IRavenQueryProvider;
 import net.ravendb.client.linq.IRavenQueryable;
 import net.ravendb.client.linq.RavenQueryInspector;
+import net.ravendb.client.utils.RetryBackoff;
 
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
@@ -579,7 +582,6 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
     }
   }
 
-  @SuppressWarnings("boxing")
   @Override
   public ResponseTimeInformation executeAllPendingLazyOperations() {
     if (pendingLazyOperations.isEmpty()) {
@@ -587,13 +589,21 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
     }
 
     try {
-      Date sw = new Date();
       incrementRequestCount();
-      ResponseTimeInformation responseTimeDuration = new ResponseTimeInformation();
-      while (executeLazyOperationsSingleStep()) {
-        Thread.sleep(100);
-      }
-      responseTimeDuration.computeServerTotal();
+      ResponseTimeInformation responseTimeDuration = new LazyOperationsExecutor<Tuple<ILazyOperation, List<IDatabaseCommands>>>(getConventions().getLazyOperationsTimeout()) {
+        @SuppressWarnings("synthetic-access")
+        @Override
+        protected List<Tuple<ILazyOperation, List<IDatabaseCommands>>> executeRound(List<Tuple<ILazyOperation, List<IDatabaseCommands>>> operations,
+          ResponseTimeInformation responseTimeInformation) {
+          return executeLazyOperationsSingleStep(operations, responseTimeInformation);
+        }
+
+        @Override
+        protected void waitBeforeRetry(List<Tuple<ILazyOperation, List<IDatabaseCommands>>> pendingOperations, RetryBackoff backoff)
+          throws InterruptedException {
+          waitBeforeLazyRetry(lazyOperationsOf(pendingOperations), backoff);
+        }
+      }.execute(new ArrayList<>(pendingLazyOperations));
 
       for (Tuple<ILazyOperation, List<IDatabaseCommands>> pendingLazyOperation : pendingLazyOperations) {
         Action1<Object> value = onEvaluateLazy.get(pendingLazyOperation.getItem1());
@@ -601,18 +611,29 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
           value.apply(pendingLazyOperation.getItem1().getResult());
         }
       }
-      responseTimeDuration.setTotalClientDuration(new Date().getTime() - sw.getTime());
       return responseTimeDuration;
-    } catch (InterruptedException e) {
-      throw new RuntimeException(e);
     } finally {
+      LazyOperationsExecutor.stopWaitingForIndexChanges(lazyOperationsOf(pendingLazyOperations));
       pendingLazyOperations.clear();
     }
   }
 
-  private boolean executeLazyOperationsSingleStep() {
+  private static List<ILazyOperation> lazyOperationsOf(List<Tuple<ILazyOperation, List<IDatabaseCommands>>> operations) {
+    List<ILazyOperation> lazyOperations = new ArrayList<>(operations.size());
+    for (Tuple<ILazyOperation, List<IDatabaseCommands>> operation : operations) {
+      lazyOperations.add(operation.getItem1());
+    }
+    return lazyOperations;
+  }
+
+  /**
+   * Sends given lazy operations to their shards, operations of each shard group in single multi get request.
+   * @return operations which require retry
+   */
+  private List<Tuple<ILazyOperation, List<IDatabaseCommands>>> executeLazyOperationsSingleStep(List<Tuple<ILazyOperation, List<IDatabaseCommands>>> operations,
+    ResponseTimeInformation responseTimeInformation) {
     List<CleanCloseable> closeables = new ArrayList<>();
-    for (Tuple<ILazyOperation, List<IDatabaseCommands>> item :pendingLazyOperations) {
+    for (Tuple<ILazyOperation, List<IDatabaseCommands>> item : operations) {
       CleanCloseable context = item.getItem1().enterContext();
       if (context != null) {
         closeables.add(context);
@@ -620,21 +641,22 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
     }
 
     try {
-      Map<List<IDatabaseCommands>, List<ILazyOperation>> operationsPerShardGroup = new TreeMap<>(new DbCmdsListComparer<IDatabaseCommands>());
-      for (Tuple<ILazyOperation, List<IDatabaseCommands>> item :pendingLazyOperations) {
-        List<ILazyOperation> list = operationsPerShardGroup.get(item.getItem2());
+      Map<List<IDatabaseCommands>, List<Tuple<ILazyOperation, List<IDatabaseCommands>>>> operationsPerShardGroup = new TreeMap<>(new DbCmdsListComparer<IDatabaseCommands>());
+      for (Tuple<ILazyOperation, List<IDatabaseCommands>> item : operations) {
+        List<Tuple<ILazyOperation, List<IDatabaseCommands>>> list = operationsPerShardGroup.get(item.getItem2());
         if (list == null) {
           list = new ArrayList<>();
           operationsPerShardGroup.put(item.getItem2(), list);
         }
-        list.add(item.getItem1());
+        list.add(item);
       }
 
-      for (Map.Entry<List<IDatabaseCommands>, List<ILazyOperation>> operationPerShard: operationsPerShardGroup.entrySet()) {
-        List<ILazyOperation> lazyOperations = operationPerShard.getValue();
+      List<Tuple<ILazyOperation, List<IDatabaseCommands>>> requiresRetry = new ArrayList<>();
+      for (Map.Entry<List<IDatabaseCommands>, List<Tuple<ILazyOperation, List<IDatabaseCommands>>>> operationPerShard: operationsPerShardGroup.entrySet()) {
+        List<Tuple<ILazyOperation, List<IDatabaseCommands>>> lazyOperations = operationPerShard.getValue();
         final List<GetRequest> requests = new ArrayList<>();
-        for (ILazyOperation op : lazyOperations) {
-          requests.add(op.createRequest());
+        for (Tuple<ILazyOperation, List<IDatabaseCommands>> op : lazyOperations) {
+          requests.add(op.getItem1().createRequest());
         }
         GetResponse[][] multiResponses = getShardStrategy().getShardAccessStrategy().apply(GetResponse[].class, operationPerShard.getKey(), new ShardRequestData(),
           new Function2<IDatabaseCommands, Integer, GetResponse[]>() {
@@ -646,7 +668,9 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
 
         StringBuilder sb = new StringBuilder();
         for (GetResponse[] respGroup: multiResponses) {
-          for (GetResponse resp: respGroup)  {
+          for (int i = 0; i < respGroup.length; i++) {
+            GetResponse resp = respGroup[i];
+            LazyOperationsExecutor.addResponseTime(responseTimeInformation, requests.get(i), resp);
             if (resp.isRequestHasErrors()) {
               sb.append("Get an error form server, status code:" + resp.getStatus() + "\n" + resp.getResult());
               sb.append("\n");
@@ -663,13 +687,14 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
           for (int j =0; j < multiResponses.length; j++) {
             responses[j] = multiResponses[j][i];
           }
-          lazyOperations.get(i).handleResponses(responses, getShardStrategy());
-          if (lazyOperations.get(i).isRequiresRetry()) {
-            return true;
+          ILazyOperation lazyOperation = lazyOperations.get(i).getItem1();
+          lazyOperation.handleResponses(responses, getShardStrategy());
+          if (lazyOperation.isRequiresRetry()) {
+            requiresRetry.add(lazyOperations.get(i));
           }
         }
       }
-      return false;
+      return requiresRetry;
     } finally {
       for (CleanCloseable closeable: closeables) {
         closeable.close();
@@ -739,8 +764,7 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
         if (databaseCommands == null) {
           throw new IllegalStateException("ShardedDocumentStore can't find a DatabaseCommands for shard id '" + shardId + "'");
         }
-        BatchResult[] results = databaseCommands.batch(shardAndObject.getValue().getCommands());
-        updateBatchResults(Arrays.asList(results), shardAndObject.getValue());
+        executeBatch(databaseCommands, shardAndObject.getValue());
       }
     }
   }
@@ -984,69 +1008,201 @@ implements IDocumentQueryGenerator, IDocumentSessionImpl, ISyncAdvancedSessionOp
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(IRavenQueryable<T> query) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    Reference<QueryHeaderInformation> __ = new Reference<>();
+    return stream(query, __);
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(IRavenQueryable<T> query,
     Reference<QueryHeaderInformation> queryHeaderInformation) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    IRavenQueryProvider queryProvider = (IRavenQueryProvider)query.getProvider();
+    IDocumentQuery<T> docQuery = (IDocumentQuery<T>) queryProvider.toDocumentQuery(query.getElementType(), query.getExpression());
+    return stream(docQuery, queryHeaderInformation);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(IDocumentQuery<T> query) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    Reference<QueryHeaderInformation> __ = new Reference<>();
+    return stream(query, __);
   }
 
+  /**
+   * Streams query from all shards. Results of query with sorted fields are merged in order, otherwise results are returned
+   * as they arrive from shards. Total results of query header are summed over shards.
+   */
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(IDocumentQuery<T> query,
     Reference<QueryHeaderInformation> queryHeaderInformation) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    ShardedDocumentQuery<T> shardedQuery = (ShardedDocumentQuery<T>) query;
+    final String indexName = shardedQuery.getIndexQueried();
+    IndexQuery indexQuery = shardedQuery.getIndexQuery();
+
+    // waiting required by querying consistency of convention doesn't prevent streaming, only one set on query does
+    boolean waitForNonStaleResultsWasSetGlobally = getConventions().getDefaultQueryingConsistency() != ConsistencyOptions.NONE;
+
+    if (!waitForNonStaleResultsWasSetGlobally && (indexQuery.isWaitForNonStaleResults() || indexQuery.isWaitForNonStaleResultsAsOfNow())) {
+      throw new IllegalArgumentException(
+          "Since stream() does not wait for indexing (by design), streaming query with WaitForNonStaleResults is not supported.");
+    }
+    incrementRequestCount();
+
+    int start = indexQuery.getStart();
+    int pageSize = indexQuery.isPageSizeSet() ? indexQuery.getPageSize() : Integer.MAX_VALUE;
+    final IndexQuery shardQuery = indexQuery.clone();
+    if (start > 0) {
+      // each shard returns results from the beginning, paging is applied to merged stream
+      shardQuery.setStart(0);
+      if (indexQuery.isPageSizeSet()) {
+        shardQuery.setPageSize((int) Math.min(Integer.MAX_VALUE, (long) start + pageSize));
+      }
+    }
+
+    List<IDatabaseCommands> dbCommands = shardedQuery.getShardDatabaseCommands();
+    final List<Reference<QueryHeaderInformation>> shardHeaders = new ArrayList<>(dbCommands.size());
+    for (int i = 0; i < dbCommands.size(); i++) {
+      shardHeaders.add(new Reference<QueryHeaderInformation>());
+    }
+    ShardRequestData shardRequestData = shardedQuery.createShardRequestData();
+
+    List<CloseableIterator<RavenJObject>> shardIterators = openShardStreams(dbCommands, shardRequestData, new Function2<IDatabaseCommands, Integer, CloseableIterator<RavenJObject>>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public CloseableIterator<RavenJObject> apply(IDatabaseCommands commands, Integer i) {
+        return commands.streamQuery(indexName, shardQuery, shardHeaders.get(i));
+      }
+    });
+
+    queryHeaderInformation.value = mergeQueryHeaders(shardHeaders);
+
+    SortedField[] sortedFields = indexQuery.getSortedFields();
+    ShardedStreamIterator iterator;
+    if (sortedFields != null && sortedFields.length > 0) {
+      iterator = ShardedStreamIterator.sorted(shardIterators, sortedFields, start, pageSize);
+    } else {
+      iterator = ShardedStreamIterator.interleaved(shardIterators, getShardStreamBufferSize(), start, pageSize);
+    }
+    return readAhead(new QueryStreamIterator<>(query, iterator), iterator.getAbortAction());
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, null, null, null, 0, Integer.MAX_VALUE);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, fromEtag, null, null, 0, Integer.MAX_VALUE);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, fromEtag, startsWith, null, 0, Integer.MAX_VALUE);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith,
     String matches) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, fromEtag, startsWith, matches, 0, Integer.MAX_VALUE);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith,
     String matches, int start) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, fromEtag, startsWith, matches, start, Integer.MAX_VALUE);
   }
 
+  /**
+   * Streams documents from all shards, documents are returned as they arrive from shards.
+   * Etag is specific to each server, so fromEtag is sent to every shard as is. Start and page size are applied to merged stream.
+   */
   @Override
-  public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith,
-    String matches, int start, int pageSize) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+  public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, final Etag fromEtag, final String startsWith,
+    final String matches, int start, int pageSize) {
+    incrementRequestCount();
+
+    ShardRequestData shardRequestData = new ShardRequestData();
+    shardRequestData.setEntityType(entityClass);
+    List<IDatabaseCommands> dbCommands = getCommandsToOperateOn(shardRequestData);
+
+    final int shardPageSize = (int) Math.min(Integer.MAX_VALUE, (long) start + pageSize);
+    List<CloseableIterator<RavenJObject>> shardIterators = openShardStreams(dbCommands, shardRequestData, new Function2<IDatabaseCommands, Integer, CloseableIterator<RavenJObject>>() {
+      @Override
+      public CloseableIterator<RavenJObject> apply(IDatabaseCommands commands, Integer i) {
+        return commands.streamDocs(fromEtag, startsWith, matches, 0, shardPageSize);
+      }
+    });
+
+    ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shardIterators, getShardStreamBufferSize(), start, pageSize);
+    return readAhead(new DocumentStreamIterator<>(this, iterator, entityClass), iterator.getAbortAction());
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith,
     String matches, int start, int pageSize, RavenPagingInformation pagingInformation) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    return stream(entityClass, fromEtag, startsWith, matches, start, pageSize, pagingInformation, null);
   }
 
   @Override
   public <T> CloseableIterator<StreamResult<T>> stream(Class<T> entityClass, Etag fromEtag, String startsWith,
     String matches, int start, int pageSize, RavenPagingInformation pagingInformation, String skipAfter) {
-    throw new UnsupportedOperationException("Streams are currently not supported by sharded document store");
+    if (pagingInformation != null || skipAfter != null) {
+      throw new UnsupportedOperationException("Paging information and skipAfter are currently not supported by sharded streams");
+    }
+    return stream(entityClass, fromEtag, startsWith, matches, start, pageSize);
+  }
+
+  /**
+   * Opens stream on each shard. Streams which were already opened are aborted when any shard fails.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private List<CloseableIterator<RavenJObject>> openShardStreams(List<IDatabaseCommands> dbCommands, ShardRequestData shardRequestData,
+    final Function2<IDatabaseCommands, Integer, CloseableIterator<RavenJObject>> openStream) {
+    final List<CloseableIterator<RavenJObject>> opened = Collections.synchronizedList(new ArrayList<CloseableIterator<RavenJObject>>());
+    try {
+      CloseableIterator[] shardIterators = getShardStrategy().getShardAccessStrategy().apply(CloseableIterator.class, dbCommands, shardRequestData,
+        new Function2<IDatabaseCommands, Integer, CloseableIterator>() {
+        @Override
+        public CloseableIterator apply(IDatabaseCommands commands, Integer i) {
+          CloseableIterator<RavenJObject> iterator = openStream.apply(commands, i);
+          opened.add(iterator);
+          return iterator;
+        }
+      });
+      List<CloseableIterator<RavenJObject>> result = new ArrayList<>(shardIterators.length);
+      for (CloseableIterator shardIterator : shardIterators) {
+        result.add(shardIterator);
+      }
+      return result;
+    } catch (RuntimeException e) {
+      ShardedStreamIterator.abortAndClose(new ArrayList<>(opened));
+      throw e;
+    }
+  }
+
+  private int getShardStreamBufferSize() {
+    int readAheadSize = getConventions().getStreamReadAheadSize();
+    return readAheadSize > 0 ? readAheadSize : ShardedStreamIterator.DEFAULT_BUFFER_SIZE;
+  }
+
+  private static QueryHeaderInformation mergeQueryHeaders(List<Reference<QueryHeaderInformation>> shardHeaders) {
+    QueryHeaderInformation result = null;
+    for (Reference<QueryHeaderInformation> shardHeader : shardHeaders) {
+      QueryHeaderInformation header = shardHeader.value;
+      if (header == null) {
+        continue;
+      }
+      if (result == null) {
+        result = new QueryHeaderInformation();
+        result.setIndex(header.getIndex());
+        result.setIndexTimestamp(header.getIndexTimestamp());
+        result.setIndexEtag(header.getIndexEtag());
+        result.setResultEtag(header.getResultEtag());
+      }
+      result.setStale(result.isStale() || header.isStale());
+      result.setTotalResults(result.getTotalResults() + header.getTotalResults());
+    }
+    return result;
   }
 
   @Override
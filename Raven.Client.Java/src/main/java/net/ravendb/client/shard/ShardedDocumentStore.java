@@ -109,6 +109,9 @@ public class ShardedDocumentStore extends DocumentStoreBase {
     for (IDocumentStore shard: shards.values()) {
       shard.close();
     }
+    if (shardStrategy.getShardAccessStrategy() instanceof CleanCloseable) {
+      ((CleanCloseable) shardStrategy.getShardAccessStrategy()).close();
+    }
 
     setWasDisposed(true);
     if (afterDispose != null) {
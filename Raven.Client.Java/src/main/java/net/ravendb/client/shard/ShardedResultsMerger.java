@@ -0,0 +1,163 @@
+package net.ravendb.client.shard;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.ravendb.abstractions.data.SortedField;
+import net.ravendb.abstractions.json.linq.JTokenType;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJToken;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+/**
+ * Merges results of sorted query returned by each shard. Every shard page is already sorted, so pages are merged
+ * using heap of shard cursors instead of sorting concatenated results. Sort keys are extracted once per result.
+ */
+public class ShardedResultsMerger {
+
+  private final String[] fields;
+  private final int[] orderSignums;
+
+  public ShardedResultsMerger(SortedField[] sortedFields) {
+    fields = new String[sortedFields.length];
+    orderSignums = new int[sortedFields.length];
+    for (int i = 0; i < sortedFields.length; i++) {
+      String field = sortedFields[i].getField();
+      if (field.endsWith("_Range")) {
+        field = field.substring(0, field.length() - "_Range".length());
+      }
+      fields[i] = field;
+      orderSignums[i] = sortedFields[i].isDescending() ? -1 : 1;
+    }
+  }
+
+  /**
+   * Merges sorted shard pages into single sorted list. Results considered equal keep order of shards.
+   * @param shardResults results of each shard
+   */
+  public List<RavenJObject> merge(List<List<RavenJObject>> shardResults) {
+    int total = 0;
+    PriorityQueue<ShardCursor> heap = new PriorityQueue<>(Math.max(1, shardResults.size()));
+    for (int i = 0; i < shardResults.size(); i++) {
+      List<RavenJObject> results = shardResults.get(i);
+      total += results.size();
+      if (!results.isEmpty()) {
+        ShardCursor cursor = new ShardCursor(i, results);
+        cursor.extractKeys();
+        heap.add(cursor);
+      }
+    }
+
+    List<RavenJObject> merged = new ArrayList<>(total);
+    while (!heap.isEmpty()) {
+      ShardCursor cursor = heap.poll();
+      merged.add(cursor.current());
+      if (cursor.moveNext()) {
+        cursor.extractKeys();
+        heap.add(cursor);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Extracts sort keys of given result.
+   */
+  Object[] extractKeys(RavenJObject result) {
+    Object[] keys = new Object[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      keys[i] = extractKey(result, fields[i]);
+    }
+    return keys;
+  }
+
+  /**
+   * Compares sort keys extracted by {@link #extractKeys(RavenJObject)} using order of sorted fields.
+   */
+  int compare(Object[] keys1, Object[] keys2) {
+    for (int i = 0; i < keys1.length; i++) {
+      int result = compareKeys(keys1[i], keys2[i]) * orderSignums[i];
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Gets sort key of given field: number, date, string or null when field is missing.
+   */
+  private static Object extractKey(RavenJObject result, String field) {
+    RavenJToken token = result.selectTokenWithRavenSyntaxReturningSingleValue(field);
+    if (token == null || token.getType() == JTokenType.NULL) {
+      return null;
+    }
+    if (token instanceof RavenJValue) {
+      Object value = ((RavenJValue) token).getValue();
+      if (value instanceof Number || value instanceof Date) {
+        return value;
+      }
+    }
+    return token.getType() == JTokenType.STRING ? token.value(String.class) : token.toString();
+  }
+
+  /**
+   * Compares sort keys: missing values go first, numbers are compared by value, keys of different kinds
+   * are compared as strings.
+   */
+  private static int compareKeys(Object key1, Object key2) {
+    if (key1 == null || key2 == null) {
+      return (key1 == null ? 0 : 1) - (key2 == null ? 0 : 1);
+    }
+    if (key1 instanceof Number && key2 instanceof Number) {
+      Number n1 = (Number) key1;
+      Number n2 = (Number) key2;
+      if (isIntegral(n1) && isIntegral(n2)) {
+        return Long.compare(n1.longValue(), n2.longValue());
+      }
+      return Double.compare(n1.doubleValue(), n2.doubleValue());
+    }
+    if (key1 instanceof Date && key2 instanceof Date) {
+      return ((Date) key1).compareTo((Date) key2);
+    }
+    return key1.toString().compareTo(key2.toString());
+  }
+
+  private static boolean isIntegral(Number number) {
+    return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+  }
+
+  private class ShardCursor implements Comparable<ShardCursor> {
+    private final int shardIndex;
+    private final List<RavenJObject> results;
+    private Object[] keys;
+    private int position;
+
+    public ShardCursor(int shardIndex, List<RavenJObject> results) {
+      this.shardIndex = shardIndex;
+      this.results = results;
+    }
+
+    public RavenJObject current() {
+      return results.get(position);
+    }
+
+    public boolean moveNext() {
+      position++;
+      return position < results.size();
+    }
+
+    public void extractKeys() {
+      keys = ShardedResultsMerger.this.extractKeys(current());
+    }
+
+    @Override
+    public int compareTo(ShardCursor other) {
+      int result = compare(keys, other.keys);
+      return result != 0 ? result : Integer.compare(shardIndex, other.shardIndex);
+    }
+  }
+
+}
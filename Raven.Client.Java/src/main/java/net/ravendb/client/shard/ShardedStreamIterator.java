@@ -0,0 +1,409 @@
+package net.ravendb.client.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.data.SortedField;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.logging.ILog;
+import net.ravendb.abstractions.logging.LogManager;
+import net.ravendb.client.connection.JsonStreamIterator;
+
+/**
+ * Merges streams opened on each shard into single stream. Results of sorted query are merged in order of sorted fields,
+ * otherwise results are returned as soon as any shard provides them. Paging is applied to merged stream.
+ * Closing the iterator before end of stream drops connections of all shards.
+ */
+public abstract class ShardedStreamIterator implements CloseableIterator<RavenJObject> {
+
+  private static final ILog logger = LogManager.getCurrentClassLogger();
+
+  /**
+   * Size of buffer used to interleave shard streams if stream read ahead is not configured.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+
+  /**
+   * Shared by all iterators - threads are created only while shard streams are interleaved.
+   */
+  private static final ExecutorService readerExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "RavenDB shard stream reader");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  protected final List<CloseableIterator<RavenJObject>> shardIterators;
+  protected volatile boolean closed;
+  private boolean exhausted;
+  private int toSkip;
+  private int remaining;
+  private RavenJObject nextItem;
+
+  protected ShardedStreamIterator(List<CloseableIterator<RavenJObject>> shardIterators, int start, int pageSize) {
+    this.shardIterators = shardIterators;
+    this.toSkip = start;
+    this.remaining = pageSize;
+  }
+
+  /**
+   * Merges sorted shard streams using order of sorted fields. Results are read from shard which holds the next one in order,
+   * so shards are read no faster than merged stream is consumed.
+   * @param shardIterators
+   * @param sortedFields
+   * @param start number of merged results to skip
+   * @param pageSize max number of merged results
+   */
+  public static ShardedStreamIterator sorted(List<CloseableIterator<RavenJObject>> shardIterators, SortedField[] sortedFields, int start, int pageSize) {
+    return new SortedShardStreamIterator(shardIterators, new ShardedResultsMerger(sortedFields), start, pageSize);
+  }
+
+  /**
+   * Interleaves shard streams: each shard is read by its own task on executor shared by all iterators into shared buffer.
+   * Readers block when buffer is full.
+   * @param shardIterators
+   * @param bufferSize max number of results read ahead from all shards
+   * @param start number of merged results to skip
+   * @param pageSize max number of merged results
+   */
+  public static ShardedStreamIterator interleaved(List<CloseableIterator<RavenJObject>> shardIterators, int bufferSize, int start, int pageSize) {
+    return interleaved(shardIterators, bufferSize, start, pageSize, readerExecutor);
+  }
+
+  /**
+   * Interleaves shard streams: each shard is read by its own task on given executor into shared buffer.
+   * Readers block when buffer is full, so executor has to be able to run readers of all shards at once.
+   * Executor is not shut down when iterator is closed.
+   * @param shardIterators
+   * @param bufferSize max number of results read ahead from all shards
+   * @param start number of merged results to skip
+   * @param pageSize max number of merged results
+   * @param executor
+   */
+  public static ShardedStreamIterator interleaved(List<CloseableIterator<RavenJObject>> shardIterators, int bufferSize, int start, int pageSize,
+    Executor executor) {
+    return new InterleavedShardStreamIterator(shardIterators, bufferSize, start, pageSize, executor);
+  }
+
+  /**
+   * Gets next merged result or null when all shard streams are finished.
+   */
+  protected abstract RavenJObject fetchNext();
+
+  /**
+   * Stops reading of shard streams.
+   */
+  protected void stop() {
+    // empty by default
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextItem != null) {
+      return true;
+    }
+    if (closed || exhausted || remaining <= 0) {
+      return false;
+    }
+    for (; toSkip > 0; toSkip--) {
+      if (fetchNext() == null) {
+        exhausted = true;
+        return false;
+      }
+    }
+    nextItem = fetchNext();
+    if (nextItem == null) {
+      exhausted = true;
+      return false;
+    }
+    remaining--;
+    return true;
+  }
+
+  @Override
+  public RavenJObject next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    RavenJObject result = nextItem;
+    nextItem = null;
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new IllegalStateException("Not implemented!");
+  }
+
+  /**
+   * Drops connections of all shard streams. Can be called from other thread to interrupt blocked read.
+   */
+  public void abort() {
+    abort(shardIterators);
+  }
+
+  private static void abort(List<CloseableIterator<RavenJObject>> shardIterators) {
+    for (CloseableIterator<RavenJObject> shardIterator : shardIterators) {
+      if (shardIterator instanceof JsonStreamIterator) {
+        ((JsonStreamIterator<?>) shardIterator).abort();
+      }
+    }
+  }
+
+  private static void close(List<CloseableIterator<RavenJObject>> shardIterators) {
+    for (CloseableIterator<RavenJObject> shardIterator : shardIterators) {
+      try {
+        shardIterator.close();
+      } catch (RuntimeException e) {
+        logger.warnException("Unable to close shard stream", e);
+      }
+    }
+  }
+
+  /**
+   * Drops connections of given shard streams and closes them. Used when stream can't be opened on all shards.
+   * @param shardIterators
+   */
+  public static void abortAndClose(List<CloseableIterator<RavenJObject>> shardIterators) {
+    abort(shardIterators);
+    close(shardIterators);
+  }
+
+  /**
+   * Gets action which aborts all shard streams.
+   */
+  public CleanCloseable getAbortAction() {
+    return new CleanCloseable() {
+      @Override
+      public void close() {
+        abort();
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (!exhausted) {
+      // don't read rest of each shard stream
+      abort();
+    }
+    stop();
+    close(shardIterators);
+  }
+
+  private static class SortedShardStreamIterator extends ShardedStreamIterator {
+    private final ShardedResultsMerger merger;
+    private PriorityQueue<ShardCursor> heap;
+
+    public SortedShardStreamIterator(List<CloseableIterator<RavenJObject>> shardIterators, ShardedResultsMerger merger, int start, int pageSize) {
+      super(shardIterators, start, pageSize);
+      this.merger = merger;
+    }
+
+    @Override
+    protected RavenJObject fetchNext() {
+      if (heap == null) {
+        heap = new PriorityQueue<>(Math.max(1, shardIterators.size()));
+        for (int i = 0; i < shardIterators.size(); i++) {
+          ShardCursor cursor = new ShardCursor(i, shardIterators.get(i));
+          if (cursor.moveNext()) {
+            heap.add(cursor);
+          }
+        }
+      }
+      ShardCursor cursor = heap.poll();
+      if (cursor == null) {
+        return null;
+      }
+      RavenJObject result = cursor.current;
+      if (cursor.moveNext()) {
+        heap.add(cursor);
+      }
+      return result;
+    }
+
+    private class ShardCursor implements Comparable<ShardCursor> {
+      private final int shardIndex;
+      private final CloseableIterator<RavenJObject> iterator;
+      private RavenJObject current;
+      private Object[] keys;
+
+      public ShardCursor(int shardIndex, CloseableIterator<RavenJObject> iterator) {
+        this.shardIndex = shardIndex;
+        this.iterator = iterator;
+      }
+
+      public boolean moveNext() {
+        if (!iterator.hasNext()) {
+          return false;
+        }
+        current = iterator.next();
+        keys = merger.extractKeys(current);
+        return true;
+      }
+
+      @Override
+      public int compareTo(ShardCursor other) {
+        int result = merger.compare(keys, other.keys);
+        return result != 0 ? result : Integer.compare(shardIndex, other.shardIndex);
+      }
+    }
+  }
+
+  private static class InterleavedShardStreamIterator extends ShardedStreamIterator {
+    private final static Object END_OF_SHARD_MARKER = new Object();
+
+    /**
+     * Max time close waits for readers, reader blocked in shard stream which can't be aborted is left behind.
+     */
+    private final static long READERS_STOP_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<Object> buffer;
+    private final CountDownLatch readersFinished;
+    private int finishedShards;
+    private Throwable failure;
+
+    private static class Failure {
+      private final Throwable exception;
+
+      public Failure(Throwable exception) {
+        this.exception = exception;
+      }
+    }
+
+    public InterleavedShardStreamIterator(List<CloseableIterator<RavenJObject>> shardIterators, int bufferSize, int start, int pageSize,
+      Executor executor) {
+      super(shardIterators, start, pageSize);
+      if (bufferSize < 1) {
+        throw new IllegalArgumentException("Buffer size must be greater than zero");
+      }
+      buffer = new ArrayBlockingQueue<>(bufferSize);
+      readersFinished = new CountDownLatch(shardIterators.size());
+      for (final CloseableIterator<RavenJObject> shardIterator : shardIterators) {
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              read(shardIterator);
+            } finally {
+              readersFinished.countDown();
+            }
+          }
+        });
+      }
+    }
+
+    private void read(CloseableIterator<RavenJObject> shardIterator) {
+      Object marker = END_OF_SHARD_MARKER;
+      try {
+        while (!closed && shardIterator.hasNext()) {
+          if (!put(shardIterator.next())) {
+            return;
+          }
+        }
+      } catch (Throwable e) {
+        if (closed) {
+          logger.debugException("Shard stream reader stopped after iterator was closed", e);
+        } else {
+          marker = new Failure(e);
+        }
+      } finally {
+        putMarker(marker);
+      }
+    }
+
+    /**
+     * Consumer waits for marker of every shard, so marker is put even if reader was interrupted.
+     */
+    private void putMarker(Object marker) {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            put(marker);
+            return;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    private boolean put(Object item) throws InterruptedException {
+      while (!buffer.offer(item, 100, TimeUnit.MILLISECONDS)) {
+        if (closed) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    protected RavenJObject fetchNext() {
+      if (failure != null) {
+        // results of other shards aren't returned after failure, so merged stream is never silently incomplete
+        throw propagate(failure);
+      }
+      while (finishedShards < shardIterators.size()) {
+        Object item;
+        try {
+          item = buffer.take();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        if (item == END_OF_SHARD_MARKER) {
+          finishedShards++;
+        } else if (item instanceof Failure) {
+          failure = ((Failure) item).exception;
+          throw propagate(failure);
+        } else {
+          return (RavenJObject) item;
+        }
+      }
+      return null;
+    }
+
+    private static RuntimeException propagate(Throwable e) {
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+      return e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+    }
+
+    @Override
+    protected void stop() {
+      // readers notice closed iterator within single buffer poll, or sooner when blocked read was aborted
+      buffer.clear();
+      try {
+        if (!readersFinished.await(READERS_STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          logger.warn("Shard stream readers didn't stop within " + READERS_STOP_TIMEOUT_MILLIS + "ms, closing shard streams anyway");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
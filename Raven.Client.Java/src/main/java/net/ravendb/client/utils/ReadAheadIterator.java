@@ -0,0 +1,173 @@
+package net.ravendb.client.utils;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.logging.ILog;
+import net.ravendb.abstractions.logging.LogManager;
+
+/**
+ * Iterator which materializes items of inner iterator on a background thread.
+ * At most readAheadSize items are buffered. Closing the iterator aborts the inner
+ * iterator (if abort action was provided) and stops the background thread.
+ */
+public class ReadAheadIterator<T> implements CloseableIterator<T> {
+
+  private static final ILog logger = LogManager.getCurrentClassLogger();
+
+  private final static Object END_OF_STREAM_MARKER = new Object();
+
+  /**
+   * Max time close waits for background thread, thread blocked in inner iterator which can't be aborted is left behind.
+   */
+  private final static long DECODER_STOP_TIMEOUT_MILLIS = 5000;
+
+  private final CloseableIterator<T> innerIterator;
+  private final CleanCloseable abortAction;
+  private final BlockingQueue<Object> buffer;
+  private final Thread decoderThread;
+  private volatile boolean closed;
+  private Object nextItem;
+
+  private static class Failure {
+    private final Throwable exception;
+
+    public Failure(Throwable exception) {
+      this.exception = exception;
+    }
+  }
+
+  public ReadAheadIterator(CloseableIterator<T> innerIterator, int readAheadSize, CleanCloseable abortAction) {
+    if (readAheadSize < 1) {
+      throw new IllegalArgumentException("Read ahead size must be greater than zero");
+    }
+    this.innerIterator = innerIterator;
+    this.abortAction = abortAction;
+    this.buffer = new ArrayBlockingQueue<>(readAheadSize);
+    this.decoderThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        readAhead();
+      }
+    }, "RavenDB stream read-ahead");
+    decoderThread.setDaemon(true);
+    decoderThread.start();
+  }
+
+  private void readAhead() {
+    Object marker = END_OF_STREAM_MARKER;
+    try {
+      while (!closed && innerIterator.hasNext()) {
+        if (!put(innerIterator.next())) {
+          return;
+        }
+      }
+    } catch (Throwable e) {
+      if (closed) {
+        logger.debugException("Read ahead stopped after iterator was closed", e);
+      } else {
+        marker = new Failure(e);
+      }
+    } finally {
+      putMarker(marker);
+    }
+  }
+
+  /**
+   * Consumer blocks until end or failure marker is received, so marker is put even if thread was interrupted.
+   */
+  private void putMarker(Object marker) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          put(marker);
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private boolean put(Object item) throws InterruptedException {
+    while (!buffer.offer(item, 100, TimeUnit.MILLISECONDS)) {
+      if (closed) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextItem == null) {
+      if (closed) {
+        return false;
+      }
+      try {
+        nextItem = buffer.take();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    if (nextItem instanceof Failure) {
+      Throwable exception = ((Failure) nextItem).exception;
+      if (exception instanceof Error) {
+        throw (Error) exception;
+      }
+      throw exception instanceof RuntimeException ? (RuntimeException) exception : new RuntimeException(exception);
+    }
+    return nextItem != END_OF_STREAM_MARKER;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T result = (T) nextItem;
+    nextItem = null;
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new IllegalStateException("Not implemented!");
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    if (abortAction != null && decoderThread.isAlive()) {
+      abortAction.close();
+    }
+
+    buffer.clear();
+    decoderThread.interrupt();
+    try {
+      decoderThread.join(DECODER_STOP_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (decoderThread.isAlive()) {
+      logger.warn("Read ahead thread didn't stop within " + DECODER_STOP_TIMEOUT_MILLIS + "ms, closing inner iterator anyway");
+    }
+
+    innerIterator.close();
+  }
+
+}
@@ -0,0 +1,64 @@
+package net.ravendb.client.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wait between retries of operation which waits for server state (ex. non stale index).
+ * First wait is as long as the fixed sleep used before, then it doubles up to max wait, so operations
+ * which stay pending for long poll the server less often. Optional timeout bounds the total time spent
+ * since backoff was created.
+ */
+public class RetryBackoff {
+
+  public static final long INITIAL_WAIT_MILLIS = 100;
+
+  public static final long MAX_WAIT_MILLIS = 1000;
+
+  private final long startNanos;
+  private final long timeoutMillis;
+  private long nextWaitMillis = INITIAL_WAIT_MILLIS;
+
+  /**
+   * @param timeoutMillis max total time in milliseconds, 0 means no limit
+   */
+  public RetryBackoff(long timeoutMillis) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("Timeout can't be negative");
+    }
+    this.startNanos = System.nanoTime();
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Time left until timeout, Long.MAX_VALUE if there is no timeout.
+   */
+  public long getRemainingMillis() {
+    if (timeoutMillis == 0) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(0, timeoutMillis - getElapsedMillis());
+  }
+
+  public boolean isExpired() {
+    return getRemainingMillis() == 0;
+  }
+
+  /**
+   * Time next call to {@link #waitBeforeRetry()} will wait, never longer than time left until timeout.
+   */
+  public long getNextWaitMillis() {
+    return Math.min(nextWaitMillis, getRemainingMillis());
+  }
+
+  public void waitBeforeRetry() throws InterruptedException {
+    long wait = getNextWaitMillis();
+    nextWaitMillis = Math.min(MAX_WAIT_MILLIS, nextWaitMillis * 2);
+    if (wait > 0) {
+      Thread.sleep(wait);
+    }
+  }
+}
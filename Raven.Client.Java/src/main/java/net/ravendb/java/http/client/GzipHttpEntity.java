@@ -3,7 +3,6 @@ package net.ravendb.java.http.client;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -79,9 +78,13 @@ public class GzipHttpEntity implements HttpEntity {
    */
   @Override
   public void writeTo(OutputStream outstream) throws IOException {
-    GZIPOutputStream gzipOs = new GZIPOutputStream(outstream);
-    inner.writeTo(gzipOs);
-    gzipOs.finish();
+    PooledGzipOutputStream gzipOs = new PooledGzipOutputStream(outstream);
+    try {
+      inner.writeTo(gzipOs);
+      gzipOs.finish();
+    } finally {
+      gzipOs.release();
+    }
   }
 
   /**
@@ -0,0 +1,153 @@
+package net.ravendb.java.http.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Gzip input stream compatible with {@link java.util.zip.GZIPInputStream}, which borrows its inflater
+ * from {@link ZlibPool}. Inflater is returned to the pool when end of compressed data is reached or
+ * stream is closed. Only single gzip member is read - this is what server sends.
+ */
+public class PooledGzipInputStream extends InflaterInputStream {
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private static final int DEFAULT_BUFFER_SIZE = 2048;
+
+  private final CRC32 crc = new CRC32();
+  private boolean eos;
+  private boolean released;
+
+  /**
+   * @throws EOFException if stream is empty
+   */
+  public PooledGzipInputStream(InputStream in) throws IOException {
+    this(in, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @throws EOFException if stream is empty
+   */
+  public PooledGzipInputStream(InputStream in, int size) throws IOException {
+    super(in, ZlibPool.borrowInflater(), size);
+    try {
+      readHeader(in);
+    } catch (IOException e) {
+      release();
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (released) {
+      if (eos) {
+        return -1;
+      }
+      throw new IOException("Stream closed");
+    }
+    int n = super.read(b, off, len);
+    if (n == -1) {
+      try {
+        readTrailer();
+      } finally {
+        eos = true;
+        release();
+      }
+    } else {
+      crc.update(b, off, n);
+    }
+    return n;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return released ? 0 : super.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    release();
+    super.close();
+  }
+
+  private void release() {
+    if (!released) {
+      released = true;
+      ZlibPool.releaseInflater(inf);
+    }
+  }
+
+  private void readHeader(InputStream stream) throws IOException {
+    if (readUShort(stream) != GZIP_MAGIC) {
+      throw new ZipException("Not in GZIP format");
+    }
+    if (readUByte(stream) != 8) {
+      throw new ZipException("Unsupported compression method");
+    }
+    int flags = readUByte(stream);
+    // modification time, extra flags and operating system
+    skipBytes(stream, 6);
+    if ((flags & FEXTRA) == FEXTRA) {
+      skipBytes(stream, readUShort(stream));
+    }
+    if ((flags & FNAME) == FNAME) {
+      while (readUByte(stream) != 0) {
+        // skip file name
+      }
+    }
+    if ((flags & FCOMMENT) == FCOMMENT) {
+      while (readUByte(stream) != 0) {
+        // skip comment
+      }
+    }
+    if ((flags & FHCRC) == FHCRC) {
+      skipBytes(stream, 2);
+    }
+  }
+
+  private void readTrailer() throws IOException {
+    int remaining = inf.getRemaining();
+    InputStream stream = (remaining > 0) ? new SequenceInputStream(new ByteArrayInputStream(buf, len - remaining, remaining), in) : in;
+    long expectedCrc = readUInt(stream);
+    long expectedSize = readUInt(stream);
+    if (expectedCrc != crc.getValue() || expectedSize != (inf.getBytesWritten() & 0xffffffffL)) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+  }
+
+  private static long readUInt(InputStream stream) throws IOException {
+    long low = readUShort(stream);
+    return ((long) readUShort(stream) << 16) | low;
+  }
+
+  private static int readUShort(InputStream stream) throws IOException {
+    int low = readUByte(stream);
+    return (readUByte(stream) << 8) | low;
+  }
+
+  private static int readUByte(InputStream stream) throws IOException {
+    int b = stream.read();
+    if (b == -1) {
+      throw new EOFException();
+    }
+    return b;
+  }
+
+  private static void skipBytes(InputStream stream, int n) throws IOException {
+    for (int i = 0; i < n; i++) {
+      readUByte(stream);
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+package net.ravendb.java.http.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Gzip output stream compatible with {@link java.util.zip.GZIPOutputStream}, which borrows its deflater
+ * from {@link ZlibPool}. Deflater is returned to the pool by {@link #finish()} or {@link #release()}, so stream
+ * can't be written afterwards. Writers which can fail before finish should call release in finally block.
+ */
+public class PooledGzipOutputStream extends DeflaterOutputStream {
+
+  private static final byte[] HEADER = new byte[] { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final CRC32 crc = new CRC32();
+  private boolean finished;
+
+  public PooledGzipOutputStream(OutputStream out) throws IOException {
+    this(out, DEFAULT_BUFFER_SIZE);
+  }
+
+  public PooledGzipOutputStream(OutputStream out, int size) throws IOException {
+    super(out, ZlibPool.borrowDeflater(), size);
+    out.write(HEADER);
+  }
+
+  @Override
+  public synchronized void write(byte[] b, int off, int len) throws IOException {
+    if (finished) {
+      throw new IOException("write beyond end of stream");
+    }
+    super.write(b, off, len);
+    crc.update(b, off, len);
+  }
+
+  /**
+   * Writes remaining compressed data and gzip trailer without closing underlying stream.
+   */
+  @Override
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    try {
+      super.finish();
+      long size = def.getBytesRead();
+      byte[] trailer = new byte[8];
+      writeInt((int) crc.getValue(), trailer, 0);
+      writeInt((int) size, trailer, 4);
+      out.write(trailer);
+    } finally {
+      ZlibPool.releaseDeflater(def);
+    }
+  }
+
+  /**
+   * Returns deflater to the pool without writing rest of compressed data. Does nothing after stream was finished.
+   */
+  public void release() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    ZlibPool.releaseDeflater(def);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private static void writeInt(int value, byte[] buffer, int offset) {
+    buffer[offset] = (byte) value;
+    buffer[offset + 1] = (byte) (value >> 8);
+    buffer[offset + 2] = (byte) (value >> 16);
+    buffer[offset + 3] = (byte) (value >> 24);
+  }
+
+}
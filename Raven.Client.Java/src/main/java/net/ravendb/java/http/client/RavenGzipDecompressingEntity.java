@@ -7,7 +7,6 @@ import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.util.Args;
 
 import java.io.*;
-import java.util.zip.GZIPInputStream;
 
 public class RavenGzipDecompressingEntity extends HttpEntityWrapper {
 
@@ -23,7 +22,7 @@ public class RavenGzipDecompressingEntity extends HttpEntityWrapper {
 
     InputStream decorate(final InputStream wrapped) throws IOException {
         try {
-            return new GZIPInputStream(wrapped);
+            return new PooledGzipInputStream(wrapped);
         } catch (EOFException e) {
             // WORKAROUND: we want to handle .net GZIP where empty stream is gziped as empty stream
             // see: http://stackoverflow.com/questions/24024886/using-gzipstream-to-compress-empty-input-results-in-an-invalid-gz-file-in-c-shar
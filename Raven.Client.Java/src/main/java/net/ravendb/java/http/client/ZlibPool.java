@@ -0,0 +1,56 @@
+package net.ravendb.java.http.client;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Deflater} and {@link Inflater} instances used by gzip streams.
+ *
+ * Each instance holds native zlib memory which is released only by end() or finalization, so creating
+ * them for every request is expensive. Pooled instances are raw (nowrap) - gzip header and trailer
+ * are handled by {@link PooledGzipOutputStream} and {@link PooledGzipInputStream}.
+ */
+public final class ZlibPool {
+
+  private static final int MAX_POOLED = 16;
+
+  private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(MAX_POOLED);
+  private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(MAX_POOLED);
+
+  private ZlibPool() {
+    // empty by design
+  }
+
+  public static Deflater borrowDeflater() {
+    Deflater deflater = DEFLATERS.poll();
+    return (deflater != null) ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+  }
+
+  /**
+   * Returns deflater to the pool. Deflater can't be used by caller afterwards.
+   */
+  public static void releaseDeflater(Deflater deflater) {
+    deflater.reset();
+    if (!DEFLATERS.offer(deflater)) {
+      deflater.end();
+    }
+  }
+
+  public static Inflater borrowInflater() {
+    Inflater inflater = INFLATERS.poll();
+    return (inflater != null) ? inflater : new Inflater(true);
+  }
+
+  /**
+   * Returns inflater to the pool. Inflater can't be used by caller afterwards.
+   */
+  public static void releaseInflater(Inflater inflater) {
+    inflater.reset();
+    if (!INFLATERS.offer(inflater)) {
+      inflater.end();
+    }
+  }
+
+}
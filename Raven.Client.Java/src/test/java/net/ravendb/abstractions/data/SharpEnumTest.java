@@ -1,6 +1,11 @@
 package net.ravendb.abstractions.data;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.IOException;
+import java.util.Arrays;
+
 import net.ravendb.abstractions.indexing.FieldIndexing;
 import net.ravendb.abstractions.indexing.SortOptions;
 import net.ravendb.client.document.DocumentConvention;
@@ -8,6 +13,11 @@ import net.ravendb.client.document.FailoverBehavior;
 import net.ravendb.client.document.FailoverBehaviorSet;
 import net.ravendb.client.document.JsonSerializer;
 
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.Version;
+import org.codehaus.jackson.map.SerializerProvider;
+import org.codehaus.jackson.map.module.SimpleModule;
+import org.codehaus.jackson.map.ser.std.SerializerBase;
 import org.junit.Test;
 
 
@@ -42,6 +52,53 @@ public class SharpEnumTest {
 
   }
 
+  @Test
+  public void conventionsDontShareEnumSettings() {
+    DocumentConvention asIntegers = new DocumentConvention();
+    asIntegers.setSaveEnumsAsIntegers(true);
+    DocumentConvention asStrings = new DocumentConvention();
+
+    JsonSerializer integersSerializer = asIntegers.createSerializer();
+    JsonSerializer stringsSerializer = asStrings.createSerializer();
+    integersSerializer.warmUp(Arrays.<Class<?>> asList(SortOptions.class));
+
+    assertEquals("7", integersSerializer.serializeAsString(SortOptions.DOUBLE));
+    assertEquals("\"Double\"", stringsSerializer.serializeAsString(SortOptions.DOUBLE));
+    assertEquals("7", asIntegers.createSerializer().serializeAsString(SortOptions.DOUBLE));
+
+    asIntegers.setSaveEnumsAsIntegers(false);
+    assertEquals("\"Double\"", integersSerializer.serializeAsString(SortOptions.DOUBLE));
+  }
+
+  public static class Money {
+    private final int cents;
+
+    public Money(int cents) {
+      this.cents = cents;
+    }
+
+    public int getCents() {
+      return cents;
+    }
+  }
+
+  @Test
+  public void clonedConventionKeepsRegisteredModules() {
+    SimpleModule moneyModule = new SimpleModule("Money", new Version(1, 0, 0, null));
+    moneyModule.addSerializer(Money.class, new SerializerBase<Money>(Money.class) {
+      @Override
+      public void serialize(Money value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeString(value.getCents() / 100 + "." + value.getCents() % 100);
+      }
+    });
+    DocumentConvention convention = new DocumentConvention();
+    convention.createSerializer().registerModule(moneyModule);
+
+    DocumentConvention cloned = convention.clone();
+    assertEquals("\"12.34\"", cloned.createSerializer().serializeAsString(new Money(1234)));
+    assertNotSame(convention.createSerializer(), cloned.createSerializer());
+  }
+
   @SuppressWarnings("static-method")
   private void testDeserialization(JsonSerializer mapper) {
     assertEquals(SortOptions.NONE, mapper.deserialize("0", SortOptions.class));
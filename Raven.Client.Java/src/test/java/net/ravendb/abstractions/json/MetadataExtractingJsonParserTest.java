@@ -0,0 +1,143 @@
+package net.ravendb.abstractions.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ravendb.abstractions.extensions.JsonExtensions;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+
+public class MetadataExtractingJsonParserTest {
+
+  public static class Person {
+    private String id;
+    private String name;
+    private Address address;
+    private List<String> tags;
+
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+    public Address getAddress() {
+      return address;
+    }
+    public void setAddress(Address address) {
+      this.address = address;
+    }
+    public List<String> getTags() {
+      return tags;
+    }
+    public void setTags(List<String> tags) {
+      this.tags = tags;
+    }
+  }
+
+  public static class Address {
+    private String city;
+
+    public String getCity() {
+      return city;
+    }
+    public void setCity(String city) {
+      this.city = city;
+    }
+  }
+
+  private static String createDocument(int i) {
+    return "{\"Name\":\"John" + i + "\",\"@metadata\":{\"Raven-Entity-Name\":\"People\",\"Last-Modified\":\"2015-01-01T00:00:00.0000000Z\","
+      + "\"@metadata\":{\"Nested\":true},\"@id\":\"people/" + i + "\",\"@etag\":\"01000000-0000-0001-0000-00000000000" + (i % 10) + "\"},"
+      + "\"Address\":{\"City\":\"Torun\",\"@metadata\":\"not a document metadata\"},\"Tags\":[\"a\",\"b\"]}";
+  }
+
+  private static String createStream(int count) {
+    StringBuilder sb = new StringBuilder("{\"Results\":[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append(createDocument(i));
+    }
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  @Test
+  public void canBindEntityAndReadMetadata() throws IOException {
+    ObjectMapper mapper = JsonExtensions.createDefaultJsonSerializer();
+
+    JsonParser parser = new JsonFactory().createJsonParser(createStream(2));
+    parser.nextToken(); // start object
+    parser.nextToken(); // Results
+    parser.nextToken(); // start array
+
+    for (int i = 0; i < 2; i++) {
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      MetadataExtractingJsonParser documentParser = new MetadataExtractingJsonParser(parser);
+      Person person = mapper.readValue(documentParser, Person.class);
+
+      assertEquals("people/" + i, documentParser.getDocumentId());
+      assertEquals("01000000-0000-0001-0000-00000000000" + i, documentParser.getDocumentEtag());
+      assertEquals("John" + i, person.getName());
+      assertEquals("Torun", person.getAddress().getCity());
+      assertEquals(2, person.getTags().size());
+      assertNull(person.getId());
+    }
+
+    assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+  }
+
+  @Test
+  public void bindsSameEntityAsBindingThroughRavenJObject() throws IOException {
+    ObjectMapper mapper = JsonExtensions.createDefaultJsonSerializer();
+    int count = 20;
+    String stream = createStream(count);
+
+    List<Person> viaRavenJObject = new ArrayList<>(count);
+    JsonParser parser = new JsonFactory().createJsonParser(stream);
+    parser.nextToken();
+    parser.nextToken();
+    parser.nextToken();
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      RavenJObject jsonDoc = RavenJObject.load(parser);
+      jsonDoc.remove("@metadata");
+      viaRavenJObject.add(mapper.readValue(jsonDoc.toString(), Person.class));
+    }
+
+    List<Person> direct = new ArrayList<>(count);
+    parser = new JsonFactory().createJsonParser(stream);
+    parser.nextToken();
+    parser.nextToken();
+    parser.nextToken();
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      direct.add(mapper.readValue(new MetadataExtractingJsonParser(parser), Person.class));
+    }
+
+    assertEquals(count, viaRavenJObject.size());
+    assertEquals(count, direct.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(viaRavenJObject.get(i).getName(), direct.get(i).getName());
+      assertEquals(viaRavenJObject.get(i).getAddress().getCity(), direct.get(i).getAddress().getCity());
+      assertEquals(viaRavenJObject.get(i).getTags(), direct.get(i).getTags());
+    }
+  }
+
+}
@@ -16,6 +16,7 @@ import java.util.Set;
 
 import net.ravendb.abstractions.json.linq.DictionaryWithParentSnapshot;
 import net.ravendb.abstractions.json.linq.JTokenType;
+import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.json.linq.RavenJToken;
 import net.ravendb.abstractions.json.linq.RavenJValue;
 
@@ -183,4 +184,70 @@ public class DictionaryWithParentSnapshotTest {
     assertEquals(expectedKeys, keys);
 
   }
+  @SuppressWarnings("static-access")
+  @Test
+  public void snapshotDoesNotShareModifications() {
+    DictionaryWithParentSnapshot map = new DictionaryWithParentSnapshot(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 0; i < 20; i++) {
+      map.put("p" + i, RavenJValue.parse(String.valueOf(i)));
+    }
+    map.ensureSnapshot();
+
+    DictionaryWithParentSnapshot snapshot = map.createSnapshot();
+    snapshot.put("P1", RavenJValue.parse("100"));
+    snapshot.remove("p2");
+    snapshot.put("new", RavenJValue.parse("200"));
+
+    assertEquals(20, map.size());
+    assertEquals(20, snapshot.size());
+    assertEquals(new RavenJValue(1), map.get("p1"));
+    assertEquals(new RavenJValue(100), snapshot.get("p1"));
+    assertTrue(map.containsKey("p2"));
+    assertFalse(snapshot.containsKey("p2"));
+    assertFalse(map.containsKey("new"));
+
+    int iterated = 0;
+    for (Entry<String, RavenJToken> entry : snapshot) {
+      assertEquals(snapshot.get(entry.getKey()), entry.getValue());
+      iterated++;
+    }
+    assertEquals(20, iterated);
+
+    Map<String, RavenJToken> localChanges = snapshot.getLocalChanges();
+    assertEquals(3, localChanges.size());
+    assertTrue(localChanges.containsKey("p2"));
+
+    assertTrue("inherited values can't be modified", snapshot.get("p3").isSnapshot());
+  }
+
+  @Test
+  public void deepSnapshotChainSeesLatestValues() {
+    int properties = 20;
+    int depth = 10;
+
+    RavenJObject document = new RavenJObject();
+    for (int i = 0; i < properties; i++) {
+      document.add("Property" + i, new RavenJValue("value" + i));
+    }
+    document.add("Nested", RavenJObject.parse("{\"Street\":\"Main\",\"Numbers\":[1,2,3]}"));
+    RavenJObject root = document;
+
+    for (int i = 0; i < depth; i++) {
+      document.ensureCannotBeChangeAndEnableShapshotting();
+      document = document.createSnapshot();
+      document.set("Property" + i, new RavenJValue("changed" + i));
+    }
+
+    for (int i = 0; i < properties; i++) {
+      String expected = i < depth ? "changed" + i : "value" + i;
+      assertEquals(expected, document.value(String.class, "Property" + i));
+      assertEquals("value" + i, root.value(String.class, "Property" + i));
+    }
+    assertEquals(properties + 1, document.getKeys().size());
+
+    RavenJObject clone = document.cloneToken();
+    clone.set("Property0", new RavenJValue("x"));
+    assertEquals("changed0", document.value(String.class, "Property0"));
+    assertEquals("Main", clone.value(RavenJObject.class, "Nested").value(String.class, "Street"));
+  }
 }
@@ -1,5 +1,6 @@
 package net.ravendb.client;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import net.ravendb.abstractions.basic.CloseableIterator;
 import net.ravendb.abstractions.data.StreamResult;
@@ -29,4 +30,37 @@ public class StreamDocumentTest extends RemoteClientTest  {
       }
     }
   }
+
+  @Test
+  public void streamingWithReadAheadTest() {
+    try (IDocumentStore store = new DocumentStore(getDefaultUrl(), getDefaultDb()).initialize()) {
+      store.getConventions().setStreamReadAheadSize(64);
+      try (IDocumentSession session = store.openSession()) {
+        for (int i = 0 ; i < 1000; i++) {
+          User user = new User();
+          user.setName("ayende");
+          session.store(user);
+        }
+        session.saveChanges();
+
+        int count = 0;
+        try (CloseableIterator<StreamResult<User>> stream = session.advanced().stream(User.class)) {
+          while (stream.hasNext()) {
+            StreamResult<User> streamResult = stream.next();
+            assertNotNull(streamResult.getDocument());
+            assertNotNull(streamResult.getKey());
+            count++;
+          }
+        }
+        assertEquals(1000, count);
+
+        CloseableIterator<StreamResult<User>> stream = session.advanced().stream(User.class);
+        for (int i =0 ;i < 10;i++) {
+          StreamResult<User> streamResult = stream.next();
+          assertNotNull(streamResult.getDocument());
+        }
+        stream.close();
+      }
+    }
+  }
 }
@@ -35,7 +35,9 @@ import net.ravendb.abstractions.json.linq.RavenJArray;
 import net.ravendb.abstractions.json.linq.RavenJObject;
 import net.ravendb.abstractions.json.linq.RavenJToken;
 import net.ravendb.abstractions.json.linq.RavenJValue;
+import net.ravendb.abstractions.smuggler.ExportPartition;
 import net.ravendb.client.RavenDBAwareTests;
+import net.ravendb.client.document.ParallelExportOperation;
 import net.ravendb.client.indexes.AbstractIndexCreationTask;
 import net.ravendb.client.indexes.IndexDefinitionBuilder;
 import net.ravendb.client.indexes.RavenDocumentsByEntityName;
@@ -198,6 +200,46 @@ public class IndexAndQueryTest extends RavenDBAwareTests {
     }
   }
 
+  @Test
+  public void testParallelExport() {
+    try {
+      createDb();
+      IDatabaseCommands dbCommands = serverClient.forDatabase(getDbName());
+      for (int i = 0; i < 100; i++) {
+        RavenJObject document = new RavenJObject();
+        document.add("Name", new RavenJValue("Company " + i));
+        dbCommands.put("companies/" + i, null, document, new RavenJObject());
+      }
+
+      List<ExportPartition> partitions = ParallelExportOperation.partitionByEtag(dbCommands, 4);
+      assertTrue(partitions.size() > 1);
+
+      ParallelExportOperation exportOperation = new ParallelExportOperation(dbCommands, partitions);
+      Set<String> keys = new HashSet<>();
+      try (CloseableIterator<RavenJObject> iterator = exportOperation.stream()) {
+        while (iterator.hasNext()) {
+          RavenJObject document = iterator.next();
+          assertTrue(keys.add(document.value(RavenJObject.class, Constants.METADATA).value(String.class, "@id")));
+        }
+      }
+
+      long exported = 0;
+      for (ExportPartition partition : partitions) {
+        assertTrue(partition.isCompleted());
+        exported += partition.getExportedDocuments();
+      }
+      assertEquals(keys.size(), exported);
+      assertTrue(keys.containsAll(Arrays.asList("companies/0", "companies/50", "companies/99")));
+
+      // resume after all partitions were completed
+      try (CloseableIterator<RavenJObject> iterator = exportOperation.stream()) {
+        assertFalse(iterator.hasNext());
+      }
+    } finally {
+      deleteDb();
+    }
+  }
+
   private static class CompaniesMapReduce extends AbstractIndexCreationTask {
 
     public CompaniesMapReduce() {
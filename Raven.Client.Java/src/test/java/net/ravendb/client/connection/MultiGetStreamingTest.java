@@ -0,0 +1,190 @@
+package net.ravendb.client.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.closure.Action2;
+import net.ravendb.abstractions.data.Constants;
+import net.ravendb.abstractions.data.Etag;
+import net.ravendb.abstractions.data.GetRequest;
+import net.ravendb.abstractions.data.GetResponse;
+import net.ravendb.abstractions.data.JsonDocument;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.client.document.DocumentStore;
+import net.ravendb.client.document.FailoverBehavior;
+import net.ravendb.client.document.FailoverBehaviorSet;
+
+import org.junit.Test;
+
+
+public class MultiGetStreamingTest {
+
+  /**
+   * Server which sends first multi get response and holds the second one until the first is handled by client.
+   * Failing server resets connection instead of sending the second response.
+   */
+  private static class StubServer implements Runnable {
+    private final ServerSocket serverSocket;
+    private final boolean failing;
+    private final CountDownLatch firstResponseHandled = new CountDownLatch(1);
+    private volatile boolean firstHandledBeforeSecondSent;
+
+    public StubServer() throws IOException {
+      this(false);
+    }
+
+    public StubServer(boolean failing) throws IOException {
+      this.failing = failing;
+      serverSocket = new ServerSocket(0, 50, InetAddress.getByName("localhost"));
+      Thread acceptor = new Thread(this, "Stub server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    public String getUrl() {
+      return "http://localhost:" + serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void run() {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept()) {
+          socket.setTcpNoDelay(true);
+          handle(socket);
+        } catch (IOException | InterruptedException e) {
+          // connection closed
+        }
+      }
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int b;
+      while ((b = input.read()) != -1 && b != '\n') {
+        if (b != '\r') {
+          line.write(b);
+        }
+      }
+      return line.toString("UTF-8");
+    }
+
+    private void handle(Socket socket) throws IOException, InterruptedException {
+      InputStream input = socket.getInputStream();
+      String path = readLine(input).split(" ")[1];
+      boolean chunked = false;
+      String line;
+      while (!(line = readLine(input)).isEmpty()) {
+        chunked |= line.toLowerCase().startsWith("transfer-encoding:") && line.toLowerCase().contains("chunked");
+      }
+      if (chunked) {
+        // request body is not used
+        int chunkSize;
+        while ((chunkSize = Integer.parseInt(readLine(input).trim(), 16)) > 0) {
+          for (int i = 0; i < chunkSize; i++) {
+            input.read();
+          }
+          readLine(input);
+        }
+        readLine(input);
+      }
+      OutputStream stream = socket.getOutputStream();
+      if (path.startsWith("/replication/topology") && failing) {
+        // client falls back to locally cached replication information
+        stream.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes("UTF-8"));
+        return;
+      }
+      if (!path.contains("/multi_get")) {
+        stream.write("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes("UTF-8"));
+        return;
+      }
+      // response is sent without length and ends when connection is closed
+      stream.write("HTTP/1.1 200 OK\r\nContent-Type: application/json; charset=utf-8\r\nConnection: close\r\n\r\n".getBytes("UTF-8"));
+      stream.write("[{\"Result\":{\"Name\":\"first\"},\"Headers\":{},\"Status\":200}".getBytes("UTF-8"));
+      stream.flush();
+      firstHandledBeforeSecondSent = firstResponseHandled.await(5, TimeUnit.SECONDS);
+      if (failing) {
+        // connection is reset when socket is closed
+        socket.setSoLinger(true, 0);
+        return;
+      }
+      stream.write(",{\"Result\":{\"Name\":\"second\"},\"Headers\":{},\"Status\":200}]".getBytes("UTF-8"));
+      stream.flush();
+      socket.shutdownOutput();
+    }
+
+    public void stop() throws IOException {
+      serverSocket.close();
+    }
+  }
+
+  private static GetRequest request(String url) {
+    GetRequest request = new GetRequest();
+    request.setUrl(url);
+    return request;
+  }
+
+  @Test
+  public void responsesAreHandledWhileReading() throws Exception {
+    final StubServer server = new StubServer();
+    try (DocumentStore store = new DocumentStore(server.getUrl())) {
+      store.getConventions().setFailoverBehavior(new FailoverBehaviorSet(FailoverBehavior.FAIL_IMMEDIATELY));
+      store.initialize();
+
+      List<String> handled = multiGet(store, server);
+
+      assertTrue(server.firstHandledBeforeSecondSent);
+      assertEquals("[0:first, 1:second]", handled.toString());
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void responsesAreHandledOnceWhenRequestFailsOver() throws Exception {
+    StubServer replica = new StubServer();
+    StubServer primary = new StubServer(true);
+    String serverHash = ServerHash.getServerHash(primary.getUrl());
+    RavenJObject destinations = RavenJObject.parse("{\"Destinations\":[{\"Url\":\"" + replica.getUrl() + "\"}]}");
+    ReplicationInformerLocalCache.trySavingReplicationInformationToLocalCache(serverHash,
+      new JsonDocument(destinations, new RavenJObject(), Constants.RAVEN_REPLICATION_DESTINATIONS, false, Etag.empty(), new Date()));
+    try (DocumentStore store = new DocumentStore(primary.getUrl())) {
+      store.initialize();
+
+      replica.firstResponseHandled.countDown();
+      List<String> handled = multiGet(store, primary);
+
+      assertEquals("[0:first, 1:second]", handled.toString());
+    } finally {
+      ReplicationInformerLocalCache.clearReplicationInformationFromLocalCache(serverHash);
+      primary.stop();
+      replica.stop();
+    }
+  }
+
+  private static List<String> multiGet(DocumentStore store, final StubServer server) {
+    final List<String> handled = new ArrayList<>();
+    store.getDatabaseCommands().multiGet(new GetRequest[] { request("/docs/1"), request("/docs/2") },
+      new Action2<Integer, GetResponse>() {
+      @Override
+      public void apply(Integer index, GetResponse response) {
+        handled.add(index + ":" + response.getResult().value(String.class, "Name"));
+        server.firstResponseHandled.countDown();
+      }
+    });
+    return handled;
+  }
+
+}
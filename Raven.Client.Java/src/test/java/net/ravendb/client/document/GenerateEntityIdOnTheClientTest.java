@@ -0,0 +1,139 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ravendb.abstractions.basic.Reference;
+import net.ravendb.abstractions.closure.Function1;
+import net.ravendb.client.delegates.IdentityPropertyFinder;
+
+import org.junit.Test;
+
+
+public class GenerateEntityIdOnTheClientTest {
+
+  public static class User {
+    private String id;
+    private String name;
+
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  public static class Order {
+    private long id;
+
+    public long getId() {
+      return id;
+    }
+    public void setId(long id) {
+      this.id = id;
+    }
+  }
+
+  public static class Company {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  private static GenerateEntityIdOnTheClient createGenerator(final DocumentConvention convention) {
+    return new GenerateEntityIdOnTheClient(convention, new Function1<Object, String>() {
+      private int counter;
+      @Override
+      public String apply(Object input) {
+        return convention.getTypeTagName(input.getClass()).toLowerCase() + "/" + (++counter);
+      }
+    });
+  }
+
+  @Test
+  public void canReadAndWriteIdentity() {
+    DocumentConvention convention = new DocumentConvention();
+    GenerateEntityIdOnTheClient generator = createGenerator(convention);
+
+    User user = new User();
+    assertEquals("users/1", generator.generateDocumentKeyForStorage(user));
+    assertEquals("users/1", user.getId());
+
+    Reference<String> idHolder = new Reference<>();
+    assertTrue(generator.tryGetIdFromInstance(user, idHolder));
+    assertEquals("users/1", idHolder.value);
+
+    Order order = new Order();
+    generator.trySetIdentity(order, "orders/42");
+    assertEquals(42L, order.getId());
+    generator.trySetIdentity(order, "orders/43");
+    assertEquals(43L, order.getId());
+    idHolder = new Reference<>();
+    assertTrue(generator.tryGetIdFromInstance(order, idHolder));
+    assertEquals("orders/43", idHolder.value);
+
+    Company company = new Company();
+    generator.trySetIdentity(company, "companies/1");
+    idHolder = new Reference<>();
+    assertFalse(generator.tryGetIdFromInstance(company, idHolder));
+    assertNull(idHolder.value);
+    assertNull(convention.getIdentityProperty(Company.class));
+    assertEquals("id", convention.getIdentityProperty(User.class).getName());
+  }
+
+  @Test
+  public void identityAccessorIsResolvedOncePerClass() {
+    DocumentConvention convention = new DocumentConvention();
+    final AtomicInteger lookups = new AtomicInteger();
+    convention.setFindIdentityProperty(new IdentityPropertyFinder() {
+      @SuppressWarnings("boxing")
+      @Override
+      public Boolean find(Field field) {
+        lookups.incrementAndGet();
+        return "id".equals(field.getName());
+      }
+    });
+
+    IdentityPropertyAccessor accessor = convention.getIdentityPropertyAccessor(User.class);
+    int lookupsAfterFirstCall = lookups.get();
+    assertTrue(lookupsAfterFirstCall > 0);
+
+    GenerateEntityIdOnTheClient generator = createGenerator(convention);
+    for (int i = 0; i < 100; i++) {
+      User user = new User();
+      generator.trySetIdentity(user, "users/" + i);
+      assertEquals("users/" + i, user.getId());
+    }
+    assertSame(accessor, convention.getIdentityPropertyAccessor(User.class));
+    assertEquals(lookupsAfterFirstCall, lookups.get());
+
+    // replacing the finder drops cached accessors
+    convention.setFindIdentityProperty(new IdentityPropertyFinder() {
+      @SuppressWarnings("boxing")
+      @Override
+      public Boolean find(Field field) {
+        return "name".equals(field.getName());
+      }
+    });
+    assertEquals("name", convention.getIdentityProperty(User.class).getName());
+  }
+
+}
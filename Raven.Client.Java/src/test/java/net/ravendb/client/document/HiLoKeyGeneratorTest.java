@@ -0,0 +1,181 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.data.MultiLoadResult;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+import net.ravendb.client.connection.IDatabaseCommands;
+
+import org.junit.Test;
+
+
+public class HiLoKeyGeneratorTest {
+
+  /**
+   * Keeps HiLo document in memory, each request takes given time.
+   */
+  private static class HiLoServer implements InvocationHandler {
+    private final long latencyMillis;
+    private final AtomicInteger puts = new AtomicInteger();
+    private Long max;
+
+    public HiLoServer(long latencyMillis) {
+      this.latencyMillis = latencyMillis;
+    }
+
+    public IDatabaseCommands commands() {
+      return (IDatabaseCommands) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IDatabaseCommands.class }, this);
+    }
+
+    @SuppressWarnings("boxing")
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "forceReadFromMaster":
+          return new CleanCloseable() {
+            @Override
+            public void close() {
+              // empty
+            }
+          };
+        case "get":
+          Thread.sleep(latencyMillis);
+          MultiLoadResult result = new MultiLoadResult();
+          List<RavenJObject> results = new ArrayList<>();
+          if (max != null) {
+            RavenJObject document = new RavenJObject();
+            document.add("Max", new RavenJValue(max));
+            RavenJObject metadata = new RavenJObject();
+            metadata.add("@id", new RavenJValue(((String[]) args[0])[0]));
+            document.add("@metadata", metadata);
+            results.add(document);
+          } else {
+            results.add(null);
+          }
+          results.add(null);
+          result.setResults(results);
+          return result;
+        case "put":
+          Thread.sleep(latencyMillis);
+          max = ((RavenJObject) args[2]).value(Long.class, "Max");
+          puts.incrementAndGet();
+          return null;
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    }
+  }
+
+  @Test
+  public void generatesConsecutiveIdsWithPrefetching() {
+    HiLoServer server = new HiLoServer(0);
+    IDatabaseCommands commands = server.commands();
+    HiLoKeyGenerator generator = new HiLoKeyGenerator("users", 4);
+    generator.setPrefetchThreshold(0.5);
+
+    for (int i = 1; i <= 100; i++) {
+      assertEquals(i, generator.nextId(commands));
+    }
+  }
+
+  @Test
+  public void nextRangeIsFetchedBeforeCurrentIsUsedUp() throws InterruptedException {
+    HiLoServer server = new HiLoServer(0);
+    IDatabaseCommands commands = server.commands();
+    HiLoKeyGenerator generator = new HiLoKeyGenerator("users", 10);
+    generator.setDisableCapacityChanges(true);
+    generator.setPrefetchThreshold(0.3);
+
+    for (int i = 0; i < 6; i++) {
+      generator.nextId(commands);
+    }
+    assertEquals(1, server.puts.get());
+
+    // 3 ids left
+    generator.nextId(commands);
+    for (int i = 0; i < 100 && server.puts.get() < 2; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, server.puts.get());
+
+    for (int i = 8; i <= 12; i++) {
+      assertEquals(i, generator.nextId(commands));
+    }
+    assertEquals(2, server.puts.get());
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void concurrentIdsAreUnique() throws Exception {
+    HiLoServer server = new HiLoServer(2);
+    final IDatabaseCommands commands = server.commands();
+    final HiLoKeyGenerator generator = new HiLoKeyGenerator("users", 8);
+    generator.setPrefetchThreshold(0.25);
+
+    final ConcurrentHashMap<Long, Boolean> ids = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int i = 0; i < 500; i++) {
+              assertTrue(ids.put(generator.nextId(commands), Boolean.TRUE) == null);
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(4000, ids.size());
+  }
+
+  @Test
+  public void capacityFollowsConsumptionRate() {
+    HiLoServer server = new HiLoServer(0);
+    IDatabaseCommands commands = server.commands();
+    HiLoKeyGenerator generator = new HiLoKeyGenerator("users", 32);
+
+    for (int i = 0; i < 5000; i++) {
+      generator.nextId(commands);
+    }
+    assertTrue(generator.capacity > 32);
+    assertTrue("Range should be requested only few times, but was " + server.puts.get(), server.puts.get() < 10);
+  }
+
+  @Test
+  public void capacityIsNotChangedWhenDisabled() {
+    HiLoServer server = new HiLoServer(0);
+    IDatabaseCommands commands = server.commands();
+    HiLoKeyGenerator generator = new HiLoKeyGenerator("users", 32);
+    generator.setDisableCapacityChanges(true);
+
+    for (int i = 0; i < 320; i++) {
+      generator.nextId(commands);
+    }
+    assertEquals(32, generator.capacity);
+    assertEquals(10, server.puts.get());
+  }
+
+}
@@ -0,0 +1,125 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import net.ravendb.client.IDocumentSession;
+
+import org.junit.Test;
+
+
+public class LoadStartingWithTest {
+
+  /**
+   * Server which returns two orders for every starts with request.
+   */
+  private static class StubServer implements Runnable {
+    private final ServerSocket serverSocket;
+
+    public StubServer() throws IOException {
+      serverSocket = new ServerSocket(0, 50, InetAddress.getByName("localhost"));
+      Thread acceptor = new Thread(this, "Stub server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    public String getUrl() {
+      return "http://localhost:" + serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void run() {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept()) {
+          handle(socket);
+        } catch (IOException e) {
+          // connection closed
+        }
+      }
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int b;
+      while ((b = input.read()) != -1 && b != '\n') {
+        if (b != '\r') {
+          line.write(b);
+        }
+      }
+      return line.toString("UTF-8");
+    }
+
+    private static String order(int i) {
+      return "{\"Company\":\"companies/" + i + "\",\"@metadata\":{\"Raven-Entity-Name\":\"Orders\",\"@id\":\"orders/" + i + "\"}}";
+    }
+
+    private static void handle(Socket socket) throws IOException {
+      InputStream input = socket.getInputStream();
+      String path = readLine(input).split(" ")[1];
+      while (!readLine(input).isEmpty()) {
+        // headers are not used
+      }
+      if (path.contains("/docs?startsWith=")) {
+        respond(socket, 200, "[" + order(1) + "," + order(2) + "]");
+      } else {
+        respond(socket, 404, "");
+      }
+    }
+
+    private static void respond(Socket socket, int status, String body) throws IOException {
+      byte[] bytes = body.getBytes("UTF-8");
+      OutputStream stream = socket.getOutputStream();
+      stream.write(("HTTP/1.1 " + status + " " + (status == 200 ? "OK" : "Not Found") + "\r\n"
+        + "Content-Type: application/json; charset=utf-8\r\nContent-Length: " + bytes.length + "\r\n"
+        + "Connection: close\r\n\r\n").getBytes("UTF-8"));
+      stream.write(bytes);
+      stream.flush();
+    }
+
+    public void stop() throws IOException {
+      serverSocket.close();
+    }
+  }
+
+  public static class Order {
+    private String id;
+    private String company;
+
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+    public String getCompany() {
+      return company;
+    }
+    public void setCompany(String company) {
+      this.company = company;
+    }
+  }
+
+  @Test
+  public void returnsDeserializedEntities() throws Exception {
+    StubServer server = new StubServer();
+    try (DocumentStore store = new DocumentStore(server.getUrl())) {
+      store.initialize();
+      try (IDocumentSession session = store.openSession()) {
+        Order[] orders = session.advanced().loadStartingWith(Order.class, "orders/");
+        assertEquals(2, orders.length);
+        assertEquals("orders/1", orders[0].getId());
+        assertEquals("companies/2", orders[1].getCompany());
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+}
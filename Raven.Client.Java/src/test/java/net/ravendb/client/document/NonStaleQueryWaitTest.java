@@ -0,0 +1,300 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.ravendb.abstractions.data.Etag;
+import net.ravendb.abstractions.data.UuidType;
+import net.ravendb.client.IDocumentQuery;
+import net.ravendb.client.IDocumentSession;
+import net.ravendb.client.IDocumentStore;
+import net.ravendb.client.document.sessionoperations.IndexChangesWaiter;
+import net.ravendb.client.shard.ShardStrategy;
+import net.ravendb.client.shard.ShardedDocumentStore;
+
+import org.junit.Test;
+
+
+public class NonStaleQueryWaitTest {
+
+  private static final long INDEXING_TIME_MILLIS = 300;
+
+  /**
+   * Server with single index which becomes non stale some time after first query and reports it
+   * using changes API. Every response closes its connection.
+   */
+  private static class StubServer implements Runnable {
+    private final ServerSocket serverSocket;
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicLong firstQueryAtNanos = new AtomicLong();
+    private final AtomicLong lastQueryAtNanos = new AtomicLong();
+    private final List<OutputStream> changesStreams = new CopyOnWriteArrayList<>();
+    private volatile boolean indexed;
+
+    public StubServer() throws IOException {
+      serverSocket = new ServerSocket(0, 50, InetAddress.getByName("localhost"));
+      Thread acceptor = new Thread(this, "Stub server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    public String getUrl() {
+      return "http://localhost:" + serverSocket.getLocalPort();
+    }
+
+    private static String etag(long changes) {
+      return new Etag(UuidType.DOCUMENTS, 1, changes).toString();
+    }
+
+    @Override
+    public void run() {
+      while (!serverSocket.isClosed()) {
+        try {
+          final Socket socket = serverSocket.accept();
+          socket.setTcpNoDelay(true);
+          Thread handler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                handle(socket);
+              } catch (IOException e) {
+                // connection closed by client
+              }
+            }
+          });
+          handler.setDaemon(true);
+          handler.start();
+        } catch (IOException e) {
+          return;
+        }
+      }
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int b;
+      while ((b = input.read()) != -1 && b != '\n') {
+        if (b != '\r') {
+          line.write(b);
+        }
+      }
+      return line.toString("UTF-8");
+    }
+
+    private static void skip(InputStream input, long length) throws IOException {
+      for (long i = 0; i < length; i++) {
+        input.read();
+      }
+    }
+
+    private void handle(Socket socket) throws IOException {
+      InputStream input = socket.getInputStream();
+      String path = readLine(input).split(" ")[1];
+      long contentLength = 0;
+      boolean chunked = false;
+      String line;
+      while (!(line = readLine(input)).isEmpty()) {
+        String header = line.toLowerCase();
+        if (header.startsWith("content-length:")) {
+          contentLength = Long.parseLong(header.substring("content-length:".length()).trim());
+        }
+        chunked |= header.startsWith("transfer-encoding:") && header.contains("chunked");
+      }
+      // request body is not used
+      if (chunked) {
+        int chunkSize;
+        while ((chunkSize = Integer.parseInt(readLine(input).trim(), 16)) > 0) {
+          skip(input, chunkSize);
+          readLine(input);
+        }
+        readLine(input);
+      } else {
+        skip(input, contentLength);
+      }
+      OutputStream stream = socket.getOutputStream();
+
+      if (path.contains("/changes/events")) {
+        stream.write("HTTP/1.1 200 OK\r\nContent-Type: text/event-stream\r\nConnection: close\r\n\r\n".getBytes("UTF-8"));
+        sendEvent(stream, "{\"Type\":\"Heartbeat\"}");
+        changesStreams.add(stream);
+        return;
+      }
+      if (path.startsWith("/indexes/Orders")) {
+        String etag = query();
+        respond(socket, 200, "ETag: " + etag + "\r\n", queryResult(etag));
+        return;
+      }
+      if (path.contains("/multi_get")) {
+        // lazy query is the only request in multi get
+        String etag = query();
+        respond(socket, 200, "", "[{\"Result\":" + queryResult(etag) + ",\"Headers\":{\"ETag\":\"" + etag + "\"},\"Status\":200}]");
+        return;
+      }
+      respond(socket, path.contains("/changes/config") ? 200 : 404, "", "");
+    }
+
+    /**
+     * Counts query and returns etag of index.
+     */
+    private String query() {
+      lastQueryAtNanos.set(System.nanoTime());
+      if (queries.incrementAndGet() == 1) {
+        firstQueryAtNanos.set(lastQueryAtNanos.get());
+        startIndexing();
+      }
+      return etag(indexed ? 2 : 1);
+    }
+
+    private static String queryResult(String etag) {
+      boolean stale = etag.equals(etag(1));
+      return "{\"Results\":[],\"Includes\":[],\"IsStale\":" + stale + ",\"IndexName\":\"Orders\","
+        + "\"IndexEtag\":\"" + etag + "\",\"ResultEtag\":\"" + etag + "\","
+        + "\"TotalResults\":0,\"SkippedResults\":0,\"IndexTimestamp\":\"2015-01-01T00:00:00.0000000Z\","
+        + "\"LastQueryTime\":\"2015-01-01T00:00:00.0000000Z\"}";
+    }
+
+    private void startIndexing() {
+      Thread indexer = new Thread(new Runnable() {
+        @SuppressWarnings("synthetic-access")
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(INDEXING_TIME_MILLIS);
+            indexed = true;
+            for (OutputStream stream : changesStreams) {
+              // etag of notification is document etag, unrelated to index etag of query results
+              sendEvent(stream, "{\"Type\":\"IndexChangeNotification\",\"Value\":{\"Type\":\"MapCompleted\",\"Name\":\"Orders\",\"Etag\":\""
+                + new Etag(UuidType.DOCUMENTS, 0, 1) + "\"}}");
+            }
+          } catch (InterruptedException | IOException e) {
+            // ignore
+          }
+        }
+      });
+      indexer.setDaemon(true);
+      indexer.start();
+    }
+
+    private static void sendEvent(OutputStream stream, String data) throws IOException {
+      synchronized (stream) {
+        stream.write(("data: " + data + "\r\n\r\n").getBytes("UTF-8"));
+        stream.flush();
+      }
+    }
+
+    private static void respond(Socket socket, int status, String headers, String body) throws IOException {
+      byte[] bytes = body.getBytes("UTF-8");
+      try (OutputStream stream = socket.getOutputStream()) {
+        stream.write(("HTTP/1.1 " + status + " " + (status == 200 ? "OK" : "Not Found") + "\r\n"
+          + "Content-Type: application/json; charset=utf-8\r\nContent-Length: " + bytes.length + "\r\n"
+          + "Connection: close\r\n" + headers + "\r\n").getBytes("UTF-8"));
+        stream.write(bytes);
+      }
+    }
+
+    public void stop() throws IOException {
+      serverSocket.close();
+      for (OutputStream stream : changesStreams) {
+        stream.close();
+      }
+    }
+  }
+
+  public static class Order {
+    private String id;
+
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+  }
+
+  /**
+   * Runs query waiting for non stale results against fresh server.
+   * @return number of queries sent and time in milliseconds between end of indexing and query result
+   */
+  private static long[] queryUntilNonStale(boolean useChanges) throws Exception {
+    return queryUntilNonStale(useChanges, false);
+  }
+
+  private static long[] queryUntilNonStale(boolean useChanges, boolean lazy) throws Exception {
+    return queryUntilNonStale(useChanges, lazy, false);
+  }
+
+  private static long[] queryUntilNonStale(boolean useChanges, boolean lazy, boolean sharded) throws Exception {
+    StubServer server = new StubServer();
+    try (IDocumentStore store = createStore(server.getUrl(), sharded)) {
+      store.getConventions().setWaitForNonStaleResultsUsingChanges(useChanges);
+      store.initialize();
+      try (IDocumentSession session = store.openSession()) {
+        IDocumentQuery<Order> query = session.advanced().documentQuery(Order.class, "Orders").waitForNonStaleResults();
+        if (lazy) {
+          query.lazily().getValue();
+        } else {
+          query.toList();
+        }
+      }
+      long retryAfter = TimeUnit.NANOSECONDS.toMillis(server.lastQueryAtNanos.get() - server.firstQueryAtNanos.get());
+      return new long[] { server.queries.get(), retryAfter };
+    } finally {
+      server.stop();
+    }
+  }
+
+  private static IDocumentStore createStore(String url, boolean sharded) {
+    if (!sharded) {
+      return new DocumentStore(url);
+    }
+    Map<String, IDocumentStore> shards = new HashMap<>();
+    shards.put("Shard1", new DocumentStore(url));
+    return new ShardedDocumentStore(new ShardStrategy(shards));
+  }
+
+  /**
+   * Index is non stale after 300ms, so query retried after fallback poll interval would take at least a second.
+   */
+  private static void assertRetriedOnNotification(long[] changes) {
+    assertEquals(2, changes[0]);
+    assertTrue("Query was retried after " + changes[1] + "ms", changes[1] < IndexChangesWaiter.DEFAULT_FALLBACK_POLL_INTERVAL_MILLIS);
+  }
+
+  @Test
+  public void indexChangesReduceRequests() throws Exception {
+    // warm up, so class loading doesn't delay polling
+    queryUntilNonStale(true);
+
+    long[] polling = queryUntilNonStale(false);
+    long[] changes = queryUntilNonStale(true);
+
+    assertTrue("Polling should query more than twice, was " + polling[0], polling[0] > 2);
+    assertRetriedOnNotification(changes);
+  }
+
+  @Test
+  public void lazyQueriesWaitForIndexChanges() throws Exception {
+    assertRetriedOnNotification(queryUntilNonStale(true, true));
+  }
+
+  @Test
+  public void shardedQueriesWaitForIndexChanges() throws Exception {
+    assertRetriedOnNotification(queryUntilNonStale(true, false, true));
+  }
+
+}
@@ -0,0 +1,111 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ravendb.abstractions.commands.DeleteCommandData;
+import net.ravendb.abstractions.commands.ICommandData;
+import net.ravendb.abstractions.commands.PutCommandData;
+import net.ravendb.abstractions.json.linq.RavenJArray;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.junit.Test;
+
+
+public class SaveChangesDataTest {
+
+  private static SaveChangesData createData(int deferred, int puts) {
+    SaveChangesData data = new SaveChangesData();
+    List<ICommandData> commands = new ArrayList<>();
+    for (int i = 0; i < deferred; i++) {
+      DeleteCommandData delete = new DeleteCommandData();
+      delete.setKey("deferred/" + i);
+      commands.add(delete);
+    }
+    List<Object> entities = new ArrayList<>();
+    for (int i = 0; i < puts; i++) {
+      RavenJObject document = new RavenJObject();
+      document.add("Name", new RavenJValue("Name #" + i));
+      commands.add(new PutCommandData("users/" + i, null, document, new RavenJObject()));
+      entities.add("entity " + i);
+    }
+    data.setCommands(commands);
+    data.setDeferredCommandsCount(deferred);
+    data.setEntities(entities);
+    return data;
+  }
+
+  @Test
+  public void isNotSplitWithoutLimits() {
+    SaveChangesData data = createData(2, 10);
+    List<SaveChangesData> parts = data.split(0, 0);
+    assertEquals(1, parts.size());
+    assertSame(data, parts.get(0));
+    assertSame(data, data.split(12, 0).get(0));
+  }
+
+  @Test
+  public void canSplitByNumberOfCommands() {
+    SaveChangesData data = createData(3, 6);
+    List<SaveChangesData> parts = data.split(2, 0);
+    assertEquals(5, parts.size());
+
+    assertEquals(2, parts.get(0).getDeferredCommandsCount());
+    assertEquals(0, parts.get(0).getEntities().size());
+
+    // last deferred command and first put
+    assertEquals(1, parts.get(1).getDeferredCommandsCount());
+    assertEquals(1, parts.get(1).getEntities().size());
+    assertEquals("entity 0", parts.get(1).getEntities().get(0));
+    assertEquals("users/0", parts.get(1).getCommands().get(1).getKey());
+
+    assertEquals(0, parts.get(4).getDeferredCommandsCount());
+    assertEquals(1, parts.get(4).getCommands().size());
+    assertEquals("entity 5", parts.get(4).getEntities().get(0));
+
+    int commands = 0;
+    for (SaveChangesData part : parts) {
+      assertEquals(part.getCommands().size() - part.getDeferredCommandsCount(), part.getEntities().size());
+      commands += part.getCommands().size();
+    }
+    assertEquals(9, commands);
+  }
+
+  @Test
+  public void canSplitBySize() {
+    SaveChangesData data = createData(0, 10);
+    int commandSize = data.getCommands().get(0).toJson().toString().length();
+
+    List<SaveChangesData> parts = data.split(0, commandSize * 3 + 1);
+    assertEquals(4, parts.size());
+    assertEquals(3, parts.get(0).getCommands().size());
+    assertEquals(1, parts.get(3).getCommands().size());
+
+    // command larger than limit is sent alone
+    parts = data.split(0, 1);
+    assertEquals(10, parts.size());
+  }
+
+  @Test
+  public void sizeIsEstimatedWithoutSerialization() {
+    RavenJObject document = new RavenJObject();
+    document.add("Name", new RavenJValue("Ayende"));
+    document.add("Age", new RavenJValue(30));
+    document.add("Rate", new RavenJValue(2.5));
+    document.add("Active", new RavenJValue(true));
+    document.add("Manager", RavenJValue.getNull());
+    document.add("Tags", new RavenJArray(new RavenJValue("a"), new RavenJValue(12345678901L)));
+    document.add("Empty", new RavenJArray());
+    document.add("Address", new RavenJObject());
+    document.add("Signature", new RavenJValue(new byte[] { 1, 2, 3, 4 }));
+    PutCommandData put = new PutCommandData("users/1", null, document, new RavenJObject());
+
+    String json = put.toJson().toString();
+    assertEquals(json.length(), SaveChangesData.estimateJsonSize(put.toJson()));
+  }
+
+}
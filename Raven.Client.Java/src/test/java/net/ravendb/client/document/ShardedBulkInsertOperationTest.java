@@ -0,0 +1,302 @@
+package net.ravendb.client.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.closure.Action1;
+import net.ravendb.abstractions.data.BulkInsertOptions;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.client.IDocumentStore;
+import net.ravendb.client.changes.IDatabaseChanges;
+import net.ravendb.client.connection.IDatabaseCommands;
+import net.ravendb.client.shard.IShardResolutionStrategy;
+import net.ravendb.client.shard.ShardRequestData;
+import net.ravendb.client.shard.ShardStrategy;
+import net.ravendb.client.shard.ShardedDocumentStore;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+
+
+public class ShardedBulkInsertOperationTest {
+
+  public static class Order {
+    private String id;
+    private String region;
+    private String notes;
+
+    public Order() {
+    }
+    public Order(String id, String region) {
+      this.id = id;
+      this.region = region;
+    }
+    public Order(String id, String region, String notes) {
+      this(id, region);
+      this.notes = notes;
+    }
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+    public String getRegion() {
+      return region;
+    }
+    public void setRegion(String region) {
+      this.region = region;
+    }
+    public String getNotes() {
+      return notes;
+    }
+    public void setNotes(String notes) {
+      this.notes = notes;
+    }
+  }
+
+  private static class FakeLowLevelBulkInsert implements ILowLevelBulkInsertOperation {
+    private final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+    private final Map<String, RavenJObject> writtenData = new ConcurrentHashMap<>();
+    private CountDownLatch blockUntil = new CountDownLatch(0);
+    private boolean failing;
+    private Error error;
+    private volatile boolean aborted;
+    private Action1<String> report;
+
+    @Override
+    public UUID getOperationId() {
+      return UUID.randomUUID();
+    }
+    @Override
+    public boolean isAborted() {
+      return aborted;
+    }
+    @Override
+    public void write(String id, RavenJObject metadata, RavenJObject data) throws InterruptedException {
+      write(id, metadata, data, null);
+    }
+    @Override
+    public void write(String id, RavenJObject metadata, RavenJObject data, Integer dataSize) throws InterruptedException {
+      blockUntil.await();
+      if (failing) {
+        throw new IllegalStateException("Shard is down");
+      }
+      if (error != null) {
+        throw error;
+      }
+      written.add(id);
+      writtenData.put(id, data);
+    }
+    @Override
+    public Action1<String> getReport() {
+      return report;
+    }
+    @Override
+    public void setReport(Action1<String> report) {
+      this.report = report;
+    }
+    @Override
+    public void abort() {
+      aborted = true;
+    }
+    @Override
+    public void close() {
+      // empty by design
+    }
+  }
+
+  private final Map<String, FakeLowLevelBulkInsert> lowLevelOperations = new ConcurrentHashMap<>();
+  private final ShardedDocumentStore shardedStore;
+
+  public ShardedBulkInsertOperationTest() {
+    Map<String, IDocumentStore> shards = new HashMap<>();
+    for (String shardId : new String[] { "asia", "europe" }) {
+      IDocumentStore store = new DocumentStore("http://fake");
+      store.initialize();
+      shards.put(shardId, store);
+      lowLevelOperations.put(shardId, new FakeLowLevelBulkInsert());
+    }
+    ShardStrategy shardStrategy = new ShardStrategy(shards);
+    shardStrategy.setShardResolutionStrategy(new IShardResolutionStrategy() {
+      @Override
+      public List<String> potentialShardsFor(ShardRequestData requestData) {
+        return null;
+      }
+      @Override
+      public String metadataShardIdFor(Object entity) {
+        return ((Order) entity).getRegion();
+      }
+      @Override
+      public String generateShardIdFor(Object entity, Object owner) {
+        return ((Order) entity).getRegion();
+      }
+    });
+    shardedStore = new ShardedDocumentStore(shardStrategy);
+  }
+
+  private ShardedBulkInsertOperation bulkInsert(BulkInsertOptions options) {
+    return new ShardedBulkInsertOperation(null, shardedStore, options) {
+      @Override
+      protected BulkInsertOperation createBulkInsertOperation(String actualDatabaseName, IDocumentStore shard) {
+        final FakeLowLevelBulkInsert lowLevelOperation = lowLevelOperations.get(shardIdOf(shard));
+        return new BulkInsertOperation(actualDatabaseName, shard, shard.getListeners(), new BulkInsertOptions(), null) {
+          @Override
+          protected ILowLevelBulkInsertOperation getBulkInsertOperation(BulkInsertOptions options, IDatabaseCommands commands, IDatabaseChanges changes) {
+            return lowLevelOperation;
+          }
+        };
+      }
+    };
+  }
+
+  private String shardIdOf(IDocumentStore shard) {
+    for (Map.Entry<String, IDocumentStore> entry : shardedStore.getShardStrategy().getShards().entrySet()) {
+      if (entry.getValue() == shard) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalArgumentException();
+  }
+
+  @Test
+  public void documentsAreWrittenToTheirShards() throws Exception {
+    BulkInsertOptions options = new BulkInsertOptions();
+    options.setBatchSize(2);
+    final List<String> reports = Collections.synchronizedList(new ArrayList<String>());
+    try (ShardedBulkInsertOperation bulkInsert = bulkInsert(options)) {
+      bulkInsert.setReport(new Action1<String>() {
+        @Override
+        public void apply(String message) {
+          reports.add(message);
+        }
+      });
+      bulkInsert.store(new Order("orders/1", "asia"));
+      bulkInsert.store(new Order("orders/2", "europe"));
+      bulkInsert.store(new Order("orders/3", "asia"));
+      bulkInsert.store(new Order("orders/4", "europe"));
+      lowLevelOperations.get("asia").getReport().apply("Batch completed");
+      bulkInsert.close();
+
+      assertEquals(4, bulkInsert.getStoredDocuments());
+      assertEquals(0, bulkInsert.getPendingBytes());
+      assertEquals(Long.valueOf(2), bulkInsert.getStoredDocumentsPerShard().get("asia"));
+    }
+    assertEquals(2, lowLevelOperations.get("asia").written.size());
+    assertEquals(2, lowLevelOperations.get("europe").written.size());
+    assertTrue(reports.contains("Shard asia: Batch completed"));
+    assertEquals(3, reports.size());
+  }
+
+  @Test
+  public void slowShardDoesNotStallOtherShards() throws Exception {
+    BulkInsertOptions options = new BulkInsertOptions();
+    CountDownLatch europeBlocked = new CountDownLatch(1);
+    lowLevelOperations.get("europe").blockUntil = europeBlocked;
+    ShardedBulkInsertOperation bulkInsert = bulkInsert(options);
+    try {
+      bulkInsert.setMaxPendingDocumentsPerShard(5);
+      bulkInsert.store(new Order("orders/0", "europe"));
+      for (int i = 1; i <= 100; i++) {
+        bulkInsert.store(new Order("orders/" + i, "asia"));
+      }
+      long start = System.currentTimeMillis();
+      while (lowLevelOperations.get("asia").written.size() < 100 && System.currentTimeMillis() - start < 5000) {
+        Thread.sleep(10);
+      }
+      assertEquals(100, lowLevelOperations.get("asia").written.size());
+      assertEquals(0, lowLevelOperations.get("europe").written.size());
+      assertTrue(bulkInsert.getPendingBytes() > 0);
+    } finally {
+      europeBlocked.countDown();
+      bulkInsert.close();
+    }
+    assertEquals(1, lowLevelOperations.get("europe").written.size());
+  }
+
+  @Test
+  public void totalPendingBytesAreCapped() throws Exception {
+    final String notes = StringUtils.repeat("x", 400);
+    final CountDownLatch europeBlocked = new CountDownLatch(1);
+    lowLevelOperations.get("europe").blockUntil = europeBlocked;
+    final ShardedBulkInsertOperation bulkInsert = bulkInsert(new BulkInsertOptions());
+    bulkInsert.setMaxPendingBytes(1200);
+    for (int i = 0; i < 2; i++) {
+      bulkInsert.store(new Order("orders/" + i, "europe", notes));
+    }
+    assertTrue(bulkInsert.getPendingBytes() > 800);
+
+    final CountDownLatch stored = new CountDownLatch(1);
+    Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          bulkInsert.store(new Order("orders/3", "asia", notes));
+          stored.countDown();
+        } catch (InterruptedException e) {
+          // ignore
+        }
+      }
+    });
+    producer.start();
+    assertTrue(!stored.await(300, TimeUnit.MILLISECONDS));
+    europeBlocked.countDown();
+    assertTrue(stored.await(5, TimeUnit.SECONDS));
+    bulkInsert.close();
+    assertEquals(3, bulkInsert.getStoredDocuments());
+  }
+
+  @Test
+  public void entityIsConvertedWhenStored() throws Exception {
+    CountDownLatch europeBlocked = new CountDownLatch(1);
+    lowLevelOperations.get("europe").blockUntil = europeBlocked;
+    ShardedBulkInsertOperation bulkInsert = bulkInsert(new BulkInsertOptions());
+    Order order = new Order("orders/1", "europe", "first");
+    bulkInsert.store(order);
+    order.setNotes("changed");
+    europeBlocked.countDown();
+    bulkInsert.close();
+    FakeLowLevelBulkInsert europe = lowLevelOperations.get("europe");
+    assertEquals("first", europe.writtenData.get(europe.written.get(0)).value(String.class, "Notes"));
+  }
+
+  @Test
+  public void errorOfWriterIsRethrownFromClose() throws Exception {
+    lowLevelOperations.get("europe").error = new OutOfMemoryError("test");
+    ShardedBulkInsertOperation bulkInsert = bulkInsert(new BulkInsertOptions());
+    bulkInsert.store(new Order("orders/1", "europe"));
+    try {
+      bulkInsert.close();
+      fail();
+    } catch (OutOfMemoryError e) {
+      assertEquals("test", e.getMessage());
+    }
+  }
+
+  @Test
+  public void shardFailureIsReported() throws Exception {
+    lowLevelOperations.get("europe").failing = true;
+    ShardedBulkInsertOperation bulkInsert = bulkInsert(new BulkInsertOptions());
+    bulkInsert.store(new Order("orders/1", "europe"));
+    bulkInsert.store(new Order("orders/2", "asia"));
+    try {
+      bulkInsert.close();
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("europe"));
+    }
+    assertEquals(1, lowLevelOperations.get("asia").written.size());
+  }
+
+}
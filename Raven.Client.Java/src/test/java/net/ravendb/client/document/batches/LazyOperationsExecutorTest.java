@@ -0,0 +1,88 @@
+package net.ravendb.client.document.batches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ravendb.client.document.ResponseTimeInformation;
+import net.ravendb.client.utils.RetryBackoff;
+
+import org.junit.Test;
+
+
+public class LazyOperationsExecutorTest {
+
+  /**
+   * Operation named "x3" requires 3 rounds to complete, "x0" never completes.
+   */
+  private static class CountingExecutor extends LazyOperationsExecutor<String> {
+    private final List<List<String>> sentRounds = new ArrayList<>();
+    private final Map<String, Integer> sent = new HashMap<>();
+
+    public CountingExecutor(long timeoutMillis) {
+      super(timeoutMillis);
+    }
+
+    @SuppressWarnings("boxing")
+    @Override
+    protected List<String> executeRound(List<String> operations, ResponseTimeInformation responseTimeInformation) {
+      sentRounds.add(new ArrayList<>(operations));
+      List<String> requiresRetry = new ArrayList<>();
+      for (String operation : operations) {
+        int count = sent.containsKey(operation) ? sent.get(operation) + 1 : 1;
+        sent.put(operation, count);
+        int roundsNeeded = Integer.parseInt(operation.substring(1));
+        if (roundsNeeded == 0 || count < roundsNeeded) {
+          requiresRetry.add(operation);
+        }
+      }
+      return requiresRetry;
+    }
+  }
+
+  @Test
+  public void onlyPendingOperationsAreSentAgain() {
+    CountingExecutor executor = new CountingExecutor(0);
+    ResponseTimeInformation responseTime = executor.execute(Arrays.asList("a1", "b3", "c2"));
+
+    assertEquals(Arrays.asList(Arrays.asList("a1", "b3", "c2"), Arrays.asList("b3", "c2"), Arrays.asList("b3")), executor.sentRounds);
+    assertEquals(3, responseTime.getRounds().size());
+    assertEquals(3, responseTime.getRounds().get(0).getOperationsCount());
+    assertEquals(0, responseTime.getRounds().get(0).getWaitDuration());
+    assertEquals(1, responseTime.getRounds().get(2).getOperationsCount());
+    assertTrue(responseTime.getRounds().get(2).getWaitDuration() > 0);
+  }
+
+  @Test
+  public void waitBetweenRoundsGrows() {
+    CountingExecutor executor = new CountingExecutor(0);
+    ResponseTimeInformation responseTime = executor.execute(Arrays.asList("a3"));
+    assertEquals(3, responseTime.getRounds().size());
+    long firstWait = responseTime.getRounds().get(1).getWaitDuration();
+    long secondWait = responseTime.getRounds().get(2).getWaitDuration();
+    assertTrue("First wait was " + firstWait + "ms", firstWait >= RetryBackoff.INITIAL_WAIT_MILLIS - 10);
+    assertTrue("Second wait was " + secondWait + "ms", secondWait > firstWait);
+  }
+
+  @Test
+  public void failsAfterTimeout() {
+    CountingExecutor executor = new CountingExecutor(250);
+    long start = System.currentTimeMillis();
+    try {
+      executor.execute(Arrays.asList("a1", "b0"));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    long duration = System.currentTimeMillis() - start;
+    assertTrue(duration >= 250 && duration < 1000);
+    assertEquals(Integer.valueOf(1), executor.sent.get("a1"));
+  }
+
+}
@@ -0,0 +1,100 @@
+package net.ravendb.client.document.sessionoperations;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.closure.Predicate;
+import net.ravendb.abstractions.data.IndexChangeNotification;
+import net.ravendb.abstractions.data.IndexChangeTypes;
+import net.ravendb.client.changes.IObservable;
+import net.ravendb.client.changes.IObserver;
+
+import org.junit.Test;
+
+
+public class IndexChangesWaiterTest {
+
+  private static final long FALLBACK_MILLIS = 5000;
+
+  private static class IndexChanges implements IObservable<IndexChangeNotification> {
+    private IObserver<IndexChangeNotification> observer;
+
+    @Override
+    public CleanCloseable subscribe(IObserver<IndexChangeNotification> observer) {
+      this.observer = observer;
+      return new CleanCloseable() {
+        @Override
+        public void close() {
+          IndexChanges.this.observer = null;
+        }
+      };
+    }
+
+    @Override
+    public IObservable<IndexChangeNotification> where(Predicate<IndexChangeNotification> predicate) {
+      throw new UnsupportedOperationException();
+    }
+
+    public void send(IndexChangeTypes type) {
+      IndexChangeNotification notification = new IndexChangeNotification();
+      notification.setName("Orders");
+      notification.setType(type);
+      observer.onNext(notification);
+    }
+  }
+
+  private final IndexChanges changes = new IndexChanges();
+
+  private void sendLater(final IndexChangeTypes type) {
+    Thread sender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          return;
+        }
+        changes.send(type);
+      }
+    }, "Index changes sender");
+    sender.setDaemon(true);
+    sender.start();
+  }
+
+  @Test
+  public void notificationAfterStaleResultEndsWait() throws Exception {
+    try (IndexChangesWaiter waiter = new IndexChangesWaiter(changes, FALLBACK_MILLIS)) {
+      waiter.staleResultReceived();
+      sendLater(IndexChangeTypes.REDUCE_COMPLETED);
+      assertTrue(waiter.waitForIndexing(FALLBACK_MILLIS));
+    }
+  }
+
+  @Test
+  public void notificationBeforeStaleResultDoesNotEndWait() throws Exception {
+    try (IndexChangesWaiter waiter = new IndexChangesWaiter(changes, FALLBACK_MILLIS)) {
+      changes.send(IndexChangeTypes.MAP_COMPLETED);
+      waiter.staleResultReceived();
+      assertFalse(waiter.waitForIndexing(200));
+    }
+  }
+
+  @Test
+  public void otherChangesAreIgnored() throws Exception {
+    try (IndexChangesWaiter waiter = new IndexChangesWaiter(changes, FALLBACK_MILLIS)) {
+      waiter.staleResultReceived();
+      sendLater(IndexChangeTypes.INDEX_ADDED);
+      assertFalse(waiter.waitForIndexing(300));
+    }
+  }
+
+  @Test
+  public void waitEndsAfterFallbackPollInterval() throws Exception {
+    try (IndexChangesWaiter waiter = new IndexChangesWaiter(changes, 200)) {
+      waiter.staleResultReceived();
+      assertFalse(waiter.waitForIndexing(FALLBACK_MILLIS));
+    }
+  }
+
+}
@@ -0,0 +1,214 @@
+package net.ravendb.client.shard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import net.ravendb.abstractions.closure.Function2;
+import net.ravendb.abstractions.exceptions.AggregateException;
+import net.ravendb.client.connection.IDatabaseCommands;
+
+import org.junit.Test;
+
+
+public class ParallelShardAccessStrategyTest {
+
+  private static IDatabaseCommands shard(final String name) {
+    return (IDatabaseCommands) Proxy.newProxyInstance(ParallelShardAccessStrategyTest.class.getClassLoader(),
+      new Class<?>[] { IDatabaseCommands.class }, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+          case "toString":
+            return name;
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          case "equals":
+            return proxy == args[0];
+          default:
+            throw new UnsupportedOperationException(method.getName());
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns shard name after given delay.
+   */
+  private static Function2<IDatabaseCommands, Integer, String> respondAfter(final long... delaysMillis) {
+    return new Function2<IDatabaseCommands, Integer, String>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public String apply(IDatabaseCommands commands, Integer i) {
+        try {
+          Thread.sleep(delaysMillis[i]);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return commands.toString();
+      }
+    };
+  }
+
+  @Test
+  public void returnsResultsOfAllShards() {
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    String[] results = strategy.apply(String.class, Arrays.asList(shard("a"), shard("b"), shard("c")), new ShardRequestData(), respondAfter(30, 0, 10));
+    assertArrayEquals(new String[] { "a", "b", "c" }, results);
+
+    Map<String, ShardAccessMetrics> metrics = strategy.getMetrics();
+    assertEquals(3, metrics.size());
+    assertEquals(1, metrics.get("a").getRequests());
+    assertTrue(metrics.get("a").getMaxLatencyMillis() >= 25);
+  }
+
+  @Test
+  public void usesInjectedExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy(executor);
+      String[] results = strategy.apply(String.class, Arrays.asList(shard("a"), shard("b")), new ShardRequestData(), respondAfter(0, 0));
+      assertArrayEquals(new String[] { "a", "b" }, results);
+      strategy.close();
+      assertTrue(!executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void slowShardFailsCallAfterTimeout() {
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    strategy.setShardTimeoutMillis(100);
+    long start = System.currentTimeMillis();
+    try {
+      strategy.apply(String.class, Arrays.asList(shard("fast"), shard("slow")), new ShardRequestData(), respondAfter(0, 5000));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertTrue(System.currentTimeMillis() - start < 2000);
+    assertEquals(1, strategy.getMetrics().get("slow").getTimeouts());
+  }
+
+  @Test
+  public void partialResultsSkipSlowShards() {
+    final List<String> reported = new ArrayList<>();
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    strategy.setShardTimeoutMillis(100);
+    strategy.setAllowPartialResults(true);
+    strategy.addOnError(new ShardingErrorHandle<IDatabaseCommands>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public Boolean apply(IDatabaseCommands commands, ShardRequestData request, Exception e) {
+        reported.add(commands.toString());
+        return false;
+      }
+    });
+
+    String[] results = strategy.apply(String.class, Arrays.asList(shard("a"), shard("slow"), shard("c")), new ShardRequestData(), respondAfter(0, 5000, 20));
+    assertArrayEquals(new String[] { "a", "c" }, results);
+    assertEquals(Arrays.asList("slow"), reported);
+  }
+
+  @Test
+  public void failsWhenAllShardsErrorAndErrorsAreIgnored() {
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    strategy.addOnError(new ShardingErrorHandle<IDatabaseCommands>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public Boolean apply(IDatabaseCommands commands, ShardRequestData request, Exception e) {
+        return true;
+      }
+    });
+    Function2<IDatabaseCommands, Integer, String> failing = new Function2<IDatabaseCommands, Integer, String>() {
+      @Override
+      public String apply(IDatabaseCommands commands, Integer i) {
+        throw new IllegalStateException("Shard is down");
+      }
+    };
+    try {
+      strategy.apply(String.class, Arrays.asList(shard("a"), shard("b")), new ShardRequestData(), failing);
+      fail();
+    } catch (AggregateException e) {
+      assertEquals(2, e.getInner().length);
+      assertEquals("Shard is down", e.getInner()[0].getMessage());
+      assertEquals("Shard is down", e.getInner()[1].getMessage());
+    }
+    assertEquals(1, strategy.getMetrics().get("a").getFailures());
+  }
+
+  @Test
+  public void returnsResultsOfRemainingShardsWhenErrorIsIgnored() {
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    strategy.addOnError(new ShardingErrorHandle<IDatabaseCommands>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public Boolean apply(IDatabaseCommands commands, ShardRequestData request, Exception e) {
+        return true;
+      }
+    });
+    Function2<IDatabaseCommands, Integer, String> secondFails = new Function2<IDatabaseCommands, Integer, String>() {
+      @SuppressWarnings("boxing")
+      @Override
+      public String apply(IDatabaseCommands commands, Integer i) {
+        if (i == 1) {
+          throw new IllegalStateException("Shard is down");
+        }
+        return commands.toString();
+      }
+    };
+    String[] results = strategy.apply(String.class, Arrays.asList(shard("a"), shard("b"), shard("c")), new ShardRequestData(), secondFails);
+    assertArrayEquals(new String[] { "a", "c" }, results);
+  }
+
+  @Test
+  public void closedStrategyRejectsOperations() {
+    ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy();
+    assertArrayEquals(new String[] { "a" }, strategy.apply(String.class, Arrays.asList(shard("a")), new ShardRequestData(), respondAfter(0)));
+    strategy.close();
+    try {
+      strategy.apply(String.class, Arrays.asList(shard("a")), new ShardRequestData(), respondAfter(0));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void rejectedOperationFailsItsShard() {
+    ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>());
+    try {
+      final List<String> reported = new ArrayList<>();
+      ParallelShardAccessStrategy strategy = new ParallelShardAccessStrategy(executor);
+      strategy.addOnError(new ShardingErrorHandle<IDatabaseCommands>() {
+        @SuppressWarnings("boxing")
+        @Override
+        public Boolean apply(IDatabaseCommands commands, ShardRequestData request, Exception e) {
+          reported.add(commands.toString());
+          return true;
+        }
+      });
+      String[] results = strategy.apply(String.class, Arrays.asList(shard("a"), shard("rejected")), new ShardRequestData(), respondAfter(100, 0));
+      assertArrayEquals(new String[] { "a" }, results);
+      assertEquals(Arrays.asList("rejected"), reported);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
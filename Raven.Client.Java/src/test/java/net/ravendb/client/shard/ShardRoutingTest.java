@@ -0,0 +1,191 @@
+package net.ravendb.client.shard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.ravendb.abstractions.basic.Tuple;
+import net.ravendb.abstractions.closure.Function1;
+import net.ravendb.abstractions.data.Constants;
+import net.ravendb.abstractions.data.QueryOperator;
+import net.ravendb.client.IDocumentQuery;
+import net.ravendb.client.IDocumentSession;
+import net.ravendb.client.IDocumentStore;
+import net.ravendb.client.connection.IDatabaseCommands;
+import net.ravendb.client.document.AbstractDocumentQuery;
+import net.ravendb.client.document.DocumentStore;
+import net.ravendb.client.document.InMemoryDocumentSessionOperations;
+import net.ravendb.client.linq.IRavenQueryProvider;
+import net.ravendb.client.linq.IRavenQueryable;
+import net.ravendb.client.listeners.IDocumentQueryListener;
+
+import org.junit.Test;
+
+import com.mysema.query.annotations.QueryEntity;
+
+
+public class ShardRoutingTest {
+
+  @QueryEntity
+  public static class Company {
+    private String id;
+    private String region;
+    private String name;
+
+    public String getId() {
+      return id;
+    }
+    public void setId(String id) {
+      this.id = id;
+    }
+    public String getRegion() {
+      return region;
+    }
+    public void setRegion(String region) {
+      this.region = region;
+    }
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  private final IDocumentSession session;
+  private final ShardStrategy shardStrategy;
+
+  public ShardRoutingTest() {
+    Map<String, IDocumentStore> shards = new HashMap<>();
+    for (String shardId : Arrays.asList("asia", "europe", "america")) {
+      shards.put(shardId, new DocumentStore("http://fake"));
+    }
+    shardStrategy = new ShardStrategy(shards);
+    shardStrategy.setShardResolutionStrategy(new DefaultShardResolutionStrategy(shards.keySet(), shardStrategy)
+      .shardingOn(QShardRoutingTest_Company.company.region));
+
+    IDocumentStore store = new DocumentStore("http://fake");
+    store.initialize();
+    session = store.openSession();
+  }
+
+  private ShardedDocumentQuery<Company> documentQuery() {
+    return new ShardedDocumentQuery<>(Company.class, (InMemoryDocumentSessionOperations) session,
+      new Function1<ShardRequestData, List<Tuple<String, IDatabaseCommands>>>() {
+      @Override
+      public List<Tuple<String, IDatabaseCommands>> apply(ShardRequestData input) {
+        throw new IllegalStateException("Not used");
+      }
+    }, shardStrategy, "Companies", null, null, new ArrayList<IDocumentQueryListener>(), false);
+  }
+
+  private List<String> route(ShardedDocumentQuery<Company> query) {
+    return shardStrategy.getShardResolutionStrategy().potentialShardsFor(query.createShardRequestData());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> route(IRavenQueryable<Company> query) {
+    IRavenQueryProvider queryProvider = (IRavenQueryProvider) query.getProvider();
+    IDocumentQuery<Company> documentQuery = (IDocumentQuery<Company>) queryProvider.toDocumentQuery(Company.class, query.getExpression());
+    ShardRequestData request = new ShardRequestData();
+    request.setEntityType(Company.class);
+    request.setQuery(((AbstractDocumentQuery<Company, ?>) documentQuery).getIndexQuery());
+    request.setQueryFieldValues(((AbstractDocumentQuery<Company, ?>) documentQuery).getQueryFieldValues());
+    return shardStrategy.getShardResolutionStrategy().potentialShardsFor(request);
+  }
+
+  @Test
+  public void equalityRoutesToSingleShard() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.whereEquals("Name", "Acme").andAlso().whereEquals("Region", "europe");
+    assertEquals(Arrays.asList("europe"), route(query));
+  }
+
+  @Test
+  public void inClauseRoutesToListedShards() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.whereIn("Region", Arrays.<Object> asList("asia", "america", "asia"));
+    assertEquals(Arrays.asList("asia", "america"), route(query));
+  }
+
+  @Test
+  public void identityPropertyIsRecordedAsDocumentId() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.whereEquals("Id", "companies/1");
+    assertEquals(Collections.singleton("companies/1"), query.getQueryFieldValues().get(Constants.DOCUMENT_ID_FIELD_NAME));
+
+    query = documentQuery();
+    query.whereIn("Id", Arrays.<Object> asList("companies/1", "companies/2"));
+    Map<String, Set<Object>> fieldValues = query.getQueryFieldValues();
+    assertEquals(new HashSet<Object>(Arrays.asList("companies/1", "companies/2")), fieldValues.get(Constants.DOCUMENT_ID_FIELD_NAME));
+    assertFalse(fieldValues.containsKey("Id"));
+  }
+
+  @Test
+  public void disjunctionOfShardKeyRoutesToBothShards() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.whereEquals("Region", "asia").orElse().whereEquals("Region", "europe");
+    assertEquals(Arrays.asList("asia", "europe"), route(query));
+  }
+
+  @Test
+  public void queryWhichDoesNotConstrainShardKeyGoesToAllShards() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    // default operator is OR
+    query.whereEquals("Region", "asia").whereEquals("Name", "Acme");
+    assertNull(route(query));
+
+    query = documentQuery();
+    query.whereEquals("Region", "asia").orElse().whereEquals("Name", "Acme");
+    assertNull(route(query));
+
+    query = documentQuery();
+    query.negateNext();
+    query.whereEquals("Region", "asia");
+    assertNull(route(query));
+
+    query = documentQuery();
+    query.openSubclause().whereEquals("Region", "asia").orElse().whereEquals("Name", "Acme").closeSubclause();
+    assertNull(route(query));
+
+    query = documentQuery();
+    query.whereStartsWith("Region", "as");
+    assertNull(route(query));
+  }
+
+  @Test
+  public void shardKeyIsFoundRegardlessOfClauseOrderAndDefaultOperator() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.usingDefaultOperator(QueryOperator.AND);
+    query.openSubclause().whereEquals("Name", "Acme").orElse().whereEquals("Name", "Contoso").closeSubclause()
+      .whereEquals("Region", "america");
+    assertEquals(Arrays.asList("america"), route(query));
+  }
+
+  @Test
+  public void rawQueryTextFallsBackToQueryParsing() {
+    ShardedDocumentQuery<Company> query = documentQuery();
+    query.where("Region:asia");
+    assertEquals(Arrays.asList("asia"), route(query));
+  }
+
+  @Test
+  public void linqQueriesAreRouted() {
+    QShardRoutingTest_Company x = QShardRoutingTest_Company.company;
+    assertEquals(Arrays.asList("asia"), route(session.query(Company.class).where(x.name.eq("Acme").and(x.region.eq("asia")))));
+    assertEquals(Arrays.asList("europe", "asia"), route(session.query(Company.class).where(x.region.in("europe", "asia"))));
+    assertEquals(Arrays.asList("europe", "asia"), route(session.query(Company.class).where(x.region.eq("europe").or(x.region.eq("asia")))));
+    assertNull(route(session.query(Company.class).where(x.region.eq("europe").or(x.name.eq("Acme")))));
+    assertNull(route(session.query(Company.class).where(x.region.ne("europe"))));
+  }
+
+}
@@ -0,0 +1,120 @@
+package net.ravendb.client.shard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import net.ravendb.abstractions.data.SortedField;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.junit.Test;
+
+
+public class ShardedResultsMergerTest {
+
+  private static RavenJObject result(String name, Object age) {
+    RavenJObject result = new RavenJObject();
+    result.add("Name", new RavenJValue(name));
+    if (age != null) {
+      result.add("Age", RavenJValue.fromObject(age));
+    }
+    return result;
+  }
+
+  private static List<String> names(List<RavenJObject> results) {
+    List<String> names = new ArrayList<>();
+    for (RavenJObject result : results) {
+      names.add(result.value(String.class, "Name"));
+    }
+    return names;
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void mergesNumbersByValue() {
+    List<RavenJObject> shard1 = Arrays.asList(result("a", 2), result("b", 9.5), result("c", 100));
+    List<RavenJObject> shard2 = Arrays.asList(result("d", 3L), result("e", 10), result("f", 11.25));
+
+    ShardedResultsMerger merger = new ShardedResultsMerger(new SortedField[] { new SortedField("Age_Range") });
+    List<RavenJObject> merged = merger.merge(Arrays.asList(shard1, shard2));
+    assertEquals(Arrays.asList("a", "d", "b", "e", "f", "c"), names(merged));
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void mergesByMultipleFieldsAndKeepsShardOrderOfEqualResults() {
+    List<RavenJObject> shard1 = Arrays.asList(result("b", 5), result("b", 1), result("a", 7));
+    List<RavenJObject> shard2 = Arrays.asList(result("c", 3), result("b", 5), result("a", 9));
+
+    ShardedResultsMerger merger = new ShardedResultsMerger(new SortedField[] { new SortedField("-Name"), new SortedField("-Age_Range") });
+    List<RavenJObject> merged = merger.merge(Arrays.asList(shard1, shard2));
+    assertEquals(Arrays.asList("c", "b", "b", "b", "a", "a"), names(merged));
+    List<Integer> ages = new ArrayList<>();
+    for (RavenJObject result : merged) {
+      ages.add(result.value(Integer.class, "Age"));
+    }
+    assertEquals(Arrays.asList(3, 5, 5, 1, 9, 7), ages);
+    assertSame(shard1.get(0), merged.get(1));
+    assertSame(shard2.get(1), merged.get(2));
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void missingValuesGoFirst() {
+    List<RavenJObject> shard1 = Arrays.asList(result("a", null), result("b", 4));
+    List<RavenJObject> shard2 = Arrays.asList(result("c", 1), result("d", 5));
+    List<RavenJObject> shard3 = new ArrayList<>();
+
+    ShardedResultsMerger merger = new ShardedResultsMerger(new SortedField[] { new SortedField("Age") });
+    List<RavenJObject> merged = merger.merge(Arrays.asList(shard1, shard2, shard3));
+    assertEquals(Arrays.asList("a", "c", "b", "d"), names(merged));
+  }
+
+  @Test
+  public void mergeOfManyPagesMatchesSortOfAllResults() {
+    int shards = 16;
+    int pageSize = 1024;
+    Random random = new Random(1);
+    Comparator<RavenJObject> byTotalAndCompany = new Comparator<RavenJObject>() {
+      @Override
+      public int compare(RavenJObject o1, RavenJObject o2) {
+        int result = -Double.compare(o1.value(Double.class, "Total"), o2.value(Double.class, "Total"));
+        return result != 0 ? result : o1.value(String.class, "Company").compareTo(o2.value(String.class, "Company"));
+      }
+    };
+
+    List<List<RavenJObject>> shardResults = new ArrayList<>();
+    List<RavenJObject> allResults = new ArrayList<>();
+    for (int s = 0; s < shards; s++) {
+      List<RavenJObject> page = new ArrayList<>();
+      for (int i = 0; i < pageSize; i++) {
+        RavenJObject order = new RavenJObject();
+        order.add("Company", new RavenJValue("companies/" + random.nextInt(1000)));
+        order.add("Total", new RavenJValue(random.nextInt(10000) / 100.0));
+        page.add(order);
+      }
+      // shard pages come sorted from the server
+      Collections.sort(page, byTotalAndCompany);
+      shardResults.add(page);
+      allResults.addAll(page);
+    }
+    // sort is stable, so equal results keep shard order as well
+    Collections.sort(allResults, byTotalAndCompany);
+
+    ShardedResultsMerger merger = new ShardedResultsMerger(new SortedField[] { new SortedField("-Total_Range"), new SortedField("Company") });
+    List<RavenJObject> merged = merger.merge(shardResults);
+
+    assertEquals(allResults.size(), merged.size());
+    for (int i = 0; i < merged.size(); i++) {
+      assertSame(allResults.get(i), merged.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,256 @@
+package net.ravendb.client.shard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ravendb.abstractions.basic.CloseableIterator;
+import net.ravendb.abstractions.data.SortedField;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.junit.Test;
+
+
+public class ShardedStreamIteratorTest {
+
+  /**
+   * In memory shard stream, counts results read from it.
+   */
+  private static class ShardStream implements CloseableIterator<RavenJObject> {
+    private final Iterator<RavenJObject> inner;
+    private final long delayMillis;
+    private final AtomicInteger read = new AtomicInteger();
+    private volatile boolean closed;
+
+    public ShardStream(long delayMillis, RavenJObject... results) {
+      this.inner = Arrays.asList(results).iterator();
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return inner.hasNext();
+    }
+
+    @Override
+    public RavenJObject next() {
+      if (delayMillis > 0) {
+        try {
+          Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      read.incrementAndGet();
+      return inner.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  @SuppressWarnings("boxing")
+  private static RavenJObject result(String name, int age) {
+    RavenJObject result = new RavenJObject();
+    result.add("Name", new RavenJValue(name));
+    result.add("Age", new RavenJValue(age));
+    return result;
+  }
+
+  private static List<String> names(CloseableIterator<RavenJObject> iterator) {
+    List<String> names = new ArrayList<>();
+    while (iterator.hasNext()) {
+      names.add(iterator.next().value(String.class, "Name"));
+    }
+    return names;
+  }
+
+  private static List<CloseableIterator<RavenJObject>> shards(ShardStream... streams) {
+    return new ArrayList<CloseableIterator<RavenJObject>>(Arrays.asList(streams));
+  }
+
+  @Test
+  public void sortedStreamsAreMergedInOrder() {
+    ShardStream shard1 = new ShardStream(0, result("a", 1), result("c", 5), result("e", 9));
+    ShardStream shard2 = new ShardStream(0, result("b", 2), result("d", 6));
+    ShardStream shard3 = new ShardStream(0);
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.sorted(shards(shard1, shard2, shard3),
+      new SortedField[] { new SortedField("Age_Range") }, 0, Integer.MAX_VALUE)) {
+      assertEquals(Arrays.asList("a", "b", "c", "d", "e"), names(iterator));
+    }
+    assertTrue(shard1.closed);
+    assertTrue(shard2.closed);
+    assertTrue(shard3.closed);
+  }
+
+  @Test
+  public void sortedStreamsArePagedAfterMerge() {
+    ShardStream shard1 = new ShardStream(0, result("a", 1), result("c", 5), result("e", 9), result("g", 11));
+    ShardStream shard2 = new ShardStream(0, result("b", 2), result("d", 6), result("f", 10), result("h", 12));
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.sorted(shards(shard1, shard2),
+      new SortedField[] { new SortedField("Age_Range") }, 2, 3)) {
+      assertEquals(Arrays.asList("c", "d", "e"), names(iterator));
+    }
+    // shards are read only as far as merge requires: one result ahead of merged stream
+    assertEquals(4, shard1.read.get());
+    assertEquals(3, shard2.read.get());
+  }
+
+  @Test
+  public void interleavedStreamsReturnAllResults() {
+    List<ShardStream> streams = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int s = 0; s < 4; s++) {
+      RavenJObject[] results = new RavenJObject[100];
+      for (int i = 0; i < results.length; i++) {
+        results[i] = result(s + "/" + i, i);
+        expected.add(s + "/" + i);
+      }
+      streams.add(new ShardStream(0, results));
+    }
+
+    List<String> names;
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shards(streams.toArray(new ShardStream[0])), 8, 0, Integer.MAX_VALUE)) {
+      names = names(iterator);
+    }
+    Collections.sort(names);
+    Collections.sort(expected);
+    assertEquals(expected, names);
+    for (ShardStream stream : streams) {
+      assertTrue(stream.closed);
+    }
+  }
+
+  @Test
+  public void interleavedStreamsAreNotBlockedBySlowShard() {
+    ShardStream slow = new ShardStream(200, result("slow", 0));
+    ShardStream fast = new ShardStream(0, result("a", 0), result("b", 0), result("c", 0));
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shards(slow, fast), 8, 0, Integer.MAX_VALUE)) {
+      assertEquals(Arrays.asList("a", "b", "c", "slow"), names(iterator));
+    }
+  }
+
+  @Test
+  public void interleavedStreamsArePagedAfterMerge() {
+    ShardStream shard1 = new ShardStream(0, result("a", 0), result("b", 0), result("c", 0));
+    ShardStream shard2 = new ShardStream(0, result("d", 0), result("e", 0), result("f", 0));
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shards(shard1, shard2), 8, 4, 10)) {
+      assertEquals(2, names(iterator).size());
+    }
+  }
+
+  @Test
+  public void closeStopsReadingOfAllShards() {
+    RavenJObject[] results = new RavenJObject[10000];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = result("r" + i, i);
+    }
+    ShardStream shard1 = new ShardStream(0, results);
+    ShardStream shard2 = new ShardStream(0, results);
+
+    ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shards(shard1, shard2), 4, 0, Integer.MAX_VALUE);
+    assertTrue(iterator.hasNext());
+    iterator.next();
+    iterator.close();
+    assertFalse(iterator.hasNext());
+    assertTrue(shard1.closed);
+    assertTrue(shard2.closed);
+
+    // readers are stopped and are blocked by buffer size until then
+    int read = shard1.read.get() + shard2.read.get();
+    assertTrue("Too many results were read: " + read, read <= 1 + 4 + 2);
+  }
+
+  @Test
+  public void readersRunOnInjectedExecutor() throws InterruptedException {
+    final AtomicInteger readers = new AtomicInteger();
+    final ExecutorService pool = Executors.newFixedThreadPool(2);
+    Executor executor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        readers.incrementAndGet();
+        pool.execute(command);
+      }
+    };
+    try {
+      ShardStream shard1 = new ShardStream(0, result("a", 0), result("b", 0));
+      ShardStream shard2 = new ShardStream(0, result("c", 0));
+      try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shards(shard1, shard2), 8, 0, Integer.MAX_VALUE, executor)) {
+        assertEquals(3, names(iterator).size());
+      }
+      assertEquals(2, readers.get());
+      assertFalse(pool.isShutdown());
+    } finally {
+      pool.shutdown();
+    }
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failureOfShardIsPropagated() {
+    ShardStream shard1 = new ShardStream(0, result("a", 0));
+    CloseableIterator<RavenJObject> failing = new ShardStream(0, result("b", 0)) {
+      @Override
+      public RavenJObject next() {
+        throw new IllegalStateException("Shard failed");
+      }
+    };
+    List<CloseableIterator<RavenJObject>> shardIterators = new ArrayList<>();
+    shardIterators.add(shard1);
+    shardIterators.add(failing);
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shardIterators, 8, 0, Integer.MAX_VALUE)) {
+      names(iterator);
+    }
+  }
+
+  @Test
+  public void iteratorIsTerminalAfterErrorOfShard() {
+    CloseableIterator<RavenJObject> failing = new ShardStream(0, result("a", 0)) {
+      @Override
+      public RavenJObject next() {
+        throw new AssertionError("Shard failed");
+      }
+    };
+    List<CloseableIterator<RavenJObject>> shardIterators = new ArrayList<>();
+    shardIterators.add(new ShardStream(0, result("b", 0)));
+    shardIterators.add(failing);
+
+    try (ShardedStreamIterator iterator = ShardedStreamIterator.interleaved(shardIterators, 8, 0, Integer.MAX_VALUE)) {
+      int failures = 0;
+      for (int i = 0; i < 3; i++) {
+        try {
+          names(iterator);
+        } catch (AssertionError e) {
+          assertEquals("Shard failed", e.getMessage());
+          failures++;
+        }
+      }
+      assertEquals(3, failures);
+    }
+  }
+
+}
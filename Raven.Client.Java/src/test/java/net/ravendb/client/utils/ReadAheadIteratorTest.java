@@ -0,0 +1,125 @@
+package net.ravendb.client.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ravendb.abstractions.basic.CleanCloseable;
+import net.ravendb.abstractions.basic.CloseableIterator;
+
+import org.junit.Test;
+
+
+public class ReadAheadIteratorTest {
+
+  private static class CountingIterator implements CloseableIterator<Integer> {
+    private final int count;
+    private final AtomicInteger produced = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Integer failAt;
+
+    public CountingIterator(int count, Integer failAt) {
+      this.count = count;
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return produced.get() < count;
+    }
+
+    @SuppressWarnings("boxing")
+    @Override
+    public Integer next() {
+      int value = produced.getAndIncrement();
+      if (failAt != null && value == failAt) {
+        throw new IllegalStateException("Broken stream");
+      }
+      return value;
+    }
+
+    @Override
+    public void remove() {
+      throw new IllegalStateException("Not implemented!");
+    }
+
+    @Override
+    public void close() {
+      closed.set(true);
+    }
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void returnsAllItemsInOrder() {
+    CountingIterator inner = new CountingIterator(1000, null);
+    try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(inner, 10, null)) {
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(iterator.hasNext());
+        assertEquals(Integer.valueOf(i), iterator.next());
+      }
+      assertFalse(iterator.hasNext());
+    }
+    assertTrue(inner.closed.get());
+  }
+
+  @Test
+  public void keepsBufferBoundedAndStopsOnClose() throws InterruptedException {
+    CountingIterator inner = new CountingIterator(Integer.MAX_VALUE, null);
+    final AtomicBoolean aborted = new AtomicBoolean();
+    ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(inner, 10, new CleanCloseable() {
+      @Override
+      public void close() {
+        aborted.set(true);
+      }
+    });
+    iterator.next();
+    Thread.sleep(200);
+    assertTrue(inner.produced.get() <= 12);
+
+    iterator.close();
+    assertTrue(aborted.get());
+    assertTrue(inner.closed.get());
+    assertFalse(iterator.hasNext());
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void rethrowsExceptionFromInnerIterator() {
+    try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(new CountingIterator(100, 5), 10, null)) {
+      for (int i = 0; i < 5; i++) {
+        assertEquals(Integer.valueOf(i), iterator.next());
+      }
+      try {
+        iterator.next();
+        fail();
+      } catch (IllegalStateException e) {
+        assertEquals("Broken stream", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void rethrowsErrorFromInnerIterator() {
+    CountingIterator inner = new CountingIterator(100, null) {
+      @Override
+      public Integer next() {
+        throw new AssertionError("Decoder failed");
+      }
+    };
+    try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(inner, 10, null)) {
+      for (int i = 0; i < 2; i++) {
+        try {
+          iterator.hasNext();
+          fail();
+        } catch (AssertionError e) {
+          assertEquals("Decoder failed", e.getMessage());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package net.ravendb.java.http.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import net.ravendb.abstractions.json.linq.RavenJArray;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+import net.ravendb.client.connection.implementation.StreamingJsonEntity;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Consts;
+import org.apache.http.entity.StringEntity;
+import org.junit.Test;
+
+
+public class PooledGzipStreamsTest {
+
+  private static byte[] sampleData() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      sb.append("{\"Name\":\"users/").append(i).append("\",\"Age\":").append(i % 90).append("}");
+    }
+    return sb.toString().getBytes(Consts.UTF_8);
+  }
+
+  @Test
+  public void canBeReadByGzipInputStream() throws IOException {
+    byte[] data = sampleData();
+    for (int round = 0; round < 3; round++) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (PooledGzipOutputStream gzip = new PooledGzipOutputStream(compressed)) {
+        gzip.write(data, 0, 100);
+        gzip.write(data, 100, data.length - 100);
+      }
+      assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))));
+    }
+  }
+
+  @Test
+  public void canReadGzipOutputStream() throws IOException {
+    byte[] data = sampleData();
+    for (int round = 0; round < 3; round++) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(data);
+      }
+      try (PooledGzipInputStream input = new PooledGzipInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+        assertArrayEquals(data, IOUtils.toByteArray(input));
+        assertEquals(-1, input.read());
+      }
+    }
+  }
+
+  @Test
+  public void canReadHeaderWithFileName() throws IOException {
+    byte[] data = "{\"Name\":\"Ayende\"}".getBytes(Consts.UTF_8);
+    ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(raw)) {
+      gzip.write(data);
+    }
+    byte[] compressed = raw.toByteArray();
+
+    // set FNAME flag and insert file name after fixed header
+    ByteArrayOutputStream withName = new ByteArrayOutputStream();
+    withName.write(compressed, 0, 3);
+    withName.write(compressed[3] | 8);
+    withName.write(compressed, 4, 6);
+    withName.write("data.json\0".getBytes(Consts.UTF_8));
+    withName.write(compressed, 10, compressed.length - 10);
+
+    try (PooledGzipInputStream input = new PooledGzipInputStream(new ByteArrayInputStream(withName.toByteArray()))) {
+      assertArrayEquals(data, IOUtils.toByteArray(input));
+    }
+  }
+
+  @Test(expected = EOFException.class)
+  public void emptyStreamIsReported() throws IOException {
+    new PooledGzipInputStream(new ByteArrayInputStream(new byte[0])).close();
+  }
+
+  @Test(expected = ZipException.class)
+  public void corruptedTrailerIsReported() throws IOException {
+    ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    try (PooledGzipOutputStream gzip = new PooledGzipOutputStream(raw)) {
+      gzip.write(sampleData());
+    }
+    byte[] compressed = raw.toByteArray();
+    compressed[compressed.length - 5]++;
+    try (PooledGzipInputStream input = new PooledGzipInputStream(new ByteArrayInputStream(compressed))) {
+      IOUtils.toByteArray(input);
+    }
+  }
+
+  @Test
+  public void streamingEntityWritesSameJsonAsString() throws IOException {
+    RavenJObject document = new RavenJObject();
+    document.add("Name", new RavenJValue("Zażółć"));
+    document.add("Tags", new RavenJArray(new RavenJValue(1), new RavenJValue(2.5)));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StreamingJsonEntity entity = StreamingJsonEntity.of(document);
+    entity.writeTo(output);
+    assertEquals(document.toString(), new String(output.toByteArray(), Consts.UTF_8));
+    assertEquals(document.toString(), IOUtils.toString(entity.getContent(), "UTF-8"));
+    assertEquals(-1, entity.getContentLength());
+  }
+
+  @Test
+  public void releasedInstancesAreReused() {
+    Deflater deflater = ZlibPool.borrowDeflater();
+    Inflater inflater = ZlibPool.borrowInflater();
+    ZlibPool.releaseDeflater(deflater);
+    ZlibPool.releaseInflater(inflater);
+
+    // pool is shared, so released instances can be queued behind ones returned by other streams
+    List<Deflater> deflaters = new ArrayList<>();
+    List<Inflater> inflaters = new ArrayList<>();
+    try {
+      while (!deflaters.contains(deflater)) {
+        assertTrue("Deflater was not pooled", deflaters.size() < 16);
+        deflaters.add(ZlibPool.borrowDeflater());
+      }
+      while (!inflaters.contains(inflater)) {
+        assertTrue("Inflater was not pooled", inflaters.size() < 16);
+        inflaters.add(ZlibPool.borrowInflater());
+      }
+    } finally {
+      for (Deflater borrowed : deflaters) {
+        ZlibPool.releaseDeflater(borrowed);
+      }
+      for (Inflater borrowed : inflaters) {
+        ZlibPool.releaseInflater(borrowed);
+      }
+    }
+  }
+
+  @Test
+  public void reusedDeflaterStartsNewStream() throws IOException {
+    byte[] data = sampleData();
+    // every round borrows deflater and inflater released by previous one
+    for (int round = 0; round < 20; round++) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (PooledGzipOutputStream gzip = new PooledGzipOutputStream(compressed)) {
+        gzip.write(data);
+      }
+      try (PooledGzipInputStream input = new PooledGzipInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+        assertArrayEquals(data, IOUtils.toByteArray(input));
+      }
+    }
+  }
+
+  @Test
+  public void deflaterIsReleasedWhenEntityFails() {
+    final List<OutputStream> streams = new ArrayList<>();
+    GzipHttpEntity entity = new GzipHttpEntity(new StringEntity("{}", Consts.UTF_8) {
+      @Override
+      public void writeTo(OutputStream outstream) throws IOException {
+        streams.add(outstream);
+        throw new IOException("Broken body");
+      }
+    });
+    try {
+      entity.writeTo(new ByteArrayOutputStream());
+      fail();
+    } catch (IOException e) {
+      assertEquals("Broken body", e.getMessage());
+    }
+    try {
+      streams.get(0).write(sampleData());
+      fail();
+    } catch (IOException e) {
+      assertEquals("write beyond end of stream", e.getMessage());
+    }
+  }
+
+}
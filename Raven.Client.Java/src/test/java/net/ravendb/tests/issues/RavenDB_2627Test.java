@@ -326,6 +326,121 @@ public class RavenDB_2627Test extends RemoteClientTest {
         }
     }
 
+    @SuppressWarnings("boxing")
+    @Test
+    public void shouldDeliverEveryDocumentOnceWhenPrefetchingNextBatch() {
+        try (IDocumentStore store = new DocumentStore(getDefaultUrl(), getDefaultDb()).initialize()) {
+            try (IDocumentSession session = store.openSession()) {
+                for (int i = 0; i < 100; i++) {
+                    session.store(new Company());
+                }
+                session.saveChanges();
+            }
+
+            long id = store.subscriptions().create(new SubscriptionCriteria());
+            SubscriptionBatchOptions batchOptions = new SubscriptionBatchOptions();
+            batchOptions.setMaxDocCount(25);
+            SubscriptionConnectionOptions connectionOptions = new SubscriptionConnectionOptions(batchOptions);
+            connectionOptions.setPrefetchDepth(10);
+            Subscription<RavenJObject> subscription = store.subscriptions().open(id, connectionOptions);
+
+            final List<String> keys = Collections.synchronizedList(new ArrayList<String>());
+            final List<Etag> acknowledgedEtags = Collections.synchronizedList(new ArrayList<Etag>());
+            subscription.addAfterAcknowledgmentHandler(new EventHandler<Subscription.LastProcessedEtagEventArgs>() {
+                @Override
+                public void handle(Object sender, Subscription.LastProcessedEtagEventArgs event) {
+                    acknowledgedEtags.add(event.getLastProcessedEtag());
+                }
+            });
+            subscription.subscribe(new ObserverAdapter<RavenJObject>() {
+                @Override
+                public void onNext(RavenJObject value) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    keys.add(value.value(RavenJObject.class, Constants.METADATA).value(String.class, "@id"));
+                }
+            });
+
+            boolean result = SpinWait.spinUntil(new Function0<Boolean>() {
+                @Override
+                public Boolean apply() {
+                    return keys.size() >= 100;
+                }
+            }, 60 * 1000L);
+
+            assertTrue(result);
+
+            assertEquals(100, keys.size());
+            assertEquals(100, new HashSet<>(keys).size());
+
+            for (int i = 1; i < acknowledgedEtags.size(); i++) {
+                assertTrue(acknowledgedEtags.get(i).compareTo(acknowledgedEtags.get(i - 1)) > 0);
+            }
+        }
+    }
+
+    @SuppressWarnings("boxing")
+    @Test
+    public void shouldProcessBatchWithMultipleWorkers() {
+        try (IDocumentStore store = new DocumentStore(getDefaultUrl(), getDefaultDb()).initialize()) {
+            try (IDocumentSession session = store.openSession()) {
+                for (int i = 0; i < 100; i++) {
+                    session.store(new Company());
+                }
+                session.saveChanges();
+            }
+
+            long id = store.subscriptions().create(new SubscriptionCriteria());
+            SubscriptionBatchOptions batchOptions = new SubscriptionBatchOptions();
+            batchOptions.setMaxDocCount(25);
+            SubscriptionConnectionOptions connectionOptions = new SubscriptionConnectionOptions(batchOptions);
+            connectionOptions.setProcessingWorkers(4);
+            Subscription<Company> subscription = store.subscriptions().open(Company.class, id, connectionOptions);
+
+            final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            final List<String> keys = Collections.synchronizedList(new ArrayList<String>());
+            final List<Subscription.DocumentProcessedEventArgs> batches = Collections.synchronizedList(new ArrayList<Subscription.DocumentProcessedEventArgs>());
+            subscription.addAfterBatchHandler(new EventHandler<Subscription.DocumentProcessedEventArgs>() {
+                @Override
+                public void handle(Object sender, Subscription.DocumentProcessedEventArgs event) {
+                    batches.add(event);
+                }
+            });
+            subscription.subscribe(new ObserverAdapter<Company>() {
+                @Override
+                public void onNext(Company value) {
+                    threads.add(Thread.currentThread().getName());
+                    keys.add(value.getId());
+                }
+            });
+
+            boolean result = SpinWait.spinUntil(new Function0<Boolean>() {
+                @Override
+                public Boolean apply() {
+                    return batches.size() >= 4;
+                }
+            }, 60 * 1000L);
+
+            assertTrue(result);
+
+            assertEquals(100, new HashSet<>(keys).size());
+            assertTrue(threads.size() > 1);
+
+            for (Subscription.DocumentProcessedEventArgs batch : batches) {
+                assertEquals(25, batch.getDocumentsProcessed());
+                assertEquals(4, batch.getWorkerStatistics().size());
+                int total = 0;
+                for (Subscription.WorkerStatistics statistics : batch.getWorkerStatistics()) {
+                    total += statistics.getDocumentsProcessed();
+                }
+                assertEquals(25, total);
+            }
+        }
+    }
+
     @SuppressWarnings("boxing")
     @Test
     public void shouldRespectMaxBatchSize() {
@@ -0,0 +1,127 @@
+package net.ravendb.tests.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.ravendb.abstractions.exceptions.JsonReaderException;
+import net.ravendb.abstractions.json.linq.RavenJArray;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJToken;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.apache.http.Consts;
+import org.junit.Test;
+
+
+public class LazyDocumentParsingTest {
+
+  private static final String QUERY_RESULT = "{\"Results\":["
+    + "{\"Name\":\"Ayende\",\"Tags\":[\"a\",\"b\"],\"Address\":{\"City\":\"Hadera\"},\"Escaped\":\"q\\\"uote\","
+    + "\"@metadata\":{\"@id\":\"users/1\",\"Raven-Entity-Name\":\"Users\"}},"
+    + "null,"
+    + "{\"Name\":\"Oren\",\"@metadata\":{\"@id\":\"users/2\"}}"
+    + "],\"Includes\":[],\"IsStale\":false,\"TotalResults\":2}";
+
+  private static RavenJObject loadLazily(String json) {
+    return (RavenJObject) RavenJToken.tryLoadLazily(json.getBytes(Consts.UTF_8), "Results", "Includes");
+  }
+
+  @Test
+  public void lazyResultsAreEqualToParsedOnes() {
+    RavenJObject lazy = loadLazily(QUERY_RESULT);
+    RavenJObject eager = RavenJObject.parse(QUERY_RESULT);
+
+    assertTrue(lazy.deepEquals(eager));
+    assertTrue(eager.deepEquals(lazy));
+    assertEquals(eager.toString(), lazy.toString());
+    assertEquals(Boolean.FALSE, lazy.value(Boolean.class, "IsStale"));
+    assertEquals(3, lazy.value(RavenJArray.class, "Results").size());
+  }
+
+  @Test
+  public void propertiesCanBeReadOneByOne() {
+    RavenJObject document = (RavenJObject) loadLazily(QUERY_RESULT).value(RavenJArray.class, "Results").get(0);
+
+    assertTrue(document.containsKey("@metadata"));
+    assertFalse(document.containsKey("Missing"));
+    assertNull(document.get("Missing"));
+    assertEquals("users/1", document.get("@metadata").value(String.class, "@id"));
+    assertEquals("q\"uote", document.value(String.class, "Escaped"));
+    assertEquals(5, document.getCount());
+    assertEquals("Hadera", document.value(RavenJObject.class, "Address").value(String.class, "City"));
+  }
+
+  @Test
+  public void changesAreKeptWhenDocumentIsMaterialized() {
+    RavenJObject document = (RavenJObject) loadLazily(QUERY_RESULT).value(RavenJArray.class, "Results").get(0);
+
+    RavenJObject metadata = (RavenJObject) document.get("@metadata");
+    metadata.add("Last-Modified", new RavenJValue("today"));
+    assertTrue(document.remove("Tags"));
+    assertFalse(document.containsKey("Tags"));
+
+    String expected = "{\"Name\":\"Ayende\",\"Address\":{\"City\":\"Hadera\"},\"Escaped\":\"q\\\"uote\","
+      + "\"@metadata\":{\"@id\":\"users/1\",\"Raven-Entity-Name\":\"Users\",\"Last-Modified\":\"today\"}}";
+    assertEquals(expected, document.toString());
+
+    RavenJObject clone = document.cloneToken();
+    document.add("Age", new RavenJValue(30));
+    assertEquals(5, document.getCount());
+    assertEquals(expected, clone.toString());
+    assertEquals("today", clone.get("@metadata").value(String.class, "Last-Modified"));
+    assertEquals(4, clone.getKeys().size());
+  }
+
+  @Test
+  public void clonesDoNotShareParsedValues() {
+    RavenJObject document = (RavenJObject) loadLazily(QUERY_RESULT).value(RavenJArray.class, "Results").get(2);
+    RavenJObject clone = document.cloneToken();
+
+    ((RavenJObject) clone.get("@metadata")).add("Changed", new RavenJValue(true));
+    assertFalse(document.value(RavenJObject.class, "@metadata").containsKey("Changed"));
+    assertEquals("{\"Name\":\"Oren\",\"@metadata\":{\"@id\":\"users/2\"}}", document.toString());
+  }
+
+  @Test
+  public void snapshotsCannotBeChanged() {
+    RavenJObject document = (RavenJObject) loadLazily(QUERY_RESULT).value(RavenJArray.class, "Results").get(2);
+    document.ensureCannotBeChangeAndEnableShapshotting();
+    assertTrue(document.isSnapshot());
+    try {
+      document.remove("Name");
+      throw new AssertionError("Snapshot was modified");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    RavenJObject snapshot = (RavenJObject) document.createSnapshot();
+    snapshot.add("Age", new RavenJValue(30));
+    assertFalse(document.containsKey("Age"));
+  }
+
+  @Test
+  public void nonObjectResponsesAreParsedAsUsual() {
+    assertNull(RavenJToken.tryLoadLazily(" \n".getBytes(Consts.UTF_8), "Results"));
+    assertEquals("[1,2]", RavenJToken.tryLoadLazily("[1,2]".getBytes(Consts.UTF_8), "Results").toString());
+    assertEquals("{\"Results\":5}", RavenJToken.tryLoadLazily("{\"Results\":5}".getBytes(Consts.UTF_8), "Results").toString());
+  }
+
+  @Test
+  public void valuesAreNotParsedUntilAccessed() {
+    String json = "{\"Results\":[{\"Name\":\"Ayende\",\"Lines\":[{\"Price\":1.5},nope],\"@metadata\":{\"@id\":\"users/1\"}}],\"Includes\":[]}";
+    RavenJObject document = (RavenJObject) loadLazily(json).value(RavenJArray.class, "Results").get(0);
+
+    // invalid value is skipped as long as nobody reads it
+    assertEquals("users/1", document.get("@metadata").value(String.class, "@id"));
+    assertEquals("Ayende", document.value(String.class, "Name"));
+    assertTrue(document.containsKey("Lines"));
+    try {
+      document.get("Lines");
+      throw new AssertionError("Invalid value was parsed");
+    } catch (JsonReaderException e) {
+      // expected
+    }
+  }
+
+}
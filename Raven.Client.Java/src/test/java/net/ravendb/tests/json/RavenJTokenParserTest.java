@@ -0,0 +1,194 @@
+package net.ravendb.tests.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import net.ravendb.abstractions.extensions.JsonExtensions;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJTokenParser;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+
+public class RavenJTokenParserTest {
+
+  public static class Order {
+    private String company;
+    private int lines;
+    private long total;
+    private double freight;
+    private boolean shipped;
+    private String[] tags;
+    private List<OrderLine> orderLines;
+    private RavenJObject extra;
+    private byte[] signature;
+
+    public String getCompany() {
+      return company;
+    }
+    public void setCompany(String company) {
+      this.company = company;
+    }
+    public int getLines() {
+      return lines;
+    }
+    public void setLines(int lines) {
+      this.lines = lines;
+    }
+    public long getTotal() {
+      return total;
+    }
+    public void setTotal(long total) {
+      this.total = total;
+    }
+    public double getFreight() {
+      return freight;
+    }
+    public void setFreight(double freight) {
+      this.freight = freight;
+    }
+    public boolean isShipped() {
+      return shipped;
+    }
+    public void setShipped(boolean shipped) {
+      this.shipped = shipped;
+    }
+    public String[] getTags() {
+      return tags;
+    }
+    public void setTags(String[] tags) {
+      this.tags = tags;
+    }
+    public List<OrderLine> getOrderLines() {
+      return orderLines;
+    }
+    public void setOrderLines(List<OrderLine> orderLines) {
+      this.orderLines = orderLines;
+    }
+    public RavenJObject getExtra() {
+      return extra;
+    }
+    public void setExtra(RavenJObject extra) {
+      this.extra = extra;
+    }
+    public byte[] getSignature() {
+      return signature;
+    }
+    public void setSignature(byte[] signature) {
+      this.signature = signature;
+    }
+  }
+
+  public static class OrderLine {
+    private String product;
+    private Integer quantity;
+
+    public String getProduct() {
+      return product;
+    }
+    public void setProduct(String product) {
+      this.product = product;
+    }
+    public Integer getQuantity() {
+      return quantity;
+    }
+    public void setQuantity(Integer quantity) {
+      this.quantity = quantity;
+    }
+  }
+
+  private static String createDocument(int i) {
+    return "{\"Company\":\"companies/" + i + "\",\"Lines\":2,\"Total\":12345678901,\"Freight\":12.5,\"Shipped\":true,"
+      + "\"Tags\":[\"a\",\"b\",null],\"OrderLines\":[{\"Product\":\"products/1\",\"Quantity\":3},{\"Product\":\"products/2\",\"Quantity\":null}],"
+      + "\"Extra\":{\"Nested\":{\"Value\":[1,2.5,\"x\"]},\"Empty\":{},\"EmptyArray\":[]},\"Signature\":\"AQID\","
+      + "\"@metadata\":{\"Raven-Entity-Name\":\"Orders\",\"@id\":\"orders/" + i + "\"}}";
+  }
+
+  @Test
+  public void producesSameEventsAsTextParser() throws IOException {
+    RavenJObject document = RavenJObject.parse(createDocument(1));
+    JsonParser textParser = new JsonFactory().createJsonParser(document.toString());
+    JsonParser treeParser = new RavenJTokenParser(document);
+
+    JsonToken token;
+    while ((token = textParser.nextToken()) != null) {
+      assertEquals(token, treeParser.nextToken());
+      assertEquals(textParser.getCurrentName(), treeParser.getCurrentName());
+      assertEquals(textParser.getText(), treeParser.getText());
+      assertEquals(textParser.getParsingContext().getTypeDesc(), treeParser.getParsingContext().getTypeDesc());
+      if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+        assertEquals(textParser.getNumberType(), treeParser.getNumberType());
+        assertEquals(textParser.getNumberValue(), treeParser.getNumberValue());
+      }
+    }
+    assertNull(treeParser.nextToken());
+  }
+
+  @Test
+  public void canBindEntityFromTree() throws IOException {
+    ObjectMapper mapper = JsonExtensions.createDefaultJsonSerializer();
+    RavenJObject document = RavenJObject.parse(createDocument(7));
+
+    Order order = mapper.readValue(new RavenJTokenParser(document), Order.class);
+
+    assertEquals("companies/7", order.getCompany());
+    assertEquals(2, order.getLines());
+    assertEquals(12345678901L, order.getTotal());
+    assertEquals(12.5, order.getFreight(), 0.0001);
+    assertEquals(true, order.isShipped());
+    assertArrayEquals(new String[] { "a", "b", null }, order.getTags());
+    assertEquals(2, order.getOrderLines().size());
+    assertEquals(Integer.valueOf(3), order.getOrderLines().get(0).getQuantity());
+    assertNull(order.getOrderLines().get(1).getQuantity());
+    assertArrayEquals(new byte[] { 1, 2, 3 }, order.getSignature());
+    assertEquals(document.get("Extra").toString(), order.getExtra().toString());
+
+    // nested tokens are copied, so entity doesn't share state with document
+    order.getExtra().add("Changed", new RavenJValue(true));
+    assertNull(document.value(RavenJObject.class, "Extra").get("Changed"));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void untypedBindingMatchesTextBinding() throws IOException {
+    ObjectMapper mapper = JsonExtensions.createDefaultJsonSerializer();
+    RavenJObject document = RavenJObject.parse(createDocument(3));
+    document.add("Bytes", new RavenJValue(new byte[] { 4, 5, 6 }));
+
+    Map<String, Object> viaString = mapper.readValue(document.toString(), Map.class);
+    Map<String, Object> viaTree = mapper.readValue(new RavenJTokenParser(document), Map.class);
+
+    assertEquals(viaString, viaTree);
+    assertEquals(viaString.get("Total").getClass(), viaTree.get("Total").getClass());
+  }
+
+  @Test
+  public void typedBindingMatchesTextBinding() throws IOException {
+    ObjectMapper mapper = JsonExtensions.createDefaultJsonSerializer();
+    for (int i = 0; i < 10; i++) {
+      RavenJObject document = RavenJObject.parse(createDocument(i));
+
+      Order viaString = mapper.readValue(document.toString(), Order.class);
+      Order viaTree = mapper.readValue(new RavenJTokenParser(document), Order.class);
+
+      assertEquals(viaString.getCompany(), viaTree.getCompany());
+      assertEquals(viaString.getTotal(), viaTree.getTotal());
+      assertEquals(viaString.getFreight(), viaTree.getFreight(), 0.0001);
+      assertArrayEquals(viaString.getTags(), viaTree.getTags());
+      assertEquals(viaString.getOrderLines().get(0).getProduct(), viaTree.getOrderLines().get(0).getProduct());
+      assertArrayEquals(viaString.getSignature(), viaTree.getSignature());
+      assertEquals(viaString.getExtra().toString(), viaTree.getExtra().toString());
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package net.ravendb.tests.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import net.ravendb.abstractions.json.linq.JTokenType;
+import net.ravendb.abstractions.json.linq.RavenJArray;
+import net.ravendb.abstractions.json.linq.RavenJObject;
+import net.ravendb.abstractions.json.linq.RavenJToken;
+import net.ravendb.abstractions.json.linq.RavenJValue;
+
+import org.junit.Test;
+
+
+public class RavenJValueTest {
+
+  @Test
+  public void parsedValuesBehaveLikeBoxedOnes() {
+    RavenJObject parsed = RavenJObject.parse("{\"Int\": 12, \"Negative\": -7, \"Long\": 12345678901, \"Double\": 2.5, \"Flag\": true, \"Name\": \"Users\", \"Nothing\": null}");
+
+    assertEquals(Integer.valueOf(12), ((RavenJValue) parsed.get("Int")).getValue());
+    assertEquals(Long.valueOf(12345678901L), ((RavenJValue) parsed.get("Long")).getValue());
+    assertEquals(Double.valueOf(2.5), ((RavenJValue) parsed.get("Double")).getValue());
+
+    RavenJObject boxed = new RavenJObject();
+    boxed.add("Int", new RavenJValue(12));
+    boxed.add("Negative", new RavenJValue(-7));
+    boxed.add("Long", new RavenJValue(12345678901L));
+    boxed.add("Double", new RavenJValue(2.5));
+    boxed.add("Flag", new RavenJValue(true));
+    boxed.add("Name", new RavenJValue("Users"));
+    boxed.add("Nothing", new RavenJValue((Object) null));
+
+    assertTrue(parsed.deepEquals(boxed));
+    assertTrue(boxed.deepEquals(parsed));
+    assertEquals(boxed.deepHashCode(), parsed.deepHashCode());
+    assertEquals(boxed.toString(), parsed.toString());
+    assertEquals(parsed.toString(), parsed.cloneToken().toString());
+
+    RavenJArray parsedArray = RavenJArray.parse("[1, 2.5]");
+    assertTrue(new RavenJArray(new RavenJValue(1), new RavenJValue(2.5)).deepEquals(parsedArray));
+    assertTrue(!new RavenJArray(new RavenJValue(1), new RavenJValue(3.5)).deepEquals(parsedArray));
+  }
+
+  @Test
+  public void parsedValuesCanBeChanged() {
+    RavenJObject parsed = RavenJObject.parse("{\"Count\": 12}");
+    RavenJValue count = (RavenJValue) parsed.get("Count");
+    count.setValue("many");
+    assertEquals(JTokenType.STRING, count.getType());
+    assertEquals("many", count.getValue());
+    assertEquals("{\"Count\":\"many\"}", parsed.toString());
+
+    RavenJToken snapshotSource = RavenJToken.parse("42");
+    snapshotSource.ensureCannotBeChangeAndEnableShapshotting();
+    RavenJValue snapshot = (RavenJValue) snapshotSource.createSnapshot();
+    snapshot.setValue(Long.valueOf(43));
+    assertEquals(Integer.valueOf(42), ((RavenJValue) snapshotSource).getValue());
+    assertEquals(Long.valueOf(43), snapshot.getValue());
+  }
+
+  @Test
+  public void nullsAreShared() {
+    RavenJObject parsed = RavenJObject.parse("{\"A\": null, \"B\": null}");
+    RavenJValue sharedNull = (RavenJValue) parsed.get("A");
+    assertSame(sharedNull, parsed.get("B"));
+    assertSame(sharedNull, parsed.cloneToken().get("A"));
+    assertTrue(sharedNull.isSnapshot());
+    try {
+      sharedNull.setValue("value");
+      throw new AssertionError("Shared null was modified");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void getNullReturnsNewValue() {
+    RavenJValue value = RavenJValue.getNull();
+    assertNotSame(value, RavenJValue.getNull());
+    value.setValue("value");
+    assertEquals("value", value.getValue());
+    assertEquals(JTokenType.NULL, RavenJValue.getNull().getType());
+  }
+
+  @Test
+  public void datesAreWrittenWithSharedFormat() {
+    RavenJObject document = new RavenJObject();
+    document.add("Date", new RavenJValue(new Date(0)));
+    assertEquals("{\"Date\":\"1970-01-01T00:00:00.0000000Z\"}", document.toString());
+  }
+
+  @Test
+  public void repeatedShortStringsAreShared() {
+    RavenJArray array = RavenJArray.parse("[{\"Status\": \"Shipped\", \"Note\": null}, {\"Status\": \"Shipped\", \"Note\": null}]");
+    RavenJObject first = (RavenJObject) array.get(0);
+    RavenJObject second = (RavenJObject) array.get(1);
+
+    assertSame(first.value(String.class, "Status"), second.value(String.class, "Status"));
+    assertSame(first.get("Note"), second.get("Note"));
+    assertEquals("[{\"Status\":\"Shipped\",\"Note\":null},{\"Status\":\"Shipped\",\"Note\":null}]", array.toString());
+  }
+
+}
@@ -0,0 +1,145 @@
+package net.ravendb.tests.linq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ravendb.client.IDocumentSession;
+import net.ravendb.client.IDocumentStore;
+import net.ravendb.client.delegates.PropertyNameFinder;
+import net.ravendb.client.document.DocumentStore;
+
+import org.codehaus.jackson.annotate.JsonProperty;
+import org.junit.After;
+import org.junit.Test;
+
+import com.mysema.query.annotations.QueryEntity;
+
+
+public class QueryMemberCacheTest {
+
+  private IDocumentStore store;
+  private IDocumentSession session;
+
+  public QueryMemberCacheTest() {
+    store = new DocumentStore("http://fake");
+    store.initialize();
+    session = store.openSession();
+  }
+
+  @QueryEntity
+  public static class Order {
+    private String company;
+    private double total;
+    private Address shipTo;
+
+    public String getCompany() {
+      return company;
+    }
+    public void setCompany(String company) {
+      this.company = company;
+    }
+    public double getTotal() {
+      return total;
+    }
+    public void setTotal(double total) {
+      this.total = total;
+    }
+    public Address getShipTo() {
+      return shipTo;
+    }
+    public void setShipTo(Address shipTo) {
+      this.shipTo = shipTo;
+    }
+  }
+
+  @QueryEntity
+  public static class Invoice {
+    @JsonProperty("Customer")
+    private String company;
+
+    public String getCompany() {
+      return company;
+    }
+    public void setCompany(String company) {
+      this.company = company;
+    }
+  }
+
+  @QueryEntity
+  public static class Address {
+    private String city;
+
+    public String getCity() {
+      return city;
+    }
+    public void setCity(String city) {
+      this.city = city;
+    }
+  }
+
+  @SuppressWarnings("boxing")
+  @Test
+  public void repeatedQueriesBindNewValues() {
+    QQueryMemberCacheTest_Order x = QQueryMemberCacheTest_Order.order;
+    for (int i = 0; i < 3; i++) {
+      String q = session.query(Order.class).where(x.company.eq("companies/" + i).and(x.total.gt(i + 0.5))).toString();
+      assertEquals("Company:companies/" + i + " AND Total_Range:{Dx" + i + ".5 TO NULL}", q);
+    }
+    assertEquals("ShipTo.City:Paris", session.query(Order.class).where(x.shipTo.city.eq("Paris")).toString());
+    assertEquals("ShipTo.City:Berlin", session.query(Order.class).where(x.shipTo.city.eq("Berlin")).toString());
+  }
+
+  @Test
+  public void membersOfDifferentTypesAreNotMixed() {
+    QQueryMemberCacheTest_Order order = new QQueryMemberCacheTest_Order("x");
+    QQueryMemberCacheTest_Invoice invoice = new QQueryMemberCacheTest_Invoice("x");
+    assertEquals("Company:a", session.query(Order.class).where(order.company.eq("a")).toString());
+    assertEquals("Customer:a", session.query(Invoice.class).where(invoice.company.eq("a")).toString());
+    assertEquals("Company:b", session.query(Order.class).where(order.company.eq("b")).toString());
+  }
+
+  @Test
+  public void cacheIsDroppedWhenConventionChanges() {
+    QQueryMemberCacheTest_Order x = QQueryMemberCacheTest_Order.order;
+    assertEquals("Company:a", session.query(Order.class).where(x.company.eq("a")).toString());
+
+    store.getConventions().setFindPropertyNameForDynamicIndex(new PropertyNameFinder() {
+      @Override
+      public String find(Class< ? > indexedType, String indexedName, String path, String prop) {
+        return "Renamed" + prop;
+      }
+    });
+    assertEquals("RenamedCompany:a", session.query(Order.class).where(x.company.eq("a")).toString());
+  }
+
+  @Test
+  public void membersAreTranslatedOnce() {
+    QQueryMemberCacheTest_Order x = QQueryMemberCacheTest_Order.order;
+    final AtomicInteger translations = new AtomicInteger();
+    final PropertyNameFinder defaultFinder = store.getConventions().getFindPropertyNameForDynamicIndex();
+    store.getConventions().setFindPropertyNameForDynamicIndex(new PropertyNameFinder() {
+      @Override
+      public String find(Class< ? > indexedType, String indexedName, String path, String prop) {
+        translations.incrementAndGet();
+        return defaultFinder.find(indexedType, indexedName, path, prop);
+      }
+    });
+    assertEquals("Company:a AND ShipTo.City:Paris",
+      session.query(Order.class).where(x.company.eq("a").and(x.shipTo.city.eq("Paris"))).toString());
+    int translated = translations.get();
+    assertTrue(translated > 0);
+    assertEquals("Company:b AND ShipTo.City:Berlin",
+      session.query(Order.class).where(x.company.eq("b").and(x.shipTo.city.eq("Berlin"))).toString());
+
+    assertEquals(translated, translations.get());
+  }
+
+  @After
+  public void cleanup() {
+    session.close();
+    store.close();
+  }
+
+}